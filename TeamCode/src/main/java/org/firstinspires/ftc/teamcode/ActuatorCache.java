@@ -0,0 +1,90 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.Servo;
+
+/**
+ *    Wraps motors and servos so repeated commands of the same value never reach the bus, and
+ *    keeps count of how many writes and reads that saved.
+ *
+ *    Call startCycle() at the top of each loop; the *ThisCycle() methods then report what the
+ *    cache saved during that loop.
+ */
+public class ActuatorCache {
+
+    // Commands closer than this to the last value sent are skipped
+    static final double POWER_EPSILON = 0.001;
+    static final double POSITION_EPSILON = 0.0005;
+
+    // Running totals since the app started
+    static long writesSent = 0;
+    static long writesSkipped = 0;
+    static long readsServed = 0;
+
+    // Totals at the start of the current cycle
+    static long cycleWritesSent = 0;
+    static long cycleWritesSkipped = 0;
+    static long cycleReadsServed = 0;
+
+    /**
+     * @return  The motor wrapped in a write cache (or the motor itself if it is already cached)
+     */
+    public static DcMotor wrap(DcMotor motor) {
+        if (motor == null || motor instanceof CachedDcMotor) {
+            return motor;
+        }
+        if (motor instanceof DcMotorEx) {
+            // Keep the Ex interface so PID tuning and velocity control still find it
+            return new CachedDcMotorEx((DcMotorEx) motor);
+        }
+        return new CachedDcMotor(motor);
+    }
+
+    /**
+     * @return  The servo wrapped in a write cache (or the servo itself if it is already cached)
+     */
+    public static Servo wrap(Servo servo) {
+        if (servo == null || servo instanceof CachedServo) {
+            return servo;
+        }
+        return new CachedServo(servo);
+    }
+
+    /**
+     * Mark the start of a control cycle for the per cycle counters
+     */
+    public static void startCycle() {
+        cycleWritesSent = writesSent;
+        cycleWritesSkipped = writesSkipped;
+        cycleReadsServed = readsServed;
+    }
+
+    public static long writesSentThisCycle() {
+        return writesSent - cycleWritesSent;
+    }
+
+    public static long writesSkippedThisCycle() {
+        return writesSkipped - cycleWritesSkipped;
+    }
+
+    public static long readsServedThisCycle() {
+        return readsServed - cycleReadsServed;
+    }
+
+    public static long totalWritesSkipped() {
+        return writesSkipped;
+    }
+
+    public static long totalReadsServed() {
+        return readsServed;
+    }
+
+    // Shared compare used by both wrappers. Always send an exact stop
+    static boolean isSame(double last, double value, double epsilon) {
+        if (value == 0.0) {
+            return last == 0.0;
+        }
+        return Math.abs(last - value) < epsilon;
+    }
+}
@@ -5,22 +5,21 @@ import android.graphics.Color;
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 import com.qualcomm.robotcore.hardware.DcMotor;
 import com.qualcomm.robotcore.hardware.HardwareMap;
-import com.qualcomm.robotcore.util.ElapsedTime;
 import com.qualcomm.robotcore.util.Range;
 import com.qualcomm.robotcore.util.RobotLog;
 
 import org.firstinspires.ftc.robotcore.external.ClassFactory;
 import org.firstinspires.ftc.robotcore.external.matrices.OpenGLMatrix;
-import org.firstinspires.ftc.robotcore.external.navigation.AxesOrder;
-import org.firstinspires.ftc.robotcore.external.navigation.AxesReference;
 import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
-import org.firstinspires.ftc.robotcore.external.navigation.Orientation;
 import org.firstinspires.ftc.robotcore.external.navigation.RelicRecoveryVuMark;
 import org.firstinspires.ftc.robotcore.external.navigation.VuMarkInstanceId;
 import org.firstinspires.ftc.robotcore.external.navigation.VuforiaLocalizer;
 import org.firstinspires.ftc.robotcore.external.navigation.VuforiaTrackable;
 import org.firstinspires.ftc.robotcore.external.navigation.VuforiaTrackables;
 
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
 /**
  * Created by jholly on 12/5/2017.
  */
@@ -33,12 +32,42 @@ public class AutoHelper {
     LinearOpMode         opMode;
     boolean              weAreBlue;
 
-    private ElapsedTime     runtime = new ElapsedTime();
+    private ClockTimer      runtime = new ClockTimer();
 
-    public ElapsedTime      autoTime = new ElapsedTime();
+    public ClockTimer       autoTime = new ClockTimer();
 
     public MovingAvg gyroErrorAvg = new MovingAvg(30);
 
+    // Setpoints for the current drive move
+    MotionProfile           driveProfile = new MotionProfile();
+
+    // Heading controllers for turns and for steering while driving
+    PidfController          turnPid = new PidfController(P_TURN_COEFF, 0.0, TURN_KD)
+            .setFeedforward(TURN_KS, 0.0, 0.0)
+            .setContinuous(360.0)
+            .setSettle(HEADING_THRESHOLD, TURN_SETTLE_RATE, TURN_SETTLE_MS);
+    PidfController          headingPid = new PidfController(P_DRIVE_COEFF_1, 0.0, DRIVE_HEADING_KD)
+            .setContinuous(360.0);
+
+    // Condition waits with deadlines, and where auto spent its time waiting
+    public Waiter           waiter = new Waiter();
+
+    // Glyph loads.  Run as a command (glyphLoadCommand()) so a load can run while we drive
+    public GlyphSequencer   glyph;
+    Command                 glyphLoad = null;       // The load started last
+
+    // Commands for the drive, lift, gripper, etc. that can run at the same time.  Run by
+    // runCommand() and, for anything left running, by the drive and turn loops.
+    public CommandScheduler scheduler;
+
+    // Deadlines for the waits below
+    static final long       TARGET_WAIT_MS          = 100;   // Motor controller to take a new target
+    static final long       LIFT_RESET_WAIT_MS      = 2000;  // Lift all the way down to the limit switch
+    static final long       LIFT_MOVE_WAIT_MS       = 1500;  // Lift up to flip height
+    static final long       SERVO_WAIT_MS           = 1000;  // Gripper and intake servos
+    static final long       SWITCH_WAIT_MS          = 30000; // Someone pressing A
+    static final long       GLYPH_LOAD_WAIT_MS      = LIFT_RESET_WAIT_MS + 2 * SERVO_WAIT_MS + 500;
+
     public static final String TAG = "Vuforia VuMark Sample";
 
     OpenGLMatrix lastLocation = null;
@@ -51,6 +80,9 @@ public class AutoHelper {
     VuforiaTrackable relicTemplate;
     VuforiaTrackables relicTrackables;
 
+    // Vuforia loads on its own thread from init.  Its result watches the VuMark, null if it didn't start
+    DeviceGroup<VuMarkVoter> vuforiaGroup = null;     // null if no camera
+
 
 
 
@@ -61,14 +93,35 @@ public class AutoHelper {
     static final double     TURN_SPEED              = 0.8;   // Turn speed
 
     static final double     HEADING_THRESHOLD       = 1.0 ;    // As tight as we can make it with an integer gyro
-    static final double     P_TURN_COEFF            = 0.011; // Larger is more responsive, but also less accurate
-    static final double     P_TURN_COEFF_180        = 0.009; // For turns closer to 180 degrees. Less responsive, but more accurate to account for momentum coming out of long turns.
-    static final double     P_TURN_COEFF_STRONG     = 0.150; // For small 1 degree adjustment turns
-    static final double     P_DRIVE_COEFF_1         = 0.01;  // Larger is more responsive, but also less accurate
-    static final double     P_DRIVE_COEFF_2         = 0.25;  // Intenionally large so robot "wiggles" around the target setpoint while driving
+    @Tunable static double     P_TURN_COEFF            = 0.011; // Larger is more responsive, but also less accurate
+    @Tunable static double     P_TURN_COEFF_180        = 0.009; // For turns closer to 180 degrees. Less responsive, but more accurate to account for momentum coming out of long turns.
+    @Tunable static double     P_TURN_COEFF_STRONG     = 0.150; // For small 1 degree adjustment turns
+    @Tunable static double     P_DRIVE_COEFF_1         = 0.01;  // Larger is more responsive, but also less accurate
+    @Tunable static double     P_DRIVE_COEFF_2         = 0.25;  // Intenionally large so robot "wiggles" around the target setpoint while driving
+
+    // Drive motion profile.  Moves accelerate and slow down along a planned S-curve by time,
+    // rather than ramping a bit each loop, so they take the same time however fast the loop runs
+    static final double     DRIVE_MAX_VEL           = 48.0;  // Inches/sec at full power
+    static final double     DRIVE_MAX_ACCEL         = 80.0;  // Inches/sec^2, about what the old power ramp averaged
+    static final double     DRIVE_MAX_JERK          = 1600.0;// Inches/sec^3, 50 ms to reach full acceleration
+    static final double     PROFILE_P               = 0.05;  // Extra power per inch we are behind the profile
+    static final double     PROFILE_MIN_POWER       = 0.15;  // Keep enough power to break static friction
+
+    // Spline paths.  Each side follows its own planned distance, the gyro trims the heading
+    static final double     TRACK_WIDTH             = 15.25; // Inches between left and right wheels
+    static final double     PATH_TOLERANCE          = 0.5;   // Inches, each side, to call a path done
+    static final double     PATH_SETTLE             = 0.5;   // Seconds past the end to get within tolerance
+
+    // Heading control.  P gains are the coefficients above; D damps on the gyro turn rate
+    static final double     TURN_KD                 = 0.0008; // Power per deg/sec of turn rate, cuts overshoot
+    static final double     TURN_KS                 = 0.05;  // Least power that still turns the robot
+    static final double     TURN_SETTLE_RATE        = 5.0;   // Deg/sec -- on heading AND stopped, not passing through
+    static final long       TURN_SETTLE_MS          = 50;
+    static final double     TURN_TIMEOUT            = 5.0;   // Seconds, give up on a turn that won't settle
+    static final double     DRIVE_HEADING_KD        = 0.0005;
 
     // Variables used for reading Gyro
-    Orientation angles;
+    ImuSampler              imu;                          // Reads the gyro in the background
     double                  headingBias = 0.0;            // Gyro heading adjustment
 
     // Color Sensor Values
@@ -86,7 +139,7 @@ public class AutoHelper {
     int secondGlyphColor = 0; // 0 for gray 1 for brown
 
     // Timer for detecting jewel color
-    ElapsedTime             detectColorTimer        = new ElapsedTime();
+    ClockTimer              detectColorTimer        = new ClockTimer();
 
     // Jewel color detection variable
     boolean                 detectedJewelColor      = false;
@@ -94,6 +147,9 @@ public class AutoHelper {
     // Storage for reading adaFruit color sensor for beacon sensing
     // adaHSV is an array that will hold the hue, saturation, and value information.
     float[] adaHSV = {0F, 0F, 0F};
+
+    // Jewel colors, worked out in the background from init()
+    DeviceGroup<ColorClassifier> jewelTable = null;
     // adaValues is a reference to the adaHSV array.
     final float adaValues[] = adaHSV;
 
@@ -112,15 +168,63 @@ public class AutoHelper {
         opMode = op;
         weAreBlue = blue;
 
+        // Time everything on the robot's clock
+        runtime.setClock(robot.clock);
+        autoTime.setClock(robot.clock);
+        detectColorTimer.setClock(robot.clock);
+        waiter = new Waiter(robot.clock, opMode);
+        glyph = new GlyphSequencer(robot);
+        scheduler = new CommandScheduler(robot.clock);
+
+        // The jewel table takes a while to build, so do it alongside the rest of init
+        jewelTable = new DeviceGroup<>("jewel color table", robot.clock, new Callable<ColorClassifier>() {
+            @Override
+            public ColorClassifier call() {
+                return ColorClassifier.jewel().build();
+            }
+        }).start();
+
         // Force reset the drive train encoders.  Do it twice as sometimes this gets missed due to USB congestion
         robot.setDriveMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
         robot.setDriveMode(DcMotor.RunMode.RUN_USING_ENCODER);
 
         RobotLog.i("DM10337 -- Drive train encoders reset");
 
-        RobotLog.i("DM10337- Finished Init");
+        // Load Vuforia in the background.  The driver sees the init telemetry meanwhile
+        vuforiaGroup = null;
+        if (hardwareMap.appContext == null) {
+            // No phone app (simulator) so no camera either
+            RobotLog.i("DM10337 -- No app context, skipping Vuforia");
+        } else {
+            vuforiaGroup = new DeviceGroup<>("vuforia", robot.clock, new Callable<VuMarkVoter>() {
+                @Override
+                public VuMarkVoter call() {
+                    try {
+                        return initVuforia();
+                    } catch (RuntimeException e) {
+                        // Auto can run without the column, so don't let this stop it
+                        RobotLog.i("DM10337 -- Vuforia failed to start: " + e);
+                        return null;
+                    }
+                }
+            }).start();
+        }
 
+        // Start reading the gyro in the background.  Waits for the IMU if it isn't ready yet
+        imu = new ImuSampler(robot.gyro(), robot.clock, opMode);
+        imu.start();
+        robot.imu = imu;
+        RobotLog.i("DM10337 -- Init " + robot.gyroGroup);
 
+        RobotLog.i("DM10337- Finished Init");
+    }
+
+    /**
+     * Start Vuforia and start watching for the VuMark
+     *
+     * @return  The VuMark voter, null if the OpMode was stopped while Vuforia loaded
+     */
+    private VuMarkVoter initVuforia() {
 
         /*
          * To start up Vuforia, tell it the view that we wish to use for camera monitor (on the RC phone);
@@ -163,10 +267,47 @@ public class AutoHelper {
         relicTrackables = this.vuforia.loadTrackablesFromAsset("RelicVuMark");
         relicTemplate = relicTrackables.get(0);
         relicTemplate.setName("relicVuMarkTemplate"); // can help in debugging; otherwise not necessary
+
+        if (opMode.isStopRequested()) {
+            return null;
+        }
+
+        // Start looking for the VuMark now so we know the column before start
+        relicTrackables.activate();
+        VuMarkVoter voter = new VuMarkVoter(relicTemplate, robot.clock, opMode);
+        voter.start();
+        return voter;
+    }
+
+    /**
+     * @return  The VuMark voter, waiting for Vuforia only if it is still loading; null if there
+     *          is no camera or Vuforia didn't start
+     */
+    public VuMarkVoter vuMarks() {
+        if (vuforiaGroup == null) {
+            return null;
+        }
+        if (!vuforiaGroup.isReady()) {
+            RobotLog.i("DM10337 -- Waiting for Vuforia to finish loading");
+        }
+        return vuforiaGroup.get();
+    }
+
+    /**
+     * @return  Vuforia's progress or the VuMark votes, for the init telemetry.  Never waits
+     */
+    public String vuforiaStatus() {
+        if (vuforiaGroup == null) {
+            return "no camera";
+        }
+        if (!vuforiaGroup.isReady()) {
+            return String.format(Locale.US, "loading Vuforia, %.1f s", vuforiaGroup.initMs() / 1000.0);
+        }
+        VuMarkVoter voter = vuforiaGroup.get();
+        return (voter != null) ? voter.toString() : "Vuforia didn't start";
     }
 
     public void processStartButton() {
-        relicTrackables.activate();
         RobotLog.i("DM10337- Auto Pressed Start");
         // Step through each leg of the path,
 
@@ -175,6 +316,10 @@ public class AutoHelper {
 
         RobotLog.i("DM10337 - Gyro bias set to " + headingBias);
 
+        // Vuforia can keep loading into auto; readVuMark() waits for it if it has to
+        if (vuforiaGroup != null && !vuforiaGroup.isReady()) {
+            RobotLog.i("DM10337 -- Started before Vuforia was ready: " + vuforiaGroup);
+        }
 
         // Start auto timer. Used to determine if there is enough time to place extra glyphs at end of auto sequence
         autoTime.reset();
@@ -185,46 +330,174 @@ public class AutoHelper {
 
 
     public void processJewel() {
-        double armPos = robot.jewelServo.getPosition();
-        double armIncr = (robot.JEWEL_DEPLOY - armPos)/25;
-        while (armPos < robot.JEWEL_DEPLOY) {
-            armPos += armIncr;
-            robot.jewelServo.setPosition(armPos);
-            sleep(20);
-        }
+        runCommand(jewelCommand());
+    }
 
-        robot.jewelCS.enableLed(true);
-        sleep(200);
+    /**
+     * processJewel() as a Command, so the rest of the robot can get ready while the arm moves
+     */
+    public Command jewelCommand() {
+        return new JewelCommand();
+    }
 
-        // Check jewel color
-        int jewelColor = jewelHue();
+    /**
+     *    Knock off the jewel: lower the arm a step at a time, read the color, rotate to knock, then
+     *    raise the arm.  A StateMachine so it doesn't sleep between arm steps.
+     */
+    class JewelCommand extends Command {
+        static final long ARM_STEP_MS = 20;        // Time between arm steps
+        static final long SENSE_MS = 200;          // LED on before reading the color
+        static final long KNOCK_MS = 150;          // Rotating to knock the jewel off
+
+        final StateMachine<JewelStep> machine = new StateMachine<JewelStep>("Jewel", JewelStep.class, robot.clock);
+        double armPos;
+        double armIncr;
+        long lastStep;
+
+        JewelCommand() {
+            super("jewel", Subsystem.JEWEL);
+
+            // Move the arm one step toward target every ARM_STEP_MS
+            final Waiter.Condition stepDue = new Waiter.Condition() {
+                @Override
+                public boolean isMet() {
+                    return robot.clock.nanoTime() - lastStep >= ARM_STEP_MS * 1000000L;
+                }
+            };
+
+            machine.state(JewelStep.DEPLOY)
+                    .onEnter(new StateMachine.Action() {
+                        @Override
+                        public void run() {
+                            armPos = robot.jewelServo.getPosition();
+                            armIncr = (HardwareDM18.JEWEL_DEPLOY - armPos)/25;
+                            lastStep = robot.clock.nanoTime() - ARM_STEP_MS * 1000000L;
+                        }
+                    })
+                    .during(new StateMachine.Action() {
+                        @Override
+                        public void run() {
+                            if (armPos < HardwareDM18.JEWEL_DEPLOY && stepDue.isMet()) {
+                                armPos += armIncr;
+                                robot.jewelServo.setPosition(armPos);
+                                lastStep = robot.clock.nanoTime();
+                            }
+                        }
+                    })
+                    .when(new Waiter.Condition() {
+                        @Override
+                        public boolean isMet() {
+                            return armPos >= HardwareDM18.JEWEL_DEPLOY && stepDue.isMet();
+                        }
+                    }, JewelStep.SENSE);
+
+            machine.state(JewelStep.SENSE)
+                    .onEnter(new StateMachine.Action() {
+                        @Override
+                        public void run() {
+                            robot.jewelCS().enableLed(true);
+                        }
+                    })
+                    .when(after(SENSE_MS), JewelStep.KNOCK);
+
+            machine.state(JewelStep.KNOCK)
+                    .onEnter(new StateMachine.Action() {
+                        @Override
+                        public void run() {
+                            // Check jewel color
+                            int jewelColor = jewelClass();
+
+                            // Check if we see blue or red
+                            if (jewelColor == -1) {
+                                // We see red
+                                robot.jewelRotServo.setPosition(iAmBlue()?HardwareDM18.JEWEL_ROT_REV:HardwareDM18.JEWEL_ROT_FWD);
+                                detectedJewelColor = true;
+                            } else if (jewelColor == 1) {
+                                // We see blue
+                                robot.jewelRotServo.setPosition(iAmBlue()?HardwareDM18.JEWEL_ROT_FWD:HardwareDM18.JEWEL_ROT_REV);
+                                detectedJewelColor = true;
+                            }
+                        }
+                    })
+                    .when(after(KNOCK_MS), JewelStep.RETRACT);
+
+            // Reset jewel arm
+            machine.state(JewelStep.RETRACT)
+                    .onEnter(new StateMachine.Action() {
+                        @Override
+                        public void run() {
+                            armPos = robot.jewelServo.getPosition();
+                            armIncr = (HardwareDM18.JEWEL_HOME - armPos)/10;
+                            lastStep = robot.clock.nanoTime() - ARM_STEP_MS * 1000000L;
+                        }
+                    })
+                    .during(new StateMachine.Action() {
+                        @Override
+                        public void run() {
+                            if (armPos > HardwareDM18.JEWEL_HOME && stepDue.isMet()) {
+                                armPos += armIncr;
+                                robot.jewelServo.setPosition(armPos);
+                                lastStep = robot.clock.nanoTime();
+                            }
+                        }
+                    })
+                    .when(new Waiter.Condition() {
+                        @Override
+                        public boolean isMet() {
+                            return armPos <= HardwareDM18.JEWEL_HOME && stepDue.isMet();
+                        }
+                    }, null)
+                    .onExit(new StateMachine.Action() {
+                        @Override
+                        public void run() {
+                            robot.jewelRotServo.setPosition(HardwareDM18.JEWEL_ROT_HOME);
+                            robot.jewelCS().enableLed(false);
+                        }
+                    });
+        }
 
+        // True once we've been in the current state this long
+        Waiter.Condition after(final long ms) {
+            return new Waiter.Condition() {
+                @Override
+                public boolean isMet() {
+                    return machine.stateMs() >= ms;
+                }
+            };
+        }
 
-        // Check if we see blue or red
-        if (jewelColor == -1) {
-            // We see red
-            robot.jewelRotServo.setPosition(iAmBlue()?robot.JEWEL_ROT_REV:robot.JEWEL_ROT_FWD);
-            detectedJewelColor = true;
-        } else if (jewelColor == 1) {
-            // We see blue
-            robot.jewelRotServo.setPosition(iAmBlue()?robot.JEWEL_ROT_FWD:robot.JEWEL_ROT_REV);
-            detectedJewelColor = true;
+        @Override
+        public void initialize(HardwareSnapshot frame) {
+            machine.start(JewelStep.DEPLOY);
         }
 
-        sleep(150);
+        @Override
+        public void execute(HardwareSnapshot frame) {
+            machine.tick();
+        }
 
-        // Reset jewel arm
-        armPos = robot.jewelServo.getPosition();
-        armIncr = (robot.JEWEL_HOME - armPos)/10;
-        while (armPos > robot.JEWEL_HOME) {
-            armPos += armIncr;
-            robot.jewelServo.setPosition(armPos);
-            sleep(20);
+        @Override
+        public boolean isFinished() {
+            return !machine.isRunning();
         }
-        robot.jewelRotServo.setPosition(robot.JEWEL_ROT_HOME);
 
-        robot.jewelCS.enableLed(false);
+        @Override
+        public void end(boolean interrupted) {
+            if (interrupted) {
+                // Don't leave the arm down to be driven into
+                machine.stop();
+                robot.jewelServo.setPosition(HardwareDM18.JEWEL_HOME);
+                robot.jewelRotServo.setPosition(HardwareDM18.JEWEL_ROT_HOME);
+                robot.jewelCS().enableLed(false);
+            }
+        }
+    }
 
+    enum JewelStep {
+        DEPLOY,         // Lower the arm between the jewels
+        SENSE,          // LED on, let the color sensor settle
+        KNOCK,          // Rotate away from the jewel we keep
+        RETRACT         // Raise the arm, center it, LED off
     }
 
     /**
@@ -291,22 +564,57 @@ public class AutoHelper {
                              boolean userange,
                              double maintainRange) throws InterruptedException {
 
+        // Ensure that the opmode is still active
+        if (opMode.opModeIsActive()) {
+            runCommand(new DriveCommand(speed, distance, timeout, useGyro, heading, aggressive, maintainRange));
+        }
+    }
+
+    /**
+     * encoderDrive() as a Command, to run alongside lift and gripper commands
+     */
+    public Command driveCommand(double speed, double distance, double timeout, boolean useGyro, double heading) {
+        return new DriveCommand(speed, distance, timeout, useGyro, heading, false, 0.0);
+    }
+
+    /**
+     *    The encoderDrive() move, a cycle at a time
+     */
+    class DriveCommand extends Command {
+        final double speed;
+        final double distance;
+        final double timeout;
+        final boolean useGyro;
+        final double heading;
+        final boolean aggressive;
+        final double maintainRange;
+
         // Calculated encoder targets
         int newLFTarget;
         int newRFTarget;
         int newLRTarget;
         int newRRTarget;
 
-        // The potentially adjusted current target heading
-        double curHeading = heading;
+        final ClockTimer timer = new ClockTimer(robot.clock);
+        int startPos;
+        long targetCycle;                       // Cycle the controllers had the targets by
+        HardwareSnapshot frame;
+        boolean done = false;
+
+        DriveCommand(double speed, double distance, double timeout, boolean useGyro, double heading,
+                     boolean aggressive, double maintainRange) {
+            super("drive " + distance, Subsystem.DRIVE);
+            this.speed = Math.abs(speed);    // Make sure its positive
+            this.distance = distance;
+            this.timeout = timeout;
+            this.useGyro = useGyro;
+            this.heading = heading;
+            this.aggressive = aggressive;
+            this.maintainRange = maintainRange;
+        }
 
-        // Speed ramp on start of move to avoid wheel slip
-        final double MINSPEED = 0.30;           // Start at this power
-        final double SPEEDINCR = 0.015;         // And increment by this much each cycle
-        double curSpeed;                        // Keep track of speed as we ramp
-
-        // Ensure that the opmode is still active
-        if (opMode.opModeIsActive()) {
+        @Override
+        public void initialize(HardwareSnapshot frame) {
 
             RobotLog.i("DM10337- Starting encoderDrive speed:" + speed +
                     "  distance:" + distance + "  timeout:" + timeout +
@@ -319,7 +627,7 @@ public class AutoHelper {
             double rightDistance = distance;
             if (useGyro) {
                 // We are gyro steering -- are we requesting a turn while driving?
-                double headingChange = getError(curHeading) * Math.signum(distance);
+                double headingChange = getError(heading) * Math.signum(distance);
                 if (Math.abs(headingChange) > 5.0) {
                     //Heading change is significant enough to account for
                     if (headingChange > 0.0) {
@@ -338,104 +646,102 @@ public class AutoHelper {
             }
 
             // Determine new target encoder positions, and pass to motor controller
-            newLFTarget = robot.leftDrive1.getCurrentPosition() + (int)(leftDistance * robot.COUNTS_PER_INCH);
-            newLRTarget = robot.leftDrive2.getCurrentPosition() + (int)(leftDistance * robot.COUNTS_PER_INCH);
-            newRFTarget = robot.rightDrive1.getCurrentPosition() + (int)(rightDistance * robot.COUNTS_PER_INCH);
-            newRRTarget = robot.rightDrive2.getCurrentPosition() + (int)(rightDistance * robot.COUNTS_PER_INCH);
-
-            while(robot.leftDrive1.getTargetPosition() != newLFTarget){
-                robot.leftDrive1.setTargetPosition(newLFTarget);
-                sleep(1);
-            }
-            while(robot.rightDrive1.getTargetPosition() != newRFTarget){
-                robot.rightDrive1.setTargetPosition(newRFTarget);
-                sleep(1);
-            }
-            while(robot.leftDrive2.getTargetPosition() != newLRTarget){
-                robot.leftDrive2.setTargetPosition(newLRTarget);
-                sleep(1);
-            }
-            while(robot.rightDrive2.getTargetPosition() != newRRTarget){
-                robot.rightDrive2.setTargetPosition(newRRTarget);
-                sleep(1);
-            }
+            this.frame = frame;
+            done = false;
+            newLFTarget = frame.leftDrive1Pos + (int)(leftDistance * HardwareDM18.COUNTS_PER_INCH);
+            newLRTarget = frame.leftDrive2Pos + (int)(leftDistance * HardwareDM18.COUNTS_PER_INCH);
+            newRFTarget = frame.rightDrive1Pos + (int)(rightDistance * HardwareDM18.COUNTS_PER_INCH);
+            newRRTarget = frame.rightDrive2Pos + (int)(rightDistance * HardwareDM18.COUNTS_PER_INCH);
+
+            // Checked again each cycle until the controllers have them
+            targetCycle = driveTargetsTaken(newLFTarget, newRFTarget, newLRTarget, newRRTarget) ? frame.cycle : -1;
 
             // Turn On motors to RUN_TO_POSITION
             robot.setDriveMode(DcMotor.RunMode.RUN_TO_POSITION);
 
-            // reset the timeout time and start motion.
-            runtime.reset();
+            // Plan the move on the average of the two sides
+            startPos = frame.avgDrivePos();
+            driveProfile.plan((Math.abs(leftDistance) + Math.abs(rightDistance)) / 2.0,
+                    speed * DRIVE_MAX_VEL, DRIVE_MAX_ACCEL, DRIVE_MAX_JERK);
 
-            speed = Math.abs(speed);    // Make sure its positive
-            curSpeed = Math.min(MINSPEED,speed);
+            // reset the timeout time and start motion.
+            timer.reset();
+            headingPid.reset();
+            double curSpeed = profilePower(0.0, 0.0, speed);
 
             // Set the motors to the starting power
             robot.leftDrive1.setPower(Math.abs(curSpeed));
             robot.rightDrive1.setPower(Math.abs(curSpeed));
             robot.leftDrive2.setPower(Math.abs(curSpeed));
             robot.rightDrive2.setPower(Math.abs(curSpeed));
+        }
 
-            // keep looping while we are still active, and there is time left, until at least 1 motor reaches target
-            while (opMode.opModeIsActive() &&
-                    (runtime.seconds() < timeout) &&
-                    robot.leftDrive1.isBusy() &&
-                    robot.leftDrive2.isBusy() &&
-                    robot.rightDrive1.isBusy() &&
-                    robot.rightDrive2.isBusy()) {
-
-                // Ramp up motor powers as needed
-                if (curSpeed < speed) {
-                    curSpeed += SPEEDINCR;
-                }
-                double leftSpeed = curSpeed;
-                double rightSpeed = curSpeed;
+        @Override
+        public void execute(HardwareSnapshot frame) {
+            this.frame = frame;
+            if (targetCycle < 0) {
+                targetCycle = driveTargetsTaken(newLFTarget, newRFTarget, newLRTarget, newRRTarget, timer) ? frame.cycle : -1;
+            }
 
-                // Doing gyro heading correction?
-                if (useGyro){
+            // keep going while there is time left, until at least 1 motor reaches target.  Frames
+            // read before the controllers had the targets and RUN_TO_POSITION don't count.
+            if (timer.seconds() >= timeout || (targetCycle >= 0 && frame.cycle != targetCycle && !frame.allDriveBusy())) {
+                done = true;
+                return;
+            }
 
-                    // adjust relative speed based on heading
-                    double error = getError(curHeading);
+            // Follow the profile
+            double curSpeed = profilePower(timer.seconds(),
+                    Math.abs(frame.avgDrivePos() - startPos) / HardwareDM18.COUNTS_PER_INCH, speed);
+            double leftSpeed = curSpeed;
+            double rightSpeed = curSpeed;
 
-                    updateGyroErrorAvg(error);
+            // Doing gyro heading correction?
+            if (useGyro){
 
-                    double steer = getSteer(error,
-                            (aggressive?P_DRIVE_COEFF_2:P_DRIVE_COEFF_1));
+                // adjust relative speed based on heading
+                double steer = headingSteer(heading,
+                        (aggressive?P_DRIVE_COEFF_2:P_DRIVE_COEFF_1));
 
-                    // if driving in reverse, the motor correction also needs to be reversed
-                    if (distance < 0)
-                        steer *= -1.0;
+                updateGyroErrorAvg(headingPid.getError());
 
-                    // Adjust motor powers for heading correction
-                    leftSpeed -= steer;
-                    rightSpeed += steer;
+                // if driving in reverse, the motor correction also needs to be reversed
+                if (distance < 0)
+                    steer *= -1.0;
 
-                    // Normalize speeds if any one exceeds +/- 1.0;
-                    double max = Math.max(Math.abs(leftSpeed), Math.abs(rightSpeed));
-                    if (max > 1.0)
-                    {
-                        leftSpeed /= max;
-                        rightSpeed /= max;
-                    }
+                // Adjust motor powers for heading correction
+                leftSpeed -= steer;
+                rightSpeed += steer;
 
+                // Normalize speeds if any one exceeds +/- 1.0;
+                double max = Math.max(Math.abs(leftSpeed), Math.abs(rightSpeed));
+                if (max > 1.0)
+                {
+                    leftSpeed /= max;
+                    rightSpeed /= max;
                 }
 
-                // And rewrite the motor speeds
-                robot.leftDrive1.setPower(Math.abs(leftSpeed));
-                robot.rightDrive1.setPower(Math.abs(rightSpeed));
-                robot.leftDrive2.setPower(Math.abs(leftSpeed));
-                robot.rightDrive2.setPower(Math.abs(rightSpeed));
-
-                // Allow time for other processes to run.
-                sleep(1);;
             }
 
+            // And rewrite the motor speeds
+            robot.leftDrive1.setPower(Math.abs(leftSpeed));
+            robot.rightDrive1.setPower(Math.abs(rightSpeed));
+            robot.leftDrive2.setPower(Math.abs(leftSpeed));
+            robot.rightDrive2.setPower(Math.abs(rightSpeed));
+        }
+
+        @Override
+        public boolean isFinished() {
+            return done;
+        }
 
-            RobotLog.i("DM10337- encoderDrive done" +
-                    "  lftarget: " +newLFTarget + "  lfactual:" + robot.leftDrive1.getCurrentPosition() +
-                    "  lrtarget: " +newLRTarget + "  lractual:" + robot.leftDrive2.getCurrentPosition() +
-                    "  rftarget: " +newRFTarget + "  rfactual:" + robot.rightDrive1.getCurrentPosition() +
-                    "  rrtarget: " +newRRTarget + "  rractual:" + robot.rightDrive2.getCurrentPosition() +
-                    "  heading:" + readGyro());
+        @Override
+        public void end(boolean interrupted) {
+
+            EventLog.log(EventLog.Event.DRIVE_DONE,
+                    newLFTarget, frame.leftDrive1Pos, newLRTarget, frame.leftDrive2Pos,
+                    newRFTarget, frame.rightDrive1Pos, newRRTarget, frame.rightDrive2Pos,
+                    readGyro());
 
             RobotLog.i ("DM10337 - Gyro error average: " + gyroErrorAvg.average());
 
@@ -447,16 +753,130 @@ public class AutoHelper {
 
             // Turn off RUN_TO_POSITION
             robot.setDriveMode(DcMotor.RunMode.RUN_USING_ENCODER);
+        }
+    }
+
+
+    /**
+     * Plan a spline path for our drive train
+     *
+     * @param path      Where to go
+     * @param speed     Fraction of full speed to use (0 to 1.0)
+     */
+    static Trajectory planPath(SplinePath path, double speed) {
+        return new Trajectory(path, Math.abs(speed) * DRIVE_MAX_VEL, DRIVE_MAX_ACCEL, TRACK_WIDTH);
+    }
 
+    /**
+     * Drive a planned path without stopping at its corners.  Plan it ahead of time (in init);
+     * planning a long path takes a while.
+     */
+    public void followPath(Trajectory trajectory) {
+        if (opMode.opModeIsActive()) {
+            runCommand(pathCommand(trajectory));
         }
     }
 
+    public Command pathCommand(Trajectory trajectory) {
+        return new PathCommand(trajectory);
+    }
+
+    /**
+     *    Follows a Trajectory a cycle at a time.  Each side's power is its planned wheel speed
+     *    as a fraction of full speed, plus PROFILE_P for each inch that side is behind its planned
+     *    distance; the gyro steers out any heading error left over (wheel slip).
+     */
+    class PathCommand extends Command {
+        final Trajectory trajectory;
+        final ClockTimer timer = new ClockTimer(robot.clock);
+        double startLeft;
+        double startRight;
+        HardwareSnapshot frame;
+        boolean done = false;
+
+        PathCommand(Trajectory trajectory) {
+            super("path " + Math.round(trajectory.getPath().length()) + " in", Subsystem.DRIVE);
+            this.trajectory = trajectory;
+        }
+
+        @Override
+        public void initialize(HardwareSnapshot frame) {
+            RobotLog.i("DM10337- Starting path  length:" + trajectory.getPath().length() +
+                    "  time:" + trajectory.duration() + "  reversed:" + trajectory.getPath().isReversed());
+            this.frame = frame;
+            done = false;
+            startLeft = leftInches(frame);
+            startRight = rightInches(frame);
+            robot.setDriveMode(DcMotor.RunMode.RUN_USING_ENCODER);
+            timer.reset();
+            headingPid.reset();
+        }
+
+        @Override
+        public void execute(HardwareSnapshot frame) {
+            this.frame = frame;
+            double t = timer.seconds();
+            double leftError = trajectory.leftPosition(t) - (leftInches(frame) - startLeft);
+            double rightError = trajectory.rightPosition(t) - (rightInches(frame) - startRight);
+
+            if (trajectory.isDone(t) && ((Math.abs(leftError) < PATH_TOLERANCE && Math.abs(rightError) < PATH_TOLERANCE)
+                    || t >= trajectory.duration() + PATH_SETTLE)) {
+                done = true;
+                return;
+            }
+
+            double steer = headingSteer(trajectory.heading(t), P_DRIVE_COEFF_1);
+            updateGyroErrorAvg(headingPid.getError());
+
+            double leftSpeed = trajectory.leftVelocity(t) / DRIVE_MAX_VEL + PROFILE_P * leftError - steer;
+            double rightSpeed = trajectory.rightVelocity(t) / DRIVE_MAX_VEL + PROFILE_P * rightError + steer;
+
+            // Normalize speeds if any one exceeds +/- 1.0;
+            double max = Math.max(Math.abs(leftSpeed), Math.abs(rightSpeed));
+            if (max > 1.0) {
+                leftSpeed /= max;
+                rightSpeed /= max;
+            }
+
+            robot.leftDrive1.setPower(leftSpeed);
+            robot.rightDrive1.setPower(rightSpeed);
+            robot.leftDrive2.setPower(leftSpeed);
+            robot.rightDrive2.setPower(rightSpeed);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return done;
+        }
+
+        @Override
+        public void end(boolean interrupted) {
+            RobotLog.i("DM10337- Path done  left:" + (leftInches(frame) - startLeft) + " of " + trajectory.leftDistance() +
+                    "  right:" + (rightInches(frame) - startRight) + " of " + trajectory.rightDistance() +
+                    "  heading:" + readGyro());
+
+            // Stop all motion;
+            robot.leftDrive1.setPower(0);
+            robot.rightDrive1.setPower(0);
+            robot.leftDrive2.setPower(0);
+            robot.rightDrive2.setPower(0);
+        }
+
+        private double leftInches(HardwareSnapshot frame) {
+            return (frame.leftDrive1Pos + frame.leftDrive2Pos) / 2.0 / HardwareDM18.COUNTS_PER_INCH;
+        }
+
+        private double rightInches(HardwareSnapshot frame) {
+            return (frame.rightDrive1Pos + frame.rightDrive2Pos) / 2.0 / HardwareDM18.COUNTS_PER_INCH;
+        }
+    }
 
     /**
      *  Method to spin on central axis to point in a new direction.
-     *  Move will stop if either of these conditions occur:
-     *  1) Move gets to the heading (angle)
-     *  2) Driver stops the opmode running.
+     *  Move will stop if any of these conditions occur:
+     *  1) Move gets to the heading (angle) and stops turning
+     *  2) Move runs out of time (TURN_TIMEOUT)
+     *  3) Driver stops the opmode running.
      *
      * @param speed Desired speed of turn.
      * @param angle      Absolute Angle (in Degrees) relative to last gyro reset.
@@ -468,8 +888,12 @@ public class AutoHelper {
         RobotLog.i("DM10337- gyroTurn start  speed:" + speed +
                 "  heading:" + angle);
 
-        // keep looping while we are still active, and not on heading.
-        while (opMode.opModeIsActive() && !onHeading(speed, angle, coefficient)) {
+        turnPid.reset();
+        runtime.reset();
+
+        // keep looping while we are still active, and not settled on heading.
+        while (opMode.opModeIsActive() && runtime.seconds() < TURN_TIMEOUT &&
+                !onHeading(speed, angle, coefficient)) {
             // Allow time for other processes to run.
             // onHeading() does the work of turning us
             sleep(1);;
@@ -487,39 +911,40 @@ public class AutoHelper {
      *                  0 = fwd. +ve is CCW from fwd. -ve is CW from forward.
      *                  If a relative angle is required, add/subtract from current heading.
      * @param PCoeff    Proportional Gain coefficient
-     * @return
+     * @return          True once we are on heading and have stopped turning
      */
     boolean onHeading(double speed, double angle, double PCoeff) {
-        double   error ;
         double   steer ;
-        boolean  onTarget = false ;
         double leftSpeed;
         double rightSpeed;
 
-        // determine turn power based on +/- error
-        error = getError(angle);
+        // A command running alongside the turn (a glyph load) needs fresh encoders and switches
+        if (!scheduler.isIdle()) {
+            scheduler.run(robot.snapshot());
+        } else {
+            robot.recordCycle();
+        }
+
+        // determine turn power based on +/- error, damped by the turn rate
+        turnPid.setGains(PCoeff, 0.0, TURN_KD);
+        steer = turnPid.update(angle, readGyro(), readTurnRate(), robot.clock.nanoTime());
 
-        if (Math.abs(error) <= HEADING_THRESHOLD) {
-            // Close enough so no need to move
+        if (Math.abs(turnPid.getError()) <= HEADING_THRESHOLD) {
+            // Close enough so no need to move, wait for it to settle
             steer = 0.0;
-            leftSpeed  = 0.0;
-            rightSpeed = 0.0;
-            onTarget = true;
-        }
-        else {
-            // Calculate motor powers
-            steer = getSteer(error, PCoeff);
-            rightSpeed  = speed * steer;
-            leftSpeed   = -rightSpeed;
         }
 
+        // Calculate motor powers
+        rightSpeed  = speed * steer;
+        leftSpeed   = -rightSpeed;
+
         // Send desired speeds to motors.
         robot.leftDrive1.setPower(leftSpeed);
         robot.rightDrive1.setPower(rightSpeed);
         robot.leftDrive2.setPower(leftSpeed);
         robot.rightDrive2.setPower(rightSpeed);
 
-        return onTarget;
+        return turnPid.isSettled();
     }
 
     /**
@@ -550,14 +975,46 @@ public class AutoHelper {
         return Range.clip(error * PCoeff, -1, 1);
     }
 
+    /**
+     * Steering correction while driving, from headingPid.  Same sign as getSteer() but damped by
+     * the gyro turn rate.
+     *
+     * @param heading   Heading to hold
+     * @param PCoeff    Proportional Gain coefficient
+     * @return  Steering, +/- 1.  +ve = steer left
+     */
+    double headingSteer(double heading, double PCoeff) {
+        headingPid.setGains(PCoeff, 0.0, DRIVE_HEADING_KD);
+        return headingPid.update(heading, readGyro(), readTurnRate(), robot.clock.nanoTime());
+    }
+
+    /**
+     * Motor power to follow driveProfile: the profile's velocity as a fraction of full speed,
+     * plus a correction if we have fallen behind or gotten ahead of it.  RUN_TO_POSITION does the
+     * final stop on the target.
+     *
+     * @param t         Seconds since the move started
+     * @param traveled  Inches we have gone so far
+     * @param maxPower  Most power to use
+     * @return  Power, 0 to maxPower
+     */
+    double profilePower(double t, double traveled, double maxPower) {
+        double power = driveProfile.velocity(t) / DRIVE_MAX_VEL +
+                PROFILE_P * (driveProfile.position(t) - traveled);
+        return Range.clip(power, Math.min(PROFILE_MIN_POWER, maxPower), maxPower);
+    }
+
 
     /**
      * Record the current heading and use that as the 0 heading point for gyro reads
      * @return
      */
     void zeroGyro() {
-        angles = robot.adaGyro.getAngularOrientation().toAxesReference(AxesReference.INTRINSIC).toAxesOrder(AxesOrder.ZYX);
-        headingBias = angles.firstAngle;
+        // Take a fresh sample rather than extrapolating, we are sitting still.  This is where the
+        // field starts.
+        imu.sample();
+        headingBias = robot.snapshot().heading;
+        robot.pose.setPose(0.0, 0.0, 0.0);
     }
 
 
@@ -565,11 +1022,27 @@ public class AutoHelper {
      * Read the current heading direction.  Use a heading bias if we recorded one at start to account for drift during
      * the init phase of match
      *
+     * Doesn't wait on the gyro: uses the heading the last cycle's frame took from the sampler, so
+     * everything in a cycle steers from the same reading and a flight recording has it.
+     *
      * @return      Current heading (Z axis)
      */
     double readGyro() {
-        angles = robot.adaGyro.getAngularOrientation().toAxesReference(AxesReference.INTRINSIC).toAxesOrder(AxesOrder.ZYX);
-        return angles.firstAngle - headingBias;
+        return robot.lastSnapshot().heading - headingBias;
+    }
+
+    /**
+     * @return      Turn rate from the last cycle's frame, degrees per second, CCW +ve
+     */
+    double readTurnRate() {
+        return robot.lastSnapshot().turnRate;
+    }
+
+    /**
+     * @return      Heading from the sampler right now, for telemetry outside the control loops
+     */
+    double liveGyro() {
+        return imu.heading() - headingBias;
     }
 
     /**
@@ -581,18 +1054,32 @@ public class AutoHelper {
      */
 
     public int jewelColor() {
-        if (robot.jewelCS.red() > robot.jewelCS.blue()) {
+        if (robot.jewelCS().red() > robot.jewelCS().blue()) {
             return -1;
         } else {
             return 1;
         }
     }
+    /**
+     * Jewel color from the color table: 1 for blue, -1 for red, 0 if we don't know.  Same
+     * answers as jewelHue() without the HSV conversion.
+     */
+    public int jewelClass() {
+        int r = robot.jewelCS().red();
+        int g = robot.jewelCS().green();
+        int b = robot.jewelCS().blue();
+        ColorClassifier table = jewelTable.get();
+        int color = table.classify(r, g, b, 0);
+        EventLog.log(EventLog.Event.JEWEL_CLASS, color, table.lastConfidence(), r, b);
+        return color;
+    }
+
     public int jewelHue() {
 
         // Return 1 for Blue and -1 for Red
         // convert the RGB adaValues to HSV adaValues.
-        Color.RGBToHSV(robot.jewelCS.red() * 255, robot.jewelCS.green() * 255,
-                robot.jewelCS.blue() * 255, adaHSV);
+        Color.RGBToHSV(robot.jewelCS().red() * 255, robot.jewelCS().green() * 255,
+                robot.jewelCS().blue() * 255, adaHSV);
 
         // Normalize hue to -270 to 90 degrees
         while (adaHSV[0] >= 90.0) {
@@ -608,7 +1095,7 @@ public class AutoHelper {
         // Check for blue
         if ((adaHSV[0] > BLUE_MIN) && (adaHSV[0] < BLUE_MAX)) {
             // we see blue so return 1.0
-            RobotLog.i("DM10337- Jewel color found blue alpha. Hue:" + adaHSV[0] );
+            EventLog.log(EventLog.Event.JEWEL_BLUE, adaHSV[0]);
             return 1;
         }
 
@@ -616,11 +1103,11 @@ public class AutoHelper {
         if (adaHSV[0] > RED_MIN && adaHSV[0] < RED_MAX) {
             //telemetry.addData("beacon", -1);
             //telemetry.update();
-            RobotLog.i("DM10337- Jewel color found red. Hue:" + adaHSV[0] );
+            EventLog.log(EventLog.Event.JEWEL_RED, adaHSV[0]);
             return -1;
         }
 
-        RobotLog.i("DM10337- Jewel color found neither. Hue:" + adaHSV[0] );
+        EventLog.log(EventLog.Event.JEWEL_NEITHER, adaHSV[0]);
         return 0;         // We didn't see either color so don't know
     }
 
@@ -630,80 +1117,117 @@ public class AutoHelper {
      * Robot stops once glyph is retrieved
      **/
     public void collectGlyph (double speed, int distance, int timeout, boolean useGyro, double heading) {
+        runCommand(new CollectCommand(speed, distance, timeout, useGyro, heading, true));
+    }
 
-        robot.lift.setLiftTop();
-        robot.intake.setClosed();
-        robot.intake.setIn();
-
-        ElapsedTime cycleTime = new ElapsedTime();
-        cycleTime.reset();
-
-
-        // The potentially adjusted current target heading
-        double curHeading = heading;
+    /**
+     * collectGlyph() as a Command.  Leaves the lift alone, so it can run while the lift is busy.
+     */
+    public Command collectCommand(double speed, int distance, int timeout, boolean useGyro, double heading) {
+        return new CollectCommand(speed, distance, timeout, useGyro, heading, false);
+    }
 
+    /**
+     *    The collectGlyph() move, a cycle at a time
+     */
+    class CollectCommand extends Command {
         // Speed ramp on start of move to avoid wheel slip
-        final double MINSPEED = 0.30;           // Start at this power
-        final double SPEEDINCR = 0.015;         // And increment by this much each cycle
+        static final double MINSPEED = 0.30;           // Start at this power
+        static final double SPEEDINCR = 0.015;         // And increment by this much each cycle
+
+        final double speed;
+        final int distance;
+        final int timeout;
+        final boolean useGyro;
+        final double heading;
+        final boolean liftToTop;
+
+        final ClockTimer cycleTime = new ClockTimer(robot.clock);
+        final ClockTimer timer = new ClockTimer(robot.clock);
         double curSpeed;                        // Keep track of speed as we ramp
 
-        int newLFTarget = robot.leftDrive1.getCurrentPosition() + (int)(distance * robot.COUNTS_PER_INCH);
-        int newLRTarget = robot.leftDrive2.getCurrentPosition() + (int)(distance * robot.COUNTS_PER_INCH);
-        int newRFTarget = robot.rightDrive1.getCurrentPosition() + (int)(distance * robot.COUNTS_PER_INCH);
-        int newRRTarget = robot.rightDrive2.getCurrentPosition() + (int)(distance * robot.COUNTS_PER_INCH);
+        int newLFTarget;
+        int newRFTarget;
+        int newLRTarget;
+        int newRRTarget;
 
-        while(robot.leftDrive1.getTargetPosition() != newLFTarget){
-            robot.leftDrive1.setTargetPosition(newLFTarget);
-            sleep(1);
-        }
-        while(robot.rightDrive1.getTargetPosition() != newRFTarget){
-            robot.rightDrive1.setTargetPosition(newRFTarget);
-            sleep(1);
-        }
-        while(robot.leftDrive2.getTargetPosition() != newLRTarget){
-            robot.leftDrive2.setTargetPosition(newLRTarget);
-            sleep(1);
-        }
-        while(robot.rightDrive2.getTargetPosition() != newRRTarget){
-            robot.rightDrive2.setTargetPosition(newRRTarget);
-            sleep(1);
+        long targetCycle;                       // Cycle the controllers had the targets by
+        HardwareSnapshot frame;
+        boolean stop = false;
+        boolean done = false;
+
+        CollectCommand(double speed, int distance, int timeout, boolean useGyro, double heading, boolean liftToTop) {
+            super("collect " + distance, liftToTop ?
+                    new Subsystem[] {Subsystem.DRIVE, Subsystem.INTAKE, Subsystem.LIFT} :
+                    new Subsystem[] {Subsystem.DRIVE, Subsystem.INTAKE});
+            this.speed = Math.abs(speed);    // Make sure its positive
+            this.distance = distance;
+            this.timeout = timeout;
+            this.useGyro = useGyro;
+            this.heading = heading;
+            this.liftToTop = liftToTop;
         }
 
-        // Turn On motors to RUN_TO_POSITION
-        robot.setDriveMode(DcMotor.RunMode.RUN_TO_POSITION);
+        @Override
+        public void initialize(HardwareSnapshot frame) {
 
-        // reset the timeout time and start motion.
-        runtime.reset();
+            if (liftToTop) robot.lift.setLiftTop();
+            robot.intake.setClosed();
+            robot.intake.setIn();
 
-        speed = Math.abs(speed);    // Make sure its positive
-        curSpeed = Math.min(MINSPEED,speed);
+            cycleTime.reset();
 
-        // Set the motors to the starting power
-        robot.leftDrive1.setPower(Math.abs(curSpeed));
-        robot.rightDrive1.setPower(Math.abs(curSpeed));
-        robot.leftDrive2.setPower(Math.abs(curSpeed));
-        robot.rightDrive2.setPower(Math.abs(curSpeed));
+            this.frame = frame;
+            stop = false;
+            done = false;
+            newLFTarget = frame.leftDrive1Pos + (int)(distance * HardwareDM18.COUNTS_PER_INCH);
+            newLRTarget = frame.leftDrive2Pos + (int)(distance * HardwareDM18.COUNTS_PER_INCH);
+            newRFTarget = frame.rightDrive1Pos + (int)(distance * HardwareDM18.COUNTS_PER_INCH);
+            newRRTarget = frame.rightDrive2Pos + (int)(distance * HardwareDM18.COUNTS_PER_INCH);
 
+            // Checked again each cycle until the controllers have them
+            targetCycle = driveTargetsTaken(newLFTarget, newRFTarget, newLRTarget, newRRTarget) ? frame.cycle : -1;
 
-        // keep looping while we are still active, and there is time left, until distance sensor detects glyph in intake
-        boolean stop = false;
+            // Turn On motors to RUN_TO_POSITION
+            robot.setDriveMode(DcMotor.RunMode.RUN_TO_POSITION);
+
+            // reset the timeout time and start motion.
+            timer.reset();
 
+            curSpeed = Math.min(MINSPEED,speed);
+
+            // Set the motors to the starting power
+            robot.leftDrive1.setPower(Math.abs(curSpeed));
+            robot.rightDrive1.setPower(Math.abs(curSpeed));
+            robot.leftDrive2.setPower(Math.abs(curSpeed));
+            robot.rightDrive2.setPower(Math.abs(curSpeed));
+        }
 
-        while (opMode.opModeIsActive() &&
-                (runtime.seconds() < timeout) &&
-                robot.leftDrive1.isBusy() &&
-                robot.leftDrive2.isBusy() &&
-                robot.rightDrive1.isBusy() &&
-                robot.rightDrive2.isBusy() &&
-                !stop) {
+        @Override
+        public void execute(HardwareSnapshot frame) {
+            this.frame = frame;
+            if (targetCycle < 0) {
+                targetCycle = driveTargetsTaken(newLFTarget, newRFTarget, newLRTarget, newRRTarget, timer) ? frame.cycle : -1;
+            }
 
-            if ((robot.intake.distRight() < 15.0) || (robot.intake.distLeft() < 15.0)) {
+            // keep going while there is time left, until distance sensor detects glyph in intake.
+            // Frames read before the controllers had the targets and RUN_TO_POSITION don't count.
+            if (timer.seconds() >= timeout || (targetCycle >= 0 && frame.cycle != targetCycle && !frame.allDriveBusy()) || stop) {
+                done = true;
+                return;
+            }
+
+            // Read each distance sensor once per cycle
+            double distRight = robot.intake.distRight();
+            double distLeft = robot.intake.distLeft();
+
+            if ((distRight < 15.0) || (distLeft < 15.0)) {
                 stop = true;
-                RobotLog.i("DM10337 -- Detected Glyph - right dist: " + robot.intake.distRight());
-                RobotLog.i("DM10337 -- Detected Glyph - left dist: " + robot.intake.distLeft());
+                RobotLog.i("DM10337 -- Detected Glyph - right dist: " + distRight);
+                RobotLog.i("DM10337 -- Detected Glyph - left dist: " + distLeft);
             }
 
-            if ((robot.intake.distRight() > 18.0) || (robot.intake.distLeft() > 18.0)) {
+            if ((distRight > 18.0) || (distLeft > 18.0)) {
                 if (cycleTime.milliseconds() > 750 && cycleTime.milliseconds() < 1000){
                     robot.intake.setOpen();
                     RobotLog.i("DM10337 -- No glyphs detected yet. Cycling intake open.");
@@ -727,7 +1251,7 @@ public class AutoHelper {
             if (useGyro){
 
                 // adjust relative speed based on heading
-                double error = getError(curHeading);
+                double error = getError(heading);
                 double steer = getSteer(error, P_DRIVE_COEFF_1);
 
                 // stop trying to collect glyph if degree error is 5 or greater
@@ -758,48 +1282,73 @@ public class AutoHelper {
             robot.rightDrive1.setPower(Math.abs(rightSpeed));
             robot.leftDrive2.setPower(Math.abs(leftSpeed));
             robot.rightDrive2.setPower(Math.abs(rightSpeed));
+        }
 
-            // Allow time for other processes to run.
-            sleep(1);;
+        @Override
+        public boolean isFinished() {
+            return done;
         }
 
-        RobotLog.i("DM10337- Collect Glyph done" +
-                "  lftarget: " +newLFTarget + "  lfactual:" + robot.leftDrive1.getCurrentPosition() +
-                "  lrtarget: " +newLRTarget + "  lractual:" + robot.leftDrive2.getCurrentPosition() +
-                "  rftarget: " +newRFTarget + "  rfactual:" + robot.rightDrive1.getCurrentPosition() +
-                "  rrtarget: " +newRRTarget + "  rractual:" + robot.rightDrive2.getCurrentPosition() +
-                "  heading:" + readGyro());
+        @Override
+        public void end(boolean interrupted) {
 
+            RobotLog.i("DM10337- Collect Glyph done" +
+                    "  lftarget: " +newLFTarget + "  lfactual:" + frame.leftDrive1Pos +
+                    "  lrtarget: " +newLRTarget + "  lractual:" + frame.leftDrive2Pos +
+                    "  rftarget: " +newRFTarget + "  rfactual:" + frame.rightDrive1Pos +
+                    "  rrtarget: " +newRRTarget + "  rractual:" + frame.rightDrive2Pos +
+                    "  heading:" + readGyro());
 
 
-        robot.intake.setClosed();
-        // Stop all motion;
-        robot.intake.intakeRightMotor.setPower(0.0);
-        robot.intake.intakeLeftMotor.setPower(0.0);
-        robot.leftDrive1.setPower(0);
-        robot.rightDrive1.setPower(0);
-        robot.leftDrive2.setPower(0);
-        robot.rightDrive2.setPower(0);
 
-        // Turn off RUN_TO_POSITION
-        robot.setDriveMode(DcMotor.RunMode.RUN_USING_ENCODER);
+            robot.intake.setClosed();
+            // Stop all motion;
+            robot.intake.intakeRightMotor.setPower(0.0);
+            robot.intake.intakeLeftMotor.setPower(0.0);
+            robot.leftDrive1.setPower(0);
+            robot.rightDrive1.setPower(0);
+            robot.leftDrive2.setPower(0);
+            robot.rightDrive2.setPower(0);
 
+            // Turn off RUN_TO_POSITION
+            robot.setDriveMode(DcMotor.RunMode.RUN_USING_ENCODER);
+        }
     }
 
     /**
-     * Robot returns to designated encoder position
-     **/
-
-    public int determineDistance(int left1Pos, int left2Pos, int right1Pos, int right2Pos) {
+     * @return  Straight line inches from where we are to a point on the field
+     */
+    public int determineDistance(double x, double y) {
 
-        int averageNewPos = (robot.leftDrive1.getCurrentPosition() + robot.leftDrive2.getCurrentPosition() + robot.rightDrive1.getCurrentPosition() + robot.rightDrive2.getCurrentPosition()) / 4;
-        int averageOldPos = (left1Pos + left2Pos + right1Pos + right2Pos) / 4;
-        int difference = Math.abs(averageOldPos - averageNewPos);
-        int inches = (int) (difference / robot.COUNTS_PER_INCH);
+        robot.snapshot();
+        int inches = (int) robot.pose.distanceTo(x, y);
         RobotLog.i("DM10337 -- Returning to previous position. Driving back " + inches + " inches");
         return inches;
     }
 
+    /**
+     * Drive straight at a heading until we are level with a point on the field: forward if it is
+     * ahead of us along the heading, backward if it is behind.
+     *
+     * @param speed     Drive speed
+     * @param x         Field position from where the gyro was zeroed, inches
+     * @param y
+     * @param timeout   Seconds
+     * @param heading   Heading to hold while driving
+     */
+    public void driveToPosition(double speed, double x, double y, double timeout, double heading)
+            throws InterruptedException {
+
+        robot.snapshot();
+        double inches = robot.pose.distanceAlong(x, y, heading);
+        RobotLog.i("DM10337 -- Driving to " + x + ", " + y + " from " + robot.pose + ": " + inches + " inches");
+        encoderDrive(speed, inches, timeout, true, heading);
+    }
+
+    /**
+     * Robot returns to designated encoder position
+     **/
+
     public void returnToPosition(double speed,
                                  int left1Pos,
                                  int left2Pos,
@@ -813,12 +1362,9 @@ public class AutoHelper {
         // / The potentially adjusted current target heading
         double curHeading = heading;
 
-        // Speed ramp on start of move to avoid wheel slip
-        final double MINSPEED = 0.30;           // Start at this power
-        final double SPEEDINCR = 0.015;         // And increment by this much each cycle
-        double curSpeed;                        // Keep track of speed as we ramp
+        double curSpeed;                        // Power from the motion profile
 
-        int averageOriginalPos = (robot.leftDrive1.getCurrentPosition() + robot.leftDrive2.getCurrentPosition() + robot.rightDrive1.getCurrentPosition() + robot.rightDrive2.getCurrentPosition())/4;
+        int averageOriginalPos = robot.snapshot().avgDrivePos();
         int averageNewPos = (left1Pos + left2Pos + right1Pos + right2Pos) / 4;
         int difference = averageNewPos - averageOriginalPos;
 
@@ -826,31 +1372,20 @@ public class AutoHelper {
         if (opMode.opModeIsActive()) {
 
 
-            while (robot.leftDrive1.getTargetPosition() != left1Pos) {
-                robot.leftDrive1.setTargetPosition(left1Pos);
-                sleep(1);
-            }
-            while (robot.rightDrive1.getTargetPosition() != right1Pos) {
-                robot.rightDrive1.setTargetPosition(right1Pos);
-                sleep(1);
-            }
-            while (robot.leftDrive2.getTargetPosition() != left2Pos) {
-                robot.leftDrive2.setTargetPosition(left2Pos);
-                sleep(1);
-            }
-            while (robot.rightDrive2.getTargetPosition() != right2Pos) {
-                robot.rightDrive2.setTargetPosition(right2Pos);
-                sleep(1);
-            }
+            // Checked again each cycle until the controllers have them
+            long targetCycle = driveTargetsTaken(left1Pos, right1Pos, left2Pos, right2Pos) ? robot.lastSnapshot().cycle : -1;
 
             // Turn On motors to RUN_TO_POSITION
             robot.setDriveMode(DcMotor.RunMode.RUN_TO_POSITION);
 
+            speed = Math.abs(speed);    // Make sure its positive
+            driveProfile.plan(difference / HardwareDM18.COUNTS_PER_INCH,
+                    speed * DRIVE_MAX_VEL, DRIVE_MAX_ACCEL, DRIVE_MAX_JERK);
+
             // reset the timeout time and start motion.
             runtime.reset();
-
-            speed = Math.abs(speed);    // Make sure its positive
-            curSpeed = Math.min(MINSPEED,speed);
+            headingPid.reset();
+            curSpeed = profilePower(0.0, 0.0, speed);
 
             // Set the motors to the starting power
             robot.leftDrive1.setPower(Math.abs(curSpeed));
@@ -858,18 +1393,20 @@ public class AutoHelper {
             robot.leftDrive2.setPower(Math.abs(curSpeed));
             robot.rightDrive2.setPower(Math.abs(curSpeed));
 
-            // keep looping while we are still active, and there is time left, until at least 1 motor reaches target
+            // keep looping while we are still active, and there is time left, until at least 1 motor reaches target.
+            // Frames read before the controllers had the targets and RUN_TO_POSITION don't count.
+            HardwareSnapshot frame = robot.snapshot();
             while (opMode.opModeIsActive() &&
                     (runtime.seconds() < timeout) &&
-                    robot.leftDrive1.isBusy() &&
-                    robot.leftDrive2.isBusy() &&
-                    robot.rightDrive1.isBusy() &&
-                    robot.rightDrive2.isBusy()) {
-
-                // Ramp up motor powers as needed
-                if (curSpeed < speed) {
-                    curSpeed += SPEEDINCR;
+                    (targetCycle < 0 || frame.cycle == targetCycle || frame.allDriveBusy())) {
+
+                if (targetCycle < 0) {
+                    targetCycle = driveTargetsTaken(left1Pos, right1Pos, left2Pos, right2Pos, runtime) ? frame.cycle : -1;
                 }
+
+                // Follow the profile
+                curSpeed = profilePower(runtime.seconds(),
+                        Math.abs(frame.avgDrivePos() - averageOriginalPos) / HardwareDM18.COUNTS_PER_INCH, speed);
                 double leftSpeed = curSpeed;
                 double rightSpeed = curSpeed;
 
@@ -877,8 +1414,7 @@ public class AutoHelper {
                 if (useGyro){
 
                     // adjust relative speed based on heading
-                    double error = getError(curHeading);
-                    double steer = getSteer(error, P_DRIVE_COEFF_1);
+                    double steer = headingSteer(curHeading, P_DRIVE_COEFF_1);
 
                     // if driving in reverse, the motor correction also needs to be reversed
                     if (difference < 0)
@@ -906,15 +1442,15 @@ public class AutoHelper {
 
                 // Allow time for other processes to run.
                 sleep(1);;
+                frame = robot.snapshot();
+                scheduler.run(frame);
             }
 
 
-            RobotLog.i("DM10337- encoderDrive done" +
-                    "  lftarget: " +left1Pos + "  lfactual:" + robot.leftDrive1.getCurrentPosition() +
-                    "  lrtarget: " +left2Pos+ "  lractual:" + robot.leftDrive2.getCurrentPosition() +
-                    "  rftarget: " +right1Pos+ "  rfactual:" + robot.rightDrive1.getCurrentPosition() +
-                    "  rrtarget: " +right2Pos+ "  rractual:" + robot.rightDrive2.getCurrentPosition() +
-                    "  heading:" + readGyro());
+            EventLog.log(EventLog.Event.DRIVE_DONE,
+                    left1Pos, frame.leftDrive1Pos, left2Pos, frame.leftDrive2Pos,
+                    right1Pos, frame.rightDrive1Pos, right2Pos, frame.rightDrive2Pos,
+                    readGyro());
 
             // Stop all motion;
             robot.leftDrive1.setPower(0);
@@ -928,37 +1464,48 @@ public class AutoHelper {
     }
 
     public void autoLoadFirstGlyph(boolean closeBoth) {
+        startAutoLoadFirstGlyph(closeBoth);
+        waitForGlyphLoad("autoLoadFirst");
+    }
 
+    /**
+     * Start loading the first glyph: lift reset, grab, open the intake, lift to the top.  Returns
+     * right away; the drive and turn loops step the load, and anything that needs the lift or
+     * gripper should waitForGlyphLoad() first.
+     */
+    public void startAutoLoadFirstGlyph(boolean closeBoth) {
         RobotLog.i("DM10337 -- Autoloading FIRST glyph.");
+        glyphLoad = glyphLoadCommand(false, closeBoth);
+        scheduler.schedule(glyphLoad);
+    }
 
-        while (!robot.lift.resetFloorPos()) sleep (1);
-
-        if (closeBoth) {
-            robot.gripper.setBothClosed();
-        } else {
-            robot.gripper.setBtmClosed();
-        }
-
-        while (robot.gripper.btmIsMoving()) sleep(1);;
-
-        robot.intake.setOpen();
+    /**
+     * Flip the first glyph up and collect the second one at the same time.  The drive starts
+     * as the flip does, once the lift is above the intake; the intake closes then, like TeleOp
+     * auto load does.
+     */
+    public void flipAndCollectGlyph(double speed, int distance, int timeout, boolean useGyro, double heading) {
 
-        while (robot.intake.isMoving()) sleep(1);;
+        RobotLog.i("DM10337 -- Flipping to load second glyph while collecting.");
 
-        robot.lift.setLiftTop();
+        waitForGlyphLoad("flipAndCollect load");
+        runCommand(Command.sequence(
+                liftTopCommand(7.75),
+                Command.parallel(flipCommand(), collectCommand(speed, distance, timeout, useGyro, heading))));
     }
 
     public void flipToLoadSecondGlyph() throws InterruptedException {
 
         RobotLog.i("DM10337 -- Flipping to load second glyph.");
 
+        waitForGlyphLoad("flipToLoadSecond load");
         robot.lift.setLiftTop();
 
-        while (robot.lift.distFromBottom() < 7.75) sleep(1);;
+        waitForLiftAbove("flipToLoadSecond lift up", 7.75);
 
         robot.gripper.flip();
 
-        sleep ((long) robot.gripper.FLIP_TIME);
+        sleep ((long) Gripper.FLIP_TIME);
 
     }
 
@@ -968,20 +1515,18 @@ public class AutoHelper {
 
 
     public void autoLoadSecondGlyph(RelicRecoveryVuMark vuMark) {
+        startAutoLoadSecondGlyph();
+        waitForGlyphLoad("autoLoadSecond");
+    }
 
+    /**
+     * Start loading the second glyph: lift reset, grab, open the intake, lift to flip height.
+     * Returns right away, like startAutoLoadFirstGlyph().
+     */
+    public void startAutoLoadSecondGlyph() {
         RobotLog.i("DM10337 -- Autoloading SECOND glyph.");
-
-        while (!robot.lift.resetFloorPos()) sleep(1);;
-
-        robot.gripper.setBtmClosed();
-
-        while (robot.gripper.btmIsMoving()) sleep(1);;
-
-        robot.intake.setOpen();
-
-        while (robot.intake.isMoving()) sleep(1);;
-
-        robot.lift.setLiftHeight(8.25);
+        glyphLoad = glyphLoadCommand(true, false);
+        scheduler.schedule(glyphLoad);
     }
 
     public void squareGlyph(double inSpeed, double outSpeed, double difference, double timeOut) {
@@ -1048,16 +1593,301 @@ public class AutoHelper {
         else if (keyGlyph == 1) RobotLog.i("DM10337 -- Key Glyph is BROWN. Alpha: " + robot.intake.glyphColorSensor.alpha());
     }
 
+    /**
+     * Wait for driver to press A on gamepad 1
+     *
+     * @return  True if pressed, false if we gave up or were stopped
+     */
     public boolean waitForSwitch() {
-        while (!opMode.gamepad1.a) {
-            sleep(1);;
+        return waitUntil("waitForSwitch", new Waiter.Condition() {
+            @Override
+            public boolean isMet() {
+                return opMode.gamepad1.a;
+            }
+        }, SWITCH_WAIT_MS, Waiter.RELAXED);
+    }
+
+    /**
+     * Wait until a condition is met or the deadline passes.  See {@link Waiter}.
+     *
+     * @return  True if the condition was met
+     */
+    public boolean waitUntil(String site, Waiter.Condition condition, long deadlineMs, Waiter.PollPolicy policy) {
+        return waiter.waitUntil(site, condition, deadlineMs, policy);
+    }
+
+    /**
+     * Set a motor's target position and wait until the controller reports it back.  Re-sends
+     * the target each poll since it sometimes gets dropped with a busy USB bus.
+     */
+    public boolean setTarget(final DcMotor motor, final int target) {
+        motor.setTargetPosition(target);
+        return waitUntil("setTarget", new Waiter.Condition() {
+            @Override
+            public boolean isMet() {
+                return targetTaken(motor, target);
+            }
+        }, TARGET_WAIT_MS, Waiter.TIGHT);
+    }
+
+    /**
+     * One poll of setTarget(): check the controller has the target, re-sending it if not
+     *
+     * @return  True if the controller has it
+     */
+    boolean targetTaken(DcMotor motor, int target) {
+        if (motor.getTargetPosition() == target) return true;
+        motor.setTargetPosition(target);
+        return false;
+    }
+
+    /**
+     * setTarget() for all four drive motors without waiting, for commands.  Sends the targets
+     * and checks them once; call the other version each cycle after until it returns true.
+     *
+     * @return  True if the controllers already have them
+     */
+    boolean driveTargetsTaken(int leftFront, int rightFront, int leftRear, int rightRear) {
+        robot.leftDrive1.setTargetPosition(leftFront);
+        robot.rightDrive1.setTargetPosition(rightFront);
+        robot.leftDrive2.setTargetPosition(leftRear);
+        robot.rightDrive2.setTargetPosition(rightRear);
+        return driveTargetsTaken(leftFront, rightFront, leftRear, rightRear, null);
+    }
+
+    /**
+     * Check the drive controllers have their targets, re-sending any that are missing.  Gives
+     * up (and carries on) after TARGET_WAIT_MS, like setTarget().
+     *
+     * @param timer     Started when the targets were sent, or null to just check
+     * @return  True once they all have them, or we've given up
+     */
+    boolean driveTargetsTaken(int leftFront, int rightFront, int leftRear, int rightRear, ClockTimer timer) {
+        // Not short circuit, re-send every missing one
+        boolean taken = targetTaken(robot.leftDrive1, leftFront) & targetTaken(robot.rightDrive1, rightFront) &
+                targetTaken(robot.leftDrive2, leftRear) & targetTaken(robot.rightDrive2, rightRear);
+        if (!taken && timer != null && timer.milliseconds() >= TARGET_WAIT_MS) {
+            RobotLog.i("DM10337 -- Drive targets not taken after " + TARGET_WAIT_MS + " ms, going anyway");
+            return true;
+        }
+        return taken;
+    }
+
+    /**
+     * Finish any glyph load that is still running.  Each step has its own deadline, so this only
+     * gives up if the whole load has gone on too long.
+     */
+    public boolean waitForGlyphLoad(String site) {
+        if (glyphLoad == null || !scheduler.isScheduled(glyphLoad)) return true;
+        boolean done = waitUntil(site, new Waiter.Condition() {
+            @Override
+            public boolean isMet() {
+                scheduler.run(robot.snapshot());
+                return !scheduler.isScheduled(glyphLoad);
+            }
+        }, GLYPH_LOAD_WAIT_MS, Waiter.BACKOFF);
+        if (!done) scheduler.cancel(glyphLoad);
+        return done;
+    }
+
+    /**
+     * Drive the lift down until it resets on the bottom limit switch
+     */
+    public boolean waitForLiftReset(String site) {
+        boolean done = waitUntil(site, new Waiter.Condition() {
+            @Override
+            public boolean isMet() {
+                return robot.lift.resetFloorPos();
+            }
+        }, LIFT_RESET_WAIT_MS, Waiter.BACKOFF);
+        // resetFloorPos() leaves the lift driving down until it finds the switch
+        if (!done) robot.lift.liftMotor.setPower(0.0);
+        return done;
+    }
+
+    /**
+     * Wait for the lift to get at least this high (inches from the bottom)
+     */
+    public boolean waitForLiftAbove(String site, final double inches) {
+        return waitUntil(site, new Waiter.Condition() {
+            @Override
+            public boolean isMet() {
+                return robot.lift.distFromBottom() >= inches;
+            }
+        }, LIFT_MOVE_WAIT_MS, Waiter.BACKOFF);
+    }
+
+    /**
+     * Wait for the bottom gripper to finish moving
+     */
+    public boolean waitForGripper(String site) {
+        return waitUntil(site, new Waiter.Condition() {
+            @Override
+            public boolean isMet() {
+                return !robot.gripper.btmIsMoving();
+            }
+        }, SERVO_WAIT_MS, Waiter.BACKOFF);
+    }
+
+    /**
+     * Wait for the lift to reach the floor and stay there at least minMs, pushing down on the
+     * limit switch so the glyph is released on the ground
+     */
+    public boolean waitForLiftFloor(String site, final long minMs) {
+        final ClockTimer onFloor = new ClockTimer(robot.clock);
+        boolean done = waitUntil(site, new Waiter.Condition() {
+            @Override
+            public boolean isMet() {
+                return robot.lift.resetFloorPos() && onFloor.milliseconds() >= minMs;
+            }
+        }, LIFT_RESET_WAIT_MS, Waiter.BACKOFF);
+        if (!done) robot.lift.liftMotor.setPower(0.0);
+        return done;
+    }
+
+    /**
+     * Wait for all the gripper servos to finish moving, including a flip
+     */
+    public boolean waitForGripperAll(String site) {
+        return waitUntil(site, new Waiter.Condition() {
+            @Override
+            public boolean isMet() {
+                return !robot.gripper.isMoving();
+            }
+        }, SERVO_WAIT_MS, Waiter.BACKOFF);
+    }
+
+    /**
+     * Wait for the gripper to finish flipping
+     */
+    public boolean waitForFlip(String site) {
+        return waitUntil(site, new Waiter.Condition() {
+            @Override
+            public boolean isMet() {
+                return !robot.gripper.isFlipping();
+            }
+        }, SERVO_WAIT_MS, Waiter.BACKOFF);
+    }
+
+    /**
+     * Wait for the intake arms to finish moving
+     */
+    public boolean waitForIntake(String site) {
+        return waitUntil(site, new Waiter.Condition() {
+            @Override
+            public boolean isMet() {
+                return !robot.intake.isMoving();
+            }
+        }, SERVO_WAIT_MS, Waiter.BACKOFF);
+    }
+
+    /**
+     * Run a command to the end, along with anything else already scheduled that it doesn't
+     * conflict with.  Anything still running when it finishes keeps going in later drive and
+     * turn loops.
+     *
+     * @return  False if auto ended first
+     */
+    public boolean runCommand(Command command) {
+        scheduler.schedule(command);
+        boolean finished = false;
+        while (opMode.opModeIsActive()) {
+            scheduler.run(robot.snapshot());
+            if (!scheduler.isScheduled(command)) {
+                finished = true;
+                break;
+            }
+            // Allow time for other processes to run.
+            sleep(1);
         }
-        return true;
+        if (!finished) scheduler.cancelAll();
+        return finished;
+    }
+
+    /**
+     * A glyph load on glyph, a cycle at a time.  Claims everything the load moves, so a command
+     * for the lift, gripper or intake stops it.
+     *
+     * @param second        Load the second glyph (to flip height) instead of the first (to the top)
+     * @param closeBoth     First glyph: close both grippers instead of just the bottom one
+     */
+    public Command glyphLoadCommand(final boolean second, final boolean closeBoth) {
+        return new Command(second ? "load second glyph" : "load first glyph",
+                Subsystem.LIFT, Subsystem.GRIPPER, Subsystem.INTAKE) {
+            boolean running;
+
+            @Override
+            public void initialize(HardwareSnapshot frame) {
+                if (second) {
+                    glyph.startAutoSecondGlyph();
+                } else {
+                    glyph.startAutoFirstGlyph(closeBoth);
+                }
+                running = true;
+            }
+
+            @Override
+            public void execute(HardwareSnapshot frame) {
+                running = glyph.tick(frame);
+            }
+
+            @Override
+            public boolean isFinished() {
+                return !running;
+            }
+
+            @Override
+            public void end(boolean interrupted) {
+                if (interrupted) glyph.stop();
+            }
+        };
+    }
+
+    /**
+     * Lift to the top, done once it is at least minInches up
+     */
+    public Command liftTopCommand(final double minInches) {
+        return new Command("lift top", Subsystem.LIFT) {
+            HardwareSnapshot frame;
+
+            @Override
+            public void initialize(HardwareSnapshot frame) {
+                robot.lift.setLiftTop();
+                this.frame = frame;
+            }
+
+            @Override
+            public void execute(HardwareSnapshot frame) {
+                this.frame = frame;
+            }
+
+            @Override
+            public boolean isFinished() {
+                return robot.lift.distFromBottom(frame) >= minInches;
+            }
+        }.withTimeout(LIFT_MOVE_WAIT_MS);
+    }
+
+    /**
+     * Flip the gripper, done when it has turned over
+     */
+    public Command flipCommand() {
+        return new Command("flip", Subsystem.GRIPPER) {
+            @Override
+            public void initialize(HardwareSnapshot frame) {
+                robot.gripper.flip();
+            }
+
+            @Override
+            public boolean isFinished() {
+                return !robot.gripper.isFlipping();
+            }
+        }.withTimeout(SERVO_WAIT_MS);
     }
 
     public final void sleep(long milliseconds) {
         try {
-            Thread.sleep(milliseconds);
+            robot.clock.sleep(milliseconds);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
@@ -65,7 +65,7 @@ public class Auto_Blue_L_1G extends Auto_Master {
 
         // Outake glyph
         robot.gripper.setBothOpen();
-        sleep(250);
+        auto.sleep(250);
         // Drive closer to cryptoglyph
         if (iAmBlue()) {
             auto.encoderDrive(AutoHelper.DRIVE_SPEED_SLOW, 3.0, 0.5, true, 0);
@@ -74,7 +74,7 @@ public class Auto_Blue_L_1G extends Auto_Master {
         }
 
         robot.intake.setOut();
-        sleep(600);
+        auto.sleep(600);
         robot.intake.setOpen();
         robot.intake.setStop();
 
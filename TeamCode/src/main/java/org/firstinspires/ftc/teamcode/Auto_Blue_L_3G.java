@@ -73,7 +73,7 @@ public class Auto_Blue_L_3G extends Auto_Master {
 
         // Outake glyph
         robot.gripper.setBothOpen();
-        sleep(250);
+        auto.sleep(250);
         // Drive closer to cryptoglyph
         if (iAmBlue()) {
             auto.encoderDrive(AutoHelper.DRIVE_SPEED_SLOW, 3.0, 0.5, true, 0);
@@ -82,7 +82,7 @@ public class Auto_Blue_L_3G extends Auto_Master {
         }
 
         robot.intake.setOut();
-        sleep(600);
+        auto.sleep(600);
         robot.intake.setOpen();
         robot.intake.setStop();
 
@@ -105,11 +105,8 @@ public class Auto_Blue_L_3G extends Auto_Master {
         auto.encoderDrive(AutoHelper.DRIVE_SPEED, 30 + distAdjust, 3.0, true, iAmBlue()? 220 + angleAdjust: 320 + angleAdjust);
 
 
-        // Record drive motor encoder positions. Use these values to return to this position after collecting glyphs
-        left1Pos = robot.leftDrive1.getCurrentPosition();
-        left2Pos = robot.leftDrive2.getCurrentPosition();
-        right1Pos = robot.rightDrive1.getCurrentPosition();
-        right2Pos = robot.rightDrive2.getCurrentPosition();
+        // Remember where we are, to return here after collecting glyphs
+        markPile();
 
         // Drive forward to collect glyph
         auto.collectGlyph(AutoHelper.DRIVE_SPEED, 18,3, true, iAmBlue()? 220 + angleAdjust : 320 + angleAdjust);
@@ -153,11 +150,8 @@ public class Auto_Blue_L_3G extends Auto_Master {
     @Override
     public void collectSecondGlyph() throws InterruptedException {
         if (auto.autoTime.seconds() < 19) {
-            auto.flipToLoadSecondGlyph();
-
-            //robot.lift.setLiftHeight(1.0);
-
-            auto.collectGlyph(AutoHelper.DRIVE_SPEED, 14, 3, true, iAmBlue()? 220 + angleAdjust : 320 + angleAdjust);
+            // Flip the first glyph up while we drive in for the second
+            auto.flipAndCollectGlyph(AutoHelper.DRIVE_SPEED, 14, 3, true, iAmBlue()? 220 + angleAdjust : 320 + angleAdjust);
         }
     }
 
@@ -193,15 +187,15 @@ public class Auto_Blue_L_3G extends Auto_Master {
             robot.intake.setStop();
             robot.intake.setOpen();
             robot.lift.setLiftHeight(8.25);
-            while(robot.lift.distFromBottom() < 7.5) idle();
+            auto.waitForLiftAbove("lift to flip height", 7.5);
             robot.gripper.flip();
-            while(robot.gripper.isMoving()) sleep (1);
+            auto.waitForGripperAll("gripper flip");
             robot.lift.setLiftHeight(1.0);
         }
     }
     @Override
     public void returnToBox() throws InterruptedException {
-        int inches = auto.determineDistance(left1Pos, left2Pos, right1Pos, right2Pos);
+        int inches = auto.determineDistance(pileX, pileY);
 
         if (vuMark == RelicRecoveryVuMark.CENTER || vuMark == RelicRecoveryVuMark.UNKNOWN ) {
             auto.encoderDrive(AutoHelper.DRIVE_SPEED, -inches + -30, 5, true, iAmBlue()? 220 + angleAdjust : 320 + angleAdjust);
@@ -233,17 +227,16 @@ public class Auto_Blue_L_3G extends Auto_Master {
 
                 // Extend gripper out
                 robot.gripper.setExtendOut();
-                sleep(250);
+                auto.sleep(250);
 
-                auto.autoTime.reset();
                 // lift to floor
-                while(!robot.lift.resetFloorPos() || auto.autoTime.milliseconds() < 150) sleep(1);
+                auto.waitForLiftFloor("lift to floor to place", 150);
                 robot.lift.liftMotor.setPower(0.0);
 
                 // Drop glyphs
                 robot.gripper.setBothOpen();
                 robot.intake.setClosed();
-                sleep(350);
+                auto.sleep(350);
             }
             if (vuMark == RelicRecoveryVuMark.RIGHT){
                 // turn to place extra glyphs
@@ -253,17 +246,16 @@ public class Auto_Blue_L_3G extends Auto_Master {
 
                 // Extend gripper out
                 robot.gripper.setExtendOut();
-                sleep(250);
+                auto.sleep(250);
 
-                auto.autoTime.reset();
                 // lift to floor
-                while(!robot.lift.resetFloorPos() || auto.autoTime.milliseconds() < 150) sleep(1);
+                auto.waitForLiftFloor("lift to floor to place", 150);
                 robot.lift.liftMotor.setPower(0.0);
 
                 // Drop glyphs
                 robot.gripper.setBothOpen();
                 robot.intake.setClosed();
-                sleep(350);
+                auto.sleep(350);
             }
             if (vuMark == RelicRecoveryVuMark.LEFT){
                 // turn to place extra glyphs
@@ -273,17 +265,16 @@ public class Auto_Blue_L_3G extends Auto_Master {
 
                 // Extend gripper out
                 robot.gripper.setExtendOut();
-                sleep(250);
+                auto.sleep(250);
 
-                auto.autoTime.reset();
                 // lift to floor
-                while(!robot.lift.resetFloorPos() || auto.autoTime.milliseconds() < 150) sleep(1);
+                auto.waitForLiftFloor("lift to floor to place", 150);
                 robot.lift.liftMotor.setPower(0.0);
 
                 // Drop glyphs
                 robot.gripper.setBothOpen();
                 robot.intake.setClosed();
-                sleep(350);
+                auto.sleep(350);
             }
 
         }
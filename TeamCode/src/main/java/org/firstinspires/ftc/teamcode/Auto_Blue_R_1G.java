@@ -50,12 +50,12 @@ public class Auto_Blue_R_1G extends Auto_Master {
         auto.gyroTurn(AutoHelper.TURN_SPEED, 90, AutoHelper.P_TURN_COEFF);
         // Outake glyph
         robot.gripper.setBothOpen();
-        sleep(250);
+        auto.sleep(250);
         // Drive closer to center cryptoglyph
         auto.encoderDrive(AutoHelper.DRIVE_SPEED_SLOW, 7.0, 3.0, true, 90);
 
         robot.intake.setOut();
-        sleep(500);
+        auto.sleep(500);
         robot.intake.setOpen();
         robot.intake.setStop();
     }
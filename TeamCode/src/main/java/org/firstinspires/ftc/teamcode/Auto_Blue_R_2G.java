@@ -50,12 +50,12 @@ public class Auto_Blue_R_2G extends Auto_Master {
         auto.gyroTurn(AutoHelper.TURN_SPEED, 90, AutoHelper.P_TURN_COEFF);
         // Outake glyph
         robot.gripper.setBothOpen();
-        sleep(250);
+        auto.sleep(250);
         // Drive closer to center cryptoglyph
         auto.encoderDrive(AutoHelper.DRIVE_SPEED_SLOW, 7.0, 3.0, true, 90);
 
         robot.intake.setOut();
-        sleep(500);
+        auto.sleep(500);
         robot.intake.setOpen();
         robot.intake.setStop();
     }
@@ -72,11 +72,8 @@ public class Auto_Blue_R_2G extends Auto_Master {
 
         auto.gyroTurn(AutoHelper.TURN_SPEED,-90, AutoHelper.P_TURN_COEFF);
 
-        // Record drive motor encoder positions. Use these values to return to this position after collecting glyphs
-        left1Pos = robot.leftDrive1.getCurrentPosition();
-        left2Pos = robot.leftDrive2.getCurrentPosition();
-        right1Pos = robot.rightDrive1.getCurrentPosition();
-        right2Pos = robot.rightDrive2.getCurrentPosition();
+        // Remember where we are, to return here after collecting glyphs
+        markPile();
 
         // Drive forward to collect glyph
         auto.collectGlyph(0.3, 10,3, true, -90);
@@ -118,9 +115,7 @@ public class Auto_Blue_R_2G extends Auto_Master {
 
     @Override
     public void returnToBox() throws InterruptedException {
-        int inches = auto.determineDistance(left1Pos, left2Pos, right1Pos, right2Pos);
-
-        auto.encoderDrive(AutoHelper.DRIVE_SPEED, -inches, 5, true, -90);
+        auto.driveToPosition(AutoHelper.DRIVE_SPEED, pileX, pileY, 5, -90);
 
         // Turn toward cryptobox
         auto.gyroTurn(AutoHelper.TURN_SPEED, 90, AutoHelper.P_TURN_COEFF);
@@ -136,16 +131,16 @@ public class Auto_Blue_R_2G extends Auto_Master {
             // Extend gripper out
             robot.gripper.setExtendOut();
 
-            sleep(200);
+            auto.sleep(200);
 
             // Drop glyphs
             robot.gripper.setBothOpen();
 
-            sleep (350);
+            auto.sleep(350);
 
             robot.gripper.setExtendIn();
 
-            sleep (100);
+            auto.sleep(100);
 
             robot.lift.setLiftBtm();
 
@@ -58,12 +58,12 @@ public class Auto_Blue_R_3G_Cipher extends Auto_Master {
 
         // Outake glyph
         robot.gripper.setBothOpen();
-        sleep(250);
+        auto.sleep(250);
         // Drive closer to center cryptoglyph
         auto.encoderDrive(AutoHelper.DRIVE_SPEED, 8.0, 3.0, true, 90);
 
         robot.intake.setOut();
-        sleep(600);
+        auto.sleep(600);
         robot.intake.setOpen();
         robot.intake.setStop();
     }
@@ -82,11 +82,8 @@ public class Auto_Blue_R_3G_Cipher extends Auto_Master {
 
 
 
-        // Record drive motor encoder positions. Use these values to return to this position after collecting glyphs
-        left1Pos = robot.leftDrive1.getCurrentPosition();
-        left2Pos = robot.leftDrive2.getCurrentPosition();
-        right1Pos = robot.rightDrive1.getCurrentPosition();
-        right2Pos = robot.rightDrive2.getCurrentPosition();
+        // Remember where we are, to return here after collecting glyphs
+        markPile();
 
         // Drive forward to collect glyph
         auto.collectGlyph(AutoHelper.DRIVE_SPEED, 18,3, true, -90);
@@ -136,11 +133,8 @@ public class Auto_Blue_R_3G_Cipher extends Auto_Master {
     @Override
     public void collectSecondGlyph() throws InterruptedException {
 
-        auto.flipToLoadSecondGlyph();
-
-        //robot.lift.setLiftHeight(1.0);
-
-        auto.collectGlyph(AutoHelper.DRIVE_SPEED, 12,3, true, -90);
+        // Flip the first glyph up while we drive in for the second
+        auto.flipAndCollectGlyph(AutoHelper.DRIVE_SPEED, 12,3, true, -90);
     }
 
     @Override
@@ -164,8 +158,8 @@ public class Auto_Blue_R_3G_Cipher extends Auto_Master {
             // determine and record glyph color
             auto.secondGlyphColor = robot.intake.setGlyphColor();
 
-            // Auto load glyph
-            auto.autoLoadSecondGlyph(vuMark);
+            // Auto load glyph.  It finishes while we drive back to the box
+            auto.startAutoLoadSecondGlyph();
             auto.glyphsCollected+=1;
 
         } else {
@@ -175,18 +169,16 @@ public class Auto_Blue_R_3G_Cipher extends Auto_Master {
             robot.intake.setStop();
             robot.intake.setOpen();
             robot.lift.setLiftHeight(8.25);
-            while(robot.lift.distFromBottom() < 7.5) idle();
+            auto.waitForLiftAbove("lift to flip height", 7.5);
             robot.gripper.flip();
-            while(robot.gripper.isMoving()) sleep (1);
+            auto.waitForGripperAll("gripper flip");
             robot.lift.setLiftHeight(1.0);
         }
     }
 
     @Override
     public void returnToBox() throws InterruptedException {
-        int inches = auto.determineDistance(left1Pos, left2Pos, right1Pos, right2Pos);
-
-        auto.encoderDrive(AutoHelper.DRIVE_SPEED, -inches, 5, true, -90);
+        auto.driveToPosition(AutoHelper.DRIVE_SPEED, pileX, pileY, 5, -90);
 
         if ((vuMark == RelicRecoveryVuMark.CENTER || vuMark == RelicRecoveryVuMark.UNKNOWN) && auto.glyphsCollected > 0){
             // Turn toward cryptobox
@@ -200,6 +192,9 @@ public class Auto_Blue_R_3G_Cipher extends Auto_Master {
     @Override
     public void placeExtraGlyphs() throws InterruptedException {
 
+        // Make sure the second glyph finished loading on the way back
+        auto.waitForGlyphLoad("placeExtra glyph load");
+
         // CENTER KEY - Drive Forward before turning
         if (vuMark == RelicRecoveryVuMark.CENTER || vuMark == RelicRecoveryVuMark.UNKNOWN) {
             // Drive toward Cryptobox
@@ -222,7 +217,7 @@ public class Auto_Blue_R_3G_Cipher extends Auto_Master {
                         break;
                     case 4: // brown top gray bottom - flip & place right
                         robot.lift.setLiftHeight(8.25);
-                        while (robot.lift.distFromBottom() < 7.75) sleep(1);
+                        auto.waitForLiftAbove("lift to flip height", 7.75);
                         robot.gripper.flip();
                         angleAdjust = -26;
                         break;
@@ -249,7 +244,7 @@ public class Auto_Blue_R_3G_Cipher extends Auto_Master {
                         break;
                     case 5: // gray top brown bottom - place right
                         robot.lift.setLiftHeight(8.25);
-                        while (robot.lift.distFromBottom() < 7.75) sleep(1);
+                        auto.waitForLiftAbove("lift to flip height", 7.75);
                         robot.gripper.flip();
                         angleAdjust = -26;
                         break;
@@ -270,7 +265,7 @@ public class Auto_Blue_R_3G_Cipher extends Auto_Master {
                 // Turn to place glyph
                 auto.gyroTurn(1.0, 90 + angleAdjust, AutoHelper.P_TURN_COEFF);
 
-                while(robot.gripper.isFlipping()) sleep(1);
+                auto.waitForFlip("gripper flip before place");
 
                 // lift to 0"
                 robot.lift.setLiftHeight(0.0);
@@ -280,18 +275,16 @@ public class Auto_Blue_R_3G_Cipher extends Auto_Master {
 
                 // Extend gripper out
                 robot.gripper.setExtendOut();
-                sleep(250);
-
-                auto.autoTime.reset();
+                auto.sleep(250);
 
                 // lift to floor
-                while(!robot.lift.resetFloorPos() || auto.autoTime.milliseconds() < 150) sleep(1);
+                auto.waitForLiftFloor("lift to floor to place", 150);
                 robot.lift.liftMotor.setPower(0.0);
 
                 // Drop glyphs
                 robot.gripper.setBothOpen();
                 robot.intake.setClosed();
-                sleep(100);
+                auto.sleep(100);
                 // Nudge glyphs in
                 auto.encoderDrive(AutoHelper.DRIVE_SPEED, 2.0, 0.5, true, 90 + angleAdjust);
                 // Backoff to park
@@ -323,7 +316,7 @@ public class Auto_Blue_R_3G_Cipher extends Auto_Master {
                         break;
                     case 5: // gray top brown bottom - flip & place right
                         robot.lift.setLiftHeight(8.25);
-                        while (robot.lift.distFromBottom() < 7.75) sleep(1);
+                        auto.waitForLiftAbove("lift to flip height", 7.75);
                         robot.gripper.flip();
                         angleAdjust = -29;
                         break;
@@ -344,7 +337,7 @@ public class Auto_Blue_R_3G_Cipher extends Auto_Master {
                         break;
                     case 4: // brown top gray bottom - flip & place right
                         robot.lift.setLiftHeight(8.25);
-                        while (robot.lift.distFromBottom() < 7.75) sleep(1);
+                        auto.waitForLiftAbove("lift to flip height", 7.75);
                         robot.gripper.flip();
                         angleAdjust = -29;
                         break;
@@ -365,7 +358,7 @@ public class Auto_Blue_R_3G_Cipher extends Auto_Master {
 
             }
 
-            while(robot.gripper.isFlipping()) sleep(1);
+            auto.waitForFlip("gripper flip before place");
 
             // lift to 0"
             robot.lift.setLiftHeight(0.0);
@@ -385,19 +378,17 @@ public class Auto_Blue_R_3G_Cipher extends Auto_Master {
 
                 // Extend gripper out
                 robot.gripper.setExtendOut();
-                sleep(250);
-
-                auto.autoTime.reset();
+                auto.sleep(250);
 
                 // lift to floor
-                while(!robot.lift.resetFloorPos() || auto.autoTime.milliseconds() < 150) sleep(1);
+                auto.waitForLiftFloor("lift to floor to place", 150);
                 robot.lift.liftMotor.setPower(0.0);
 
 
                 // Drop glyphs
                 robot.gripper.setBothOpen();
                 robot.intake.setClosed();
-                sleep(100);
+                auto.sleep(100);
                 // Nudge glyphs in
                 auto.encoderDrive(AutoHelper.DRIVE_SPEED, 2.0, 0.5, true, 90 + angleAdjust);
                 // Backoff to park
@@ -427,7 +418,7 @@ public class Auto_Blue_R_3G_Cipher extends Auto_Master {
                         break;
                     case 5: // gray top brown bottom - flip & place left
                         robot.lift.setLiftHeight(8.25);
-                        while (robot.lift.distFromBottom() < 7.75) sleep(1);
+                        auto.waitForLiftAbove("lift to flip height", 7.75);
                         robot.gripper.flip();
                         angleAdjust = 29;
                         break;
@@ -449,7 +440,7 @@ public class Auto_Blue_R_3G_Cipher extends Auto_Master {
                         break;
                     case 4: // brown top gray bottom - flip & place left
                         robot.lift.setLiftHeight(8.25);
-                        while (robot.lift.distFromBottom() < 7.75) sleep(1);
+                        auto.waitForLiftAbove("lift to flip height", 7.75);
                         robot.gripper.flip();
                         angleAdjust = 29;
                         break;
@@ -468,7 +459,7 @@ public class Auto_Blue_R_3G_Cipher extends Auto_Master {
 
             }
 
-            while(robot.gripper.isFlipping()) sleep(1);
+            auto.waitForFlip("gripper flip before place");
 
             // lift to 0"
             robot.lift.setLiftHeight(0.0);
@@ -488,17 +479,16 @@ public class Auto_Blue_R_3G_Cipher extends Auto_Master {
 
                 // Extend gripper out
                 robot.gripper.setExtendOut();
-                sleep(250);
+                auto.sleep(250);
 
-                auto.autoTime.reset();
                 // lift to floor
-                while(!robot.lift.resetFloorPos() || auto.autoTime.milliseconds() < 150) sleep(1);
+                auto.waitForLiftFloor("lift to floor to place", 150);
                 robot.lift.liftMotor.setPower(0.0);
 
                 // Drop glyphs
                 robot.gripper.setBothOpen();
                 robot.intake.setClosed();
-                sleep(100);
+                auto.sleep(100);
                 // Nudge glyphs in
                 auto.encoderDrive(AutoHelper.DRIVE_SPEED, 2.0, 0.5, true, 90 + angleAdjust);
                 // Backoff to park
@@ -57,12 +57,12 @@ public class Auto_Blue_R_3G_Ground extends Auto_Master {
         auto.gyroTurn(AutoHelper.TURN_SPEED, 90, AutoHelper.P_TURN_COEFF);
         // Outake glyph
         robot.gripper.setBothOpen();
-        sleep(250);
+        auto.sleep(250);
         // Drive closer to center cryptoglyph
         auto.encoderDrive(AutoHelper.DRIVE_SPEED, 7.0, 3.0, true, 90);
 
         robot.intake.setOut();
-        sleep(600);
+        auto.sleep(600);
         robot.intake.setOpen();
         robot.intake.setStop();
     }
@@ -79,11 +79,8 @@ public class Auto_Blue_R_3G_Ground extends Auto_Master {
 
         auto.gyroTurn(AutoHelper.TURN_SPEED,-90, AutoHelper.P_TURN_COEFF);
 
-        // Record drive motor encoder positions. Use these values to return to this position after collecting glyphs
-        left1Pos = robot.leftDrive1.getCurrentPosition();
-        left2Pos = robot.leftDrive2.getCurrentPosition();
-        right1Pos = robot.rightDrive1.getCurrentPosition();
-        right2Pos = robot.rightDrive2.getCurrentPosition();
+        // Remember where we are, to return here after collecting glyphs
+        markPile();
 
         // Drive forward to collect glyph
         auto.collectGlyph(AutoHelper.DRIVE_SPEED, 18,3, true, -90);
@@ -132,11 +129,8 @@ public class Auto_Blue_R_3G_Ground extends Auto_Master {
     @Override
     public void collectSecondGlyph() throws InterruptedException {
 
-        auto.flipToLoadSecondGlyph();
-
-        //robot.lift.setLiftHeight(1.0);
-
-        auto.collectGlyph(AutoHelper.DRIVE_SPEED, 12,3, true, -90);
+        // Flip the first glyph up while we drive in for the second
+        auto.flipAndCollectGlyph(AutoHelper.DRIVE_SPEED, 12,3, true, -90);
     }
 
     @Override
@@ -170,18 +164,16 @@ public class Auto_Blue_R_3G_Ground extends Auto_Master {
             robot.intake.setStop();
             robot.intake.setOpen();
             robot.lift.setLiftHeight(8.25);
-            while(robot.lift.distFromBottom() < 7.5) idle();
+            auto.waitForLiftAbove("lift to flip height", 7.5);
             robot.gripper.flip();
-            while(robot.gripper.isMoving()) sleep (1);
+            auto.waitForGripperAll("gripper flip");
             robot.lift.setLiftHeight(1.0);
         }
     }
 
     @Override
     public void returnToBox() throws InterruptedException {
-        int inches = auto.determineDistance(left1Pos, left2Pos, right1Pos, right2Pos);
-
-        auto.encoderDrive(AutoHelper.DRIVE_SPEED, -inches, 5, true, -90);
+        auto.driveToPosition(AutoHelper.DRIVE_SPEED, pileX, pileY, 5, -90);
 
         // Turn toward cryptobox
         if (vuMark == RelicRecoveryVuMark.RIGHT || vuMark == RelicRecoveryVuMark.LEFT){
@@ -217,12 +209,12 @@ public class Auto_Blue_R_3G_Ground extends Auto_Master {
             // Extend gripper out
             robot.gripper.setExtendOut();
 
-            sleep(200);
+            auto.sleep(200);
 
             // Drop glyphs
             robot.gripper.setBothOpen();
 
-            sleep(350);
+            auto.sleep(350);
 
             if (vuMark == RelicRecoveryVuMark.CENTER || vuMark == RelicRecoveryVuMark.UNKNOWN)
             {
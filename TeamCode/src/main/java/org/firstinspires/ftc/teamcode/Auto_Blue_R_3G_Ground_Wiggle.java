@@ -47,12 +47,12 @@ public class Auto_Blue_R_3G_Ground_Wiggle extends Auto_Blue_R_3G_Ground {
             // Extend gripper out
             robot.gripper.setExtendOut();
 
-            sleep(200);
+            auto.sleep(200);
 
             // Drop glyphs
             robot.gripper.setBothOpen();
 
-            sleep(350);
+            auto.sleep(350);
 
             if (vuMark == RelicRecoveryVuMark.CENTER || vuMark == RelicRecoveryVuMark.UNKNOWN)
             {
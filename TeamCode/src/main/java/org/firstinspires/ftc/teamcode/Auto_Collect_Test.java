@@ -28,11 +28,8 @@ public class Auto_Collect_Test extends Auto_Master {
     public void driveToPile() throws InterruptedException {
 
         robot.gripper.setBothOpen();
-        // Record drive motor encoder positions. Use these values to return to this position after collecting glyphs
-        left1Pos = robot.leftDrive1.getCurrentPosition();
-        left2Pos = robot.leftDrive2.getCurrentPosition();
-        right1Pos = robot.rightDrive1.getCurrentPosition();
-        right2Pos = robot.rightDrive2.getCurrentPosition();
+        // Remember where we are, to return here after collecting glyphs
+        markPile();
 
         // Drive forward to collect glyph
         auto.collectGlyph(AutoHelper.DRIVE_SPEED, 18,3, true, 0);
@@ -82,11 +79,8 @@ public class Auto_Collect_Test extends Auto_Master {
     @Override
     public void collectSecondGlyph() throws InterruptedException {
 
-        auto.flipToLoadSecondGlyph();
-
-        //robot.lift.setLiftHeight(1.0);
-
-        auto.collectGlyph(AutoHelper.DRIVE_SPEED, 12,3, true, 0);
+        // Flip the first glyph up while we drive in for the second
+        auto.flipAndCollectGlyph(AutoHelper.DRIVE_SPEED, 12,3, true, 0);
     }
 
     @Override
@@ -121,18 +115,16 @@ public class Auto_Collect_Test extends Auto_Master {
             robot.intake.setStop();
             robot.intake.setOpen();
             robot.lift.setLiftHeight(8.25);
-            while(robot.lift.distFromBottom() < 7.5) idle();
+            auto.waitForLiftAbove("lift to flip height", 7.5);
             robot.gripper.flip();
-            while(robot.gripper.isMoving()) sleep (1);
+            auto.waitForGripperAll("gripper flip");
             robot.lift.setLiftHeight(1.0);
         }
     }
 
     @Override
     public void returnToBox() throws InterruptedException {
-        int inches = auto.determineDistance(left1Pos, left2Pos, right1Pos, right2Pos);
-
-        auto.encoderDrive(AutoHelper.DRIVE_SPEED, -inches, 5, true, 0);
+        auto.driveToPosition(AutoHelper.DRIVE_SPEED, pileX, pileY, 5, 0);
 
     }
 
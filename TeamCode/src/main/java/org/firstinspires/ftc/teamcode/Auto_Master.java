@@ -30,7 +30,6 @@
 package org.firstinspires.ftc.teamcode;
 
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
-import com.qualcomm.robotcore.util.ElapsedTime;
 import com.qualcomm.robotcore.util.RobotLog;
 
 import org.firstinspires.ftc.robotcore.external.navigation.RelicRecoveryVuMark;
@@ -66,10 +65,9 @@ public abstract class Auto_Master extends LinearOpMode {
     double angleAdjust = 0;
     int distAdjust = 0;
 
-    int left1Pos;
-    int left2Pos;
-    int right1Pos;
-    int right2Pos;
+    // Where we started collecting glyphs, to come back to
+    double pileX;
+    double pileY;
 
 
     /**
@@ -89,17 +87,18 @@ public abstract class Auto_Master extends LinearOpMode {
 
         robot.intake.setStop();
         // Set a flipTimer of how often to update gyro status telemetry
-        ElapsedTime updateGyroStartTimer = new ElapsedTime();
+        ClockTimer updateGyroStartTimer = new ClockTimer(robot.clock);
         updateGyroStartTimer.reset();
 
         while (!isStarted()) {
             if (updateGyroStartTimer.milliseconds() >= 500) {
                 // Update telemetry every 0.5 seconds
-                telemetry.addData("IMU calibrated: ", robot.adaGyro.isSystemCalibrated());
-                telemetry.addData("IMU Gyro calibrated:  ", robot.adaGyro.isGyroCalibrated());
+                telemetry.addData("IMU calibrated: ", robot.gyro().isSystemCalibrated());
+                telemetry.addData("IMU Gyro calibrated:  ", robot.gyro().isGyroCalibrated());
 
                 // Do a gyro read to keep it "fresh"
-                telemetry.addData("Gyro heading: ", auto.readGyro());
+                telemetry.addData("Gyro heading: ", auto.liveGyro());
+                telemetry.addData("VuMark: ", auto.vuforiaStatus());
                 telemetry.update();
 
                 // And reset the flipTimer
@@ -123,20 +122,28 @@ public abstract class Auto_Master extends LinearOpMode {
 
         robot.lift.resetFloorPos();
 
-        robot.relic.setRelicPivotGrabPos();
-        robot.intake.setOpen();
-
-        sleep (200);
-
-        robot.gripper.setExtendIn();
-
-
-        robot.relic.setRelicPivotKickstand();
-        robot.relic.setRelicGripOpen();
-
      // Main robot auto sequence
 
-        auto.processJewel();
+        // Knock off the jewel while the intake, gripper and relic arm get ready
+        auto.runCommand(Command.parallel(
+                auto.jewelCommand(),
+                Command.sequence(
+                        Command.instant(new StateMachine.Action() {
+                            @Override
+                            public void run() {
+                                robot.relic.setRelicPivotGrabPos();
+                                robot.intake.setOpen();
+                            }
+                        }, Subsystem.RELIC, Subsystem.INTAKE),
+                        Command.waitMs(200),
+                        Command.instant(new StateMachine.Action() {
+                            @Override
+                            public void run() {
+                                robot.gripper.setExtendIn();
+                                robot.relic.setRelicPivotKickstand();
+                                robot.relic.setRelicGripOpen();
+                            }
+                        }, Subsystem.GRIPPER, Subsystem.RELIC))));
 
         auto.determineKeyGlyph();
 
@@ -173,6 +180,10 @@ public abstract class Auto_Master extends LinearOpMode {
 
         RobotLog.i("DM10337- Finished last move of auto");
 
+        // Where did we spend our time waiting?
+        auto.waiter.logStats();
+        auto.imu.stop();
+
 
         telemetry.addData("Path", "Complete");
         telemetry.update();
@@ -180,7 +191,21 @@ public abstract class Auto_Master extends LinearOpMode {
 
 
     public void readVuMark() {
-        vuMark = RelicRecoveryVuMark.from(auto.relicTemplate);
+        VuMarkVoter votes = auto.vuMarks();      // Waits if Vuforia is still loading
+        if (votes != null) {
+            // Take the votes since init, and stop the camera as we're done with it
+            votes.stop();
+            RobotLog.i("DM10337 -- VuMark votes: " + votes);
+            vuMark = votes.result();
+            if (vuMark == RelicRecoveryVuMark.UNKNOWN) {
+                // Votes weren't sure, so go with what we see now
+                vuMark = RelicRecoveryVuMark.from(auto.relicTemplate);
+            }
+            auto.relicTrackables.deactivate();
+        } else {
+            // Vuforia wasn't started (simulator) or failed
+            vuMark = RelicRecoveryVuMark.UNKNOWN;
+        }
         RobotLog.i("DM10337 -- VuMark: " + vuMark);
         telemetry.addData("VuMark", "%s visible", vuMark);
 
@@ -195,6 +220,16 @@ public abstract class Auto_Master extends LinearOpMode {
     public void driveToPile() throws InterruptedException {
     }
 
+    /**
+     * Remember where we are, to return here after collecting glyphs
+     */
+    public void markPile() {
+        robot.snapshot();
+        pileX = robot.pose.getX();
+        pileY = robot.pose.getY();
+        RobotLog.i("DM10337 -- Glyph pile at " + robot.pose);
+    }
+
     public void loadFirstGlyph() throws InterruptedException {
     }
 
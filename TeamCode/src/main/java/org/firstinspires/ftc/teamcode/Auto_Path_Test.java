@@ -0,0 +1,49 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.eventloop.opmode.Autonomous;
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.util.RobotLog;
+
+/**
+ * Drives an S-curve out and backs along another one home, without stopping in the corners.
+ * For tuning the spline path follower: the robot should end where it started, facing the same
+ * way.
+ */
+
+@Autonomous(name="Auto Path Test", group="DM18")
+@Disabled
+public class Auto_Path_Test extends Auto_Master {
+
+    // Planned when the OpMode is made, long before start
+    final Trajectory out = AutoHelper.planPath(new SplinePath(false)
+            .start(0.0, 0.0, 0.0)
+            .splineTo(24.0, 12.0, 45.0)
+            .splineTo(48.0, 24.0, 0.0), AutoHelper.DRIVE_SPEED);
+
+    final Trajectory back = AutoHelper.planPath(new SplinePath(true)
+            .start(48.0, 24.0, 0.0)
+            .splineTo(24.0, 12.0, 45.0)
+            .splineTo(0.0, 0.0, 0.0), AutoHelper.DRIVE_SPEED);
+
+    @Override
+    public void driveToBox() throws InterruptedException {
+
+        RobotLog.i("DM10337 -- Path test: out " + out.duration() + " s, back " + back.duration() + " s");
+
+        auto.followPath(out);
+
+        auto.sleep(1000);
+
+        auto.followPath(back);
+    }
+
+    @Override
+    public boolean iAmBlue() {
+        return true;
+    }
+
+    @Override
+    public void park() throws InterruptedException {
+
+    }
+}
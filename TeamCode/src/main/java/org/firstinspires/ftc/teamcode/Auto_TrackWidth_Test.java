@@ -0,0 +1,49 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.eventloop.opmode.Autonomous;
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.util.RobotLog;
+
+/**
+ * Spins in place twice, a quarter turn at a time, and logs the track width that makes the drive
+ * encoders agree with the gyro.  Put it in AutoHelper.TRACK_WIDTH.
+ */
+
+@Autonomous(name="Auto Track Width Test", group="DM18")
+@Disabled
+public class Auto_TrackWidth_Test extends Auto_Master {
+
+    static final double[] HEADINGS = { 90.0, 180.0, -90.0, 0.0 };
+
+    @Override
+    public void driveToBox() throws InterruptedException {
+
+        robot.snapshot();
+        robot.pose.startCalibration();
+
+        // Snapshot after each quarter turn so the pose sees the gyro go round
+        for (int lap = 0; lap < 2; lap++) {
+            for (int i = 0; i < HEADINGS.length; i++) {
+                auto.gyroTurn(AutoHelper.TURN_SPEED, HEADINGS[i], AutoHelper.P_TURN_COEFF);
+                auto.sleep(250);
+                robot.snapshot();
+            }
+        }
+
+        RobotLog.i("DM10337 -- Track width: turned " + robot.pose.calibrationTurn() +
+                " degrees, track width " + robot.pose.calibratedTrackWidth() +
+                " (using " + robot.pose.getTrackWidth() + ")");
+        telemetry.addData("Track width", "%.2f", robot.pose.calibratedTrackWidth());
+        telemetry.update();
+    }
+
+    @Override
+    public boolean iAmBlue() {
+        return true;
+    }
+
+    @Override
+    public void park() throws InterruptedException {
+
+    }
+}
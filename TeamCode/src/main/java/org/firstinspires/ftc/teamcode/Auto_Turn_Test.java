@@ -22,49 +22,49 @@ public class Auto_Turn_Test extends Auto_Master {
 /*
         auto.gyroTurn(1.0, 90, AutoHelper.P_TURN_COEFF);
 
-        sleep (1000);
+        auto.sleep(1000);
 
         if (Math.abs(90 - auto.readGyro()) > 1.0) {
             auto.gyroTurn(1.0, 90, AutoHelper.P_TURN_COEFF_STRONG);
         }
 
-        sleep(2000);
+        auto.sleep(2000);
 
         auto.gyroTurn(1.0, -90, AutoHelper.P_TURN_COEFF_180);
 
-        sleep (1000);
+        auto.sleep(1000);
 
         if (Math.abs(-90 - auto.readGyro()) > 1.0) {
             auto.gyroTurn(1.0, -90, AutoHelper.P_TURN_COEFF_STRONG);
         }
 
-        sleep(2000);
+        auto.sleep(2000);
 
         auto.gyroTurn(1.0, 0, AutoHelper.P_TURN_COEFF);
 
-        sleep (1000);
+        auto.sleep(1000);
 
         if (Math.abs(0 - auto.readGyro()) > 1.0) {
             auto.gyroTurn(1.0, 0, AutoHelper.P_TURN_COEFF_STRONG);
         }
 
-        sleep(2000);
+        auto.sleep(2000);
 
         auto.gyroTurn(1.0, 1, AutoHelper.P_TURN_COEFF_STRONG);
 
-        sleep (500);
+        auto.sleep(500);
 
         auto.gyroTurn(1.0, 2, AutoHelper.P_TURN_COEFF_STRONG);
 
-        sleep (500);
+        auto.sleep(500);
 
         auto.gyroTurn(1.0, 3, AutoHelper.P_TURN_COEFF_STRONG);
 
-        sleep (500);
+        auto.sleep(500);
 
         auto.gyroTurn(1.0, 4, AutoHelper.P_TURN_COEFF_STRONG);
 
-        sleep (500);
+        auto.sleep(500);
 
         auto.gyroTurn(1.0, 5, AutoHelper.P_TURN_COEFF_STRONG);
 
@@ -83,19 +83,19 @@ public class Auto_Turn_Test extends Auto_Master {
 
         auto.encoderDrive(1.0, 72.0, 10.0, true, 0.0);
 
-        sleep(1000);
+        auto.sleep(1000);
 
         auto.encoderDrive(1.0, -72.0, 10.0, true, 0.0);
 
-        sleep(1000);
+        auto.sleep(1000);
 
         auto.encoderDrive(1.0, 72.0, 10.0, true, 0.0);
 
-        sleep(1000);
+        auto.sleep(1000);
 
         auto.encoderDrive(1.0, -72.0, 10.0, true, 0.0);
 
-        sleep(1000);
+        auto.sleep(1000);
     }
 
     @Override
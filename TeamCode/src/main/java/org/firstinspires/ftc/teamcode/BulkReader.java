@@ -0,0 +1,179 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.hardware.lynx.LynxNackException;
+import com.qualcomm.hardware.lynx.commands.core.LynxGetBulkInputDataCommand;
+import com.qualcomm.hardware.lynx.commands.core.LynxGetBulkInputDataResponse;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DigitalChannel;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import org.firstinspires.ftc.robotcore.external.navigation.Rotation;
+
+import java.util.List;
+
+/**
+ *    Reads motor encoders, busy flags and digital inputs with one bulk input command per REV
+ *    Expansion Hub instead of one USB transaction per value.
+ *
+ *    Devices that aren't on an Expansion Hub (or any read that fails) fall back to the normal
+ *    getCurrentPosition() / isBusy() / getState() calls, so callers don't need to care.
+ */
+public class BulkReader {
+
+    static final int MAX_MOTORS = 8;
+    static final int MAX_DIGITAL = 8;
+    static final String DIGITAL_PORT = "; digital port ";     // How DigitalChannelImpl names its port
+
+    LynxModule[] modules = new LynxModule[0];
+    LynxGetBulkInputDataResponse[] responses = new LynxGetBulkInputDataResponse[0];
+
+    // Registered motors. module is -1 when the motor isn't on a hub we can bulk read
+    DcMotor[] motors = new DcMotor[MAX_MOTORS];
+    int[] motorModule = new int[MAX_MOTORS];
+    int[] motorPort = new int[MAX_MOTORS];
+    int motorCount = 0;
+
+    // Registered digital inputs, the same way
+    DigitalChannel[] channels = new DigitalChannel[MAX_DIGITAL];
+    int[] channelModule = new int[MAX_DIGITAL];
+    int[] channelPin = new int[MAX_DIGITAL];
+    int channelCount = 0;
+
+    /**
+     * Find the Expansion Hubs in the hardware map
+     *
+     * @param hw    Hardwaremap for our robot
+     */
+    public void init(HardwareMap hw) {
+        List<LynxModule> found = hw.getAll(LynxModule.class);
+        modules = found.toArray(new LynxModule[found.size()]);
+        responses = new LynxGetBulkInputDataResponse[modules.length];
+        motorCount = 0;
+        channelCount = 0;
+        RobotLog.i("DM10337 -- Bulk reader found " + modules.length + " expansion hubs");
+    }
+
+    /**
+     * Register a motor to be bulk read
+     *
+     * @param motor Motor to read
+     * @return  Slot to pass to position() and busy()
+     */
+    public int register(DcMotor motor) {
+        int slot = motorCount++;
+        motors[slot] = motor;
+        motorPort[slot] = motor.getPortNumber();
+        motorModule[slot] = -1;
+        if (modules.length == 0 || motor.getController() == null) {
+            // Nothing to bulk read it through (e.g. simulated motor)
+            return slot;
+        }
+        String connection = motor.getController().getConnectionInfo();
+        for (int i = 0; i < modules.length; i++) {
+            if (modules[i].getConnectionInfo().equals(connection)) {
+                motorModule[slot] = i;
+            }
+        }
+        return slot;
+    }
+
+    /**
+     * Register a digital input to be bulk read
+     *
+     * @param channel   Input to read
+     * @return  Slot to pass to state()
+     */
+    public int register(DigitalChannel channel) {
+        int slot = channelCount++;
+        channels[slot] = channel;
+        channelModule[slot] = -1;
+
+        // The SDK doesn't give us the pin, but the connection info is the hub's plus the port
+        String connection = channel.getConnectionInfo();
+        int port = (connection != null) ? connection.lastIndexOf(DIGITAL_PORT) : -1;
+        if (port < 0) {
+            // Not a hub input (e.g. simulated switch)
+            return slot;
+        }
+        String hub = connection.substring(0, port);
+        try {
+            channelPin[slot] = Integer.parseInt(connection.substring(port + DIGITAL_PORT.length()).trim());
+        } catch (NumberFormatException e) {
+            return slot;
+        }
+        for (int i = 0; i < modules.length; i++) {
+            if (modules[i].getConnectionInfo().equals(hub)) {
+                channelModule[slot] = i;
+            }
+        }
+        return slot;
+    }
+
+    /**
+     * Issue one bulk read per hub.  Call once per cycle before position(), busy() and state().
+     */
+    public void refresh() {
+        for (int i = 0; i < modules.length; i++) {
+            try {
+                responses[i] = new LynxGetBulkInputDataCommand(modules[i]).sendReceive();
+            } catch (InterruptedException e) {
+                responses[i] = null;
+                Thread.currentThread().interrupt();
+            } catch (LynxNackException | RuntimeException e) {
+                // Leave this hub to the individual reads for this cycle
+                responses[i] = null;
+            }
+        }
+    }
+
+    /**
+     * @return  Encoder count for the motor, with its direction applied like getCurrentPosition()
+     */
+    public int position(int slot) {
+        LynxGetBulkInputDataResponse response = responseFor(slot);
+        if (response == null) {
+            return motors[slot].getCurrentPosition();
+        }
+        int position = response.getEncoder(motorPort[slot]);
+        return isReversed(motors[slot]) ? -position : position;
+    }
+
+    /**
+     * @return  True if the motor is still running to its target, like isBusy()
+     */
+    public boolean busy(int slot) {
+        LynxGetBulkInputDataResponse response = responseFor(slot);
+        if (response == null) {
+            return motors[slot].isBusy();
+        }
+        return !response.isAtTarget(motorPort[slot]);
+    }
+
+    /**
+     * @return  The input's level, like getState()
+     */
+    public boolean state(int slot) {
+        int module = channelModule[slot];
+        LynxGetBulkInputDataResponse response = (module < 0) ? null : responses[module];
+        if (response == null) {
+            return channels[slot].getState();
+        }
+        return response.getDigitalInput(channelPin[slot]);
+    }
+
+    private LynxGetBulkInputDataResponse responseFor(int slot) {
+        int module = motorModule[slot];
+        return (module < 0) ? null : responses[module];
+    }
+
+    // Same direction rule DcMotorImpl uses when it reports positions
+    private boolean isReversed(DcMotor motor) {
+        boolean reversed = (motor.getDirection() == DcMotor.Direction.REVERSE);
+        if (motor.getMotorType().getOrientation() == Rotation.CCW) {
+            reversed = !reversed;
+        }
+        return reversed;
+    }
+}
@@ -0,0 +1,109 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorController;
+import com.qualcomm.robotcore.hardware.configuration.MotorConfigurationType;
+
+/**
+ *    DcMotor that skips setPower() and setMode() when the value hasn't changed since the last
+ *    command, and answers getPower()/getMode() from the last command.  Everything else goes
+ *    straight to the motor.
+ *
+ *    Mode and direction changes can change what the controller does with the last power, so
+ *    they clear the cached power and the next setPower() always goes out.
+ */
+public class CachedDcMotor implements DcMotor {
+
+    DcMotor motor;
+    double lastPower = 0.0;
+    boolean powerKnown = false;
+    RunMode lastMode = null;
+
+    public CachedDcMotor(DcMotor motor) {
+        this.motor = motor;
+    }
+
+    /**
+     * @return  The motor we are wrapping
+     */
+    public DcMotor getWrapped() {
+        return motor;
+    }
+
+    /**
+     * Forget the last command so the next setPower() is always sent
+     */
+    public void invalidate() {
+        powerKnown = false;
+        lastMode = null;
+    }
+
+    @Override
+    public void setPower(double power) {
+        if (powerKnown && ActuatorCache.isSame(lastPower, power, ActuatorCache.POWER_EPSILON)) {
+            ActuatorCache.writesSkipped++;
+            return;
+        }
+        motor.setPower(power);
+        lastPower = power;
+        powerKnown = true;
+        ActuatorCache.writesSent++;
+    }
+
+    @Override
+    public double getPower() {
+        if (powerKnown) {
+            ActuatorCache.readsServed++;
+            return lastPower;
+        }
+        return motor.getPower();
+    }
+
+    @Override
+    public void setMode(RunMode mode) {
+        // Resetting the encoder is an action, not a state, so it always goes out
+        if (mode == lastMode && mode != RunMode.STOP_AND_RESET_ENCODER) {
+            ActuatorCache.writesSkipped++;
+            return;
+        }
+        motor.setMode(mode);
+        lastMode = mode;
+        powerKnown = false;
+        ActuatorCache.writesSent++;
+    }
+
+    @Override
+    public RunMode getMode() {
+        if (lastMode != null) {
+            ActuatorCache.readsServed++;
+            return lastMode;
+        }
+        return motor.getMode();
+    }
+
+    @Override
+    public void setDirection(Direction direction) {
+        motor.setDirection(direction);
+        powerKnown = false;
+    }
+
+    @Override public MotorConfigurationType getMotorType() { return motor.getMotorType(); }
+    @Override public void setMotorType(MotorConfigurationType motorType) { motor.setMotorType(motorType); }
+    @Override public DcMotorController getController() { return motor.getController(); }
+    @Override public int getPortNumber() { return motor.getPortNumber(); }
+    @Override public void setZeroPowerBehavior(ZeroPowerBehavior zeroPowerBehavior) { motor.setZeroPowerBehavior(zeroPowerBehavior); }
+    @Override public ZeroPowerBehavior getZeroPowerBehavior() { return motor.getZeroPowerBehavior(); }
+    @Override @Deprecated public void setPowerFloat() { motor.setPowerFloat(); invalidate(); }
+    @Override public boolean getPowerFloat() { return motor.getPowerFloat(); }
+    @Override public void setTargetPosition(int position) { motor.setTargetPosition(position); }
+    @Override public int getTargetPosition() { return motor.getTargetPosition(); }
+    @Override public boolean isBusy() { return motor.isBusy(); }
+    @Override public int getCurrentPosition() { return motor.getCurrentPosition(); }
+    @Override public Direction getDirection() { return motor.getDirection(); }
+    @Override public Manufacturer getManufacturer() { return motor.getManufacturer(); }
+    @Override public String getDeviceName() { return motor.getDeviceName(); }
+    @Override public String getConnectionInfo() { return motor.getConnectionInfo(); }
+    @Override public int getVersion() { return motor.getVersion(); }
+    @Override public void resetDeviceConfigurationForOpMode() { motor.resetDeviceConfigurationForOpMode(); invalidate(); }
+    @Override public void close() { motor.close(); }
+}
@@ -0,0 +1,39 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.PIDCoefficients;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+
+/**
+ *    CachedDcMotor for motors that are DcMotorEx (REV hub motors), so code that checks
+ *    instanceof DcMotorEx for PID tuning or velocity control still finds it.  The extra methods go
+ *    straight to the motor.
+ *
+ *    Velocity control and enabling or disabling the motor change what it is doing without a
+ *    setPower(), so they clear the cached power.
+ */
+public class CachedDcMotorEx extends CachedDcMotor implements DcMotorEx {
+
+    DcMotorEx motorEx;
+
+    public CachedDcMotorEx(DcMotorEx motor) {
+        super(motor);
+        this.motorEx = motor;
+    }
+
+    @Override
+    public void setVelocity(double angularRate, AngleUnit unit) {
+        motorEx.setVelocity(angularRate, unit);
+        powerKnown = false;
+    }
+
+    @Override public void setMotorEnable() { motorEx.setMotorEnable(); powerKnown = false; }
+    @Override public void setMotorDisable() { motorEx.setMotorDisable(); powerKnown = false; }
+    @Override public boolean isMotorEnabled() { return motorEx.isMotorEnabled(); }
+    @Override public double getVelocity(AngleUnit unit) { return motorEx.getVelocity(unit); }
+    @Override public void setPIDCoefficients(RunMode mode, PIDCoefficients pidCoefficients) { motorEx.setPIDCoefficients(mode, pidCoefficients); }
+    @Override public PIDCoefficients getPIDCoefficients(RunMode mode) { return motorEx.getPIDCoefficients(mode); }
+    @Override public void setTargetPositionTolerance(int tolerance) { motorEx.setTargetPositionTolerance(tolerance); }
+    @Override public int getTargetPositionTolerance() { return motorEx.getTargetPositionTolerance(); }
+}
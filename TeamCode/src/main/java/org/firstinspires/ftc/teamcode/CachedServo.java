@@ -0,0 +1,76 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.hardware.Servo;
+import com.qualcomm.robotcore.hardware.ServoController;
+
+/**
+ *    Servo that skips setPosition() when the position hasn't changed since the last command,
+ *    and answers getPosition() from the last command.  Everything else goes straight to the servo.
+ */
+public class CachedServo implements Servo {
+
+    Servo servo;
+    double lastPosition = 0.0;
+    boolean positionKnown = false;
+
+    public CachedServo(Servo servo) {
+        this.servo = servo;
+    }
+
+    /**
+     * @return  The servo we are wrapping
+     */
+    public Servo getWrapped() {
+        return servo;
+    }
+
+    /**
+     * Forget the last command so the next setPosition() is always sent
+     */
+    public void invalidate() {
+        positionKnown = false;
+    }
+
+    @Override
+    public void setPosition(double position) {
+        if (positionKnown && ActuatorCache.isSame(lastPosition, position, ActuatorCache.POSITION_EPSILON)) {
+            ActuatorCache.writesSkipped++;
+            return;
+        }
+        servo.setPosition(position);
+        lastPosition = position;
+        positionKnown = true;
+        ActuatorCache.writesSent++;
+    }
+
+    @Override
+    public double getPosition() {
+        if (positionKnown) {
+            ActuatorCache.readsServed++;
+            return lastPosition;
+        }
+        return servo.getPosition();
+    }
+
+    @Override
+    public void setDirection(Direction direction) {
+        servo.setDirection(direction);
+        positionKnown = false;
+    }
+
+    @Override
+    public void scaleRange(double min, double max) {
+        servo.scaleRange(min, max);
+        positionKnown = false;
+    }
+
+    @Override public ServoController getController() { return servo.getController(); }
+    @Override public int getPortNumber() { return servo.getPortNumber(); }
+    @Override public Direction getDirection() { return servo.getDirection(); }
+    @Override public Manufacturer getManufacturer() { return servo.getManufacturer(); }
+    @Override public String getDeviceName() { return servo.getDeviceName(); }
+    @Override public String getConnectionInfo() { return servo.getConnectionInfo(); }
+    @Override public int getVersion() { return servo.getVersion(); }
+    @Override public void resetDeviceConfigurationForOpMode() { servo.resetDeviceConfigurationForOpMode(); positionKnown = false; }
+    @Override public void close() { servo.close(); }
+}
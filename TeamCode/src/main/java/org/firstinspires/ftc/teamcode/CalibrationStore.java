@@ -0,0 +1,397 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.util.RobotLog;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ *    Tuned constants (servo positions, timings, gains) from a file on the phone, so they can be
+ *    changed between matches without a new build.
+ *
+ *    The constants stay where they are, as static fields marked @Tunable, and code reads them
+ *    directly; there is no lookup at run time.  HardwareDM18.init() calls reloadIfChanged(),
+ *    which copies the file's values into those fields if the file has changed since the last
+ *    OpMode.  Fields not in the file keep their source value, and deleting the file puts them
+ *    all back.
+ *
+ *    Constants are named by class and field, e.g. "Gripper.B_GRIP_OPEN".  The robot reads
+ *    FIRST/data/dm10337_calibration.dmcal:
+ *
+ *      int magic "DMCL", short format version, int revision, short count,
+ *      count x (UTF name, double value), int CRC32 of everything before it
+ *
+ *    A bad checksum or format version leaves the current values alone.  To edit, export to JSON,
+ *    change it, bump "revision" and push it back as dm10337_calibration.json; the next init
+ *    converts it if it is newer than the binary file.  On a computer:
+ *
+ *      java org.firstinspires.ftc.teamcode.CalibrationStore export dm10337_calibration.dmcal > cal.json
+ *      java org.firstinspires.ftc.teamcode.CalibrationStore import cal.json dm10337_calibration.dmcal
+ *      java org.firstinspires.ftc.teamcode.CalibrationStore defaults > cal.json
+ */
+public class CalibrationStore {
+
+    static final String BIN_NAME = "dm10337_calibration.dmcal";
+    static final String JSON_NAME = "dm10337_calibration.json";
+    static final int MAGIC = 0x444D434C;            // "DMCL"
+    static final short FORMAT_VERSION = 1;
+
+    // Classes with @Tunable fields
+    static final Class<?>[] TUNED_CLASSES = {
+            HardwareDM18.class, Gripper.class, Intake.class, Lift.class, Relic.class, AutoHelper.class };
+
+    /**
+     * A calibration: its revision and values by name, in file order
+     */
+    public static class Values {
+        public int revision = 0;
+        public final Map<String, Double> values = new LinkedHashMap<>();
+    }
+
+    // The @Tunable fields and their source values, found on first use
+    private static Field[] fields = null;
+    private static String[] names;
+    private static double[] defaults;
+
+    // What is loaded now, so we only reload when the file changes
+    private static long loadedModified = -1;
+    private static long loadedLength = -1;
+    private static int loadedRevision = 0;
+    private static long loadedCrc = 0;
+
+    /**
+     * Load the calibration file if it changed since the last call
+     *
+     * @param dir   Directory with the calibration files, null for none (simulator)
+     */
+    public static synchronized void reloadIfChanged(File dir) {
+        bind();
+        if (dir == null) {
+            return;
+        }
+        File bin = new File(dir, BIN_NAME);
+        File json = new File(dir, JSON_NAME);
+        try {
+            // A newer JSON file was pushed to the phone: it replaces the binary file
+            if (json.exists() && (!bin.exists() || json.lastModified() > bin.lastModified())) {
+                Values v = readJson(json);
+                writeBinary(v, bin);
+                RobotLog.i("DM10337 -- Calibration imported " + json + ", revision " + v.revision);
+            }
+
+            if (!bin.exists()) {
+                if (loadedModified >= 0) {
+                    restoreDefaults();
+                    RobotLog.i("DM10337 -- Calibration file gone, back to built in values");
+                }
+                return;
+            }
+            if (bin.lastModified() == loadedModified && bin.length() == loadedLength) {
+                return;
+            }
+            long modified = bin.lastModified();
+            long length = bin.length();
+            apply(readBinary(bin));
+            loadedModified = modified;
+            loadedLength = length;
+        } catch (IOException e) {
+            RobotLog.i("DM10337 -- Calibration can't load " + bin + ", keeping current values. " + e);
+        }
+    }
+
+    /**
+     * Set every @Tunable field: from the calibration if it has the field, else the source value
+     */
+    public static synchronized void apply(Values cal) {
+        bind();
+        Map<String, Double> unused = new LinkedHashMap<>(cal.values);
+        int fromFile = 0;
+        for (int i = 0; i < fields.length; i++) {
+            Double v = unused.remove(names[i]);
+            if (v != null) fromFile++;
+            set(i, (v != null) ? v : defaults[i]);
+        }
+        if (!unused.isEmpty()) {
+            RobotLog.i("DM10337 -- Calibration ignoring unknown values " + unused.keySet());
+        }
+        loadedRevision = cal.revision;
+        loadedCrc = crc(current());
+        RobotLog.i(String.format("DM10337 -- Calibration revision %d: %d of %d values from file, crc %08x",
+                cal.revision, fromFile, fields.length, loadedCrc));
+        EventLog.log(EventLog.Event.CALIBRATION_LOADED, cal.revision, fromFile, loadedCrc);
+    }
+
+    /**
+     * Put every @Tunable field back to its source value
+     */
+    public static synchronized void restoreDefaults() {
+        bind();
+        for (int i = 0; i < fields.length; i++) {
+            set(i, defaults[i]);
+        }
+        loadedModified = -1;
+        loadedLength = -1;
+        loadedRevision = 0;
+        loadedCrc = crc(current());
+    }
+
+    /**
+     * @return  The values in use now
+     */
+    public static synchronized Values current() {
+        bind();
+        Values cal = new Values();
+        cal.revision = loadedRevision;
+        try {
+            for (int i = 0; i < fields.length; i++) {
+                cal.values.put(names[i], fields[i].getDouble(null));
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+        return cal;
+    }
+
+    public static synchronized int revision() {
+        return loadedRevision;
+    }
+
+    /**
+     * @return  CRC32 of the values in use, to tell calibrations apart in the logs
+     */
+    public static synchronized long checksum() {
+        return loadedCrc;
+    }
+
+    // Find the @Tunable fields and remember their source values
+    private static void bind() {
+        if (fields != null) {
+            return;
+        }
+        List<Field> found = new ArrayList<>();
+        for (Class<?> c : TUNED_CLASSES) {
+            for (Field f : c.getDeclaredFields()) {
+                if (!f.isAnnotationPresent(Tunable.class)) continue;
+                int mod = f.getModifiers();
+                Class<?> type = f.getType();
+                if (!Modifier.isStatic(mod) || Modifier.isFinal(mod) || (type != double.class && type != int.class)) {
+                    throw new IllegalStateException("@Tunable " + c.getSimpleName() + "." + f.getName() +
+                            " must be a static, non-final double or int");
+                }
+                f.setAccessible(true);
+                found.add(f);
+            }
+        }
+        Field[] all = found.toArray(new Field[found.size()]);
+        names = new String[all.length];
+        defaults = new double[all.length];
+        try {
+            for (int i = 0; i < all.length; i++) {
+                names[i] = all[i].getDeclaringClass().getSimpleName() + "." + all[i].getName();
+                defaults[i] = all[i].getDouble(null);
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+        fields = all;
+        loadedCrc = crc(current());
+    }
+
+    private static void set(int i, double value) {
+        try {
+            if (fields[i].getType() == int.class) {
+                fields[i].setInt(null, (int) Math.round(value));
+            } else {
+                fields[i].setDouble(null, value);
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long crc(Values cal) {
+        byte[] bytes = encode(cal);
+        return crc(bytes, 0, bytes.length);
+    }
+
+    private static long crc(byte[] bytes, int off, int len) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, off, len);
+        return crc.getValue();
+    }
+
+    /**
+     * @return  The binary file contents for a calibration, without the checksum
+     */
+    static byte[] encode(Values cal) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+            out.writeInt(cal.revision);
+            out.writeShort(cal.values.size());
+            for (Map.Entry<String, Double> e : cal.values.entrySet()) {
+                out.writeUTF(e.getKey());
+                out.writeDouble(e.getValue());
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);       // Can't happen writing to memory
+        }
+    }
+
+    /**
+     * Parse a binary calibration, checksum and all
+     */
+    static Values decode(byte[] bytes) throws IOException {
+        if (bytes.length < 16) {
+            throw new IOException("calibration file too short");
+        }
+        int n = bytes.length - 4;
+        long stored = ((bytes[n] & 0xFFL) << 24) | ((bytes[n + 1] & 0xFFL) << 16) |
+                ((bytes[n + 2] & 0xFFL) << 8) | (bytes[n + 3] & 0xFFL);
+        if (stored != crc(bytes, 0, n)) {
+            throw new IOException("calibration checksum doesn't match");
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, n));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not a calibration file");
+        }
+        short version = in.readShort();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("calibration format " + version + ", expected " + FORMAT_VERSION);
+        }
+        Values cal = new Values();
+        cal.revision = in.readInt();
+        int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            String name = in.readUTF();
+            cal.values.put(name, in.readDouble());
+        }
+        return cal;
+    }
+
+    static Values readBinary(File file) throws IOException {
+        return decode(readAll(file));
+    }
+
+    /**
+     * Write a binary calibration.  Goes to a temporary file first so a reload never sees half of it
+     */
+    static void writeBinary(Values cal, File file) throws IOException {
+        byte[] body = encode(cal);
+        long crc = crc(body, 0, body.length);
+        File tmp = new File(file.getPath() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new FileOutputStream(tmp));
+        try {
+            out.write(body);
+            out.writeInt((int) crc);
+        } finally {
+            out.close();
+        }
+        if (!tmp.renameTo(file)) {
+            file.delete();
+            if (!tmp.renameTo(file)) {
+                throw new IOException("can't replace " + file);
+            }
+        }
+    }
+
+    // "name": value pairs.  Values that aren't a number (like the "values" object) don't match
+    private static final Pattern JSON_PAIR = Pattern.compile("\"([^\"]+)\"\\s*:\\s*([^,{}\\[\\]\\s]+)");
+
+    /**
+     * Read the JSON written by writeJson().  Only the "revision" number and the
+     * "Class.FIELD": number pairs matter, so this is a pattern match rather than a full parser.
+     */
+    static Values readJson(File file) throws IOException {
+        String text = new String(readAll(file), Charset.forName("UTF-8"));
+        Values cal = new Values();
+        Matcher m = JSON_PAIR.matcher(text);
+        while (m.find()) {
+            String name = m.group(1);
+            double value;
+            try {
+                value = Double.parseDouble(m.group(2));
+            } catch (NumberFormatException e) {
+                throw new IOException("calibration " + name + ": not a number: " + m.group(2));
+            }
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                throw new IOException("calibration " + name + ": not a number: " + m.group(2));
+            }
+            if (name.equals("revision")) {
+                cal.revision = (int) value;
+            } else if (name.indexOf('.') > 0) {
+                cal.values.put(name, value);
+            }
+        }
+        return cal;
+    }
+
+    static void writeJson(Values cal, PrintStream out) {
+        out.println("{");
+        out.println("  \"revision\": " + cal.revision + ",");
+        out.println("  \"values\": {");
+        int i = 0;
+        for (Map.Entry<String, Double> e : cal.values.entrySet()) {
+            double v = e.getValue();
+            String text = (v == Math.rint(v) && Math.abs(v) < 1e15) ? Long.toString((long) v) : Double.toString(v);
+            out.println("    \"" + e.getKey() + "\": " + text + (++i < cal.values.size() ? "," : ""));
+        }
+        out.println("  }");
+        out.println("}");
+    }
+
+    private static byte[] readAll(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] buf = new byte[(int) Math.max(16, file.length())];
+            int n = 0;
+            int r;
+            while ((r = in.read(buf, n, buf.length - n)) > 0) {
+                n += r;
+                if (n == buf.length) buf = Arrays.copyOf(buf, 2 * n);
+            }
+            return Arrays.copyOf(buf, n);
+        } finally {
+            in.close();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 2 && args[0].equals("export")) {
+            writeJson(readBinary(new File(args[1])), System.out);
+        } else if (args.length == 3 && args[0].equals("import")) {
+            Values cal = readJson(new File(args[1]));
+            writeBinary(cal, new File(args[2]));
+            System.err.println(cal.values.size() + " values, revision " + cal.revision);
+        } else if (args.length == 1 && args[0].equals("defaults")) {
+            writeJson(current(), System.out);
+        } else {
+            System.err.println("usage: CalibrationStore export file.dmcal > file.json");
+            System.err.println("       CalibrationStore import file.json file.dmcal");
+            System.err.println("       CalibrationStore defaults > file.json");
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.util.RobotLog;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ *    A setting that depends on a measurement (e.g. relic pivot position by arm extension), from
+ *    a few hand-tuned points with smooth steps between them instead of jumps.
+ *
+ *    Between points the value is either a straight line (LINEAR) or a monotone cubic (CUBIC,
+ *    Fritsch-Carlson), which is smooth through the points but never overshoots them, so a
+ *    servo won't go past either neighbouring setting.  Outside the points it holds the end
+ *    value.  get() doesn't allocate.
+ *
+ *    Tables can be loaded from a text file so they can be re-tuned without a new build:
+ *
+ *      # Relic pivot grab position by extension encoder
+ *      cubic
+ *      1100  0.2466
+ *      1450  0.2489
+ *      ...
+ *
+ *    One "x value" pair per line, x increasing.  "#" starts a comment, and a line "linear" or
+ *    "cubic" picks how to join them (linear if not given).
+ */
+public class CalibrationTable {
+
+    public enum Mode { LINEAR, CUBIC }
+
+    private final String name;
+    private final Mode mode;
+    private final double[] x;
+    private final double[] y;
+    private final double[] slope;            // dy/dx at each point, for CUBIC
+
+    /**
+     * @param name  For the log
+     * @param mode  How to join the points
+     * @param x     Measurements, strictly increasing
+     * @param y     Values at those measurements
+     */
+    public CalibrationTable(String name, Mode mode, double[] x, double[] y) {
+        if (x.length == 0 || x.length != y.length) {
+            throw new IllegalArgumentException("CalibrationTable " + name + ": need matching x and y points");
+        }
+        for (int i = 1; i < x.length; i++) {
+            if (x[i] <= x[i - 1]) {
+                throw new IllegalArgumentException("CalibrationTable " + name + ": x must increase, " +
+                        x[i - 1] + " then " + x[i]);
+            }
+        }
+        this.name = name;
+        this.mode = mode;
+        this.x = Arrays.copyOf(x, x.length);
+        this.y = Arrays.copyOf(y, y.length);
+        this.slope = new double[x.length];
+        if (mode == Mode.CUBIC) fritschCarlson();
+    }
+
+    // Tangents for a monotone cubic: Fritsch & Carlson, "Monotone Piecewise Cubic Interpolation"
+    private void fritschCarlson() {
+        int n = x.length;
+        if (n < 2) return;
+        double[] d = new double[n - 1];
+        for (int i = 0; i < n - 1; i++) {
+            d[i] = (y[i + 1] - y[i]) / (x[i + 1] - x[i]);
+        }
+        slope[0] = d[0];
+        slope[n - 1] = d[n - 2];
+        for (int i = 1; i < n - 1; i++) {
+            slope[i] = (d[i - 1] * d[i] <= 0.0) ? 0.0 : (d[i - 1] + d[i]) / 2.0;
+        }
+        for (int i = 0; i < n - 1; i++) {
+            if (d[i] == 0.0) {
+                slope[i] = 0.0;
+                slope[i + 1] = 0.0;
+                continue;
+            }
+            double a = slope[i] / d[i];
+            double b = slope[i + 1] / d[i];
+            double s = a * a + b * b;
+            if (s > 9.0) {
+                double t = 3.0 / Math.sqrt(s);
+                slope[i] = t * a * d[i];
+                slope[i + 1] = t * b * d[i];
+            }
+        }
+    }
+
+    /**
+     * @return  The value at a measurement
+     */
+    public double get(double at) {
+        int n = x.length;
+        if (at <= x[0]) return y[0];
+        if (at >= x[n - 1]) return y[n - 1];
+
+        // Tables are a handful of points, so just walk them
+        int i = 0;
+        while (at >= x[i + 1]) i++;
+
+        double h = x[i + 1] - x[i];
+        double t = (at - x[i]) / h;
+        if (mode == Mode.LINEAR) {
+            return y[i] + (y[i + 1] - y[i]) * t;
+        }
+        double t2 = t * t;
+        double t3 = t2 * t;
+        return (2 * t3 - 3 * t2 + 1) * y[i] + (t3 - 2 * t2 + t) * h * slope[i] +
+                (-2 * t3 + 3 * t2) * y[i + 1] + (t3 - t2) * h * slope[i + 1];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int size() {
+        return x.length;
+    }
+
+    /**
+     * Load a table from a text file, or keep the built in one if there is no file or it's bad
+     *
+     * @param file      File to read, null for none
+     * @param fallback  Table to use without a good file
+     */
+    public static CalibrationTable load(File file, CalibrationTable fallback) {
+        if (file == null || !file.exists()) {
+            return fallback;
+        }
+        try {
+            CalibrationTable table = parse(fallback.name, file);
+            RobotLog.i("DM10337 -- Calibration " + table.name + ": " + table.size() + " " +
+                    table.mode + " points from " + file);
+            return table;
+        } catch (IOException | IllegalArgumentException e) {
+            RobotLog.i("DM10337 -- Calibration " + fallback.name + ": can't use " + file + ", keeping built in table. " + e);
+            return fallback;
+        }
+    }
+
+    private static CalibrationTable parse(String name, File file) throws IOException {
+        double[] xs = new double[16];
+        double[] ys = new double[16];
+        int n = 0;
+        Mode mode = Mode.LINEAR;
+        BufferedReader in = new BufferedReader(new FileReader(file));
+        try {
+            String line;
+            int lineNo = 0;
+            while ((line = in.readLine()) != null) {
+                lineNo++;
+                int hash = line.indexOf('#');
+                if (hash >= 0) line = line.substring(0, hash);
+                line = line.trim();
+                if (line.isEmpty()) continue;
+                if (line.equalsIgnoreCase("linear")) {
+                    mode = Mode.LINEAR;
+                    continue;
+                }
+                if (line.equalsIgnoreCase("cubic")) {
+                    mode = Mode.CUBIC;
+                    continue;
+                }
+                String[] parts = line.split("[\\s,]+");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("line " + lineNo + ": expected \"x value\"");
+                }
+                if (n == xs.length) {
+                    xs = Arrays.copyOf(xs, 2 * n);
+                    ys = Arrays.copyOf(ys, 2 * n);
+                }
+                xs[n] = Double.parseDouble(parts[0]);
+                ys[n] = Double.parseDouble(parts[1]);
+                n++;
+            }
+        } finally {
+            in.close();
+        }
+        return new CalibrationTable(name, mode, Arrays.copyOf(xs, n), Arrays.copyOf(ys, n));
+    }
+}
@@ -0,0 +1,26 @@
+package org.firstinspires.ftc.teamcode;
+
+/**
+ *    Where our code gets the time from.
+ *
+ *    On the robot this is RealClock.  The simulator uses a VirtualClock, which moves forward only
+ *    when someone sleeps on it, so a 30 second autonomous runs as fast as the code can execute and
+ *    timing logic can be stepped through exactly.
+ *
+ *    Use a ClockTimer in place of ElapsedTime and clock.sleep() in place of Thread.sleep().
+ */
+public interface Clock {
+
+    /**
+     * @return  Current time in nanoseconds.  Only differences between readings mean anything.
+     */
+    long nanoTime();
+
+    /**
+     * Wait the given time
+     *
+     * @param milliseconds  How long to wait
+     * @throws InterruptedException If the thread is interrupted (e.g. the OpMode is stopped)
+     */
+    void sleep(long milliseconds) throws InterruptedException;
+}
@@ -0,0 +1,45 @@
+package org.firstinspires.ftc.teamcode;
+
+/**
+ *    Stopwatch like ElapsedTime, but reads its time from a Clock so it runs on simulated time in
+ *    the simulator.  Starts on the real clock; subsystems switch their timers over with setClock()
+ *    when they are handed the robot's clock.
+ */
+public class ClockTimer {
+
+    Clock clock;
+    long startNanos;
+
+    public ClockTimer() {
+        this(RealClock.INSTANCE);
+    }
+
+    public ClockTimer(Clock clock) {
+        this.clock = clock;
+        reset();
+    }
+
+    /**
+     * Switch to another clock.  Restarts the timer since times from two clocks can't be compared.
+     */
+    public void setClock(Clock clock) {
+        this.clock = clock;
+        reset();
+    }
+
+    public void reset() {
+        startNanos = clock.nanoTime();
+    }
+
+    public long nanoseconds() {
+        return clock.nanoTime() - startNanos;
+    }
+
+    public double milliseconds() {
+        return nanoseconds() / 1.0e6;
+    }
+
+    public double seconds() {
+        return nanoseconds() / 1.0e9;
+    }
+}
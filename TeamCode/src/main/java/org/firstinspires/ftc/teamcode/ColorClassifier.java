@@ -0,0 +1,329 @@
+package org.firstinspires.ftc.teamcode;
+
+/**
+ *    Classifies color sensor readings (jewel red/blue, glyph gray/brown) with one table lookup.
+ *
+ *    The table has a cell for every quantized (red, green, blue, alpha) reading.  Channels are
+ *    quantized on a log scale, so dim readings (a jewel a few inches away reads under 20 counts)
+ *    get as many levels as bright ones.  Alpha can be linear instead, for a table that has to
+ *    split on an exact alpha like the glyph one.  Each cell holds a class and a confidence, worked out
+ *    once by build() from labeled calibration samples:
+ *      - Every reading becomes a feature: its chromaticity (each channel over their sum) and its
+ *        brightness (log scale, alpha if we use alpha), weighted by brightnessWeight.
+ *      - A cell gets the class of the nearest sample to it, or the unknown class if no sample
+ *        is within rejectDistance.
+ *      - Its confidence is how much nearer that sample is than the nearest sample of any other
+ *        class: 0 on the boundary, 1 with no other class anywhere near.
+ *
+ *    jewel() and glyph() make tables labeled with the thresholds we have been using (hue ranges
+ *    for the jewel, alpha for the glyph), so they decide the same way until we add samples from
+ *    the real field.  No Android classes, so tables can be built and benchmarked on a PC.
+ */
+public class ColorClassifier {
+
+    public static final int JEWEL_RED = -1;
+    public static final int JEWEL_NEITHER = 0;
+    public static final int JEWEL_BLUE = 1;
+    public static final int GLYPH_GRAY = 0;
+    public static final int GLYPH_BROWN = 1;
+
+    static final int FULL_SCALE = 255;              // Channels are scaled to fit 0-255
+    static final double LOG_FULL_SCALE = Math.log(FULL_SCALE + 1);
+    static final int MAX_SAMPLES = 4096;
+    static final int MAX_CLASSES = 8;
+
+    private final int rgbBits;
+    private final int alphaBits;
+    private final boolean linearAlpha;
+    private final double brightnessWeight;
+    private final double rejectDistance;
+    private final int unknown;
+
+    // Raw 0-255 reading to its level, for each kind of channel
+    private final int[] rgbLevel = new int[FULL_SCALE + 1];
+    private final int[] alphaLevel = new int[FULL_SCALE + 1];
+
+    // The table: class and confidence (0-255) for each cell
+    private final byte[] label;
+    private final byte[] confidence;
+    private boolean built = false;
+
+    // Calibration samples, as features
+    private final double[] sampleR = new double[MAX_SAMPLES];
+    private final double[] sampleG = new double[MAX_SAMPLES];
+    private final double[] sampleB = new double[MAX_SAMPLES];
+    private final double[] sampleL = new double[MAX_SAMPLES];
+    private final int[] sampleClass = new int[MAX_SAMPLES];    // Index into classes
+    private int samples = 0;
+    private final int[] classes = new int[MAX_CLASSES];
+    private int classCount = 0;
+    private final double[] classBest = new double[MAX_CLASSES];
+
+    private double lastConfidence = 0.0;
+
+    /**
+     * @param rgbBits           Bits per color channel in the table
+     * @param alphaBits         Bits for alpha, 0 to ignore alpha
+     * @param brightnessWeight  How much brightness counts against chromaticity
+     * @param rejectDistance    Cells further than this from every sample are unknown
+     * @param unknown           Class for unknown cells
+     */
+    public ColorClassifier(int rgbBits, int alphaBits, double brightnessWeight, double rejectDistance, int unknown) {
+        this(rgbBits, alphaBits, false, brightnessWeight, rejectDistance, unknown);
+    }
+
+    /**
+     * @param linearAlpha       Quantize alpha in equal steps instead of on a log scale
+     */
+    public ColorClassifier(int rgbBits, int alphaBits, boolean linearAlpha, double brightnessWeight,
+                           double rejectDistance, int unknown) {
+        if (3 * rgbBits + alphaBits > 20) {
+            throw new IllegalArgumentException("ColorClassifier: table too big, " + (3 * rgbBits + alphaBits) + " bits");
+        }
+        this.rgbBits = rgbBits;
+        this.alphaBits = alphaBits;
+        this.linearAlpha = linearAlpha;
+        this.brightnessWeight = brightnessWeight;
+        this.rejectDistance = rejectDistance;
+        this.unknown = unknown;
+        fillLevels(rgbLevel, rgbBits, false);
+        fillLevels(alphaLevel, alphaBits, linearAlpha);
+        label = new byte[1 << (3 * rgbBits + alphaBits)];
+        confidence = new byte[label.length];
+    }
+
+    private static void fillLevels(int[] levels, int bits, boolean linear) {
+        int n = 1 << bits;
+        for (int v = 0; v <= FULL_SCALE; v++) {
+            if (bits == 0) {
+                levels[v] = 0;
+            } else if (linear) {
+                levels[v] = v * n / (FULL_SCALE + 1);
+            } else {
+                levels[v] = Math.min(n - 1, (int) (Math.log(v + 1) / LOG_FULL_SCALE * n));
+            }
+        }
+    }
+
+    // Middle of a level, back in raw counts
+    private static double levelValue(int level, int bits, boolean linear) {
+        if (bits == 0) return 0.0;
+        if (linear) return (level + 0.5) * (FULL_SCALE + 1) / (1 << bits) - 0.5;
+        return Math.exp((level + 0.5) / (1 << bits) * LOG_FULL_SCALE) - 1.0;
+    }
+
+    /**
+     * Add a labeled reading to calibrate from.  Call build() after adding them all.
+     */
+    public void addSample(int r, int g, int b, int a, int cls) {
+        if (samples == MAX_SAMPLES) {
+            throw new IllegalStateException("ColorClassifier: more than " + MAX_SAMPLES + " samples");
+        }
+        double sum = r + g + b;
+        sampleR[samples] = (sum > 0) ? r / sum : 1.0 / 3.0;
+        sampleG[samples] = (sum > 0) ? g / sum : 1.0 / 3.0;
+        sampleB[samples] = (sum > 0) ? b / sum : 1.0 / 3.0;
+        sampleL[samples] = brightness((alphaBits > 0) ? a : sum / 3.0);
+        sampleClass[samples] = classIndex(cls);
+        samples++;
+        built = false;
+    }
+
+    private int classIndex(int cls) {
+        for (int k = 0; k < classCount; k++) {
+            if (classes[k] == cls) return k;
+        }
+        if (classCount == MAX_CLASSES) {
+            throw new IllegalStateException("ColorClassifier: more than " + MAX_CLASSES + " classes");
+        }
+        classes[classCount] = cls;
+        return classCount++;
+    }
+
+    public int sampleCount() {
+        return samples;
+    }
+
+    /**
+     * Forget the samples, e.g. to calibrate from scratch
+     */
+    public void clearSamples() {
+        samples = 0;
+        classCount = 0;
+        built = false;
+    }
+
+    private double brightness(double v) {
+        return brightnessWeight * Math.log(Math.max(0.0, Math.min(v, FULL_SCALE)) + 1) / LOG_FULL_SCALE;
+    }
+
+    /**
+     * Work out every cell of the table from the samples
+     */
+    public ColorClassifier build() {
+        int levels = 1 << rgbBits;
+        int alphas = 1 << alphaBits;
+        double[] lv = new double[levels];
+        for (int i = 0; i < levels; i++) lv[i] = levelValue(i, rgbBits, false);
+
+        int cell = 0;
+        for (int r = 0; r < levels; r++) {
+            for (int g = 0; g < levels; g++) {
+                for (int b = 0; b < levels; b++) {
+                    double sum = lv[r] + lv[g] + lv[b];
+                    double fr = (sum > 0) ? lv[r] / sum : 1.0 / 3.0;
+                    double fg = (sum > 0) ? lv[g] / sum : 1.0 / 3.0;
+                    double fb = (sum > 0) ? lv[b] / sum : 1.0 / 3.0;
+                    for (int a = 0; a < alphas; a++) {
+                        double fl = brightness((alphaBits > 0) ? levelValue(a, alphaBits, linearAlpha) : sum / 3.0);
+                        classifyCell(cell++, fr, fg, fb, fl);
+                    }
+                }
+            }
+        }
+        built = true;
+        return this;
+    }
+
+    private void classifyCell(int cell, double fr, double fg, double fb, double fl) {
+        // Nearest sample of each class
+        for (int k = 0; k < classCount; k++) classBest[k] = Double.MAX_VALUE;
+        for (int i = 0; i < samples; i++) {
+            double d = dist2(i, fr, fg, fb, fl);
+            int k = sampleClass[i];
+            if (d < classBest[k]) classBest[k] = d;
+        }
+
+        // The nearest of those, and the next nearest class
+        int best = -1;
+        double bestD = Double.MAX_VALUE;
+        double otherD = Double.MAX_VALUE;
+        for (int k = 0; k < classCount; k++) {
+            if (classBest[k] < bestD) {
+                otherD = bestD;
+                bestD = classBest[k];
+                best = k;
+            } else if (classBest[k] < otherD) {
+                otherD = classBest[k];
+            }
+        }
+        if (best < 0 || Math.sqrt(bestD) > rejectDistance) {
+            label[cell] = (byte) unknown;
+            confidence[cell] = 0;
+            return;
+        }
+
+        double d1 = Math.sqrt(bestD);
+        double d2 = Math.sqrt(otherD);
+        double c = (otherD == Double.MAX_VALUE) ? 1.0 : (d2 - d1) / (d2 + d1);
+        label[cell] = (byte) classes[best];
+        confidence[cell] = (byte) Math.round(c * 255.0);
+    }
+
+    private double dist2(int i, double fr, double fg, double fb, double fl) {
+        double dr = fr - sampleR[i];
+        double dg = fg - sampleG[i];
+        double db = fb - sampleB[i];
+        double dl = fl - sampleL[i];
+        return dr * dr + dg * dg + db * db + dl * dl;
+    }
+
+    /**
+     * @return  The class of a reading.  Raw channel counts (red(), ..., alpha()), not argb(),
+     *          which the REV sensor scales down.  Colors over 255 are scaled down together.
+     */
+    public int classify(int r, int g, int b, int a) {
+        if (!built) build();
+        int cell = cell(r, g, b, a);
+        lastConfidence = (confidence[cell] & 0xFF) / 255.0;
+        return label[cell];
+    }
+
+    /**
+     * @return  0 to 1, how sure the last classify() was
+     */
+    public double lastConfidence() {
+        return lastConfidence;
+    }
+
+    private int cell(int r, int g, int b, int a) {
+        // Keep the color if a channel is over full scale
+        int max = Math.max(r, Math.max(g, b));
+        if (max > FULL_SCALE) {
+            r = r * FULL_SCALE / max;
+            g = g * FULL_SCALE / max;
+            b = b * FULL_SCALE / max;
+        }
+        r = Math.max(r, 0);
+        g = Math.max(g, 0);
+        b = Math.max(b, 0);
+        a = Math.max(0, Math.min(a, FULL_SCALE));
+        int cell = (rgbLevel[r] << (2 * rgbBits)) | (rgbLevel[g] << rgbBits) | rgbLevel[b];
+        return (cell << alphaBits) | alphaLevel[a];
+    }
+
+    /**
+     * @return  A jewel table labeled with AutoHelper's hue ranges: red, blue or neither
+     */
+    public static ColorClassifier jewel() {
+        ColorClassifier c = new ColorClassifier(5, 0, 0.1, 0.2, JEWEL_NEITHER);
+        int[] values = {16, 160};
+        double[] sats = {0.1, 0.2, 0.35, 0.5, 0.75, 1.0};
+        int[] rgb = new int[3];
+        for (int hue = 0; hue < 360; hue += 3) {
+            for (double sat : sats) {
+                for (int value : values) {
+                    hsvToRgb(hue, sat, value, rgb);
+                    c.addSample(rgb[0], rgb[1], rgb[2], 0, jewelClass(hue));
+                }
+            }
+        }
+        return c;
+    }
+
+    /**
+     * @return  The class AutoHelper.jewelHue() gives a hue
+     */
+    static int jewelClass(double hue) {
+        // Same -270 to 90 range as AutoHelper
+        while (hue >= 90.0) hue -= 360.0;
+        while (hue < -270.0) hue += 360.0;
+        if (hue > AutoHelper.BLUE_MIN && hue < AutoHelper.BLUE_MAX) return JEWEL_BLUE;
+        if (hue > AutoHelper.RED_MIN && hue < AutoHelper.RED_MAX) return JEWEL_RED;
+        return JEWEL_NEITHER;
+    }
+
+    /**
+     * @return  A glyph table labeled with Intake's alpha() threshold: gray or brown.  Alpha is
+     *          linear, a cell and a sample per count, so it splits exactly where the threshold
+     *          does.
+     */
+    public static ColorClassifier glyph() {
+        ColorClassifier c = new ColorClassifier(2, 8, true, 1.0, Double.MAX_VALUE, GLYPH_BROWN);
+        for (int alpha = 0; alpha <= FULL_SCALE; alpha++) {
+            c.addSample(alpha / 3, alpha / 3, alpha / 3, alpha,
+                    (alpha > Intake.GLYPH_GRAY_ALPHA) ? GLYPH_GRAY : GLYPH_BROWN);
+        }
+        return c;
+    }
+
+    /**
+     * HSV to 0-255 RGB, like android.graphics.Color.HSVToColor()
+     */
+    static void hsvToRgb(double hue, double sat, double value, int[] rgb) {
+        double c = value * sat;
+        double h = (hue % 360.0) / 60.0;
+        double x = c * (1.0 - Math.abs(h % 2.0 - 1.0));
+        double r, g, b;
+        if (h < 1) { r = c; g = x; b = 0; }
+        else if (h < 2) { r = x; g = c; b = 0; }
+        else if (h < 3) { r = 0; g = c; b = x; }
+        else if (h < 4) { r = 0; g = x; b = c; }
+        else if (h < 5) { r = x; g = 0; b = c; }
+        else { r = c; g = 0; b = x; }
+        double m = value - c;
+        rgb[0] = (int) Math.round(r + m);
+        rgb[1] = (int) Math.round(g + m);
+        rgb[2] = (int) Math.round(b + m);
+    }
+}
@@ -0,0 +1,137 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Microbenchmark of the ColorClassifier jewel table against the HSV hue path in
+ * AutoHelper.jewelHue().
+ *
+ * Runs the same random readings through both and reports ns per decision, how often they agree,
+ * and how long the table took to build.  The hue path here is the same arithmetic as Android's
+ * Color.RGBToHSV() so run() also works on a PC.
+ */
+
+@TeleOp(name="Bench ColorClassifier", group="DM18")
+@Disabled
+public class ColorClassifierBenchmark extends LinearOpMode {
+
+    static final int SAMPLES = 200000;
+    static final int PASSES = 5;
+
+    @Override
+    public void runOpMode() throws InterruptedException {
+
+        telemetry.addData("Say", "Press start to run benchmark");
+        telemetry.update();
+        waitForStart();
+
+        String result = run();
+        telemetry.addData("Jewel", result);
+        telemetry.update();
+        RobotLog.i("DM10337 -- ColorClassifier bench " + result);
+
+        while (opModeIsActive()) {
+            idle();
+        }
+    }
+
+    /**
+     * @return  One line of results
+     */
+    public static String run() {
+        Random rand = new Random(10337);
+        int[] r = new int[SAMPLES];
+        int[] g = new int[SAMPLES];
+        int[] b = new int[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            r[i] = rand.nextInt(256);
+            g[i] = rand.nextInt(256);
+            b[i] = rand.nextInt(256);
+        }
+
+        long start = System.nanoTime();
+        ColorClassifier lut = ColorClassifier.jewel().build();
+        double buildMs = (System.nanoTime() - start) / 1.0e6;
+
+        float[] hsv = new float[3];
+        double hsvNs = 0.0;
+        double lutNs = 0.0;
+        int agree = 0;
+        long check = 0;
+        for (int pass = 0; pass < PASSES; pass++) {
+            // Current HSV path
+            start = System.nanoTime();
+            for (int i = 0; i < SAMPLES; i++) {
+                check += hueClass(r[i], g[i], b[i], hsv);
+            }
+            hsvNs = (double) (System.nanoTime() - start) / SAMPLES;
+
+            // Table
+            start = System.nanoTime();
+            for (int i = 0; i < SAMPLES; i++) {
+                check -= lut.classify(r[i], g[i], b[i], 0);
+            }
+            lutNs = (double) (System.nanoTime() - start) / SAMPLES;
+        }
+
+        for (int i = 0; i < SAMPLES; i++) {
+            if (hueClass(r[i], g[i], b[i], hsv) == lut.classify(r[i], g[i], b[i], 0)) agree++;
+        }
+
+        // Report the last (warmed up) pass
+        return String.format(Locale.US, "hsv %.1f ns  table %.1f ns  agree %.1f%%  build %.0f ms  check %d",
+                hsvNs, lutNs, 100.0 * agree / SAMPLES, buildMs, check);
+    }
+
+    /**
+     * AutoHelper.jewelHue() without the sensor, telemetry and logging
+     */
+    static int hueClass(int r, int g, int b, float[] hsv) {
+        rgbToHsv(r, g, b, hsv);
+
+        // Normalize hue to -270 to 90 degrees
+        while (hsv[0] >= 90.0) {
+            hsv[0] -= 360.0;
+        }
+        while (hsv[0] < -270.0) {
+            hsv[0] += 360.0;
+        }
+
+        if ((hsv[0] > AutoHelper.BLUE_MIN) && (hsv[0] < AutoHelper.BLUE_MAX)) return 1;
+        if (hsv[0] > AutoHelper.RED_MIN && hsv[0] < AutoHelper.RED_MAX) return -1;
+        return 0;
+    }
+
+    /**
+     * Same as android.graphics.Color.RGBToHSV()
+     */
+    static void rgbToHsv(int r, int g, int b, float[] hsv) {
+        int max = Math.max(r, Math.max(g, b));
+        int min = Math.min(r, Math.min(g, b));
+        float delta = max - min;
+        hsv[2] = max / 255.0f;
+        if (max == 0 || delta == 0) {
+            hsv[0] = 0.0f;
+            hsv[1] = 0.0f;
+            return;
+        }
+        hsv[1] = delta / max;
+        float h;
+        if (r == max) {
+            h = (g - b) / delta;
+        } else if (g == max) {
+            h = 2.0f + (b - r) / delta;
+        } else {
+            h = 4.0f + (r - g) / delta;
+        }
+        h *= 60.0f;
+        if (h < 0.0f) h += 360.0f;
+        hsv[0] = h;
+    }
+}
@@ -0,0 +1,58 @@
+package org.firstinspires.ftc.teamcode;
+
+/**
+ * Checks the ColorClassifier glyph table decides like Intake's old alpha() test, on a computer:
+ * every alpha from 0 to 255 (and a few over full scale), each with a spread of red, green and
+ * blue counts, must come out gray exactly when alpha > GLYPH_GRAY_ALPHA.
+ *
+ *      gradle -p TeamCodeSim glyphCheck
+ *
+ * Prints the readings that differ and exits 1 if there are any.
+ */
+public class ColorClassifierCheck {
+
+    static final int[] OVER_FULL_SCALE = {256, 300, 1000, 4000};
+    static final int RGB_STEP = 17;
+    static final int MAX_PRINTED = 20;
+
+    static int checked = 0;
+    static int differing = 0;
+
+    public static void main(String[] args) {
+        ColorClassifier table = ColorClassifier.glyph().build();
+
+        for (int alpha = 0; alpha <= ColorClassifier.FULL_SCALE; alpha++) {
+            check(table, alpha);
+        }
+        for (int alpha : OVER_FULL_SCALE) {
+            check(table, alpha);
+        }
+
+        System.out.println("Glyph table: " + checked + " readings, " + differing +
+                " differ from alpha > " + Intake.GLYPH_GRAY_ALPHA);
+        if (differing > 0) System.exit(1);
+    }
+
+    private static void check(ColorClassifier table, int alpha) {
+        int expected = (alpha > Intake.GLYPH_GRAY_ALPHA) ? ColorClassifier.GLYPH_GRAY : ColorClassifier.GLYPH_BROWN;
+        for (int r = 0; r <= ColorClassifier.FULL_SCALE; r += RGB_STEP) {
+            for (int g = 0; g <= ColorClassifier.FULL_SCALE; g += RGB_STEP) {
+                for (int b = 0; b <= ColorClassifier.FULL_SCALE; b += RGB_STEP) {
+                    int got = table.classify(r, g, b, alpha);
+                    checked++;
+                    if (got != expected) {
+                        if (differing < MAX_PRINTED) {
+                            System.out.println("alpha " + alpha + " rgb " + r + "," + g + "," + b +
+                                    ": table says " + name(got) + ", alpha() test " + name(expected));
+                        }
+                        differing++;
+                    }
+                }
+            }
+        }
+    }
+
+    private static String name(int glyph) {
+        return (glyph == ColorClassifier.GLYPH_GRAY) ? "gray" : "brown";
+    }
+}
@@ -0,0 +1,165 @@
+package org.firstinspires.ftc.teamcode;
+
+import java.util.EnumSet;
+
+/**
+ *    One thing for the robot to do in autonomous -- a drive, a lift move, a flip -- run a cycle
+ *    at a time by the CommandScheduler so that commands on different subsystems can run together.
+ *
+ *    A command claims the subsystems it moves.  Each cycle the scheduler calls execute() with the
+ *    cycle's snapshot, then isFinished(); once it is finished (or interrupted) end() runs once.
+ *    Don't sleep or wait in any of them.
+ *
+ *    Groups are made with the static methods here:
+ *      sequence  - one after the other
+ *      parallel  - all at once, done when all are done
+ *      race      - all at once, done when any one is done
+ *      deadline  - all at once, done when the first one is done
+ */
+public abstract class Command {
+
+    final EnumSet<Subsystem> requirements = EnumSet.noneOf(Subsystem.class);
+    String name;
+
+    protected Command(String name, Subsystem... needs) {
+        this.name = name;
+        for (Subsystem s : needs) {
+            requirements.add(s);
+        }
+    }
+
+    /**
+     * Called once when the command starts
+     */
+    public void initialize(HardwareSnapshot frame) {
+    }
+
+    /**
+     * Called every cycle while the command runs
+     */
+    public void execute(HardwareSnapshot frame) {
+    }
+
+    /**
+     * Checked every cycle after execute()
+     */
+    public abstract boolean isFinished();
+
+    /**
+     * Called once when the command finishes or is interrupted
+     *
+     * @param interrupted   True if it was stopped before it finished
+     */
+    public void end(boolean interrupted) {
+    }
+
+    public EnumSet<Subsystem> getRequirements() {
+        return requirements;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Rename for the log
+     */
+    public Command named(String name) {
+        this.name = name;
+        return this;
+    }
+
+    /**
+     * Give up after this long
+     */
+    public Command withTimeout(long ms) {
+        return race(this, waitMs(ms)).named(name);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /*
+     SIMPLE COMMANDS
+     */
+
+    /**
+     * Do something once and finish
+     */
+    public static Command instant(final StateMachine.Action action, Subsystem... needs) {
+        return new Command("instant", needs) {
+            @Override
+            public void initialize(HardwareSnapshot frame) {
+                action.run();
+            }
+
+            @Override
+            public boolean isFinished() {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Wait a while.  Timed from the snapshots, so it runs on the robot's clock.
+     */
+    public static Command waitMs(final long ms) {
+        return new Command("wait " + ms + " ms") {
+            long startNanos;
+            long nowNanos;
+
+            @Override
+            public void initialize(HardwareSnapshot frame) {
+                startNanos = frame.nanoTime;
+                nowNanos = startNanos;
+            }
+
+            @Override
+            public void execute(HardwareSnapshot frame) {
+                nowNanos = frame.nanoTime;
+            }
+
+            @Override
+            public boolean isFinished() {
+                return nowNanos - startNanos >= ms * 1000000L;
+            }
+        };
+    }
+
+    /**
+     * Wait for a condition.  Checked once a cycle.
+     */
+    public static Command waitUntil(final Waiter.Condition condition) {
+        return new Command("wait until") {
+            @Override
+            public boolean isFinished() {
+                return condition.isMet();
+            }
+        };
+    }
+
+    /*
+     GROUPS
+     */
+
+    public static Command sequence(Command... commands) {
+        return new CommandGroup.Sequential(commands);
+    }
+
+    public static Command parallel(Command... commands) {
+        return new CommandGroup.Parallel(commands);
+    }
+
+    public static Command race(Command... commands) {
+        return new CommandGroup.Race(commands);
+    }
+
+    /**
+     * @param deadline  Runs with the others; when it is done the group is done
+     */
+    public static Command deadline(Command deadline, Command... others) {
+        return new CommandGroup.Deadline(deadline, others);
+    }
+}
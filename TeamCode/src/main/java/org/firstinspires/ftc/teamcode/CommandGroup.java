@@ -0,0 +1,184 @@
+package org.firstinspires.ftc.teamcode;
+
+/**
+ *    Commands run together as one.  A group claims everything its members claim, so the
+ *    scheduler treats it like any other command.  Members of a parallel, race or deadline group
+ *    run in the same cycle, so they can't share a subsystem.
+ *
+ *    A member that starts partway through a cycle (the next one in a sequence) gets its first
+ *    execute() in that same cycle, so a run of instant commands takes no time at all.
+ */
+public abstract class CommandGroup extends Command {
+
+    final Command[] commands;
+
+    CommandGroup(String name, Command[] commands, boolean together) {
+        super(name);
+        this.commands = commands;
+        for (Command c : commands) {
+            if (together) {
+                for (Subsystem s : c.requirements) {
+                    if (requirements.contains(s)) {
+                        throw new IllegalArgumentException(name + ": " + c + " and another member both need " + s);
+                    }
+                }
+            }
+            requirements.addAll(c.requirements);
+        }
+    }
+
+    // Name for the log, e.g. "parallel(flip, collect)"
+    static String describe(String kind, Command[] commands) {
+        StringBuilder sb = new StringBuilder(kind).append('(');
+        for (int i = 0; i < commands.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(commands[i]);
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     *    One after the other
+     */
+    public static class Sequential extends CommandGroup {
+        int index = 0;
+        boolean started = false;           // Has commands[index] been initialized?
+
+        public Sequential(Command... commands) {
+            super(describe("sequence", commands), commands, false);
+        }
+
+        @Override
+        public void initialize(HardwareSnapshot frame) {
+            index = 0;
+            started = false;
+        }
+
+        @Override
+        public void execute(HardwareSnapshot frame) {
+            while (index < commands.length) {
+                Command c = commands[index];
+                if (!started) {
+                    c.initialize(frame);
+                    started = true;
+                }
+                c.execute(frame);
+                if (!c.isFinished()) return;
+                c.end(false);
+                index++;
+                started = false;
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return index >= commands.length;
+        }
+
+        @Override
+        public void end(boolean interrupted) {
+            if (interrupted && started && index < commands.length) {
+                commands[index].end(true);
+            }
+        }
+    }
+
+    /**
+     *    All at once; done when every member is done
+     */
+    public static class Parallel extends CommandGroup {
+        final boolean[] running;
+
+        public Parallel(Command... commands) {
+            this(describe("parallel", commands), commands);
+        }
+
+        Parallel(String name, Command[] commands) {
+            super(name, commands, true);
+            running = new boolean[commands.length];
+        }
+
+        @Override
+        public void initialize(HardwareSnapshot frame) {
+            for (int i = 0; i < commands.length; i++) {
+                commands[i].initialize(frame);
+                running[i] = true;
+            }
+        }
+
+        @Override
+        public void execute(HardwareSnapshot frame) {
+            for (int i = 0; i < commands.length; i++) {
+                if (!running[i]) continue;
+                commands[i].execute(frame);
+                if (commands[i].isFinished()) {
+                    commands[i].end(false);
+                    running[i] = false;
+                    finished(i);
+                }
+            }
+        }
+
+        // A member has finished; races and deadlines may end here
+        void finished(int i) {
+        }
+
+        // Interrupt every member still running
+        void stopAll() {
+            for (int i = 0; i < commands.length; i++) {
+                if (running[i]) {
+                    running[i] = false;
+                    commands[i].end(true);
+                }
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            for (boolean r : running) {
+                if (r) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public void end(boolean interrupted) {
+            stopAll();
+        }
+    }
+
+    /**
+     *    All at once; done as soon as any member is done, interrupting the rest
+     */
+    public static class Race extends Parallel {
+        public Race(Command... commands) {
+            super(describe("race", commands), commands);
+        }
+
+        @Override
+        void finished(int i) {
+            stopAll();
+        }
+    }
+
+    /**
+     *    All at once; done when the first member (the deadline) is done, interrupting the rest
+     */
+    public static class Deadline extends Parallel {
+        public Deadline(Command deadline, Command... others) {
+            super(describe("deadline", join(deadline, others)), join(deadline, others));
+        }
+
+        static Command[] join(Command first, Command[] rest) {
+            Command[] all = new Command[rest.length + 1];
+            all[0] = first;
+            System.arraycopy(rest, 0, all, 1, rest.length);
+            return all;
+        }
+
+        @Override
+        void finished(int i) {
+            if (i == 0) stopAll();
+        }
+    }
+}
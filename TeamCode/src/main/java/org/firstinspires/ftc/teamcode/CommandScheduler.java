@@ -0,0 +1,154 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.util.RobotLog;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *    Runs autonomous Commands a cycle at a time, as many at once as don't need the same parts
+ *    of the robot.
+ *
+ *    schedule() a command and it starts on the next run(); call run() once a cycle with that
+ *    cycle's snapshot.  Scheduling a command that needs a subsystem another command has
+ *    interrupts the other one, so the newest order for a subsystem always wins.
+ *
+ *      scheduler.schedule(Command.parallel(liftUp, collect));
+ *      while (!scheduler.isIdle()) {
+ *          scheduler.run(robot.snapshot());
+ *          ...
+ *      }
+ *
+ *    Starts, finishes and interrupts go in the robot log with how long each command ran.
+ */
+public class CommandScheduler {
+
+    private final Clock clock;
+    private final List<Command> starting = new ArrayList<Command>();
+    private final List<Command> running = new ArrayList<Command>();
+    private final List<Long> startNanos = new ArrayList<Long>();     // Matches running
+    private final List<Command> stepping = new ArrayList<Command>();  // Copy of running for run()
+
+    public CommandScheduler(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Start a command on the next run(), interrupting anything that needs the same subsystems.
+     * Does nothing if it is already scheduled.
+     */
+    public void schedule(Command command) {
+        if (isScheduled(command)) return;
+
+        for (int i = running.size() - 1; i >= 0; i--) {
+            Command other = running.get(i);
+            if (conflicts(command, other)) {
+                RobotLog.i("DM10337 -- Commands: " + command + " interrupts " + other);
+                finish(i, true);
+            }
+        }
+        for (int i = starting.size() - 1; i >= 0; i--) {
+            if (conflicts(command, starting.get(i))) {
+                RobotLog.i("DM10337 -- Commands: " + command + " replaces " + starting.get(i) + " before it started");
+                starting.remove(i);
+            }
+        }
+        starting.add(command);
+    }
+
+    /**
+     * Run one cycle: start anything newly scheduled, then step every running command once and
+     * end the ones that are finished.
+     *
+     * @param frame     This cycle's snapshot
+     */
+    public void run(HardwareSnapshot frame) {
+        // Commands scheduled by other commands during this cycle wait for the next one
+        int newCount = starting.size();
+        for (int i = 0; i < newCount; i++) {
+            Command c = starting.get(i);
+            RobotLog.i("DM10337 -- Commands: start " + c + " " + c.requirements);
+            running.add(c);
+            startNanos.add(frame.nanoTime);
+            c.initialize(frame);
+        }
+        starting.subList(0, newCount).clear();
+
+        // A command's execute() can schedule another that interrupts any of these, which moves
+        // the rest down running, so step through a copy and look each one up again
+        stepping.clear();
+        stepping.addAll(running);
+        for (int n = 0; n < stepping.size(); n++) {
+            Command c = stepping.get(n);
+            if (!running.contains(c)) continue;
+            c.execute(frame);
+            int i = running.indexOf(c);
+            if (i >= 0 && c.isFinished()) {
+                finish(i, false);
+            }
+        }
+    }
+
+    /**
+     * Stop a command if it is scheduled
+     */
+    public void cancel(Command command) {
+        starting.remove(command);
+        int i = running.indexOf(command);
+        if (i >= 0) finish(i, true);
+    }
+
+    /**
+     * Stop whatever command has this subsystem
+     */
+    public void cancel(Subsystem subsystem) {
+        Command c = requiring(subsystem);
+        if (c != null) cancel(c);
+    }
+
+    public void cancelAll() {
+        starting.clear();
+        while (!running.isEmpty()) {
+            finish(running.size() - 1, true);
+        }
+    }
+
+    public boolean isScheduled(Command command) {
+        return starting.contains(command) || running.contains(command);
+    }
+
+    /**
+     * @return  True if nothing is running or waiting to start
+     */
+    public boolean isIdle() {
+        return starting.isEmpty() && running.isEmpty();
+    }
+
+    /**
+     * @return  The command that has a subsystem, or null if it is free
+     */
+    public Command requiring(Subsystem subsystem) {
+        for (Command c : running) {
+            if (c.requirements.contains(subsystem)) return c;
+        }
+        for (Command c : starting) {
+            if (c.requirements.contains(subsystem)) return c;
+        }
+        return null;
+    }
+
+    private static boolean conflicts(Command a, Command b) {
+        for (Subsystem s : a.requirements) {
+            if (b.requirements.contains(s)) return true;
+        }
+        return false;
+    }
+
+    private void finish(int i, boolean interrupted) {
+        Command c = running.remove(i);
+        long started = startNanos.remove(i);
+        c.end(interrupted);
+        RobotLog.i(String.format("DM10337 -- Commands: %s %s after %.0f ms", c,
+                interrupted ? "interrupted" : "done", (clock.nanoTime() - started) / 1.0e6));
+    }
+}
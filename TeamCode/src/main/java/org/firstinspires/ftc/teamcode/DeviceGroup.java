@@ -0,0 +1,124 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.util.RobotLog;
+
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ *    One piece of robot init (some devices looked up and set up together) that can run on its
+ *    own thread while init carries on, or not at all until something asks for it.
+ *
+ *      start()     Run it now on a background thread
+ *      get()       Its result, waiting for it to finish.  If it was never started, it runs right
+ *                  here, so devices an OpMode doesn't use are never set up
+ *
+ *    An exception in the init comes out of get(), so a missing device still stops the OpMode
+ *    that needs it.  On simulated time start() runs the init right away on the caller's thread,
+ *    like ImuSampler, so simulations stay repeatable.
+ */
+public class DeviceGroup<T> {
+
+    final String name;
+    final Clock clock;
+    private final FutureTask<T> task;
+
+    private volatile boolean async = false;
+    private volatile long startNanos = -1;
+    private volatile long readyNanos = -1;
+    private volatile long waitedNanos = 0;
+
+    /**
+     * @param name  For the log
+     * @param clock Robot clock, for the timings
+     * @param init  Sets the devices up and returns what callers want from them
+     */
+    public DeviceGroup(String name, Clock clock, final Callable<T> init) {
+        this.name = name;
+        this.clock = clock;
+        this.task = new FutureTask<>(new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                startNanos = DeviceGroup.this.clock.nanoTime();
+                try {
+                    return init.call();
+                } finally {
+                    readyNanos = DeviceGroup.this.clock.nanoTime();
+                    RobotLog.i("DM10337 -- Init " + DeviceGroup.this);
+                }
+            }
+        });
+    }
+
+    /**
+     * Start the init on its own thread
+     */
+    public DeviceGroup<T> start() {
+        if (clock instanceof VirtualClock) {
+            task.run();
+            return this;
+        }
+        async = true;
+        Thread thread = new Thread(task, "Init " + name);
+        thread.setDaemon(true);
+        thread.start();
+        return this;
+    }
+
+    /**
+     * @return  What the init returned, once it has finished
+     */
+    public T get() {
+        if (!task.isDone()) {
+            long start = clock.nanoTime();
+            task.run();             // Does nothing if the init already started on its thread
+            try {
+                return task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting for " + name, e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Init " + name + " failed", e.getCause());
+            } finally {
+                if (async) waitedNanos += clock.nanoTime() - start;
+            }
+        }
+        try {
+            return task.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException("Init " + name + " failed", e.getCause());
+        }
+    }
+
+    /**
+     * @return  True once the init has finished, without waiting for it
+     */
+    public boolean isReady() {
+        return task.isDone();
+    }
+
+    /**
+     * @return  How long the init took, or has taken so far; 0 if it hasn't started
+     */
+    public double initMs() {
+        if (startNanos < 0) return 0.0;
+        long end = (readyNanos >= 0) ? readyNanos : clock.nanoTime();
+        return (end - startNanos) / 1.0e6;
+    }
+
+    /**
+     * @return  How long get() callers sat waiting for the background init
+     */
+    public double waitedMs() {
+        return waitedNanos / 1.0e6;
+    }
+
+    @Override
+    public String toString() {
+        String state = (startNanos < 0) ? "not started" : (readyNanos < 0) ? "running" : "ready";
+        return String.format(Locale.US, "%s: %s, %.0f ms%s, waited %.0f ms", name, state, initMs(),
+                async ? " on its own thread" : "", waitedMs());
+    }
+}
@@ -0,0 +1,358 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.util.RobotLog;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ *    Cheap logging for the control loops.  RobotLog.i("..." + value) builds a string and writes
+ *    to logcat right there on the OpMode thread; EventLog.log(Event.X, value) just copies an event
+ *    number and a few doubles into a preallocated ring buffer.  A background thread turns them
+ *    into text for the robot log and writes them in binary to a rotating file, which
+ *    EventLogDecoder turns back into text.
+ *
+ *    Any thread can log.  If the writer falls so far behind that the ring is full, new records
+ *    are dropped and counted rather than blocking the robot.
+ *
+ *    File format: a header (magic, version, then the name and format of every event so old files
+ *    still decode after the enum changes), then records of
+ *    (long nanos, short event, byte count, count x double).
+ */
+public class EventLog {
+
+    /**
+     *    Everything we log.  The format gets the payload values, all doubles.
+     */
+    public enum Event {
+        LOG_DROPPED             ("Event log dropped %.0f records"),
+
+        INTAKE_OPEN             ("Intake set to OPEN"),
+        INTAKE_CLOSED           ("Intake set to CLOSED"),
+        INTAKE_IN               ("Intake set IN"),
+        INTAKE_IN_SLOW          ("Intake set IN SLOW"),
+        INTAKE_STOP             ("Intake set STOP"),
+        INTAKE_OUT              ("Intake set OUT"),
+        GLYPH_GRAY              ("Glyph color is GRAY. Alpha:%.0f"),
+        GLYPH_BROWN             ("Glyph color is BROWN. Alpha:%.0f"),
+
+        GRIP_TOP_OPEN           ("Gripper TOP set to OPEN"),
+        GRIP_BTM_OPEN           ("Gripper BOTTOM set to OPEN"),
+        GRIP_BTM_PARTIAL        ("Gripper BOTTOM set to PARTIAL OPEN"),
+        GRIP_TOP_PARTIAL        ("Gripper TOP set to PARTIAL OPEN"),
+        GRIP_EXTEND_OUT         ("Gripper set to OUT position"),
+        PUSHER_HOME             ("Pusher set to HOME position"),
+        PUSHER_INIT             ("Pusher set to INIT position"),
+        GRIP_TOP_CLOSED         ("Gripper TOP set to CLOSED"),
+        GRIP_BTM_CLOSED         ("Gripper BOTTOM set to CLOSED"),
+        GRIP_FLIP               ("Flipping Gripper"),
+        GRIP_FLIPPED_BLACK_UP   ("Gripper FLIPPED. Black Up!"),
+        GRIP_FLIPPED_PURPLE_UP  ("Gripper FLIPPED. Purple Up!"),
+
+        RELIC_OUT               ("Set Relic OUT"),
+        RELIC_IN                ("Set Relic IN"),
+        RELIC_OPEN              ("Set Relic OPEN"),
+        RELIC_CLOSED            ("Set Relic CLOSED"),
+        RELIC_GRAB              ("Set Relic GRAB"),
+        RELIC_PIVOT_HOME        ("Set Relic pivot HOME"),
+        RELIC_PIVOT_OUT         ("Set Relic pivot OUT"),
+        RELIC_PIVOT_GRAB        ("Set Relic to GRAB pivot position: %.4f"),
+        RELIC_PIVOT_DROP        ("Set Relic to DROP pivot position: %.4f"),
+        RELIC_KICKSTAND         ("Set Relic to kickstand position"),
+
+        DRIVE_DONE              ("encoderDrive done  lftarget: %.0f  lfactual:%.0f  lrtarget: %.0f  lractual:%.0f" +
+                                 "  rftarget: %.0f  rfactual:%.0f  rrtarget: %.0f  rractual:%.0f  heading:%.2f"),
+        JEWEL_BLUE              ("Jewel color found blue. Hue:%.1f"),
+        JEWEL_RED               ("Jewel color found red. Hue:%.1f"),
+        JEWEL_NEITHER           ("Jewel color found neither. Hue:%.1f"),
+        GLYPH_DETECTED          ("Glyph DETECTED. Left:%.1f  Right:%.1f  after %.0f ms"),
+        GLYPH_LOST              ("Glyph LOST. Left:%.1f  Right:%.1f"),
+        JEWEL_CLASS             ("Jewel color %.0f (1 blue, -1 red)  confidence:%.2f  red:%.0f blue:%.0f"),
+        CALIBRATION_LOADED      ("Calibration revision %.0f loaded, %.0f values from file, crc %.0f");
+
+        public final String format;
+
+        Event(String format) {
+            this.format = format;
+        }
+    }
+
+    static final int        CAPACITY        = 4096;         // Records in the ring, a power of 2
+    static final int        SLOTS           = 9;            // Most doubles in one record
+    static final long       FILE_LIMIT      = 1L << 20;     // Start a new file after this many bytes
+    static final int        FILES_KEPT      = 4;
+    static final long       WRITER_SLEEP_MS = 20;
+    static final String     FILE_PREFIX     = "dm10337_events_";
+    static final String     FILE_SUFFIX     = ".dmlog";
+    static final int        MAGIC           = 0x444D4556;   // "DMEV"
+    static final short      VERSION         = 1;
+    static final String     TAG             = "DM10337 -- ";
+
+    // The ring.  A record is claimed by moving head, filled in, then committed by storing its
+    // sequence number; the writer only reads a record once it is committed
+    private static final long[] nanos = new long[CAPACITY];
+    private static final int[] events = new int[CAPACITY];
+    private static final int[] counts = new int[CAPACITY];
+    private static final double[] payload = new double[CAPACITY * SLOTS];
+    private static final AtomicLongArray committed = new AtomicLongArray(CAPACITY);
+    private static final AtomicLong head = new AtomicLong(0);
+    private static volatile long tail = 0;
+    private static final AtomicLong dropped = new AtomicLong(0);
+
+    // Where things go
+    public static volatile boolean echoToRobotLog = true;
+    private static volatile Clock clock = RealClock.INSTANCE;
+    private static volatile File dir = null;
+    private static Thread writer = null;
+
+    // Writer thread only
+    private static DataOutputStream out = null;
+    private static long fileBytes = 0;
+    private static int fileIndex = 0;
+    private static final Object[] args = new Object[SLOTS];
+    private static final Event[] EVENTS = Event.values();
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            committed.set(i, -1);
+        }
+    }
+
+    private EventLog() {
+    }
+
+    /**
+     * Start the background writer if it isn't running.  Safe to call every init.
+     *
+     * @param logDir    Folder for the binary files, or null for the robot log only
+     * @param c         Clock to timestamp records with
+     */
+    public static synchronized void start(File logDir, Clock c) {
+        clock = c;
+        if (logDir != null && !logDir.equals(dir)) {
+            dir = logDir;
+            closeFile();        // Writer opens the new one
+        }
+        if (writer == null) {
+            writer = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    writerLoop();
+                }
+            }, "EventLog writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    public static void log(Event e) {
+        write(e, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    public static void log(Event e, double a) {
+        write(e, 1, a, 0, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    public static void log(Event e, double a, double b) {
+        write(e, 2, a, b, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    public static void log(Event e, double a, double b, double c) {
+        write(e, 3, a, b, c, 0, 0, 0, 0, 0, 0);
+    }
+
+    public static void log(Event e, double a, double b, double c, double d) {
+        write(e, 4, a, b, c, d, 0, 0, 0, 0, 0);
+    }
+
+    public static void log(Event e, double a, double b, double c, double d,
+                           double f, double g, double h, double i, double j) {
+        write(e, 9, a, b, c, d, f, g, h, i, j);
+    }
+
+    private static void write(Event e, int n, double a, double b, double c, double d,
+                              double f, double g, double h, double i, double j) {
+        // Claim a record, unless the ring is full
+        long seq;
+        while (true) {
+            seq = head.get();
+            if (seq - tail >= CAPACITY) {
+                dropped.incrementAndGet();
+                return;
+            }
+            if (head.compareAndSet(seq, seq + 1)) break;
+        }
+
+        int slot = (int) (seq & (CAPACITY - 1));
+        int base = slot * SLOTS;
+        nanos[slot] = clock.nanoTime();
+        events[slot] = e.ordinal();
+        counts[slot] = n;
+        payload[base] = a;
+        payload[base + 1] = b;
+        payload[base + 2] = c;
+        payload[base + 3] = d;
+        payload[base + 4] = f;
+        payload[base + 5] = g;
+        payload[base + 6] = h;
+        payload[base + 7] = i;
+        payload[base + 8] = j;
+        committed.set(slot, seq);
+    }
+
+    /**
+     *    Write out everything logged so far.  For the end of an OpMode; the writer does this on
+     *    its own every WRITER_SLEEP_MS.
+     */
+    public static synchronized void flush() {
+        drain();
+    }
+
+    private static void writerLoop() {
+        while (true) {
+            synchronized (EventLog.class) {
+                drain();
+            }
+            try {
+                Thread.sleep(WRITER_SLEEP_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // Format and write every committed record.  Called holding the class lock
+    private static void drain() {
+        long lost = dropped.getAndSet(0);
+        if (lost > 0) {
+            emit(Event.LOG_DROPPED.ordinal(), clock.nanoTime(), 1, -1, lost);
+        }
+
+        long seq = tail;
+        while (true) {
+            int slot = (int) (seq & (CAPACITY - 1));
+            if (committed.get(slot) != seq) break;
+            emit(events[slot], nanos[slot], counts[slot], slot * SLOTS, 0.0);
+            seq++;
+            tail = seq;         // Record is free for reuse
+        }
+
+        if (out != null) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                fileFailed(e);
+            }
+        }
+    }
+
+    // Write one record.  Payload is at base in the ring, or for a record that isn't in the ring
+    // (base -1) every value is extra
+    private static void emit(int event, long time, int n, int base, double extra) {
+        boolean inRing = base >= 0;
+
+        if (echoToRobotLog) {
+            for (int k = 0; k < n; k++) {
+                args[k] = inRing ? payload[base + k] : extra;
+            }
+            for (int k = n; k < SLOTS; k++) {
+                args[k] = null;
+            }
+            RobotLog.i(TAG + format(event, args));
+        }
+
+        if (dir == null) return;
+        try {
+            if (out == null || fileBytes >= FILE_LIMIT) {
+                openFile();
+            }
+            out.writeLong(time);
+            out.writeShort(event);
+            out.writeByte(n);
+            for (int k = 0; k < n; k++) {
+                out.writeDouble(inRing ? payload[base + k] : extra);
+            }
+            fileBytes += 8 + 2 + 1 + 8 * n;
+        } catch (IOException e) {
+            fileFailed(e);
+        }
+    }
+
+    static String format(int event, Object[] values) {
+        if (event < 0 || event >= EVENTS.length) {
+            return "unknown event " + event;
+        }
+        return String.format(Locale.US, EVENTS[event].format, values);
+    }
+
+    private static void openFile() throws IOException {
+        closeFile();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("can't create " + dir);
+        }
+
+        // Carry on numbering from the newest file already there
+        if (fileIndex == 0) {
+            String[] names = dir.list();
+            if (names != null) {
+                for (String name : names) {
+                    if (name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX)) {
+                        try {
+                            int index = Integer.parseInt(name.substring(FILE_PREFIX.length(),
+                                    name.length() - FILE_SUFFIX.length()));
+                            fileIndex = Math.max(fileIndex, index);
+                        } catch (NumberFormatException e) {
+                            // Not one of ours
+                        }
+                    }
+                }
+            }
+        }
+        fileIndex++;
+
+        File old = fileFor(fileIndex - FILES_KEPT);
+        if (old.exists() && !old.delete()) {
+            RobotLog.i(TAG + "Couldn't delete old event log " + old);
+        }
+
+        File file = fileFor(fileIndex);
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 8192));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeShort(EVENTS.length);
+        for (Event e : EVENTS) {
+            out.writeUTF(e.name());
+            out.writeUTF(e.format);
+        }
+        fileBytes = out.size();
+        RobotLog.i(TAG + "Event log writing to " + file);
+    }
+
+    private static File fileFor(int index) {
+        return new File(dir, FILE_PREFIX + index + FILE_SUFFIX);
+    }
+
+    private static void closeFile() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                // Nothing more we can do with it
+            }
+            out = null;
+        }
+    }
+
+    // Give up on the file rather than failing every record; the robot log still gets them
+    private static void fileFailed(IOException e) {
+        RobotLog.i(TAG + "Event log file failed, robot log only: " + e);
+        closeFile();
+        dir = null;
+    }
+}
@@ -0,0 +1,103 @@
+package org.firstinspires.ftc.teamcode;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ *    Turns EventLog's binary files back into text.  Pull the files off the phone (they are in
+ *    FIRST/data) and run on a computer:
+ *
+ *      java org.firstinspires.ftc.teamcode.EventLogDecoder dm10337_events_12.dmlog ...
+ *
+ *    Each line is seconds since the first record in the file, the event name, then the message.
+ *    Uses the event names and formats saved in the file, so it decodes files from older code too.
+ */
+public class EventLogDecoder {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("usage: EventLogDecoder file.dmlog ...");
+            return;
+        }
+        for (String name : args) {
+            System.out.println("== " + name);
+            InputStream in = new FileInputStream(name);
+            try {
+                decode(in, System.out);
+            } finally {
+                in.close();
+            }
+        }
+    }
+
+    /**
+     * Decode one file
+     *
+     * @param input     The file's bytes
+     * @param out       Where to print the text
+     * @return  Number of records decoded
+     * @throws IOException  If this isn't an event log or it can't be read
+     */
+    public static int decode(InputStream input, PrintStream out) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+
+        if (in.readInt() != EventLog.MAGIC) {
+            throw new IOException("not an event log");
+        }
+        short version = in.readShort();
+        if (version != EventLog.VERSION) {
+            throw new IOException("event log version " + version + ", expected " + EventLog.VERSION);
+        }
+        int eventCount = in.readShort();
+        String[] names = new String[eventCount];
+        String[] formats = new String[eventCount];
+        for (int i = 0; i < eventCount; i++) {
+            names[i] = in.readUTF();
+            formats[i] = in.readUTF();
+        }
+
+        int records = 0;
+        long firstNanos = 0;
+        Object[] values = new Object[256];
+        while (true) {
+            long nanos;
+            try {
+                nanos = in.readLong();
+            } catch (EOFException e) {
+                break;      // Clean end of file
+            }
+            int event;
+            int n;
+            try {
+                event = in.readShort();
+                n = in.readUnsignedByte();
+                for (int k = 0; k < n; k++) {
+                    values[k] = in.readDouble();
+                }
+            } catch (EOFException e) {
+                out.println("(file ends in the middle of a record)");
+                break;
+            }
+
+            if (records == 0) firstNanos = nanos;
+            records++;
+
+            String text;
+            if (event >= 0 && event < eventCount) {
+                Object[] used = new Object[n];
+                System.arraycopy(values, 0, used, 0, n);
+                text = String.format(Locale.US, "%-24s %s", names[event], String.format(Locale.US, formats[event], used));
+            } else {
+                text = "unknown event " + event;
+            }
+            out.println(String.format(Locale.US, "%10.3f  %s", (nanos - firstNanos) / 1.0e9, text));
+        }
+        return records;
+    }
+}
@@ -0,0 +1,146 @@
+package org.firstinspires.ftc.teamcode;
+
+import java.nio.ByteBuffer;
+import java.util.Locale;
+
+/**
+ *    One control cycle in a flight recording: what the robot read and what it was commanding.
+ *
+ *    Also defines the fixed layout FlightRecorder writes and FlightRecordReader reads.  A file
+ *    is a HEADER_SIZE byte header then CAPACITY slots of RECORD_SIZE bytes, little endian.
+ *    Cycle n goes in slot n % CAPACITY, so the file always holds the latest CAPACITY cycles.
+ *
+ *    Encoders, switches and heading were read for this cycle.  The heading is kept at full
+ *    precision, since it is the one the turn and steering code used.  Intake distances and glyph alpha
+ *    are whatever the code last read, so they are the readings from the cycle before.  Powers
+ *    and servo positions are the commands in effect when the cycle started, i.e. what the cycle
+ *    before decided.  NaN means we didn't know (nothing read or commanded yet).
+ */
+public class FlightRecord {
+
+    // Header
+    static final int    MAGIC           = 0x444D4652;   // "DMFR"
+    static final short  VERSION         = 1;
+    static final int    HEADER_SIZE     = 64;
+    static final int    H_MAGIC         = 0;            // int
+    static final int    H_VERSION       = 4;            // short
+    static final int    H_RECORD_SIZE   = 6;            // short
+    static final int    H_CAPACITY      = 8;            // int
+    static final int    H_COUNT         = 16;           // long, cycles written, updated after each
+    static final int    H_START_MILLIS  = 24;           // long, wall clock when the file was opened
+
+    // Record
+    static final int    RECORD_SIZE     = 152;
+    static final int    CAPACITY        = 32768;        // About 5 minutes at 100 cycles a second
+    static final int    R_NANOS         = 0;            // long, when the cycle started
+    static final int    R_CYCLE         = 8;            // int
+    static final int    R_FLAGS         = 12;           // int, F_* bits
+    static final int    R_ENCODERS      = 16;           // int x ENCODERS
+    static final int    R_ALPHA         = 44;           // int
+    static final int    R_DIST_LEFT     = 48;           // float, cm
+    static final int    R_DIST_RIGHT    = 52;           // float, cm
+    static final int    R_HEADING       = 56;           // double, raw IMU degrees
+    static final int    R_TURN_RATE     = 64;           // double, degrees/sec
+    static final int    R_POWERS        = 72;           // float x POWERS
+    static final int    R_SERVOS        = 104;          // float x SERVOS
+    static final int    R_FRAME_NANOS   = 144;          // long, when the encoders were read
+
+    static final int    F_LIFT_BOTTOM   = 1;
+    static final int    F_LIFT_TOP      = 1 << 1;
+    static final int    F_LEFT1_BUSY    = 1 << 2;
+    static final int    F_LEFT2_BUSY    = 1 << 3;
+    static final int    F_RIGHT1_BUSY   = 1 << 4;
+    static final int    F_RIGHT2_BUSY   = 1 << 5;
+    static final int    F_LIFT_BUSY     = 1 << 6;
+
+    // Indexes into encoders[]
+    public static final int LEFT1 = 0, LEFT2 = 1, RIGHT1 = 2, RIGHT2 = 3, LIFT = 4, LIFT_TARGET = 5, RELIC = 6;
+    public static final int ENCODERS = 7;
+    static final String[] ENCODER_NAMES = {"ldrive1", "ldrive2", "rdrive1", "rdrive2", "lift", "liftTarget", "relic"};
+
+    // Indexes into powers[]
+    public static final int INTAKE_LEFT = 4, INTAKE_RIGHT = 5, LIFT_POWER = 6, RELIC_POWER = 7;
+    public static final int POWERS = 8;
+    static final String[] POWER_NAMES = {"ldrive1", "ldrive2", "rdrive1", "rdrive2",
+            "intakeLeft", "intakeRight", "lift", "relicMotor"};
+
+    // Indexes into servos[]
+    public static final int JEWEL = 0, JEWEL_ROT = 1, INTAKE_LEFT_SERVO = 2, INTAKE_RIGHT_SERVO = 3,
+            PURPLE_GRIP = 4, BLACK_GRIP = 5, GRIP_ROTATE = 6, GRIP_EXTEND = 7, RELIC_GRIP = 8, RELIC_PIVOT = 9;
+    public static final int SERVOS = 10;
+    static final String[] SERVO_NAMES = {"jewel", "jewelRot", "ils", "irs", "gripP", "gripB",
+            "gripRotate", "gripExtend", "relicGrip", "relicPivot"};
+
+    public long     nanoTime;
+    public long     frameNanoTime;
+    public int      cycle;
+    public int      flags;
+    public final int[]    encoders = new int[ENCODERS];
+    public int      glyphAlpha;
+    public double   distLeft;
+    public double   distRight;
+    public double   heading;
+    public double   turnRate;
+    public final double[] powers = new double[POWERS];
+    public final double[] servos = new double[SERVOS];
+
+    public boolean liftAtBottom() {
+        return (flags & F_LIFT_BOTTOM) != 0;
+    }
+
+    public boolean liftAtTop() {
+        return (flags & F_LIFT_TOP) != 0;
+    }
+
+    /**
+     * Fill this record from the slot starting at base
+     */
+    void read(ByteBuffer buf, int base) {
+        nanoTime = buf.getLong(base + R_NANOS);
+        cycle = buf.getInt(base + R_CYCLE);
+        flags = buf.getInt(base + R_FLAGS);
+        for (int i = 0; i < ENCODERS; i++) {
+            encoders[i] = buf.getInt(base + R_ENCODERS + 4 * i);
+        }
+        glyphAlpha = buf.getInt(base + R_ALPHA);
+        distLeft = buf.getFloat(base + R_DIST_LEFT);
+        distRight = buf.getFloat(base + R_DIST_RIGHT);
+        heading = buf.getDouble(base + R_HEADING);
+        turnRate = buf.getDouble(base + R_TURN_RATE);
+        for (int i = 0; i < POWERS; i++) {
+            powers[i] = buf.getFloat(base + R_POWERS + 4 * i);
+        }
+        for (int i = 0; i < SERVOS; i++) {
+            servos[i] = buf.getFloat(base + R_SERVOS + 4 * i);
+        }
+        frameNanoTime = buf.getLong(base + R_FRAME_NANOS);
+    }
+
+    /**
+     * @return  Column names matching toCsv()
+     */
+    public static String csvHeader() {
+        StringBuilder sb = new StringBuilder("t,cycle,frameAge,liftBottom,liftTop,busy");
+        for (String name : ENCODER_NAMES) sb.append(',').append(name);
+        sb.append(",alpha,distLeft,distRight,heading,turnRate");
+        for (String name : POWER_NAMES) sb.append(",pwr_").append(name);
+        for (String name : SERVO_NAMES) sb.append(",srv_").append(name);
+        return sb.toString();
+    }
+
+    /**
+     * @param startNanos    Time to count t from, usually the first record's
+     */
+    public String toCsv(long startNanos) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.US, "%.4f,%d,%.1f,%d,%d,%d", (nanoTime - startNanos) / 1.0e9, cycle,
+                Math.max(0, nanoTime - frameNanoTime) / 1.0e6, liftAtBottom() ? 1 : 0, liftAtTop() ? 1 : 0,
+                (flags >> 2) & 0x1F));
+        for (int value : encoders) sb.append(',').append(value);
+        sb.append(',').append(glyphAlpha);
+        sb.append(String.format(Locale.US, ",%.2f,%.2f,%.2f,%.1f", distLeft, distRight, heading, turnRate));
+        for (double value : powers) sb.append(String.format(Locale.US, ",%.3f", value));
+        for (double value : servos) sb.append(String.format(Locale.US, ",%.4f", value));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,129 @@
+package org.firstinspires.ftc.teamcode;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ *    Streams the cycles out of a flight recording, oldest first.  Works on a file pulled off the
+ *    phone (FIRST/data/dm10337_flight_N.dmrec) or on a FlightRecorder's buffer in the simulator.
+ *
+ *    To dump a file as CSV on a computer:
+ *
+ *      java org.firstinspires.ftc.teamcode.FlightRecordReader dm10337_flight_7.dmrec > run.csv
+ */
+public class FlightRecordReader {
+
+    private final ByteBuffer buf;
+    private final int capacity;
+    private final int recordSize;
+    private final long first;       // Oldest cycle still in the file
+    private final long end;         // One past the newest
+    private long next;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("usage: FlightRecordReader file.dmrec");
+            return;
+        }
+        dump(new FlightRecordReader(new File(args[0])), System.out);
+    }
+
+    /**
+     * Map a recording file
+     */
+    public FlightRecordReader(File file) throws IOException {
+        this(map(file));
+    }
+
+    /**
+     * Read a recording already in memory
+     */
+    public FlightRecordReader(ByteBuffer buffer) throws IOException {
+        buf = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.capacity() < FlightRecord.HEADER_SIZE || buf.getInt(FlightRecord.H_MAGIC) != FlightRecord.MAGIC) {
+            throw new IOException("not a flight recording");
+        }
+        short version = buf.getShort(FlightRecord.H_VERSION);
+        if (version != FlightRecord.VERSION) {
+            throw new IOException("flight recording version " + version + ", expected " + FlightRecord.VERSION);
+        }
+        recordSize = buf.getShort(FlightRecord.H_RECORD_SIZE);
+        capacity = buf.getInt(FlightRecord.H_CAPACITY);
+        if (recordSize < FlightRecord.RECORD_SIZE || capacity <= 0 ||
+                buf.capacity() < FlightRecord.HEADER_SIZE + (long) capacity * recordSize) {
+            throw new IOException("flight recording header doesn't match its size");
+        }
+        end = buf.getLong(FlightRecord.H_COUNT);
+        first = Math.max(0, end - capacity);
+        next = first;
+    }
+
+    private static ByteBuffer map(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            return raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * @return  Cycles in the recording
+     */
+    public int size() {
+        return (int) (end - first);
+    }
+
+    /**
+     * @return  Wall clock time the recording started, milliseconds since 1970
+     */
+    public long startMillis() {
+        return buf.getLong(FlightRecord.H_START_MILLIS);
+    }
+
+    public boolean hasNext() {
+        return next < end;
+    }
+
+    /**
+     * Read the next cycle
+     *
+     * @param record    Filled in with the cycle
+     * @return  False at the end of the recording
+     */
+    public boolean next(FlightRecord record) {
+        if (next >= end) return false;
+        record.read(buf, FlightRecord.HEADER_SIZE + (int) (next % capacity) * recordSize);
+        next++;
+        return true;
+    }
+
+    /**
+     * Go back to the oldest cycle
+     */
+    public void rewind() {
+        next = first;
+    }
+
+    /**
+     * Print every cycle as CSV, times in seconds from the first cycle
+     */
+    public static void dump(FlightRecordReader reader, PrintStream out) {
+        FlightRecord record = new FlightRecord();
+        out.println(FlightRecord.csvHeader());
+        long start = 0;
+        boolean haveStart = false;
+        while (reader.next(record)) {
+            if (!haveStart) {
+                start = record.nanoTime;
+                haveStart = true;
+            }
+            out.println(record.toCsv(start));
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.Servo;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ *    Flight recorder: one FlightRecord per control cycle into a memory mapped file on the phone.
+ *
+ *    HardwareDM18 records a cycle on every snapshot() and on recordCycle() from loops that don't
+ *    take snapshots (gyro turns).  A record is a few dozen stores into the mapped file: no
+ *    system call, no allocation, no extra hardware reads.  It only uses values the cycle already
+ *    has (the snapshot, the commands the write caches remember, the last intake readings and the
+ *    background gyro sample).  The OS writes the pages out on its own, and because the pages
+ *    belong to the kernel the data survives the app crashing, which is when we want it most.
+ *
+ *    The cycle count in the header is written after each record so a reader never sees a half
+ *    written one.  Files are FIRST/data/dm10337_flight_N.dmrec, one per init, newest four kept.
+ *    Read them with FlightRecordReader and replay them with FlightReplay.
+ *
+ *    With no directory (the simulator) it records into memory instead, same layout.
+ */
+public class FlightRecorder {
+
+    static final int    FILES_KEPT      = 4;
+    static final String FILE_PREFIX     = "dm10337_flight_";
+    static final String FILE_SUFFIX     = ".dmrec";
+    static final String TAG             = "DM10337 -- ";
+
+    private ByteBuffer  buf = null;
+    private File        file = null;
+    private int         cycle = 0;
+
+    /**
+     * Start a new recording, ending any earlier one
+     *
+     * @param dir   Directory for the file, or null to record into memory
+     */
+    public void open(File dir) {
+        close();
+        cycle = 0;
+        int size = FlightRecord.HEADER_SIZE + FlightRecord.CAPACITY * FlightRecord.RECORD_SIZE;
+
+        if (dir != null) {
+            try {
+                file = nextFile(dir);
+                RandomAccessFile raf = new RandomAccessFile(file, "rw");
+                try {
+                    raf.setLength(size);
+                    buf = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+                } finally {
+                    raf.close();        // The mapping stays valid
+                }
+                RobotLog.i(TAG + "Flight recorder writing to " + file);
+            } catch (IOException e) {
+                RobotLog.i(TAG + "Flight recorder file failed, recording to memory: " + e);
+                file = null;
+                buf = null;
+            }
+        }
+        if (buf == null) {
+            buf = ByteBuffer.allocate(size);
+        }
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+
+        buf.putInt(FlightRecord.H_MAGIC, FlightRecord.MAGIC);
+        buf.putShort(FlightRecord.H_VERSION, FlightRecord.VERSION);
+        buf.putShort(FlightRecord.H_RECORD_SIZE, (short) FlightRecord.RECORD_SIZE);
+        buf.putInt(FlightRecord.H_CAPACITY, FlightRecord.CAPACITY);
+        buf.putLong(FlightRecord.H_COUNT, 0);
+        buf.putLong(FlightRecord.H_START_MILLIS, System.currentTimeMillis());
+    }
+
+    /**
+     * Push what we have out to the file.  Not needed for the data to survive a crash, only a
+     * power cut.
+     */
+    public void close() {
+        if (buf instanceof MappedByteBuffer) {
+            ((MappedByteBuffer) buf).force();
+        }
+        buf = null;
+        file = null;
+    }
+
+    /**
+     * @return  The recording so far, for FlightRecordReader
+     */
+    public ByteBuffer getBuffer() {
+        if (buf == null) return null;
+        return buf.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public int getCycles() {
+        return cycle;
+    }
+
+    /**
+     * Record one control cycle
+     *
+     * @param robot     Robot the cycle ran on
+     * @param frame     This cycle's hardware snapshot
+     * @param nanoTime  Time to record the cycle at (robot clock)
+     */
+    public void record(HardwareDM18 robot, HardwareSnapshot frame, long nanoTime) {
+        ByteBuffer b = buf;
+        if (b == null || frame == null) return;
+        int base = FlightRecord.HEADER_SIZE + (cycle % FlightRecord.CAPACITY) * FlightRecord.RECORD_SIZE;
+
+        int flags = 0;
+        if (frame.liftAtBottom) flags |= FlightRecord.F_LIFT_BOTTOM;
+        if (frame.liftAtTop) flags |= FlightRecord.F_LIFT_TOP;
+        if (frame.leftDrive1Busy) flags |= FlightRecord.F_LEFT1_BUSY;
+        if (frame.leftDrive2Busy) flags |= FlightRecord.F_LEFT2_BUSY;
+        if (frame.rightDrive1Busy) flags |= FlightRecord.F_RIGHT1_BUSY;
+        if (frame.rightDrive2Busy) flags |= FlightRecord.F_RIGHT2_BUSY;
+        if (frame.liftBusy) flags |= FlightRecord.F_LIFT_BUSY;
+
+        b.putLong(base + FlightRecord.R_NANOS, nanoTime);
+        b.putInt(base + FlightRecord.R_CYCLE, cycle);
+        b.putInt(base + FlightRecord.R_FLAGS, flags);
+
+        int e = base + FlightRecord.R_ENCODERS;
+        b.putInt(e, frame.leftDrive1Pos);
+        b.putInt(e + 4, frame.leftDrive2Pos);
+        b.putInt(e + 8, frame.rightDrive1Pos);
+        b.putInt(e + 12, frame.rightDrive2Pos);
+        b.putInt(e + 16, frame.liftPos);
+        b.putInt(e + 20, frame.liftTarget);
+        b.putInt(e + 24, frame.relicPos);
+
+        Intake intake = robot.intake;
+        b.putInt(base + FlightRecord.R_ALPHA, intake.lastAlpha);
+        b.putFloat(base + FlightRecord.R_DIST_LEFT, (float) intake.lastDistLeft);
+        b.putFloat(base + FlightRecord.R_DIST_RIGHT, (float) intake.lastDistRight);
+        b.putDouble(base + FlightRecord.R_HEADING, frame.heading);
+        b.putDouble(base + FlightRecord.R_TURN_RATE, frame.turnRate);
+
+        int p = base + FlightRecord.R_POWERS;
+        b.putFloat(p, power(robot.leftDrive1));
+        b.putFloat(p + 4, power(robot.leftDrive2));
+        b.putFloat(p + 8, power(robot.rightDrive1));
+        b.putFloat(p + 12, power(robot.rightDrive2));
+        b.putFloat(p + 16, power(intake.intakeLeftMotor));
+        b.putFloat(p + 20, power(intake.intakeRightMotor));
+        b.putFloat(p + 24, power(robot.lift.liftMotor));
+        b.putFloat(p + 28, power(robot.relic.relicMotor));
+
+        int s = base + FlightRecord.R_SERVOS;
+        b.putFloat(s, position(robot.jewelServo));
+        b.putFloat(s + 4, position(robot.jewelRotServo));
+        b.putFloat(s + 8, position(intake.intakeLeftServo));
+        b.putFloat(s + 12, position(intake.intakeRightServo));
+        b.putFloat(s + 16, position(robot.gripper.purpleGrip));
+        b.putFloat(s + 20, position(robot.gripper.blackGrip));
+        b.putFloat(s + 24, position(robot.gripper.rotateServo));
+        b.putFloat(s + 28, position(robot.gripper.extendGrip));
+        b.putFloat(s + 32, position(robot.relic.relicGrip));
+        b.putFloat(s + 36, position(robot.relic.relicPivot));
+
+        b.putLong(base + FlightRecord.R_FRAME_NANOS, frame.nanoTime);
+
+        // Publish the record
+        cycle++;
+        b.putLong(FlightRecord.H_COUNT, cycle);
+    }
+
+    // Last commanded power, from the write cache so it costs no bus read
+    private static float power(DcMotor motor) {
+        if (motor instanceof CachedDcMotor) {
+            CachedDcMotor cached = (CachedDcMotor) motor;
+            return cached.powerKnown ? (float) cached.lastPower : Float.NaN;
+        }
+        return Float.NaN;
+    }
+
+    private static float position(Servo servo) {
+        if (servo instanceof CachedServo) {
+            CachedServo cached = (CachedServo) servo;
+            return cached.positionKnown ? (float) cached.lastPosition : Float.NaN;
+        }
+        return Float.NaN;
+    }
+
+    // Next file number after the newest one there, deleting the oldest we keep
+    private static File nextFile(File dir) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("can't create " + dir);
+        }
+        int index = 0;
+        String[] names = dir.list();
+        if (names != null) {
+            for (String name : names) {
+                if (name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX)) {
+                    try {
+                        index = Math.max(index, Integer.parseInt(name.substring(FILE_PREFIX.length(),
+                                name.length() - FILE_SUFFIX.length())));
+                    } catch (NumberFormatException e) {
+                        // Not one of ours
+                    }
+                }
+            }
+        }
+        index++;
+
+        File old = new File(dir, FILE_PREFIX + (index - FILES_KEPT) + FILE_SUFFIX);
+        if (old.exists() && !old.delete()) {
+            RobotLog.i(TAG + "Couldn't delete old flight recording " + old);
+        }
+        return new File(dir, FILE_PREFIX + index + FILE_SUFFIX);
+    }
+}
@@ -0,0 +1,308 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.util.Range;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ *    Plays a flight recording back into our code: a SimRobot whose sensors read what the real
+ *    robot read, cycle by cycle, instead of coming from the physics model.
+ *
+ *    Run the same OpMode on it with SimRunner.  Each time the code starts a cycle (HardwareDM18
+ *    snapshot() or recordCycle()) we move on to the next recorded cycle: the clock jumps to
+ *    that cycle's time, the encoders, busy flags, lift switches, gyro, intake distances and
+ *    glyph alpha take its readings, and the commands the code has sent so far are checked
+ *    against the ones the robot had in effect.  So AutoHelper makes its decisions on the
+ *    match's own readings and timing, and the first cycle where it does something different is
+ *    where to look.
+ *
+ *    On a computer, with the simulator build (TeamCodeSim/build.gradle), recording path relative
+ *    to TeamCodeSim:
+ *
+ *      gradle -p TeamCodeSim replay -Pargs="dm10337_flight_7.dmrec Auto_Blue_R_3G_Cipher [red|blue]"
+ *
+ *    Things we don't record (jewel color, VuMark, Vuforia) come from the simulator as usual, so
+ *    give the jewel color the robot saw.  The code steers from the heading in the cycle's frame,
+ *    and the frame gets the recorded heading exactly, so the same recording replayed through the
+ *    same code gives the same commands:
+ *
+ *      gradle -p TeamCodeSim replayCheck       Records each match auto in the simulator and
+ *                                              replays it, failing on any difference
+ */
+public class FlightReplay extends SimRobot {
+
+    static final double POWER_TOLERANCE = 0.002;
+    static final double SERVO_TOLERANCE = 0.001;
+    static final int MAX_REPORTED = 20;             // Differences kept for the report
+
+    private final FlightRecordReader reader;
+    private FlightRecord current = new FlightRecord();
+    private FlightRecord ahead = new FlightRecord();
+    private boolean haveAhead;
+    private boolean started = false;
+    private long offsetNanos = 0;                   // Replay time minus recorded time
+    private long firstNanos = 0;
+    private long endNanos = 0;
+    private final SimDcMotor[] motors;              // In FlightRecord.powers order
+    private final SimServo[] servos;                // In FlightRecord.servos order
+
+    // Readings for the current cycle
+    private boolean atBottom = true;
+    private boolean atTop = false;
+    private int busyFlags = 0;
+    private double gyro = 0.0;
+    private double rate = 0.0;
+    private double distLeftCm = Double.POSITIVE_INFINITY;
+    private double distRightCm = Double.POSITIVE_INFINITY;
+    private int alpha = SimColorDistanceSensor.EMPTY_ALPHA;
+
+    // Results
+    int cycles = 0;
+    int cyclesDiffering = 0;
+    boolean ended = false;
+    final List<String> differences = new ArrayList<String>();
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 1 && args[0].equals("--check")) {
+            System.exit(checkRoundTrip(SimRunner.MATCH_AUTOS) ? 0 : 1);
+        }
+        if (args.length < 2) {
+            System.err.println("usage: FlightReplay file.dmrec OpModeClass [red|blue]  or  FlightReplay --check");
+            return;
+        }
+        FlightRecordReader reader = new FlightRecordReader(new File(args[0]));
+        LinearOpMode opMode = SimRunner.newOpMode(args[1]);
+
+        FlightReplay replay = new FlightReplay(reader);
+        if (args.length > 2) replay.setJewelRed(!args[2].equalsIgnoreCase("blue"));
+        SimRunner.Result result = SimRunner.run(opMode, replay, replay.duration() + 5.0);
+        System.out.println(result);
+        System.out.println(replay.report());
+    }
+
+    /**
+     * Run each auto in the simulator, then replay its recording through it again.  Every cycle
+     * has to be replayed with the same commands.
+     *
+     * @param names     Auto class names
+     * @return  True if every replay matched its recording
+     */
+    static boolean checkRoundTrip(String[] names) throws Exception {
+        boolean ok = true;
+        List<String> lines = new ArrayList<String>();
+        for (String name : names) {
+            SimRobot sim = new SimRobot();
+            SimRunner.Result recorded = SimRunner.run(SimRunner.newOpMode(name), sim, SimRunner.AUTO_TIME);
+
+            FlightRecordReader reader = new FlightRecordReader(sim.recorder.getBuffer());
+            FlightReplay replay = new FlightReplay(reader);
+            SimRunner.run(SimRunner.newOpMode(name), replay, replay.duration() + 5.0);
+
+            boolean matched = recorded.error == null && reader.size() > 0 &&
+                    replay.cycles == reader.size() && replay.cyclesDiffering == 0;
+            ok &= matched;
+            lines.add(name + ": " + (matched ? "ok" : "DIFFERS") + ", " + replay.report());
+        }
+
+        // Summary after all the OpModes' own logging
+        System.out.println();
+        for (String line : lines) {
+            System.out.println(line);
+        }
+        return ok;
+    }
+
+    /**
+     * @param reader    Recording to play back, from its start
+     */
+    public FlightReplay(FlightRecordReader reader) {
+        super(new VirtualClock());
+        this.reader = reader;
+        motors = new SimDcMotor[] {leftDrive1, leftDrive2, rightDrive1, rightDrive2, intakeLeft, intakeRight,
+                lift, relicMotor};
+        servos = new SimServo[] {jewel, jewelRot, intakeLeftServo, intakeRightServo, purpleGrip, blackGrip,
+                gripRotate, gripExtend, relicGrip, relicPivot};
+
+        // Find the length, then start from the top
+        reader.rewind();
+        while (reader.next(ahead)) {
+            endNanos = ahead.nanoTime;
+        }
+        reader.rewind();
+        haveAhead = reader.next(ahead);
+        firstNanos = ahead.nanoTime;
+    }
+
+    /**
+     * @return  Seconds from the first recorded cycle to the last
+     */
+    public double duration() {
+        return haveAhead || cycles > 0 ? (endNanos - firstNanos) / 1.0e9 : 0.0;
+    }
+
+    /**
+     * Move on to the next recorded cycle.  Called by HardwareDM18 at the start of each cycle,
+     * before it reads anything.
+     */
+    synchronized void nextCycle() {
+        if (!haveAhead) {
+            if (!ended) {
+                ended = true;
+                RobotLog.i("DM10337 -- Replay: recording ended after " + cycles + " cycles");
+            }
+            return;
+        }
+        FlightRecord swap = current;
+        current = ahead;
+        ahead = swap;
+        haveAhead = reader.next(ahead);
+
+        // Line our time up with the recording
+        long now = (clock instanceof VirtualClock) ? ((VirtualClock) clock).peekNanoTime() : clock.nanoTime();
+        if (!started) {
+            offsetNanos = now - current.nanoTime;
+            started = true;
+        } else {
+            long due = current.nanoTime + offsetNanos;
+            if (due > now && clock instanceof VirtualClock) {
+                ((VirtualClock) clock).advance(due - now);
+            }
+        }
+
+        compare(current);
+
+        leftDrive1.setPosition(current.encoders[FlightRecord.LEFT1]);
+        leftDrive2.setPosition(current.encoders[FlightRecord.LEFT2]);
+        rightDrive1.setPosition(current.encoders[FlightRecord.RIGHT1]);
+        rightDrive2.setPosition(current.encoders[FlightRecord.RIGHT2]);
+        lift.setPosition(current.encoders[FlightRecord.LIFT]);
+        relicMotor.setPosition(current.encoders[FlightRecord.RELIC]);
+        atBottom = current.liftAtBottom();
+        atTop = current.liftAtTop();
+        busyFlags = current.flags;
+        gyro = Double.isNaN(current.heading) ? 0.0 : current.heading;
+        rate = Double.isNaN(current.turnRate) ? 0.0 : current.turnRate;
+
+        // Intake readings are recorded a cycle late (see FlightRecord)
+        FlightRecord sensors = haveAhead ? ahead : current;
+        distLeftCm = Double.isNaN(sensors.distLeft) ? Double.POSITIVE_INFINITY : sensors.distLeft;
+        distRightCm = Double.isNaN(sensors.distRight) ? Double.POSITIVE_INFINITY : sensors.distRight;
+        alpha = (sensors.glyphAlpha < 0) ? SimColorDistanceSensor.EMPTY_ALPHA : sensors.glyphAlpha;
+
+        cycles++;
+    }
+
+    /**
+     * Give a frame the recorded cycle's heading and turn rate.  Called by HardwareDM18 after it
+     * reads the gyro, so the frame has what the robot had, to the bit.
+     */
+    synchronized void replaceHeading(HardwareSnapshot frame) {
+        if (cycles == 0) return;
+        frame.heading = current.heading;
+        frame.turnRate = current.turnRate;
+    }
+
+    // Check the commands the code has sent against what the robot had in effect
+    private void compare(FlightRecord record) {
+        int before = differences.size();
+        boolean differs = false;
+        for (int i = 0; i < FlightRecord.POWERS; i++) {
+            double recorded = record.powers[i];
+            if (!Double.isNaN(recorded) && Math.abs(Range.clip(recorded, -1.0, 1.0) - motors[i].power) > POWER_TOLERANCE) {
+                differs = true;
+                note(record, FlightRecord.POWER_NAMES[i] + " power", recorded, motors[i].power);
+            }
+        }
+        for (int i = 0; i < FlightRecord.SERVOS; i++) {
+            double recorded = record.servos[i];
+            if (!Double.isNaN(recorded) && Math.abs(Range.clip(recorded, 0.0, 1.0) - servos[i].commanded) > SERVO_TOLERANCE) {
+                differs = true;
+                note(record, FlightRecord.SERVO_NAMES[i] + " position", recorded, servos[i].commanded);
+            }
+        }
+        if (differs) {
+            cyclesDiffering++;
+            if (before == 0 && !differences.isEmpty()) {
+                RobotLog.i("DM10337 -- Replay: first difference " + differences.get(0));
+            }
+        }
+    }
+
+    private void note(FlightRecord record, String what, double recorded, double replayed) {
+        if (differences.size() < MAX_REPORTED) {
+            differences.add(String.format(Locale.US, "cycle %d at %.3f s: %s recorded %.3f replayed %.3f",
+                    record.cycle, (record.nanoTime - firstNanos) / 1.0e9, what, recorded, replayed));
+        }
+    }
+
+    /**
+     * @return  How the replay went and the first differences found
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.US, "Replayed %d of %d cycles%s, %d with different commands",
+                cycles, reader.size(), ended ? "" : " (code stopped first)", cyclesDiffering));
+        for (String line : differences) {
+            sb.append("\n  ").append(line);
+        }
+        return sb.toString();
+    }
+
+    public int getCyclesDiffering() {
+        return cyclesDiffering;
+    }
+
+    // Sensors read the recording; nothing moves on its own.  Time still passes on each device
+    // access the way it does in the simulator, so a simulator recording replays in step.
+
+    @Override
+    synchronized void update() {
+        nanoTime();
+    }
+
+    @Override
+    synchronized boolean liftAtBottom() {
+        return atBottom;
+    }
+
+    @Override
+    synchronized boolean liftAtTop() {
+        return atTop;
+    }
+
+    @Override
+    synchronized boolean motorBusy(SimDcMotor motor) {
+        // The bulk read saw these with the encoders, so take them as recorded too
+        int flag = (motor == leftDrive1) ? FlightRecord.F_LEFT1_BUSY :
+                (motor == leftDrive2) ? FlightRecord.F_LEFT2_BUSY :
+                (motor == rightDrive1) ? FlightRecord.F_RIGHT1_BUSY :
+                (motor == rightDrive2) ? FlightRecord.F_RIGHT2_BUSY :
+                (motor == lift) ? FlightRecord.F_LIFT_BUSY : 0;
+        return (flag != 0) ? (busyFlags & flag) != 0 : motor.modelBusy();
+    }
+
+    @Override
+    synchronized double gyroHeading() {
+        return gyro;
+    }
+
+    @Override
+    synchronized double turnRate() {
+        return rate;
+    }
+
+    @Override
+    synchronized double intakeDistanceCm(SimColorDistanceSensor sensor) {
+        return (sensor == distLeft) ? distLeftCm : distRightCm;
+    }
+
+    @Override
+    synchronized int glyphAlpha() {
+        return alpha;
+    }
+}
@@ -0,0 +1,229 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.hardware.Gamepad;
+
+/**
+ *    Both gamepads' buttons as they were at the top of this loop, packed into one long, with the
+ *    presses and releases since the last loop and how long each button has been held.
+ *
+ *    Gamepad 1's buttons are the low bits (G1_*) and gamepad 2's the same bits 32 up (G2_*).
+ *    Triggers count as buttons once pulled past TRIGGER_DOWN.  Masks can name several buttons
+ *    to make a chord:
+ *
+ *      pad.update(gamepad1, gamepad2, frame.nanoTime);
+ *      if (pad.pressed(GamepadState.G2_START | GamepadState.G2_Y)) ...     // Relic mode
+ *      if (pad.pressed(GamepadState.G2_A)) ...                             // Once per press
+ *      if (pad.isDown(GamepadState.G2_B)) ...                              // Every loop it's held
+ *
+ *    A chord is pressed in the loop its last button goes down, whatever order they went down in.
+ *    Call consume() on a chord once it has been acted on so its buttons' own presses don't also
+ *    fire that loop.
+ *
+ *    Reading everything once per loop means every check in the loop sees the same buttons, where
+ *    the SDK can change the gamepad fields between two reads.  Nothing allocates except
+ *    toString().
+ */
+public class GamepadState {
+
+    static final double TRIGGER_DOWN = 0.5;         // Trigger pull that counts as pressed
+
+    public static final long G1_A                   = 1L;
+    public static final long G1_B                   = 1L << 1;
+    public static final long G1_X                   = 1L << 2;
+    public static final long G1_Y                   = 1L << 3;
+    public static final long G1_DPAD_UP             = 1L << 4;
+    public static final long G1_DPAD_DOWN           = 1L << 5;
+    public static final long G1_DPAD_LEFT           = 1L << 6;
+    public static final long G1_DPAD_RIGHT          = 1L << 7;
+    public static final long G1_LEFT_BUMPER         = 1L << 8;
+    public static final long G1_RIGHT_BUMPER        = 1L << 9;
+    public static final long G1_START               = 1L << 10;
+    public static final long G1_BACK                = 1L << 11;
+    public static final long G1_GUIDE               = 1L << 12;
+    public static final long G1_LEFT_STICK_BUTTON   = 1L << 13;
+    public static final long G1_RIGHT_STICK_BUTTON  = 1L << 14;
+    public static final long G1_LEFT_TRIGGER        = 1L << 15;
+    public static final long G1_RIGHT_TRIGGER       = 1L << 16;
+    public static final long G1_ALL                 = (1L << 17) - 1;
+
+    static final int G2_SHIFT = 32;
+    public static final long G2_A                   = G1_A << G2_SHIFT;
+    public static final long G2_B                   = G1_B << G2_SHIFT;
+    public static final long G2_X                   = G1_X << G2_SHIFT;
+    public static final long G2_Y                   = G1_Y << G2_SHIFT;
+    public static final long G2_DPAD_UP             = G1_DPAD_UP << G2_SHIFT;
+    public static final long G2_DPAD_DOWN           = G1_DPAD_DOWN << G2_SHIFT;
+    public static final long G2_DPAD_LEFT           = G1_DPAD_LEFT << G2_SHIFT;
+    public static final long G2_DPAD_RIGHT          = G1_DPAD_RIGHT << G2_SHIFT;
+    public static final long G2_LEFT_BUMPER         = G1_LEFT_BUMPER << G2_SHIFT;
+    public static final long G2_RIGHT_BUMPER        = G1_RIGHT_BUMPER << G2_SHIFT;
+    public static final long G2_START               = G1_START << G2_SHIFT;
+    public static final long G2_BACK                = G1_BACK << G2_SHIFT;
+    public static final long G2_GUIDE               = G1_GUIDE << G2_SHIFT;
+    public static final long G2_LEFT_STICK_BUTTON   = G1_LEFT_STICK_BUTTON << G2_SHIFT;
+    public static final long G2_RIGHT_STICK_BUTTON  = G1_RIGHT_STICK_BUTTON << G2_SHIFT;
+    public static final long G2_LEFT_TRIGGER        = G1_LEFT_TRIGGER << G2_SHIFT;
+    public static final long G2_RIGHT_TRIGGER       = G1_RIGHT_TRIGGER << G2_SHIFT;
+    public static final long G2_ALL                 = G1_ALL << G2_SHIFT;
+
+    // Button names by bit, for toString()
+    private static final String[] NAMES = { "a", "b", "x", "y", "up", "down", "left", "right",
+            "lb", "rb", "start", "back", "guide", "ls", "rs", "lt", "rt" };
+
+    private long down = 0;                      // Buttons down this loop
+    private long rose = 0;                      // Went down since last loop, less consumed ones
+    private long fell = 0;                      // Came up since last loop, less consumed ones
+    private final long[] downSince = new long[64];
+    private long nanos = -1;
+    private long prevNanos = -1;
+
+    /**
+     * Read both gamepads.  Call once at the top of each loop
+     *
+     * @param nanos     Clock time of this loop
+     */
+    public void update(Gamepad gamepad1, Gamepad gamepad2, long nanos) {
+        long buttons = 0;
+        if (gamepad1 != null) buttons |= pack(gamepad1);
+        if (gamepad2 != null) buttons |= pack(gamepad2) << G2_SHIFT;
+        update(buttons, nanos);
+    }
+
+    /**
+     * Take this loop's buttons as a bitmask, e.g. from a recording or a simulation
+     */
+    public void update(long buttons, long nanos) {
+        long prev = down;
+        down = buttons;
+        rose = down & ~prev;
+        fell = prev & ~down;
+
+        // Start the hold timers of the buttons that just went down
+        long bits = rose;
+        while (bits != 0) {
+            downSince[Long.numberOfTrailingZeros(bits)] = nanos;
+            bits &= bits - 1;
+        }
+        prevNanos = (this.nanos >= 0) ? this.nanos : nanos;
+        this.nanos = nanos;
+    }
+
+    /**
+     * @return  One gamepad's buttons in the G1_* bits
+     */
+    static long pack(Gamepad g) {
+        long b = 0;
+        if (g.a) b |= G1_A;
+        if (g.b) b |= G1_B;
+        if (g.x) b |= G1_X;
+        if (g.y) b |= G1_Y;
+        if (g.dpad_up) b |= G1_DPAD_UP;
+        if (g.dpad_down) b |= G1_DPAD_DOWN;
+        if (g.dpad_left) b |= G1_DPAD_LEFT;
+        if (g.dpad_right) b |= G1_DPAD_RIGHT;
+        if (g.left_bumper) b |= G1_LEFT_BUMPER;
+        if (g.right_bumper) b |= G1_RIGHT_BUMPER;
+        if (g.start) b |= G1_START;
+        if (g.back) b |= G1_BACK;
+        if (g.guide) b |= G1_GUIDE;
+        if (g.left_stick_button) b |= G1_LEFT_STICK_BUTTON;
+        if (g.right_stick_button) b |= G1_RIGHT_STICK_BUTTON;
+        if (g.left_trigger > TRIGGER_DOWN) b |= G1_LEFT_TRIGGER;
+        if (g.right_trigger > TRIGGER_DOWN) b |= G1_RIGHT_TRIGGER;
+        return b;
+    }
+
+    /**
+     * @return  All the buttons down this loop
+     */
+    public long buttons() {
+        return down;
+    }
+
+    /**
+     * @return  True if every button in the mask is down
+     */
+    public boolean isDown(long mask) {
+        return (down & mask) == mask;
+    }
+
+    /**
+     * @return  True if any button in the mask is down
+     */
+    public boolean isAnyDown(long mask) {
+        return (down & mask) != 0;
+    }
+
+    /**
+     * @return  True in the loop the chord was completed: all its buttons are down and at least
+     *          one of them went down since the last loop
+     */
+    public boolean pressed(long chord) {
+        return (down & chord) == chord && (rose & chord) != 0;
+    }
+
+    /**
+     * @return  True if any button in the mask came up since the last loop
+     */
+    public boolean released(long mask) {
+        return (fell & mask) != 0;
+    }
+
+    /**
+     * @return  How long the whole chord has been down, 0 if it isn't
+     */
+    public double heldMs(long chord) {
+        if (chord == 0 || !isDown(chord)) return 0.0;
+        return (nanos - since(chord)) / 1.0e6;
+    }
+
+    /**
+     * @return  True in the one loop the chord has been held for ms
+     */
+    public boolean heldFor(long chord, double ms) {
+        if (chord == 0 || !isDown(chord)) return false;
+        long since = since(chord);
+        long limit = (long) (ms * 1.0e6);
+        if (nanos - since < limit) return false;
+        return since == nanos || prevNanos - since < limit;
+    }
+
+    /**
+     * Use up this loop's presses and releases of these buttons, so later checks don't act on
+     * them again
+     */
+    public void consume(long mask) {
+        rose &= ~mask;
+        fell &= ~mask;
+    }
+
+    // When the last button of the chord went down
+    private long since(long chord) {
+        long latest = Long.MIN_VALUE;
+        long bits = chord;
+        while (bits != 0) {
+            latest = Math.max(latest, downSince[Long.numberOfTrailingZeros(bits)]);
+            bits &= bits - 1;
+        }
+        return latest;
+    }
+
+    /**
+     * @return  The buttons down, e.g. "1:a+lt 2:start+y", for telemetry
+     */
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        for (int pad = 0; pad < 2; pad++) {
+            s.append(pad == 0 ? "1:" : " 2:");
+            long bits = (down >>> (pad * G2_SHIFT)) & G1_ALL;
+            if (bits == 0) s.append('-');
+            for (int i = 0; bits != 0; i++, bits >>>= 1) {
+                if ((bits & 1) == 0) continue;
+                if (s.charAt(s.length() - 1) != ':') s.append('+');
+                s.append(NAMES[i]);
+            }
+        }
+        return s.toString();
+    }
+}
@@ -0,0 +1,201 @@
+package org.firstinspires.ftc.teamcode;
+
+import java.util.Locale;
+
+/**
+ *    Decides whether there is a glyph in the intake from a stream of left and right distance
+ *    readings, so one bad reading can't stop the intake early or miss a glyph.
+ *
+ *    Each sensor gets its own filter:
+ *      - NaN readings are dropped.  Out of range readings (infinite) count as far away.
+ *      - A reading more than OUTLIER_CM from the filter's median is dropped, unless the
+ *        reading before it agrees with it, in which case it is a real change.
+ *      - What's left goes through a running median of MEDIAN_WINDOW readings.
+ *      - The sensor sees a glyph once the median is under the threshold, and stops seeing it
+ *        once the median is back over the threshold plus HYSTERESIS_CM.
+ *    There is a glyph if either sensor sees one.
+ *
+ *    Each time a glyph is detected we record how long it took from the first raw reading under
+ *    the threshold, so we can tune the filter against how fast the intake should lock a glyph.
+ *    Nothing is allocated after the constructor.
+ */
+public class GlyphDetector {
+
+    static final int    MEDIAN_WINDOW = 3;          // Readings in each sensor's median
+    static final double OUTLIER_CM = 8.0;           // Jump from the median we don't believe
+    static final double HYSTERESIS_CM = 1.0;        // Extra distance before we let go of a glyph
+    static final double FAR_CM = 30.0;              // What out of range readings count as
+    static final double CONFIDENCE_SPAN_CM = 3.0;   // Past the threshold for full confidence
+
+    /**
+     * One distance sensor's filter
+     */
+    static class Channel {
+        final MovingAvg median = new MovingAvg(MEDIAN_WINDOW, true);
+        double lastCm = Double.NaN;         // Last reading, kept or not
+        boolean detected = false;
+        double filtered = FAR_CM;
+
+        // Readings seen and thrown away, for the confidence and telemetry
+        long readings = 0;
+        long rejected = 0;
+        double recentGood = 1.0;            // Smoothed fraction of readings we kept
+
+        /**
+         * @return  True if the reading was used
+         */
+        boolean add(double cm) {
+            readings++;
+            if (Double.isNaN(cm)) {
+                reject();
+                return false;
+            }
+            if (Double.isInfinite(cm) || cm > FAR_CM) cm = FAR_CM;
+
+            boolean jump = median.size() > 0 && Math.abs(cm - median.median()) > OUTLIER_CM;
+            boolean repeated = !Double.isNaN(lastCm) && Math.abs(cm - lastCm) <= OUTLIER_CM;
+            lastCm = cm;
+            if (jump && !repeated) {
+                reject();
+                return false;
+            }
+            recentGood += (1.0 - recentGood) * 0.2;
+            median.add(cm);
+            filtered = median.median();
+            return true;
+        }
+
+        private void reject() {
+            rejected++;
+            recentGood -= recentGood * 0.2;
+        }
+
+        void update(double threshold) {
+            if (detected) {
+                if (filtered > threshold + HYSTERESIS_CM) detected = false;
+            } else {
+                if (filtered < threshold) detected = true;
+            }
+        }
+
+        double confidence(double threshold) {
+            double c = (threshold + HYSTERESIS_CM - filtered) / CONFIDENCE_SPAN_CM;
+            return Math.max(0.0, Math.min(1.0, c)) * recentGood;
+        }
+
+        void clear() {
+            median.clear();
+            lastCm = Double.NaN;
+            detected = false;
+            filtered = FAR_CM;
+            recentGood = 1.0;
+        }
+    }
+
+    final Channel left = new Channel();
+    final Channel right = new Channel();
+
+    private double threshold = 9.0;
+    private boolean detected = false;
+
+    // Latency from the first raw reading under the threshold to detecting the glyph
+    private long firstCloseNanos = -1;
+    private long lastSampleNanos = -1;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private long detections = 0;
+
+    /**
+     * Add one reading from each sensor
+     *
+     * @param nanos         Clock time of the readings
+     * @param leftCm        Left distance sensor
+     * @param rightCm       Right distance sensor
+     * @param threshold     Glyph distance for this glyph color, cm
+     */
+    public void update(long nanos, double leftCm, double rightCm, double threshold) {
+        this.threshold = threshold;
+        lastSampleNanos = nanos;
+
+        // Start the latency clock on the first raw reading that says glyph
+        boolean close = (leftCm < threshold) || (rightCm < threshold);
+        if (close && firstCloseNanos < 0) firstCloseNanos = nanos;
+
+        left.add(leftCm);
+        right.add(rightCm);
+        left.update(threshold);
+        right.update(threshold);
+
+        boolean now = left.detected || right.detected;
+        if (now && !detected) {
+            detections++;
+            if (firstCloseNanos >= 0) latency.record(nanos - firstCloseNanos);
+            EventLog.log(EventLog.Event.GLYPH_DETECTED,
+                    left.filtered, right.filtered, (firstCloseNanos >= 0) ? (nanos - firstCloseNanos) / 1.0e6 : 0.0);
+        } else if (!now && detected) {
+            EventLog.log(EventLog.Event.GLYPH_LOST, left.filtered, right.filtered);
+        }
+        detected = now;
+
+        // Wait for the next glyph, or for a close reading that came to nothing to come back
+        if (detected || !close) firstCloseNanos = -1;
+    }
+
+    public boolean isDetected() {
+        return detected;
+    }
+
+    /**
+     * @return  0 to 1, how sure we are there is a glyph: how far inside the threshold the
+     *          closer sensor is, less for sensors giving us readings we throw away
+     */
+    public double confidence() {
+        return Math.max(left.confidence(threshold), right.confidence(threshold));
+    }
+
+    public double leftCm() {
+        return left.filtered;
+    }
+
+    public double rightCm() {
+        return right.filtered;
+    }
+
+    /**
+     * @return  Clock time of the last update, -1 if none yet
+     */
+    public long lastSampleNanos() {
+        return lastSampleNanos;
+    }
+
+    public LatencyHistogram latency() {
+        return latency;
+    }
+
+    public long detections() {
+        return detections;
+    }
+
+    /**
+     * @return  Readings thrown away (NaN or outliers) on both sensors
+     */
+    public long rejected() {
+        return left.rejected + right.rejected;
+    }
+
+    /**
+     * Forget the readings so far, e.g. after the glyph has been loaded
+     */
+    public void clear() {
+        left.clear();
+        right.clear();
+        detected = false;
+        firstCloseNanos = -1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%s  L %.1f R %.1f cm  conf %.2f  %d found, p50 %.0f ms p95 %.0f ms, %d rejected",
+                detected ? "GLYPH" : "none", left.filtered, right.filtered, confidence(),
+                detections, latency.percentileMs(0.5), latency.percentileMs(0.95), rejected());
+    }
+}
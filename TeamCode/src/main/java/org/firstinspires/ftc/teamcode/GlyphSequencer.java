@@ -0,0 +1,374 @@
+package org.firstinspires.ftc.teamcode;
+
+/**
+ *    The glyph mechanism's automatic sequences, for TeleOp and autonomous: reset, auto load, and
+ *    auto's first and second glyph loads.  Each is a StateMachine table, ticked once a loop with
+ *    that loop's HardwareSnapshot, so the drive keeps running while the lift and grippers work.
+ *
+ *    Only one sequence runs at a time; starting one drops the other.
+ */
+public class GlyphSequencer {
+
+    public enum Step {
+        // Reset lift and gripper (driver 2 Y+B)
+        RESET_OPEN,         // Open intake and grippers
+        RESET_LIFT,         // Lift above the intake if it isn't already
+        RESET_PUSHER,       // Pusher in, grippers open
+        RESET_LOWER,        // Lift down onto the limit switch
+
+        // TeleOp auto load (driver 2 A)
+        LOAD_INIT,          // Bottom gripper open and lift reset on the limit switch
+        LOAD_GRAB,          // Grab the glyph with the bottom gripper
+        LOAD_OPEN_INTAKE,   // First glyph: wait for the intake to open
+        LOAD_LIFT,          // Lift to flip height
+        LOAD_FLIP,          // Flip, start intaking the second glyph, then back down
+        LOAD_SECOND,        // Second glyph: lift off the ground to drive
+
+        // Autonomous loads
+        AUTO_LIFT_RESET,    // Lift down onto the limit switch
+        AUTO_GRAB,          // Close the bottom (or both) grippers
+        AUTO_OPEN_INTAKE    // Open the intake, then lift
+    }
+
+    static final long LIFT_TIMEOUT_MS  = 3000;     // TeleOp lift moves
+    static final long SERVO_TIMEOUT_MS = 1500;     // TeleOp gripper and intake moves
+
+    static final double RESET_CLEAR_HEIGHT  = 5.5;     // Lift above the intake before the pusher comes in
+    static final double RESET_CLEAR_MIN     = 5.0;
+    static final double FLIP_HEIGHT         = 8.25;
+    static final double FLIP_MIN            = 7.75;
+    static final double LOAD_DOWN_HEIGHT    = 0.5;
+    static final double DRIVE_HEIGHT        = 1.0;
+
+    final HardwareDM18 robot;
+    final StateMachine<Step> machine;
+    HardwareSnapshot frame = null;
+
+    /**
+     * True once a glyph has been flipped to the top of the gripper.  Auto load picks the first
+     * or second glyph sequence from this.
+     */
+    public boolean topHasGlyph = false;
+
+    // Auto load settings
+    boolean closeBoth = false;
+    boolean secondGlyph = false;
+
+    public GlyphSequencer(HardwareDM18 r) {
+        robot = r;
+        machine = new StateMachine<Step>("Glyph", Step.class, robot.clock);
+
+        // Conditions shared by several states
+        Waiter.Condition intakeStill = new Waiter.Condition() {
+            @Override
+            public boolean isMet() {
+                return !robot.intake.isMoving();
+            }
+        };
+        Waiter.Condition gripperClosed = new Waiter.Condition() {
+            @Override
+            public boolean isMet() {
+                return !robot.gripper.btmIsMoving();
+            }
+        };
+        Waiter.Condition liftOnFloor = new Waiter.Condition() {
+            @Override
+            public boolean isMet() {
+                return robot.lift.reachedFloor(frame) && robot.lift.resetFloorPos();
+            }
+        };
+
+        // resetFloorPos() drives the lift down at full power until it finds the switch.  If we
+        // give up first, don't leave it doing that.
+        StateMachine.Action stopLiftOnTimeout = new StateMachine.Action() {
+            @Override
+            public void run() {
+                if (machine.isExitingOnTimeout()) robot.lift.liftMotor.setPower(0.0);
+            }
+        };
+
+        /*
+         RESET
+         */
+        machine.state(Step.RESET_OPEN)
+                .onEnter(new StateMachine.Action() {
+                    @Override
+                    public void run() {
+                        if (robot.intake.isClosed()) robot.intake.setOpen();
+                        robot.gripper.setBothOpen();
+                    }
+                })
+                .when(new Waiter.Condition() {
+                    @Override
+                    public boolean isMet() {
+                        return !robot.intake.isMoving() && !robot.gripper.isReleasing();
+                    }
+                }, Step.RESET_LIFT)
+                .timeout(SERVO_TIMEOUT_MS, Step.RESET_LIFT);
+
+        machine.state(Step.RESET_LIFT)
+                .onEnter(new StateMachine.Action() {
+                    @Override
+                    public void run() {
+                        if (robot.lift.distFromBottom(frame) < RESET_CLEAR_MIN) {
+                            robot.lift.setLiftHeight(RESET_CLEAR_HEIGHT);
+                        }
+                    }
+                })
+                .when(new Waiter.Condition() {
+                    @Override
+                    public boolean isMet() {
+                        return robot.lift.distFromBottom(frame) > RESET_CLEAR_MIN;
+                    }
+                }, Step.RESET_PUSHER)
+                .timeout(LIFT_TIMEOUT_MS, null);
+
+        machine.state(Step.RESET_PUSHER)
+                .onEnter(new StateMachine.Action() {
+                    @Override
+                    public void run() {
+                        robot.gripper.setExtendIn();
+                        robot.gripper.setBothOpen();
+                        topHasGlyph = false;
+                    }
+                })
+                .when(new Waiter.Condition() {
+                    @Override
+                    public boolean isMet() {
+                        return !robot.gripper.isExtending();
+                    }
+                }, Step.RESET_LOWER)
+                .timeout(SERVO_TIMEOUT_MS, Step.RESET_LOWER);
+
+        machine.state(Step.RESET_LOWER)
+                .onEnter(new StateMachine.Action() {
+                    @Override
+                    public void run() {
+                        robot.lift.setLiftBtm();
+                    }
+                })
+                .when(liftOnFloor, null)
+                .timeout(LIFT_TIMEOUT_MS, null)
+                .onExit(stopLiftOnTimeout);
+
+        /*
+         TELEOP AUTO LOAD
+         */
+        machine.state(Step.LOAD_INIT)
+                .during(new StateMachine.Action() {
+                    @Override
+                    public void run() {
+                        if (robot.gripper.isBtmClosed()) {
+                            robot.gripper.setBtmOpen();
+                        } else if (!robot.gripper.btmIsMoving()) {
+                            robot.lift.setLiftBtm();
+                        }
+                    }
+                })
+                .when(new Waiter.Condition() {
+                    @Override
+                    public boolean isMet() {
+                        return !robot.gripper.isBtmClosed() && robot.lift.targetPos == Lift.LIFT_BTM_POS &&
+                                robot.lift.reachedFloor(frame) && robot.lift.resetFloorPos();
+                    }
+                }, Step.LOAD_GRAB)
+                .timeout(LIFT_TIMEOUT_MS, null)
+                .onExit(stopLiftOnTimeout);
+
+        machine.state(Step.LOAD_GRAB)
+                .onEnter(new StateMachine.Action() {
+                    @Override
+                    public void run() {
+                        robot.lift.setPower(-0.7);      // Hold down on the switch while we grab
+                        robot.gripper.setBtmClosed();
+                    }
+                })
+                .when(new Waiter.Condition() {
+                    @Override
+                    public boolean isMet() {
+                        return !robot.gripper.btmIsMoving() && !topHasGlyph;
+                    }
+                }, Step.LOAD_OPEN_INTAKE)
+                .when(gripperClosed, Step.LOAD_SECOND)
+                .onExit(new StateMachine.Action() {
+                    @Override
+                    public void run() {
+                        robot.intake.setOpen();
+                        robot.intake.setStop();
+                    }
+                });
+
+        machine.state(Step.LOAD_OPEN_INTAKE)
+                .when(intakeStill, Step.LOAD_LIFT);
+
+        machine.state(Step.LOAD_LIFT)
+                .onEnter(new StateMachine.Action() {
+                    @Override
+                    public void run() {
+                        robot.lift.setLiftHeight(FLIP_HEIGHT);
+                    }
+                })
+                .when(new Waiter.Condition() {
+                    @Override
+                    public boolean isMet() {
+                        return robot.lift.distFromBottom(frame) > FLIP_MIN;
+                    }
+                }, Step.LOAD_FLIP)
+                .timeout(LIFT_TIMEOUT_MS, null);
+
+        machine.state(Step.LOAD_FLIP)
+                .onEnter(new StateMachine.Action() {
+                    @Override
+                    public void run() {
+                        robot.intake.setClosed();
+                        robot.intake.setIn();
+                        robot.gripper.flip();
+                        topHasGlyph = true;
+                    }
+                })
+                .when(new Waiter.Condition() {
+                    @Override
+                    public boolean isMet() {
+                        return !robot.gripper.isFlipping();
+                    }
+                }, null)
+                .onExit(new StateMachine.Action() {
+                    @Override
+                    public void run() {
+                        robot.lift.setLiftHeight(LOAD_DOWN_HEIGHT);
+                    }
+                });
+
+        machine.state(Step.LOAD_SECOND)
+                .when(intakeStill, null)
+                .onExit(new StateMachine.Action() {
+                    @Override
+                    public void run() {
+                        robot.lift.setLiftHeight(DRIVE_HEIGHT);
+                    }
+                });
+
+        /*
+         AUTONOMOUS LOADS.  Timeouts move on to the next step, like our waits always have.
+         */
+        machine.state(Step.AUTO_LIFT_RESET)
+                .when(new Waiter.Condition() {
+                    @Override
+                    public boolean isMet() {
+                        return robot.lift.resetFloorPos();
+                    }
+                }, Step.AUTO_GRAB)
+                .timeout(AutoHelper.LIFT_RESET_WAIT_MS, Step.AUTO_GRAB)
+                .onExit(stopLiftOnTimeout);
+
+        machine.state(Step.AUTO_GRAB)
+                .onEnter(new StateMachine.Action() {
+                    @Override
+                    public void run() {
+                        if (closeBoth) {
+                            robot.gripper.setBothClosed();
+                        } else {
+                            robot.gripper.setBtmClosed();
+                        }
+                    }
+                })
+                .when(gripperClosed, Step.AUTO_OPEN_INTAKE)
+                .timeout(AutoHelper.SERVO_WAIT_MS, Step.AUTO_OPEN_INTAKE);
+
+        machine.state(Step.AUTO_OPEN_INTAKE)
+                .onEnter(new StateMachine.Action() {
+                    @Override
+                    public void run() {
+                        robot.intake.setOpen();
+                    }
+                })
+                .when(intakeStill, null)
+                .timeout(AutoHelper.SERVO_WAIT_MS, null)
+                .onExit(new StateMachine.Action() {
+                    @Override
+                    public void run() {
+                        if (secondGlyph) {
+                            robot.lift.setLiftHeight(FLIP_HEIGHT);
+                        } else {
+                            robot.lift.setLiftTop();
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Reset the lift and gripper to load again
+     */
+    public void startReset() {
+        start(Step.RESET_OPEN);
+    }
+
+    /**
+     * Load the glyph in the intake: grab it, then either flip it up (first glyph) or lift off the
+     * ground to drive (second glyph)
+     */
+    public void startAutoLoad() {
+        start(Step.LOAD_INIT);
+    }
+
+    /**
+     * Autonomous: grab the first glyph and lift to the top
+     *
+     * @param closeBoth     Close both grippers instead of just the bottom one
+     */
+    public void startAutoFirstGlyph(boolean closeBoth) {
+        this.closeBoth = closeBoth;
+        secondGlyph = false;
+        start(Step.AUTO_LIFT_RESET);
+    }
+
+    /**
+     * Autonomous: grab the second glyph and lift to flip height
+     */
+    public void startAutoSecondGlyph() {
+        closeBoth = false;
+        secondGlyph = true;
+        start(Step.AUTO_LIFT_RESET);
+    }
+
+    private void start(Step first) {
+        if (frame == null) frame = robot.lastSnapshot();
+        machine.start(first);
+    }
+
+    /**
+     * Stop whatever sequence is running, leaving everything where it is
+     */
+    public void stop() {
+        machine.stop();
+    }
+
+    /**
+     * Run one step of the current sequence.  Call once a loop.
+     *
+     * @param frame     This loop's snapshot
+     * @return  True if a sequence is still running
+     */
+    public boolean tick(HardwareSnapshot frame) {
+        this.frame = frame;
+        return machine.tick();
+    }
+
+    public boolean isRunning() {
+        return machine.isRunning();
+    }
+
+    public boolean isResetting() {
+        Step s = machine.current();
+        return s != null && s.compareTo(Step.RESET_LOWER) <= 0;
+    }
+
+    public boolean isLoading() {
+        Step s = machine.current();
+        return s != null && s.compareTo(Step.LOAD_INIT) >= 0;
+    }
+
+    public Step current() {
+        return machine.current();
+    }
+}
@@ -5,8 +5,6 @@ import com.qualcomm.robotcore.hardware.PwmControl;
 import com.qualcomm.robotcore.hardware.Servo;
 import com.qualcomm.robotcore.hardware.ServoControllerEx;
 import com.qualcomm.robotcore.util.Range;
-import com.qualcomm.robotcore.util.ElapsedTime;
-import com.qualcomm.robotcore.util.RobotLog;
 
 /**
  *    Everything related to the gripper
@@ -20,22 +18,22 @@ public class Gripper {
     public Servo extendGrip = null;
 
     // Servo constants
-    public final static double B_GRIP_OPEN = 0.71;
-    public final static double B_GRIP_PARTIAL_OPEN = 0.71; // Changed to same as full close
-    public final static double B_GRIP_CLOSED = 0.234;
-    public final static double P_GRIP_OPEN = 0.71;
-    public final static double P_GRIP_PARTIAL_OPEN = 0.71;
-    public final static double P_GRIP_CLOSED = 0.234;
-
-    public final static double GRIP_ROTATE_NORMAL = 0.8947;
-    public final static double GRIP_ROTATE_FLIPPED = 0.0;
-    public final static double GRIP_EXTEND_HOME = 0.48;   // Savox 1256tg 0.93
-    public final static double GRIP_EXTEND_OUT = 0.87;  // Savox 1256tg 0.55
-    public final static double GRIP_EXTEND_INIT = 0.603;  // Savox 1256tg 0.7
-    public final static double FLIP_TIME = 600;        // 600 ms for servo to flip gripper
-    public final static double GRIP_TIME_GRAB = 225;        // 225 ms timer for grip to complete grab
-    public final static double GRIP_TIME_RELEASE = 700;    // 700 ms timer for grip to complete release
-    public final static double EXTEND_TIME = 250;
+    @Tunable public static double B_GRIP_OPEN = 0.71;
+    @Tunable public static double B_GRIP_PARTIAL_OPEN = 0.71; // Changed to same as full close
+    @Tunable public static double B_GRIP_CLOSED = 0.234;
+    @Tunable public static double P_GRIP_OPEN = 0.71;
+    @Tunable public static double P_GRIP_PARTIAL_OPEN = 0.71;
+    @Tunable public static double P_GRIP_CLOSED = 0.234;
+
+    @Tunable public static double GRIP_ROTATE_NORMAL = 0.8947;
+    @Tunable public static double GRIP_ROTATE_FLIPPED = 0.0;
+    @Tunable public static double GRIP_EXTEND_HOME = 0.48;   // Savox 1256tg 0.93
+    @Tunable public static double GRIP_EXTEND_OUT = 0.87;  // Savox 1256tg 0.55
+    @Tunable public static double GRIP_EXTEND_INIT = 0.603;  // Savox 1256tg 0.7
+    @Tunable public static double FLIP_TIME = 600;        // 600 ms for servo to flip gripper
+    @Tunable public static double GRIP_TIME_GRAB = 225;        // 225 ms timer for grip to complete grab
+    @Tunable public static double GRIP_TIME_RELEASE = 700;    // 700 ms timer for grip to complete release
+    @Tunable public static double EXTEND_TIME = 250;
 
     /* Gripper state variables */
     Servo topGrip = purpleGrip;        // Should start w/ purple gripper on top
@@ -43,12 +41,12 @@ public class Gripper {
     boolean isGripFlipped = false;
 
     /* Flip flipTimer */
-    ElapsedTime flipTimer = new ElapsedTime();
-    ElapsedTime purpleTimer = new ElapsedTime();
-    ElapsedTime blackTimer = new ElapsedTime();
-    ElapsedTime extendTimer = new ElapsedTime();
-    ElapsedTime topTimer = null;
-    ElapsedTime btmTimer = null;
+    ClockTimer flipTimer = new ClockTimer();
+    ClockTimer purpleTimer = new ClockTimer();
+    ClockTimer blackTimer = new ClockTimer();
+    ClockTimer extendTimer = new ClockTimer();
+    ClockTimer topTimer = null;
+    ClockTimer btmTimer = null;
 
     /**
      * Constructor
@@ -57,6 +55,18 @@ public class Gripper {
         // Do nothing
     }
 
+    /**
+     * Run the gripper timers on the robot's clock.  Call before init().
+     *
+     * @param clock Clock the robot runs on
+     */
+    public void setClock(Clock clock) {
+        flipTimer.setClock(clock);
+        purpleTimer.setClock(clock);
+        blackTimer.setClock(clock);
+        extendTimer.setClock(clock);
+    }
+
     /**
      * Initialize the gripper
      *
@@ -72,6 +82,12 @@ public class Gripper {
         rotateServo = hw.servo.get(rot);
         extendGrip = hw.servo.get(ext);
 
+        // Skip repeated writes of the same position and answer getPosition() from the cache
+        purpleGrip = ActuatorCache.wrap(purpleGrip);
+        blackGrip = ActuatorCache.wrap(blackGrip);
+        rotateServo = ActuatorCache.wrap(rotateServo);
+        extendGrip = ActuatorCache.wrap(extendGrip);
+
         // Set the rotation servo for extended PWM range
         if (rotateServo.getController() instanceof ServoControllerEx) {
             // Confirm its an extended range servo controller before we try to set to avoid crash
@@ -135,7 +151,7 @@ public class Gripper {
      */
     public void setTopOpen() {
 
-        RobotLog.i("DM10337 -- Gripper TOP set to OPEN");
+        EventLog.log(EventLog.Event.GRIP_TOP_OPEN);
         topGrip.setPosition(isGripFlipped ? B_GRIP_OPEN: P_GRIP_OPEN);
         topTimer.reset();
     }
@@ -145,7 +161,7 @@ public class Gripper {
      */
     public void setBtmOpen() {
 
-        RobotLog.i("DM10337 -- Gripper BOTTOM set to OPEN");
+        EventLog.log(EventLog.Event.GRIP_BTM_OPEN);
         btmGrip.setPosition(isGripFlipped ? P_GRIP_OPEN: B_GRIP_OPEN);
         btmTimer.reset();
     }
@@ -167,13 +183,13 @@ public class Gripper {
     }
 
     public void setBtmPartialOpen() {
-        RobotLog.i("DM10337 -- Gripper BOTTOM set to PARTIAL OPEN");
+        EventLog.log(EventLog.Event.GRIP_BTM_PARTIAL);
         btmGrip.setPosition(isGripFlipped ? P_GRIP_PARTIAL_OPEN: B_GRIP_PARTIAL_OPEN);
         btmTimer.reset();
     }
 
     public void setTopPartialOpen() {
-        RobotLog.i("DM10337 -- Gripper TOP set to PARTIAL OPEN");
+        EventLog.log(EventLog.Event.GRIP_TOP_PARTIAL);
         topGrip.setPosition(isGripFlipped ? B_GRIP_PARTIAL_OPEN: P_GRIP_PARTIAL_OPEN);
         topTimer.reset();
     }
@@ -183,7 +199,7 @@ public class Gripper {
      */
     public void setExtendOut() {
 
-        RobotLog.i("DM10337 -- Gripper set to OUT position");
+        EventLog.log(EventLog.Event.GRIP_EXTEND_OUT);
         extendGrip.setPosition(GRIP_EXTEND_OUT);
         extendTimer.reset();
     }
@@ -201,13 +217,13 @@ public class Gripper {
      * Retract gripper
      */
     public void setExtendIn() {
-        RobotLog.i("DM10337 -- Pusher set to HOME position");
+        EventLog.log(EventLog.Event.PUSHER_HOME);
         extendGrip.setPosition(GRIP_EXTEND_HOME);
         extendTimer.reset();
     }
 
     public void setExtendInitPosition() {
-        RobotLog.i("DM10337 -- Pusher set to INIT position");
+        EventLog.log(EventLog.Event.PUSHER_INIT);
         extendGrip.setPosition(GRIP_EXTEND_INIT);
     }
     /**
@@ -233,7 +249,7 @@ public class Gripper {
      */
     public void setTopClosed() {
 
-        RobotLog.i("DM10337 -- Gripper TOP set to CLOSED");
+        EventLog.log(EventLog.Event.GRIP_TOP_CLOSED);
         topGrip.setPosition(isGripFlipped ? B_GRIP_CLOSED: P_GRIP_CLOSED);
         topTimer.reset();
     }
@@ -242,7 +258,7 @@ public class Gripper {
      * Close whichever gripper is currently on bottom
      */
     public void setBtmClosed() {
-        RobotLog.i("DM10337 -- Gripper BOTTOM set to CLOSED");
+        EventLog.log(EventLog.Event.GRIP_BTM_CLOSED);
         btmGrip.setPosition(isGripFlipped ? P_GRIP_CLOSED: B_GRIP_CLOSED);
         btmTimer.reset();
     }
@@ -283,7 +299,7 @@ public class Gripper {
     public boolean isPusherOut() { return (Math.abs(extendGrip.getPosition() - GRIP_EXTEND_HOME) > 0.02); }
 
     public void flip() {
-        RobotLog.i("DM10337 -- Flipping Gripper");
+        EventLog.log(EventLog.Event.GRIP_FLIP);
         if (isGripFlipped) {
             // Was flipped so turn it back upright
             setFlipped(false);
@@ -300,14 +316,14 @@ public class Gripper {
             isGripFlipped = true;
             topGrip = blackGrip;
             btmGrip = purpleGrip;
-            RobotLog.i("DM10337 -- Gripper FLIPPED. Black Up!");
+            EventLog.log(EventLog.Event.GRIP_FLIPPED_BLACK_UP);
         }
         else {
             rotateServo.setPosition(GRIP_ROTATE_NORMAL);
             isGripFlipped = false;
             topGrip = purpleGrip;
             btmGrip = blackGrip;
-            RobotLog.i("DM10337 -- Gripper FLIPPED. Purple Up!");
+            EventLog.log(EventLog.Event.GRIP_FLIPPED_PURPLE_UP);
         }
         flipTimer.reset();          // Start a flipTimer so we can check later if it might be moving
     }
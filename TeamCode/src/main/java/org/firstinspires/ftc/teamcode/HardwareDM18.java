@@ -43,6 +43,11 @@ import com.qualcomm.robotcore.hardware.TouchSensor;
 import com.qualcomm.robotcore.util.ElapsedTime;
 import com.qualcomm.robotcore.util.RobotLog;
 
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
 
 /**
  * This is NOT an opmode.
@@ -71,15 +76,15 @@ public class HardwareDM18
     public Servo    jewelServo       = null;
     public Servo    jewelRotServo    = null;
 
-    public ColorSensor  jewelCS = null;
+    // Devices set up in the background or on first use, see jewelCS() and gyro()
+    DeviceGroup<ColorSensor> jewelCSGroup = null;
+    DeviceGroup<BNO055IMU> gyroGroup = null;
 
-    BNO055IMU adaGyro;
-
-    public final static double JEWEL_HOME = 0.10;
-    public final static double JEWEL_DEPLOY = 0.77;
-    public final static double JEWEL_ROT_HOME = 0.52;
-    public final static double JEWEL_ROT_FWD = 0.74;
-    public final static double JEWEL_ROT_REV = 0.34;
+    @Tunable public static double JEWEL_HOME = 0.10;
+    @Tunable public static double JEWEL_DEPLOY = 0.77;
+    @Tunable public static double JEWEL_ROT_HOME = 0.52;
+    @Tunable public static double JEWEL_ROT_FWD = 0.74;
+    @Tunable public static double JEWEL_ROT_REV = 0.34;
 
 
     /* Drive train constants */
@@ -113,45 +118,149 @@ public class HardwareDM18
     HardwareMap hwMap           =  null;
     private ElapsedTime period  = new ElapsedTime();
 
+    // Where all robot timing comes from.  Simulated robots bring their own
+    public Clock clock = RealClock.INSTANCE;
+
+    // Per-cycle hardware reads
+    BulkReader bulk = new BulkReader();
+    HardwareSnapshot frame = new HardwareSnapshot(clock);
+    int leftDrive1Slot;
+    int leftDrive2Slot;
+    int rightDrive1Slot;
+    int rightDrive2Slot;
+    int liftSlot;
+    int relicSlot;
+    int liftLimitBSlot;
+    int liftLimitTSlot;
+
+    // Flight recorder, and the recording we are playing back if this is a replay
+    public FlightRecorder recorder = new FlightRecorder();
+    FlightReplay replay = null;
+    ImuSampler imu = null;              // Heading for snapshots, set by whoever starts one
+
+    // Where we are on the field, moved on by every snapshot
+    public final PoseEstimator pose = new PoseEstimator(COUNTS_PER_INCH, AutoHelper.TRACK_WIDTH);
+
     /* Constructor */
     public HardwareDM18(){
 
     }
 
-    /* Initialize standard Hardware interfaces */
-    public void init(HardwareMap ahwMap, boolean initGripper, boolean initGyro) {
+    /**
+     * Initialize standard Hardware interfaces
+     *
+     * The IMU and the mechanisms (intake, gripper, lift, relic) are set up on their own threads
+     * while the drive train and jewel servos are set up here.  init() returns once everything but
+     * the IMU is ready; gyro() waits for the IMU.  The jewel color sensor is only looked up the
+     * first time jewelCS() is called, so TeleOp never touches it.
+     */
+    public void init(HardwareMap ahwMap, final boolean initGripper, boolean initGyro) {
         // Save reference to Hardware map
         hwMap = ahwMap;
 
+        // Run on the simulator's clock if this is a simulated robot
+        if (hwMap instanceof SimHardwareMap) {
+            clock = ((SimHardwareMap) hwMap).sim.clock;
+        } else {
+            clock = RealClock.INSTANCE;
+        }
+        long initStart = clock.nanoTime();
+        intake.setClock(clock);
+        gripper.setClock(clock);
+        lift.setClock(clock);
+
+        // Start the event log writer.  The simulator has no phone storage so logcat only
+        EventLog.start((hwMap instanceof SimHardwareMap) ? null : AppUtil.ROBOT_DATA_DIR, clock);
+
+        // Pick up tuned constants if the calibration file changed since the last OpMode
+        CalibrationStore.reloadIfChanged((hwMap instanceof SimHardwareMap) ? null : AppUtil.ROBOT_DATA_DIR);
+
+        // Start a flight recording.  The simulator records into memory
+        if (hwMap instanceof SimHardwareMap) {
+            SimRobot sim = ((SimHardwareMap) hwMap).sim;
+            replay = (sim instanceof FlightReplay) ? (FlightReplay) sim : null;
+            recorder.open(null);
+            sim.recorder = recorder;
+        } else {
+            replay = null;
+            recorder.open(AppUtil.ROBOT_DATA_DIR);
+        }
+        imu = null;
+
+        // The IMU is slowest (it loads its calibration file and waits for mode changes) so start it first
+        gyroGroup = null;
+        if (initGyro) {
+            gyroGroup = new DeviceGroup<>("imu", clock, new Callable<BNO055IMU>() {
+                @Override
+                public BNO055IMU call() {
+                    AdafruitBNO055IMU.Parameters parameters = new AdafruitBNO055IMU.Parameters();
+                    parameters.angleUnit           = AdafruitBNO055IMU.AngleUnit.DEGREES;
+                    parameters.accelUnit           = AdafruitBNO055IMU.AccelUnit.METERS_PERSEC_PERSEC;
+                    parameters.calibrationDataFile = "AdafruitIMUCalibration.json"; // see the calibration sample opmode
+                    parameters.mode = AdafruitBNO055IMU.SensorMode.IMU;
+                    parameters.loggingEnabled      = true;
+                    parameters.loggingTag          = "IMU";
+                    //parameters.accelerationIntegrationAlgorithm = new JustLoggingAccelerationIntegrator();
+
+                    // Retrieve and initialize the IMU. We expect the IMU to be attached to an I2C port
+                    // on a Core Device Interface Module, configured to be a sensor of type "AdaFruit IMU",
+                    // and named "adaGyro".
+                    BNO055IMU gyro = hwMap.get(BNO055IMU.class, "gyro");
+                    gyro.initialize(parameters);
+                    return gyro;
+                }
+            }).start();
+        }
+
+        // Mechanisms don't share devices with the drive train, so set them up alongside it
+        DeviceGroup<Void> mechanisms = new DeviceGroup<>("mechanisms", clock, new Callable<Void>() {
+            @Override
+            public Void call() {
+                // Setup intake mapped to hardware
+                intake.init(hwMap, "intakeLeft", "intakeRight", "ils", "irs", "ds_left", "ds_right");
+
+                if (initGripper){
+                    // Setup gripper mapped to hardware
+                    gripper.init(hwMap, "gripP", "gripB", "gripRotate", "gripExtend");
+                    // Set gripper not flipped and closed
+                    gripper.setFlipped(false);
+                    gripper.setBothClosed();
+
+                }
+
+                // Setup lift mapped to hardware
+                lift.init(hwMap, "lift", "llb", "llt");
+
+                // Setup relic mapped to hardware
+                relic.init(hwMap, "relicMotor", "relicGrip", "relicPivot");
+                relic.loadCalibration((hwMap instanceof SimHardwareMap) ? null : AppUtil.ROBOT_DATA_DIR);
+
+                // Set intake to closed and stopped
+                intake.setClosed();
+                intake.setStop();
+                return null;
+            }
+        }).start();
+
+        long driveStart = clock.nanoTime();
+
         // Define and Initialize drive-train Motors
         leftDrive1  = hwMap.dcMotor.get("ldrive1");
         leftDrive2  = hwMap.dcMotor.get("ldrive2");
         rightDrive1 = hwMap.dcMotor.get("rdrive1");
         rightDrive2 = hwMap.dcMotor.get("rdrive2");
 
+        // Skip repeated writes of the same power
+        leftDrive1  = ActuatorCache.wrap(leftDrive1);
+        leftDrive2  = ActuatorCache.wrap(leftDrive2);
+        rightDrive1 = ActuatorCache.wrap(rightDrive1);
+        rightDrive2 = ActuatorCache.wrap(rightDrive2);
+
         leftDrive1.setDirection(DcMotor.Direction.REVERSE); // Set to REVERSE if using AndyMark motors
         rightDrive1.setDirection(DcMotor.Direction.FORWARD);// Set to FORWARD if using AndyMark motors
         leftDrive2.setDirection(DcMotor.Direction.REVERSE); // Set to REVERSE if using AndyMark motors
         rightDrive2.setDirection(DcMotor.Direction.FORWARD);// Set to FORWARD if using AndyMark motors
 
-        // Setup intake mapped to hardware
-        intake.init(hwMap, "intakeLeft", "intakeRight", "ils", "irs", "ds_left", "ds_right");
-
-        if (initGripper){
-            // Setup gripper mapped to hardware
-            gripper.init(hwMap, "gripP", "gripB", "gripRotate", "gripExtend");
-            // Set gripper not flipped and closed
-            gripper.setFlipped(false);
-            gripper.setBothClosed();
-
-        }
-
-        // Setup lift mapped to hardware
-        lift.init(hwMap, "lift", "llb", "llt");
-
-        // Setup relic mapped to hardware
-        relic.init(hwMap, "relicMotor", "relicGrip", "relicPivot");
-
         // Set all motors to zero power
         leftDrive1.setPower(0);
         rightDrive1.setPower(0);
@@ -170,37 +279,60 @@ public class HardwareDM18
         // Define and initialize ALL installed servos.
         jewelServo = hwMap.servo.get("jewel");
         jewelRotServo = hwMap.servo.get("jewelRot");
+        jewelServo = ActuatorCache.wrap(jewelServo);
+        jewelRotServo = ActuatorCache.wrap(jewelRotServo);
 
         // Set init positions of servos
         jewelServo.setPosition(JEWEL_HOME);
         jewelRotServo.setPosition(JEWEL_ROT_HOME);
 
+        double driveMs = (clock.nanoTime() - driveStart) / 1.0e6;
+
+        // Define color sensor.  Only auto reads it
+        jewelCSGroup = new DeviceGroup<>("jewel color sensor", clock, new Callable<ColorSensor>() {
+            @Override
+            public ColorSensor call() {
+                return hwMap.colorSensor.get("cs");
+            }
+        });
+
+        // Setup bulk reads of the motors and switches we snapshot each cycle
+        mechanisms.get();
+        bulk.init(hwMap);
+        leftDrive1Slot = bulk.register(leftDrive1);
+        leftDrive2Slot = bulk.register(leftDrive2);
+        rightDrive1Slot = bulk.register(rightDrive1);
+        rightDrive2Slot = bulk.register(rightDrive2);
+        liftSlot = bulk.register(lift.liftMotor);
+        relicSlot = bulk.register(relic.relicMotor);
+        liftLimitBSlot = bulk.register(lift.liftLimitB);
+        liftLimitTSlot = bulk.register(lift.liftLimitT);
+        frame = new HardwareSnapshot(clock);
+
+        RobotLog.i(String.format(Locale.US, "DM10337 -- Init ready in %.0f ms: drive and jewel servos %.0f ms, %s%s",
+                (clock.nanoTime() - initStart) / 1.0e6, driveMs, mechanisms,
+                (gyroGroup != null) ? "; " + gyroGroup : ""));
+    }
 
-        // Set intake to closed and stopped
-        intake.setClosed();
-        intake.setStop();
-
-        // Define color sensor
-        jewelCS = hwMap.colorSensor.get("cs");
-
-        if (initGyro){
-
-            AdafruitBNO055IMU.Parameters parameters = new AdafruitBNO055IMU.Parameters();
-            parameters.angleUnit           = AdafruitBNO055IMU.AngleUnit.DEGREES;
-            parameters.accelUnit           = AdafruitBNO055IMU.AccelUnit.METERS_PERSEC_PERSEC;
-            parameters.calibrationDataFile = "AdafruitIMUCalibration.json"; // see the calibration sample opmode
-            parameters.mode = AdafruitBNO055IMU.SensorMode.IMU;
-            parameters.loggingEnabled      = true;
-            parameters.loggingTag          = "IMU";
-            //parameters.accelerationIntegrationAlgorithm = new JustLoggingAccelerationIntegrator();
+    /**
+     * @return  The jewel color sensor, looked up the first time it's asked for
+     */
+    public ColorSensor jewelCS() {
+        return jewelCSGroup.get();
+    }
 
-            // Retrieve and initialize the IMU. We expect the IMU to be attached to an I2C port
-            // on a Core Device Interface Module, configured to be a sensor of type "AdaFruit IMU",
-            // and named "adaGyro".
-            adaGyro = hwMap.get(BNO055IMU.class, "gyro");
-            adaGyro.initialize(parameters);
-        }
+    /**
+     * @return  The IMU, waiting for it to finish initializing; null if init() was told not to use it
+     */
+    public BNO055IMU gyro() {
+        return (gyroGroup != null) ? gyroGroup.get() : null;
+    }
 
+    /**
+     * @return  True if the IMU has finished initializing (or isn't being used), without waiting
+     */
+    public boolean isGyroReady() {
+        return gyroGroup == null || gyroGroup.isReady();
     }
 
 
@@ -231,5 +363,54 @@ public class HardwareDM18
         rightDrive2.setZeroPowerBehavior(behavior);
 
     }
+
+    /**
+     * Read all drive and lift encoders, busy flags, lift limit switches and the relic encoder
+     * once, into the robot's one frame.  Call at the top of each control cycle and read from the
+     * frame for the rest of the cycle.
+     *
+     * Also takes the gyro heading, records the cycle in the flight recorder and updates the pose.
+     *
+     * @return  The robot's frame, refilled; also available from lastSnapshot()
+     */
+    public HardwareSnapshot snapshot() {
+        // Cycles are recorded at their start.  A replay lines its clock up with that time before
+        // anything is read, so it stays in step with the recording
+        long start = clock.nanoTime();
+        if (replay != null) replay.nextCycle();
+        frame.read(this);
+        frame.readHeading(imu);
+        if (replay != null) replay.replaceHeading(frame);
+        pose.update(frame, frame.heading);
+        recorder.record(this, frame, start);
+        return frame;
+    }
+
+    /**
+     * Record a control cycle that doesn't take a snapshot (e.g. gyro turns).  Call at the top of
+     * the cycle; the frame's heading is taken fresh, the encoders recorded are from the last
+     * snapshot.
+     */
+    public void recordCycle() {
+        if (frame.cycle < 0) {
+            snapshot();
+            return;
+        }
+        long start = clock.nanoTime();
+        if (replay != null) replay.nextCycle();
+        frame.readHeading(imu);
+        if (replay != null) replay.replaceHeading(frame);
+        recorder.record(this, frame, start);
+    }
+
+    /**
+     * @return  The frame from the last snapshot() call, taking one if we never have
+     */
+    public HardwareSnapshot lastSnapshot() {
+        if (frame.cycle < 0) {
+            return snapshot();
+        }
+        return frame;
+    }
 }
 
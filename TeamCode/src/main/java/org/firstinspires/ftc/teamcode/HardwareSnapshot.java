@@ -0,0 +1,118 @@
+package org.firstinspires.ftc.teamcode;
+
+/**
+ * One cycle's worth of motor and switch readings for the DM18 robot.
+ *
+ * Filled by HardwareDM18.snapshot().  Encoders, busy flags and the limit switches all come from
+ * one bulk read per Expansion Hub, so code that looks at the same value several times in a cycle
+ * (loop conditions, logging, lift checks) doesn't pay for a bus transaction each time, and
+ * everything in the frame was sampled at the same point in the loop.
+ *
+ * The robot has one frame that every snapshot() refills in place, so taking one allocates
+ * nothing.  Don't hold on to a frame to compare with a later one; keep the values (or the cycle
+ * number) you need instead.
+ */
+public class HardwareSnapshot {
+
+    // When the frame was read (robot clock), and how many frames were read before it
+    public long             nanoTime;
+    public long             cycle = -1;
+    private final Clock     clock;
+
+    // Drive train
+    public int              leftDrive1Pos;
+    public int              leftDrive2Pos;
+    public int              rightDrive1Pos;
+    public int              rightDrive2Pos;
+    public boolean          leftDrive1Busy;
+    public boolean          leftDrive2Busy;
+    public boolean          rightDrive1Busy;
+    public boolean          rightDrive2Busy;
+
+    // Lift
+    public int              liftPos;
+    public int              liftTarget;         // Last target we commanded
+    public boolean          liftBusy;
+    public boolean          liftAtBottom;       // llb pressed
+    public boolean          liftAtTop;          // llt pressed
+
+    // Relic
+    public int              relicPos;
+
+    // Gyro, from the robot's IMU sampler.  NaN when there isn't one
+    public double           heading = Double.NaN;
+    public double           turnRate = Double.NaN;
+
+    HardwareSnapshot(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Read this cycle's values from the robot hardware, replacing the last cycle's
+     *
+     * @param robot Initialized robot hardware
+     */
+    void read(HardwareDM18 robot) {
+        BulkReader bulk = robot.bulk;
+        bulk.refresh();
+
+        leftDrive1Pos = bulk.position(robot.leftDrive1Slot);
+        leftDrive2Pos = bulk.position(robot.leftDrive2Slot);
+        rightDrive1Pos = bulk.position(robot.rightDrive1Slot);
+        rightDrive2Pos = bulk.position(robot.rightDrive2Slot);
+        leftDrive1Busy = bulk.busy(robot.leftDrive1Slot);
+        leftDrive2Busy = bulk.busy(robot.leftDrive2Slot);
+        rightDrive1Busy = bulk.busy(robot.rightDrive1Slot);
+        rightDrive2Busy = bulk.busy(robot.rightDrive2Slot);
+
+        liftPos = bulk.position(robot.liftSlot);
+        liftTarget = robot.lift.targetPos;
+        liftBusy = bulk.busy(robot.liftSlot);
+        // Limit switches read false when pressed
+        liftAtBottom = !bulk.state(robot.liftLimitBSlot);
+        liftAtTop = !bulk.state(robot.liftLimitTSlot);
+
+        relicPos = bulk.position(robot.relicSlot);
+
+        nanoTime = clock.nanoTime();
+        cycle++;
+    }
+
+    /**
+     * Take the heading and turn rate from the IMU sampler.  Reads the IMU if the sampler's last
+     * sample is stale and it has no thread of its own; anything else reading the sampler later
+     * in the cycle gets the same sample.
+     *
+     * @param imu   Sampler, or null if nobody started one
+     */
+    void readHeading(ImuSampler imu) {
+        if (imu == null) {
+            heading = Double.NaN;
+            turnRate = Double.NaN;
+            return;
+        }
+        heading = imu.heading();
+        turnRate = imu.rate();
+    }
+
+    /**
+     * @return true while every drive motor is still running to its target
+     */
+    public boolean allDriveBusy() {
+        return leftDrive1Busy && leftDrive2Busy && rightDrive1Busy && rightDrive2Busy;
+    }
+
+    /**
+     * @return average encoder count of the four drive motors
+     */
+    public int avgDrivePos() {
+        return (leftDrive1Pos + leftDrive2Pos + rightDrive1Pos + rightDrive2Pos) / 4;
+    }
+
+    /**
+     * @return milliseconds since this frame was read
+     */
+    public double ageMs() {
+        return (clock.nanoTime() - nanoTime) / 1.0e6;
+    }
+}
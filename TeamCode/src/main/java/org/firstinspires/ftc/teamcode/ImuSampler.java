@@ -0,0 +1,181 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.hardware.bosch.BNO055IMU;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AxesOrder;
+import org.firstinspires.ftc.robotcore.external.navigation.AxesReference;
+import org.firstinspires.ftc.robotcore.external.navigation.Orientation;
+
+/**
+ *    Reads the IMU heading on its own thread so the drive loops don't wait on an I2C read every
+ *    pass.  The loops get the latest heading right away, moved forward by the turn rate for the
+ *    time since it was read.
+ *
+ *    The latest sample is published with a sequence number (a "seqlock"): the sampler makes it odd
+ *    while writing and even when done, and a reader retries if it changed while it was reading.
+ *    Readers never block the sampler and never see a heading from one sample with the rate or time
+ *    from another.
+ *
+ *    On simulated time there is no thread.  Two threads sleeping on a VirtualClock would each move
+ *    it forward, so instead readers take a new sample themselves when the last one is a period old.
+ */
+public class ImuSampler implements Runnable {
+
+    static final long   SAMPLE_PERIOD_MS        = 10;    // 100 Hz, the BNO055 fusion output rate
+    static final double MAX_EXTRAPOLATE_SEC     = 0.05;  // Don't guess further ahead than this
+    static final double RATE_FILTER             = 0.5;   // Weight of the newest rate in the average
+
+    final BNO055IMU imu;
+    final Clock clock;
+    final LinearOpMode opMode;
+
+    // Latest sample.  Written only by sample(), read with the seqlock in read()
+    private volatile int seq = 0;
+    private volatile double heading = 0.0;      // Degrees, CCW +ve, -180 to 180 like the IMU
+    private volatile double rate = 0.0;         // Degrees per second, CCW +ve
+    private volatile long sampleNanos = 0;
+    private volatile boolean haveSample = false;
+
+    private Thread thread = null;
+    private volatile boolean running = false;
+
+    // Counters for the log
+    volatile long samples = 0;
+    volatile long retries = 0;
+    volatile double maxReadMs = 0.0;
+
+    /**
+     * @param imu       IMU to read
+     * @param clock     Robot clock, for timestamps and the sample period
+     * @param opMode    Sampler stops when this OpMode is stopped; null to only stop on stop()
+     */
+    public ImuSampler(BNO055IMU imu, Clock clock, LinearOpMode opMode) {
+        this.imu = imu;
+        this.clock = clock;
+        this.opMode = opMode;
+    }
+
+    /**
+     *    Start sampling.  Takes the first sample before returning so readers always have one.
+     */
+    public void start() {
+        sample();
+        if (clock instanceof VirtualClock || running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this, "IMU sampler");
+        thread.setDaemon(true);
+        thread.start();
+        RobotLog.i("DM10337 -- IMU sampler started");
+    }
+
+    /**
+     *    Stop the sampling thread.  Readers still work, they just sample on their own.
+     */
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+            RobotLog.i(String.format("DM10337 -- IMU sampler stopped: %d samples, %d reader retries, max read %.1f ms",
+                    samples, retries, maxReadMs));
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running && !(opMode != null && opMode.isStopRequested())) {
+            long start = clock.nanoTime();
+            try {
+                sample();
+            } catch (RuntimeException e) {
+                // A bad read shouldn't kill the thread; readers keep the last good sample
+                RobotLog.i("DM10337 -- IMU sample failed: " + e);
+            }
+            long waitMs = SAMPLE_PERIOD_MS - (clock.nanoTime() - start) / 1000000L;
+            try {
+                clock.sleep(Math.max(1, waitMs));
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+        running = false;
+    }
+
+    /**
+     *    Read the IMU now and publish the result.  Blocks for the I2C read.
+     */
+    public synchronized void sample() {
+        long start = clock.nanoTime();
+        Orientation angles = imu.getAngularOrientation().toAxesReference(AxesReference.INTRINSIC).toAxesOrder(AxesOrder.ZYX);
+        long now = clock.nanoTime();
+        maxReadMs = Math.max(maxReadMs, (now - start) / 1.0e6);
+
+        double newHeading = angles.firstAngle;
+        double newRate = rate;
+        if (haveSample && now > sampleNanos) {
+            double change = wrap(newHeading - heading);
+            double instRate = change / ((now - sampleNanos) / 1.0e9);
+            newRate = RATE_FILTER * instRate + (1.0 - RATE_FILTER) * rate;
+        }
+
+        seq++;                  // Odd: writing
+        heading = newHeading;
+        rate = newRate;
+        sampleNanos = now;
+        haveSample = true;
+        seq++;                  // Even: done
+        samples++;
+    }
+
+    /**
+     * @return  Latest heading in degrees, extrapolated to now with the turn rate
+     */
+    public double heading() {
+        if (thread == null && (!haveSample || clock.nanoTime() - sampleNanos >= SAMPLE_PERIOD_MS * 1000000L)) {
+            sample();
+        }
+        int s;
+        double h, r;
+        long t;
+        while (true) {
+            s = seq;
+            h = heading;
+            r = rate;
+            t = sampleNanos;
+            if ((s & 1) == 0 && s == seq) break;
+            retries++;
+            Thread.yield();
+        }
+        double ageSec = Math.min(Math.max(0.0, (clock.nanoTime() - t) / 1.0e9), MAX_EXTRAPOLATE_SEC);
+        return wrap(h + r * ageSec);
+    }
+
+    /**
+     * @return  Latest turn rate in degrees per second, CCW +ve
+     */
+    public double rate() {
+        return rate;
+    }
+
+    /**
+     * @return  Age of the latest sample in milliseconds
+     */
+    public double ageMs() {
+        return (clock.nanoTime() - sampleNanos) / 1.0e6;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Angle in the range +/- 180
+    static double wrap(double degrees) {
+        while (degrees > 180.0) degrees -= 360.0;
+        while (degrees <= -180.0) degrees += 360.0;
+        return degrees;
+    }
+}
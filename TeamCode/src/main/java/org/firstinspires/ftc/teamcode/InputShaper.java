@@ -0,0 +1,156 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.util.Range;
+
+/**
+ *    Turns one joystick axis into a power: deadzone, response curve and (optionally) a limit on
+ *    how fast the power can build up.  Replaces the deadzone() and smoothPowerCurve() copies the
+ *    TeleOps each had.
+ *
+ *    The curve is the one those used: inside the deadzone the power is zero, past it the stick
+ *    is rescaled to 0..1 and the power is
+ *
+ *      minPower + (1 - minPower) * (expo * x^3 + (1 - expo) * x)
+ *
+ *    so expo 1 is the full cubic and 0 is a straight line.  It is sampled into a table when the
+ *    Profile is made, so shape() is a lookup.
+ *
+ *    The slew limit is per second, not per loop, so the power builds up at the same rate however
+ *    fast the loop runs.  It only holds back power moving away from zero; letting go of the stick
+ *    or reversing it stops at once.
+ *
+ *    One InputShaper per axis, since the slew limit remembers the last output.  Nothing is
+ *    allocated after the constructor.
+ */
+public class InputShaper {
+
+    static final int TABLE_STEPS = 128;         // Curve samples past the deadzone
+
+    /**
+     * How one driver likes the sticks to feel
+     */
+    public static class Profile {
+        final String name;
+        final double deadzone;                  // Stick travel ignored, 0 to 0.999
+        final double expo;                      // 1 full cubic, 0 linear
+        final double minPower;                  // Power just past the deadzone, to overcome stall
+        final double slewPerSec;                // Max power increase per second, 0 for no limit
+        private final double scale;             // Table steps per unit of stick past the deadzone
+        private final double[] table = new double[TABLE_STEPS + 2];
+
+        public Profile(String name, double deadzone, double expo, double minPower, double slewPerSec) {
+            if (deadzone < 0.0 || deadzone >= 1.0) {
+                throw new IllegalArgumentException("InputShaper " + name + ": deadzone must be 0 to 0.999");
+            }
+            this.name = name;
+            this.deadzone = deadzone;
+            this.expo = expo;
+            this.minPower = minPower;
+            this.slewPerSec = slewPerSec;
+            this.scale = TABLE_STEPS / (1.0 - deadzone);
+            for (int i = 0; i <= TABLE_STEPS; i++) {
+                table[i] = curve((double) i / TABLE_STEPS);
+            }
+            table[TABLE_STEPS + 1] = table[TABLE_STEPS];    // So full stick needn't be a special case
+        }
+
+        /**
+         * @return  This profile with a different slew limit
+         */
+        public Profile withSlew(double slewPerSec) {
+            return new Profile(name + " slew " + slewPerSec, deadzone, expo, minPower, slewPerSec);
+        }
+
+        // The exact curve, for x past the deadzone rescaled to 0..1
+        double curve(double x) {
+            return minPower + (1.0 - minPower) * (expo * x * x * x + (1.0 - expo) * x);
+        }
+
+        /**
+         * @return  The shaped value of a stick reading, without any slew limit
+         */
+        public double shape(double stick) {
+            double mag = Math.abs(stick);
+            if (!(mag > deadzone)) return 0.0;          // NaN too
+            double pos = (Math.min(mag, 1.0) - deadzone) * scale;
+            int i = (int) pos;
+            double out = table[i] + (table[i + 1] - table[i]) * (pos - i);
+            return (stick < 0.0) ? -out : out;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    // What the TeleOps have always used: driving, and the operator's mechanism sticks
+    public static final Profile DRIVER = new Profile("driver", 0.10, 1.0, 0.05, 0.0);
+    public static final Profile OPERATOR = new Profile("operator", 0.20, 1.0, 0.05, 0.0);
+
+    // Gentler starts, for drivers who find full cubic power jumpy off the line
+    public static final Profile DRIVER_SMOOTH = DRIVER.withSlew(4.0);
+
+    private Profile profile;
+    private final Clock clock;
+    private double last = 0.0;
+    private long lastNanos = -1;
+
+    /**
+     * @param profile   How the stick should feel
+     * @param clock     Robot clock, for the slew limit
+     */
+    public InputShaper(Profile profile, Clock clock) {
+        this.profile = profile;
+        this.clock = clock;
+    }
+
+    /**
+     * Change profile, e.g. when drivers swap
+     */
+    public void setProfile(Profile profile) {
+        this.profile = profile;
+    }
+
+    public Profile getProfile() {
+        return profile;
+    }
+
+    /**
+     * @param stick     Raw stick reading, -1 to 1
+     * @return          Power for it
+     */
+    public double shape(double stick) {
+        return shape(stick, clock.nanoTime());
+    }
+
+    /**
+     * @param stick     Raw stick reading, -1 to 1
+     * @param nanos     Clock time of the reading
+     * @return          Power for it
+     */
+    public double shape(double stick, long nanos) {
+        double target = profile.shape(stick);
+        double out = target;
+        if (profile.slewPerSec > 0.0) {
+            double step = (lastNanos >= 0) ? profile.slewPerSec * (nanos - lastNanos) / 1.0e9 : 0.0;
+            if (target * last < 0.0) {
+                // Reversing: drop to zero now, then build up the other way
+                out = Range.clip(target, -step, step);
+            } else if (Math.abs(target) > Math.abs(last)) {
+                out = last + Range.clip(target - last, -step, step);
+            }
+        }
+        last = out;
+        lastNanos = nanos;
+        return out;
+    }
+
+    /**
+     * Forget the last output, so the next one builds up from zero
+     */
+    public void reset() {
+        last = 0.0;
+        lastNanos = -1;
+    }
+}
@@ -0,0 +1,116 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Microbenchmark of InputShaper against the smoothPowerCurve(deadzone()) the TeleOps used.
+ *
+ * Runs the same random stick readings through both and reports ns per stick, the largest
+ * difference between them, and how long DRIVER_SMOOTH takes to reach full power at a fast and a
+ * slow loop rate (it should be the same).  run() also works on a PC.
+ */
+
+@TeleOp(name="Bench InputShaper", group="DM18")
+@Disabled
+public class InputShaperBenchmark extends LinearOpMode {
+
+    static final int SAMPLES = 200000;
+    static final int PASSES = 5;
+
+    @Override
+    public void runOpMode() throws InterruptedException {
+
+        telemetry.addData("Say", "Press start to run benchmark");
+        telemetry.update();
+        waitForStart();
+
+        String result = run();
+        telemetry.addData("Shaping", result);
+        telemetry.update();
+        RobotLog.i("DM10337 -- InputShaper bench " + result);
+
+        while (opModeIsActive()) {
+            idle();
+        }
+    }
+
+    /**
+     * @return  One line of results
+     */
+    public static String run() {
+        Random rand = new Random(10337);
+        double[] stick = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            stick[i] = rand.nextDouble() * 2.0 - 1.0;
+        }
+
+        InputShaper shaper = new InputShaper(InputShaper.DRIVER, RealClock.INSTANCE);
+        double oldNs = 0.0;
+        double newNs = 0.0;
+        double check = 0.0;
+        for (int pass = 0; pass < PASSES; pass++) {
+            // Old TeleOp functions
+            long start = System.nanoTime();
+            for (int i = 0; i < SAMPLES; i++) {
+                check += smoothPowerCurve(deadzone(stick[i], 0.10));
+            }
+            oldNs = (double) (System.nanoTime() - start) / SAMPLES;
+
+            // Shaper, with the loop's clock reading passed in as the TeleOps' would be
+            start = System.nanoTime();
+            for (int i = 0; i < SAMPLES; i++) {
+                check -= shaper.shape(stick[i], i * 20000000L);
+            }
+            newNs = (double) (System.nanoTime() - start) / SAMPLES;
+        }
+
+        double maxDiff = 0.0;
+        for (int i = 0; i < SAMPLES; i++) {
+            double diff = Math.abs(smoothPowerCurve(deadzone(stick[i], 0.10)) - InputShaper.DRIVER.shape(stick[i]));
+            maxDiff = Math.max(maxDiff, diff);
+        }
+
+        // Report the last (warmed up) pass
+        return String.format(Locale.US, "old %.1f ns  shaper %.1f ns  max diff %.5f  slew to full %.0f ms at 200 Hz, %.0f ms at 25 Hz  check %.3f",
+                oldNs, newNs, maxDiff, msToFull(5), msToFull(40), check);
+    }
+
+    // How long DRIVER_SMOOTH takes from rest to full power with the stick pushed all the way
+    static double msToFull(long loopMs) {
+        InputShaper shaper = new InputShaper(InputShaper.DRIVER_SMOOTH, RealClock.INSTANCE);
+        long nanos = 0;
+        shaper.shape(0.0, nanos);
+        while (shaper.shape(1.0, nanos) < 1.0) {
+            nanos += loopMs * 1000000L;
+        }
+        return nanos / 1.0e6;
+    }
+
+    /**
+     * The TeleOps' old cubic curve
+     */
+    static double smoothPowerCurve(double x) {
+        double a = 1.0;
+        double b = 0.05;
+        if (x > 0.0)
+            return (b + (1.0-b)*(a*x*x*x+(1.0-a)*x));
+        else if (x<0.0)
+            return (-b + (1.0-b)*(a*x*x*x+(1.0-a)*x));
+        else return 0.0;
+    }
+
+    /**
+     * The TeleOps' old deadzone
+     */
+    static double deadzone(double rawStick, double dz) {
+        double stick = Math.max(-1.0, Math.min(1.0, rawStick));
+        if (Math.abs(stick) < dz) return 0.0;
+        return (stick >= 0.0) ? (stick - dz)/(1 - dz) : (stick + dz)/(1 - dz);
+    }
+}
@@ -8,8 +8,6 @@ import com.qualcomm.robotcore.hardware.DistanceSensor;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 import com.qualcomm.robotcore.hardware.Servo;
 import com.qualcomm.robotcore.util.Range;
-import com.qualcomm.robotcore.util.ElapsedTime;
-import com.qualcomm.robotcore.util.RobotLog;
 
 import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
 
@@ -29,20 +27,27 @@ public class Intake {
     // Digital channel - distance sensor
     public DistanceSensor distanceSensor_left = null;
     public DistanceSensor distanceSensor_right = null;
-    public MovingAvg distSensor_leftAvg = new MovingAvg(1);
-    public MovingAvg distSensor_rightAvg = new MovingAvg(1);
+    public GlyphDetector glyphDetector = new GlyphDetector();
 
     public ColorSensor  glyphColorSensor = null;
+    public ColorClassifier glyphClassifier = ColorClassifier.glyph();
 
     // Intake constants
-    final static double INTAKE_LEFT_HOME = 0.0;
-    final static double INTAKE_LEFT_RELEASE = 0.396;
-    final static double INTAKE_RIGHT_HOME = 1.0;
-    final static double INTAKE_RIGHT_RELEASE = 0.58;
+    @Tunable static double INTAKE_LEFT_HOME = 0.0;
+    @Tunable static double INTAKE_LEFT_RELEASE = 0.396;
+    @Tunable static double INTAKE_RIGHT_HOME = 1.0;
+    @Tunable static double INTAKE_RIGHT_RELEASE = 0.58;
     final static double INTAKE_MOVE_TIME = 50;     // 0.5 seconds to open or close intake
-    final static double MAX_IN_POWER = 1.0;
-    final static double MIN_IN_POWER = 0.6;
-    final static double IN_POWER_DELTA = 0.02;      // Amount to increment/decrement power per cycle
+    @Tunable static double MAX_IN_POWER = 1.0;
+    @Tunable static double MIN_IN_POWER = 0.6;
+    @Tunable static double IN_POWER_DELTA = 0.02;      // Amount to increment/decrement power per cycle
+    final static double SAMPLE_PERIOD_MS = 10;      // Read the glyph sensors at most this often
+    // Raw alpha() counts, not argb().  Distance switches a little brighter than the color
+    // call, as it did before they shared a sensor read; kept until we recalibrate both
+    final static int GLYPH_GRAY_ALPHA = 77;         // Glyphs brighter than this are gray
+    final static int GRAY_DISTANCE_ALPHA = 85;      // Glyphs brighter than this load at GRAY_INTAKE_DISTANCE
+    @Tunable static double GRAY_INTAKE_DISTANCE = 7.2;
+    @Tunable static double BROWN_INTAKE_DISTANCE = 9.0;
 
     /* Intake state variables */
     boolean intakeCycle = true;        // True we are incrementing right power and decrementing left
@@ -56,8 +61,14 @@ public class Intake {
     double lInPower = 0.0;
     double intakeDistance = 8.5;
 
+    // Last sensor readings, for the flight recorder
+    double lastDistLeft = Double.NaN;
+    double lastDistRight = Double.NaN;
+    int lastAlpha = -1;
+
     // Timer to tell if intake is still opening/closing
-    ElapsedTime timer = new ElapsedTime();
+    ClockTimer timer = new ClockTimer();
+    Clock clock = RealClock.INSTANCE;
 
     /**
      * Constructor
@@ -66,6 +77,16 @@ public class Intake {
         // Do nothing
     }
 
+    /**
+     * Run the intake timer on the robot's clock.  Call before init().
+     *
+     * @param clock Clock the robot runs on
+     */
+    public void setClock(Clock clock) {
+        this.clock = clock;
+        timer.setClock(clock);
+    }
+
     /**
      * Initialize the intake
      *
@@ -79,6 +100,8 @@ public class Intake {
         // Define and Initialize intake Motors
         intakeLeftMotor = hw.dcMotor.get(lm);
         intakeRightMotor = hw.dcMotor.get(rm);
+        intakeLeftMotor = ActuatorCache.wrap(intakeLeftMotor);
+        intakeRightMotor = ActuatorCache.wrap(intakeRightMotor);
         intakeLeftMotor.setDirection(DcMotor.Direction.REVERSE);
         intakeRightMotor.setDirection(DcMotor.Direction.FORWARD);
 
@@ -90,6 +113,8 @@ public class Intake {
         // Define and initialize Intake servos
         intakeLeftServo = hw.servo.get(ls);
         intakeRightServo = hw.servo.get(rs);
+        intakeLeftServo = ActuatorCache.wrap(intakeLeftServo);
+        intakeRightServo = ActuatorCache.wrap(intakeRightServo);
         setClosed();
 
         // Define distance sensor
@@ -98,6 +123,9 @@ public class Intake {
 
         glyphColorSensor = hw.colorSensor.get("ds_left");
 
+        // Work out the color table now rather than on the first glyph
+        glyphClassifier.build();
+
     }
 
 
@@ -106,7 +134,7 @@ public class Intake {
      */
     public void setOpen() {
         if (isClosed()) {
-            RobotLog.i("DM10337 -- Intake set to OPEN");intakeLeftServo.setPosition(INTAKE_LEFT_RELEASE);
+            EventLog.log(EventLog.Event.INTAKE_OPEN);intakeLeftServo.setPosition(INTAKE_LEFT_RELEASE);
             intakeRightServo.setPosition(INTAKE_RIGHT_RELEASE);
             isIntakeClosed = false;
             timer.reset();
@@ -119,7 +147,7 @@ public class Intake {
      */
     public void setClosed() {
         if (!isClosed()){
-            RobotLog.i("DM10337 -- Intake set to CLOSED");
+            EventLog.log(EventLog.Event.INTAKE_CLOSED);
             intakeLeftServo.setPosition(INTAKE_LEFT_HOME);
             intakeRightServo.setPosition(INTAKE_RIGHT_HOME);
             isIntakeClosed = true;
@@ -136,7 +164,7 @@ public class Intake {
      * Set the intake feed wheels in
      */
     public void setIn() {
-        RobotLog.i("DM10337 -- Intake set IN");
+        EventLog.log(EventLog.Event.INTAKE_IN);
         rInPower = MIN_IN_POWER;
         lInPower = MAX_IN_POWER;
         intakeLeftMotor.setPower(lInPower);
@@ -147,7 +175,7 @@ public class Intake {
     }
 
     public void setInSlow() {
-        RobotLog.i("DM10337 -- Intake set IN SLOW");
+        EventLog.log(EventLog.Event.INTAKE_IN_SLOW);
         intakeLeftMotor.setPower(0.5);
         intakeRightMotor.setPower(0.5);
         isIntakeInOn = true;
@@ -226,7 +254,7 @@ public class Intake {
      * Stop the intake feed wheels
      */
     public void setStop() {
-        RobotLog.i("DM10337 -- Intake set STOP");
+        EventLog.log(EventLog.Event.INTAKE_STOP);
         intakeLeftMotor.setPower(0.0);
         intakeRightMotor.setPower(0.0);
         isIntakeInOn = false;
@@ -237,7 +265,7 @@ public class Intake {
      * Feed the intake in reverse
      */
     public void setOut() {
-        RobotLog.i("DM10337 -- Intake set OUT");
+        EventLog.log(EventLog.Event.INTAKE_OUT);
         intakeLeftMotor.setPower(-0.60);
         intakeRightMotor.setPower(-1.0);
         isIntakeInOn = false;
@@ -305,25 +333,49 @@ public class Intake {
         intakeRightServo.setPosition(pos);
     }
 
+    /**
+     * @return  True if the glyph detector thinks there is a glyph in the intake.  Reads the
+     *          sensors if they haven't been read in the last SAMPLE_PERIOD_MS.
+     */
     public boolean detectGlyph() {
-        setIntakeDistance();
-        if ((distLeftAvg() < intakeDistance) || (distRightAvg() < intakeDistance))  return true;
-        else return false;
+        updateDistAvg();
+        return glyphDetector.isDetected();
+    }
+
+    /**
+     * @return  0 to 1, how sure the glyph detector is that there is a glyph
+     */
+    public double glyphConfidence() {
+        return glyphDetector.confidence();
     }
 
     public void setIntakeDistance() {
-        if (glyphColorSensor.alpha() > 85.0) intakeDistance = 7.2;
-        else intakeDistance = 9.0;
+        lastAlpha = glyphColorSensor.alpha();
+        if (lastAlpha > GRAY_DISTANCE_ALPHA) intakeDistance = GRAY_INTAKE_DISTANCE;
+        else intakeDistance = BROWN_INTAKE_DISTANCE;
     }
 
     public int setGlyphColor() {
-        if (glyphColorSensor.alpha() > 77.0) {
-            RobotLog.i("DM10337 -- Glyph color is GRAY. Alpha:" + glyphColorSensor.alpha());
-            return 0; // 0 for gray
+        int color = glyphColor();
+        if (color == ColorClassifier.GLYPH_GRAY) {
+            EventLog.log(EventLog.Event.GLYPH_GRAY, lastAlpha);
         } else {
-            RobotLog.i("DM10337 -- Glyph color is BROWN. Alpha:" + glyphColorSensor.alpha());
-            return 1; // 1 for brown
+            EventLog.log(EventLog.Event.GLYPH_BROWN, lastAlpha);
         }
+        return color;   // 0 for gray, 1 for brown
+    }
+
+    /**
+     * @return  Color of the glyph in the intake: ColorClassifier.GLYPH_GRAY or GLYPH_BROWN.
+     *          Uses the raw channel counts, which the table is calibrated in; argb() scales
+     *          them down.
+     */
+    public int glyphColor() {
+        int r = glyphColorSensor.red();
+        int g = glyphColorSensor.green();
+        int b = glyphColorSensor.blue();
+        lastAlpha = glyphColorSensor.alpha();
+        return glyphClassifier.classify(r, g, b, lastAlpha);
     }
 
     public void squareGlyph() {
@@ -338,24 +390,34 @@ public class Intake {
     }
 
     public double distLeft() {
-        return distanceSensor_left.getDistance(DistanceUnit.CM);
+        lastDistLeft = distanceSensor_left.getDistance(DistanceUnit.CM);
+        return lastDistLeft;
     }
 
     public double distRight() {
-        return distanceSensor_right.getDistance(DistanceUnit.CM);
+        lastDistRight = distanceSensor_right.getDistance(DistanceUnit.CM);
+        return lastDistRight;
     }
 
     public double distRightAvg() {
-        return distSensor_rightAvg.average();
+        return glyphDetector.rightCm();
     }
 
     public double distLeftAvg() {
-        return distSensor_leftAvg.average();
+        return glyphDetector.leftCm();
     }
 
+    /**
+     * Feed the glyph detector a new reading from both distance sensors, unless it had one in the
+     * last SAMPLE_PERIOD_MS.  Call once a cycle.
+     */
     public void updateDistAvg() {
-        distSensor_rightAvg.add(distanceSensor_right.getDistance(DistanceUnit.CM));
-        distSensor_leftAvg.add(distanceSensor_left.getDistance(DistanceUnit.CM));
+        long now = clock.nanoTime();
+        long last = glyphDetector.lastSampleNanos();
+        if (last >= 0 && now - last < SAMPLE_PERIOD_MS * 1000000L) return;
+
+        setIntakeDistance();
+        glyphDetector.update(now, distLeft(), distRight(), intakeDistance);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package org.firstinspires.ftc.teamcode;
+
+/**
+ *    Histogram of durations with fixed buckets, for loop timing.
+ *
+ *    Durations are kept in microseconds.  Below 16 us every microsecond has its own bucket; above
+ *    that each doubling is split into 16 buckets, so a percentile is never more than 1/16 (about
+ *    6%) too high.  Anything over about 16 seconds goes in the last bucket.  All storage is made
+ *    in the constructor, so record() never allocates and costs a few instructions.
+ */
+public class LatencyHistogram {
+
+    static final int SUB_BITS   = 4;
+    static final int SUB_COUNT  = 1 << SUB_BITS;                // Buckets per doubling
+    static final int MAX_EXP    = 24;                           // 2^24 us, about 16 s
+    static final int BUCKETS    = (MAX_EXP - SUB_BITS + 2) * SUB_COUNT;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count = 0;
+    private long totalNanos = 0;
+    private long maxNanos = 0;
+
+    /**
+     * Add one duration
+     *
+     * @param nanos     How long it took, nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts[bucket(nanos / 1000)]++;
+        count++;
+        totalNanos += nanos;
+        if (nanos > maxNanos) maxNanos = nanos;
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = 0;
+        }
+        count = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double meanMs() {
+        return (count > 0) ? totalNanos / 1.0e6 / count : 0.0;
+    }
+
+    public double maxMs() {
+        return maxNanos / 1.0e6;
+    }
+
+    public double totalMs() {
+        return totalNanos / 1.0e6;
+    }
+
+    /**
+     * @param p     Fraction of the durations, e.g. 0.99
+     * @return  Milliseconds that fraction of the durations were at or under.  Rounded up to the
+     *          top of its bucket, but never more than the max.
+     */
+    public double percentileMs(double p) {
+        if (count == 0) return 0.0;
+        long rank = (long) Math.ceil(p * count);
+        if (rank < 1) rank = 1;
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperMicros(i) / 1000.0, maxMs());
+            }
+        }
+        return maxMs();
+    }
+
+    // Bucket for a duration in microseconds
+    static int bucket(long micros) {
+        if (micros < SUB_COUNT) return (int) micros;
+        int exp = 63 - Long.numberOfLeadingZeros(micros);
+        if (exp > MAX_EXP) return BUCKETS - 1;
+        return (exp - SUB_BITS + 1) * SUB_COUNT + (int) (micros >> (exp - SUB_BITS)) - SUB_COUNT;
+    }
+
+    // Largest duration in microseconds that lands in a bucket
+    static long upperMicros(int bucket) {
+        if (bucket < SUB_COUNT) return bucket;
+        int exp = bucket / SUB_COUNT + SUB_BITS - 1;
+        long sub = SUB_COUNT + bucket % SUB_COUNT;
+        return ((sub + 1) << (exp - SUB_BITS)) - 1;
+    }
+}
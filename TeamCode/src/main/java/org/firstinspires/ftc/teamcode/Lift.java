@@ -7,7 +7,6 @@ import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.DigitalChannel;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 import com.qualcomm.robotcore.hardware.PIDCoefficients;
-import com.qualcomm.robotcore.util.ElapsedTime;
 import com.qualcomm.robotcore.util.Range;
 import com.qualcomm.robotcore.util.RobotLog;
 
@@ -25,9 +24,13 @@ public class Lift {
     boolean runUp = false;
     boolean runDown = false;
 
+    // When we last commanded a new target. Snapshots older than this are stale for the lift
+    long commandNanos = 0;
+
     public int LIFT_TIME = 2000;
-    ElapsedTime liftTimer = new ElapsedTime();
-    ElapsedTime stopTimer = new ElapsedTime();
+    ClockTimer liftTimer = new ClockTimer();
+    ClockTimer stopTimer = new ClockTimer();
+    Clock clock = RealClock.INSTANCE;
 
     /* Lift constants */
     static final double     LIFT_POWER = 1.0;
@@ -39,16 +42,31 @@ public class Lift {
 
 
     // Lift variables
-    public final int LIFT_TOP_POS = (int) (12.75*LIFT_COUNTS_PER_INCH);
-    public final int LIFT_MID_POS = (int) (6.75*LIFT_COUNTS_PER_INCH);
-    public final int LIFT_BTM_POS = (int) (0.5*LIFT_COUNTS_PER_INCH);
+    @Tunable public static int LIFT_TOP_POS = (int) (12.75*LIFT_COUNTS_PER_INCH);
+    @Tunable public static int LIFT_MID_POS = (int) (6.75*LIFT_COUNTS_PER_INCH);
+    @Tunable public static int LIFT_BTM_POS = (int) (0.5*LIFT_COUNTS_PER_INCH);
 
-    public final int LIFT_TOP_OFFSET = 1600;       // Encoder reading when we hit top limit switch
+    @Tunable public static int LIFT_TOP_OFFSET = 1600;       // Encoder reading when we hit top limit switch
     public final int LIFT_BTM_OFFSET = 0;
     public int liftOffset = LIFT_BTM_OFFSET;                     // Normal position is we start at bottom
 
     // Timer to tell if intake is still opening/closing
-    ElapsedTime timer = new ElapsedTime();
+    ClockTimer timer = new ClockTimer();
+
+    // Software height control for holdHeight(), in inches.  TeleOp holds the lift with this
+    // when driver 2 lets go of the stick, instead of the motor controller's RUN_TO_POSITION
+    static final double     LIFT_KP         = 0.4;      // Power per inch of error
+    static final double     LIFT_KI         = 0.2;      // Power per inch-second, makes up for the load
+    static final double     LIFT_KD         = 0.02;     // Power per inch/sec
+    static final double     LIFT_KS         = 0.05;     // Power to get the lift moving
+    static final double     LIFT_KG         = 0.1;      // Power to hold the gripper up against gravity
+    PidfController heightPid = new PidfController(LIFT_KP, LIFT_KI, LIFT_KD)
+            .setFeedforward(LIFT_KS, 0.0, 0.0)
+            .setOutputLimits(-1.0 - LIFT_KG, 1.0 - LIFT_KG)
+            .setIntegralLimit(0.3)
+            .setDerivativeFilter(0.5)
+            .setSettle(0.25, 1.0, 100);
+    double holdTarget = Double.NaN;
 
     /**
      * Constructor
@@ -58,6 +76,18 @@ public class Lift {
     }
 
 
+    /**
+     * Run the lift timers on the robot's clock.  Call before init().
+     *
+     * @param clock Clock the robot runs on
+     */
+    public void setClock(Clock clock) {
+        this.clock = clock;
+        liftTimer.setClock(clock);
+        stopTimer.setClock(clock);
+        timer.setClock(clock);
+    }
+
     /**
      *  Initialize the intake
      *
@@ -80,6 +110,9 @@ public class Lift {
 
         }
 
+        // Wrap after the DcMotorEx tuning above. Skips repeated writes of the same power/mode
+        liftMotor = ActuatorCache.wrap(liftMotor);
+
 
         // Set their operating modes and stop them
         liftMotor.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
@@ -104,6 +137,7 @@ public class Lift {
         liftMotor.setPower(LIFT_POWER);
         runUp = true;
         liftTimer.reset();
+        commandNanos = clock.nanoTime();
     }
 
     // Set lift position to middle
@@ -125,6 +159,7 @@ public class Lift {
         }
         liftMotor.setPower(thePower);
         liftTimer.reset();
+        commandNanos = clock.nanoTime();
     }
 
     // Set lift position to bottom
@@ -140,6 +175,7 @@ public class Lift {
         liftMotor.setPower(thePower);
         runDown = true;
         liftTimer.reset();
+        commandNanos = clock.nanoTime();
     }
 
     public void setLiftHeight(double height) {
@@ -162,8 +198,46 @@ public class Lift {
         }
         liftMotor.setPower(thePower);
         liftTimer.reset();
+        commandNanos = clock.nanoTime();
+    }
+
+
+    /**
+     * Run the lift towards a height with heightPid.  Call every loop, and call releaseHold()
+     * before moving the lift any other way.
+     *
+     * @param height    Inches above the bottom
+     * @param frame     This cycle's hardware snapshot
+     * @return  True once the lift has settled at the height
+     */
+    public boolean holdHeight(double height, HardwareSnapshot frame) {
+        height = Range.clip(height, 0.0, 12.75);
+        if (height != holdTarget) {
+            // New target, don't carry over the old integral
+            heightPid.reset();
+            holdTarget = height;
+        }
+        double power = LIFT_KG + heightPid.update(height, distFromBottom(frame), frame.nanoTime);
+
+        // Don't drive into the limit switches
+        if ((power > 0.0 && frame.liftAtTop) || (power < 0.0 && frame.liftAtBottom)) {
+            power = 0.0;
+        }
+
+        runUp = false;
+        runDown = false;
+        liftMotor.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
+        liftMotor.setPower(power);
+        return heightPid.isSettled();
     }
 
+    /**
+     *    Stop using holdHeight().  The next call starts fresh.
+     */
+    public void releaseHold() {
+        holdTarget = Double.NaN;
+        heightPid.reset();
+    }
 
     public void setPower(double power) {
         power = Range.clip(power, -1.0, 1.0);
@@ -230,6 +304,12 @@ public class Lift {
         return ((liftMotor.getCurrentPosition() - trueBottom) / LIFT_COUNTS_PER_INCH);  // Inches above bottom
     }
 
+    // Same as distFromBottom() but uses this cycle's hardware snapshot
+    public double distFromBottom(HardwareSnapshot frame) {
+        double trueBottom = LIFT_BTM_POS - liftOffset;      // Current encoder reading of bottom of travel
+        return ((frame.liftPos - trueBottom) / LIFT_COUNTS_PER_INCH);  // Inches above bottom
+    }
+
     public boolean reachedFloor() {
         if ((runUp && !liftLimitT.getState()) ||
                 (runDown && !liftLimitB.getState()) ||
@@ -241,6 +321,20 @@ public class Lift {
         return false;
     }
 
-}
-
+    // Same as reachedFloor() but uses this cycle's hardware snapshot
+    public boolean reachedFloor(HardwareSnapshot frame) {
+        if (frame.nanoTime < commandNanos) {
+            // We moved the lift after the snapshot was taken so read it directly
+            return reachedFloor();
+        }
+        if ((runUp && frame.liftAtTop) ||
+                (runDown && frame.liftAtBottom) ||
+                !frame.liftBusy ||
+                (Math.abs(frame.liftPos - targetPos) < 0.5*LIFT_COUNTS_PER_INCH)){
+            stopLift();
+            return true;
+        }
+        return false;
+    }
 
+}
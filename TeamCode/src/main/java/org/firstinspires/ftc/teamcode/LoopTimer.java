@@ -0,0 +1,177 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.util.RobotLog;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+
+import java.util.Locale;
+
+/**
+ *    Times a control loop and the named sections inside it, to see what eats the loop budget.
+ *
+ *    Sections are fixed when the timer is made and used by index.  Mark the end of each section
+ *    as the loop gets past it; the time since the previous mark (or the start of the loop) goes to
+ *    that section.  A section marked twice in a loop gets both pieces, and one the loop skipped
+ *    counts as zero for that loop.
+ *
+ *      timer.startLoop();
+ *      robot.snapshot();
+ *      timer.mark(SNAPSHOT);
+ *      intakeControl();
+ *      timer.mark(INTAKE);
+ *      ...
+ *      timer.endLoop();
+ *
+ *    Keeps a LatencyHistogram of the loop period (start to start, so it includes the SDK's time
+ *    between our loops), the loop's own work (start to end) and each section's cost per loop.
+ *    Nothing allocates while timing.  The telemetry lines are only re-formatted every
+ *    REPORT_INTERVAL_MS.
+ */
+public class LoopTimer {
+
+    static final long REPORT_INTERVAL_MS = 500;
+
+    private final Clock clock;
+    private final String[] names;
+    private final String[] captions;            // Telemetry captions for the sections
+    private final LatencyHistogram period = new LatencyHistogram();
+    private final LatencyHistogram work = new LatencyHistogram();
+    private final LatencyHistogram[] sections;
+    private final long[] loopNanos;             // This loop's time in each section so far
+
+    private boolean started = false;
+    private long loopStart = 0;
+    private long lastMark = 0;
+
+    // Telemetry lines, re-formatted every REPORT_INTERVAL_MS
+    private final String[] lines;
+    private long lastReport = 0;
+    private boolean haveReport = false;
+
+    /**
+     * @param clock     Clock to time the loop with
+     * @param names     Section names, in index order
+     */
+    public LoopTimer(Clock clock, String... names) {
+        this.clock = clock;
+        this.names = names;
+        captions = new String[names.length];
+        sections = new LatencyHistogram[names.length];
+        for (int i = 0; i < names.length; i++) {
+            captions[i] = "  " + names[i];
+            sections[i] = new LatencyHistogram();
+        }
+        loopNanos = new long[names.length];
+        lines = new String[names.length + 2];
+    }
+
+    /**
+     * Call first thing in the loop
+     */
+    public void startLoop() {
+        long now = clock.nanoTime();
+        if (started) {
+            period.record(now - loopStart);
+        }
+        started = true;
+        loopStart = now;
+        lastMark = now;
+        for (int i = 0; i < loopNanos.length; i++) {
+            loopNanos[i] = 0;
+        }
+    }
+
+    /**
+     * The loop has just finished a section
+     *
+     * @param section   Index of the section
+     */
+    public void mark(int section) {
+        long now = clock.nanoTime();
+        loopNanos[section] += now - lastMark;
+        lastMark = now;
+    }
+
+    /**
+     * Call last thing in the loop
+     */
+    public void endLoop() {
+        if (!started) return;
+        work.record(clock.nanoTime() - loopStart);
+        for (int i = 0; i < sections.length; i++) {
+            sections[i].record(loopNanos[i]);
+        }
+    }
+
+    public LatencyHistogram getPeriod() {
+        return period;
+    }
+
+    public LatencyHistogram getWork() {
+        return work;
+    }
+
+    public LatencyHistogram getSection(int section) {
+        return sections[section];
+    }
+
+    public void reset() {
+        period.reset();
+        work.reset();
+        for (LatencyHistogram h : sections) {
+            h.reset();
+        }
+        started = false;
+        haveReport = false;
+    }
+
+    /**
+     * Add the timing lines to telemetry.  Call every loop; telemetry is cleared after each update.
+     */
+    public void report(Telemetry telemetry) {
+        long now = clock.nanoTime();
+        if (!haveReport || now - lastReport >= REPORT_INTERVAL_MS * 1000000L) {
+            lines[0] = summary(period, false);
+            lines[1] = summary(work, false);
+            for (int i = 0; i < sections.length; i++) {
+                lines[i + 2] = summary(sections[i], true);
+            }
+            lastReport = now;
+            haveReport = true;
+        }
+        telemetry.addData("Loop period", lines[0]);
+        telemetry.addData("Loop work", lines[1]);
+        for (int i = 0; i < sections.length; i++) {
+            telemetry.addData(captions[i], lines[i + 2]);
+        }
+    }
+
+    /**
+     *    Write the loop and section timing to the robot log, sections by total time
+     */
+    public void log() {
+        RobotLog.i("DM10337 -- Loop timing over " + work.count() + " loops");
+        RobotLog.i("DM10337 --   period: " + summary(period, false));
+        RobotLog.i("DM10337 --   work:   " + summary(work, false));
+        boolean[] done = new boolean[sections.length];
+        for (int n = 0; n < sections.length; n++) {
+            int next = -1;
+            for (int i = 0; i < sections.length; i++) {
+                if (!done[i] && (next < 0 || sections[i].totalMs() > sections[next].totalMs())) next = i;
+            }
+            done[next] = true;
+            RobotLog.i("DM10337 --   " + names[next] + ": " + summary(sections[next], true));
+        }
+    }
+
+    private String summary(LatencyHistogram h, boolean showShare) {
+        String s = String.format(Locale.US, "p50 %.2f  p99 %.2f  max %.2f ms",
+                h.percentileMs(0.50), h.percentileMs(0.99), h.maxMs());
+        if (showShare) {
+            double total = work.totalMs();
+            s += String.format(Locale.US, "  avg %.2f ms  %.0f%%", h.meanMs(),
+                    (total > 0.0) ? 100.0 * h.totalMs() / total : 0.0);
+        }
+        return s;
+    }
+}
@@ -86,15 +86,15 @@ public class Matthew_Pakorn_autoJewelBlue extends LinearOpMode {
             sleep(20);
         }
 
-        robot.jewelCS.enableLed(true);
+        robot.jewelCS().enableLed(true);
         sleep(3000);
 
         // Check if we see blue or red
-        if (robot.jewelCS.red() >= 1) {
+        if (robot.jewelCS().red() >= 1) {
             // We see red
             robot.jewelRotServo.setPosition(iAmBlue()?robot.JEWEL_ROT_REV:robot.JEWEL_ROT_FWD);
             sleep(1000);
-        } else if (robot.jewelCS.blue() >= 1) {
+        } else if (robot.jewelCS().blue() >= 1) {
             // We see blue
             robot.jewelRotServo.setPosition(iAmBlue()?robot.JEWEL_ROT_FWD:robot.JEWEL_ROT_REV);
             sleep(1000);
@@ -114,7 +114,7 @@ public class Matthew_Pakorn_autoJewelBlue extends LinearOpMode {
         }
         //robot.jewelServo.setPosition(robot.JEWEL_HOME);
         sleep(2000);
-        robot.jewelCS.enableLed(false);
+        robot.jewelCS().enableLed(false);
 
 
         encoderDrive(0.5, 36.0, 5.0, false, 0.0);
@@ -0,0 +1,159 @@
+package org.firstinspires.ftc.teamcode;
+
+/**
+ *    Position / velocity / acceleration setpoints for a straight move, planned up front and
+ *    looked up by time since the move started.
+ *
+ *    The move is the fastest trapezoid (accelerate at maxAccel, cruise at maxVel, decelerate)
+ *    that covers the distance.  With a jerk limit the trapezoid's velocity is then run through a
+ *    moving average maxAccel / maxJerk seconds long (twice that for short moves with no cruise).
+ *    That rounds off the corners into an S-curve whose acceleration ramps up and down no faster
+ *    than maxJerk, covers exactly the same distance, and only takes the averaging time longer.
+ *
+ *    Setpoints are kept in plain arrays at DT spacing and reused from move to move, so planning
+ *    and lookups don't allocate once the arrays are big enough.
+ *
+ *    Distances are positive; the caller takes care of direction.  Units are whatever the limits
+ *    are in (we use inches and seconds).
+ */
+public class MotionProfile {
+
+    public static final double DT = 0.01;       // Seconds between setpoints
+
+    private double[] pos = new double[0];
+    private double[] vel = new double[0];
+    private double[] acc = new double[0];
+    private double[] work = new double[0];      // Unfiltered velocities
+    private int n = 0;                          // Setpoints in use
+    private double distance = 0.0;
+
+    public MotionProfile() {
+    }
+
+    /**
+     * Plan a move
+     *
+     * @param distance  How far (sign ignored)
+     * @param maxVel    Velocity limit
+     * @param maxAccel  Acceleration limit, used for speeding up and slowing down
+     * @param maxJerk   Jerk limit; 0 for a plain trapezoid
+     */
+    public void plan(double distance, double maxVel, double maxAccel, double maxJerk) {
+        distance = Math.abs(distance);
+        this.distance = distance;
+        if (distance <= 0.0 || maxVel <= 0.0 || maxAccel <= 0.0) {
+            ensureCapacity(1);
+            pos[0] = distance;
+            vel[0] = 0.0;
+            acc[0] = 0.0;
+            n = 1;
+            return;
+        }
+
+        // Trapezoid, or a triangle if we can't reach maxVel in the distance
+        double peak = Math.min(maxVel, Math.sqrt(distance * maxAccel));
+        double accelTime = peak / maxAccel;
+        double cruiseTime = (distance - peak * accelTime) / peak;
+        double total = 2.0 * accelTime + cruiseTime;
+
+        // The average changes acceleration by at most (change in the trapezoid) / window.  When
+        // the cruise is shorter than the window the trapezoid goes from +maxAccel to -maxAccel,
+        // so the window has to be twice as long
+        double jerkTime = (maxJerk > 0.0) ? maxAccel / maxJerk : 0.0;
+        if (cruiseTime < jerkTime) jerkTime *= 2.0;
+
+        int raw = (int) Math.ceil(total / DT) + 1;
+        int window = Math.max(1, (int) Math.ceil(jerkTime / DT - 1e-9));
+        n = raw + window - 1;
+        ensureCapacity(n);
+
+        for (int k = 0; k < raw; k++) {
+            double t = k * DT;
+            double v;
+            if (t < accelTime) {
+                v = maxAccel * t;
+            } else if (t < accelTime + cruiseTime) {
+                v = peak;
+            } else {
+                v = Math.max(0.0, maxAccel * (total - t));
+            }
+            work[k] = v;
+        }
+
+        // Moving average over the jerk window, kept as a running sum
+        double sum = 0.0;
+        for (int k = 0; k < n; k++) {
+            if (k < raw) sum += work[k];
+            if (k >= window) sum -= work[k - window];
+            vel[k] = sum / window;
+        }
+        vel[n - 1] = 0.0;
+
+        // Integrate, then scale so we land exactly on the distance despite the sampling
+        pos[0] = 0.0;
+        for (int k = 1; k < n; k++) {
+            pos[k] = pos[k - 1] + 0.5 * (vel[k - 1] + vel[k]) * DT;
+        }
+        double scale = (pos[n - 1] > 0.0) ? distance / pos[n - 1] : 1.0;
+        for (int k = 0; k < n; k++) {
+            pos[k] *= scale;
+            vel[k] *= scale;
+        }
+        for (int k = 0; k < n - 1; k++) {
+            acc[k] = (vel[k + 1] - vel[k]) / DT;
+        }
+        acc[n - 1] = 0.0;
+    }
+
+    private void ensureCapacity(int size) {
+        if (pos.length < size) {
+            int cap = Math.max(size, 2 * pos.length);
+            pos = new double[cap];
+            vel = new double[cap];
+            acc = new double[cap];
+            work = new double[cap];
+        }
+    }
+
+    /**
+     * @return  Seconds from start to the end of the move
+     */
+    public double duration() {
+        return (n - 1) * DT;
+    }
+
+    public double distance() {
+        return distance;
+    }
+
+    /**
+     * @return  True once the setpoints have reached the end of the move
+     */
+    public boolean isDone(double t) {
+        return t >= duration();
+    }
+
+    public double position(double t) {
+        return lookup(pos, t);
+    }
+
+    public double velocity(double t) {
+        return lookup(vel, t);
+    }
+
+    public double acceleration(double t) {
+        if (t <= 0.0) return acc[0];
+        int k = (int) (t / DT);
+        return (k < n) ? acc[k] : 0.0;
+    }
+
+    // Linear interpolation between setpoints, holding the end values outside the move
+    private double lookup(double[] values, double t) {
+        if (t <= 0.0) return values[0];
+        double f = t / DT;
+        int k = (int) f;
+        if (k >= n - 1) return values[n - 1];
+        double frac = f - k;
+        return values[k] + (values[k + 1] - values[k]) * frac;
+    }
+}
@@ -1,49 +1,281 @@
 package org.firstinspires.ftc.teamcode;
 
-import org.firstinspires.ftc.robotcore.internal.collections.ArrayRunQueue;
-
 /**
  * Created by jholly on 12/12/2017.
+ *
+ * Moving window over the last maxSamp readings.  Samples live in a primitive ring buffer so
+ * add() never boxes or allocates.  The running sum uses Kahan compensation so it does not drift
+ * over a full match, and variance is kept with a sliding Welford update so it is O(1) per sample.
+ *
+ * Windowed min/max are kept with monotonic deques of sample sequence numbers.  A running median
+ * can be enabled in the constructor; it keeps a sorted copy of the window (O(window) per sample
+ * but still allocation free).
  */
 
 public class MovingAvg {
 
     int maxSamp = 0;
+
+    // Ring buffer of samples. head is the index of the oldest sample
+    double[] samples;
+    int head = 0;
+    int count = 0;
+
+    // Total samples ever accepted. Used to tag samples for the min/max deques
+    long seq = 0;
+
+    // Kahan compensated running sum
     double sum = 0.0;
-    ArrayRunQueue<Double> samples;
+    double sumComp = 0.0;
+
+    // Sliding Welford state for variance
+    double mean = 0.0;
+    double m2 = 0.0;
+
+    // Monotonic deques of sequence numbers. Min deque is increasing in value, max deque decreasing
+    long[] minSeq;
+    int minHead = 0;
+    int minCount = 0;
+    long[] maxSeq;
+    int maxHead = 0;
+    int maxCount = 0;
+
+    // Sorted copy of the window for the running median (null when not tracking median)
+    double[] sorted = null;
 
     public MovingAvg (int max) {
-        maxSamp = max;
-        samples = new ArrayRunQueue<Double>();
+        this(max, false);
+    }
+
+    /**
+     * @param max           Number of samples in the window
+     * @param trackMedian   True to also keep a running median
+     */
+    public MovingAvg (int max, boolean trackMedian) {
+        maxSamp = Math.max(max, 1);
+        samples = new double[maxSamp];
+        minSeq = new long[maxSamp];
+        maxSeq = new long[maxSamp];
+        if (trackMedian) {
+            sorted = new double[maxSamp];
+        }
     }
 
-    public void add(Double val) {
+    public void add(double val) {
         if (!Double.isNaN(val)) {
-            samples.addLast(val);
-            sum += val;
+            if (count == maxSamp) {
+                // Window is full so the new sample replaces the oldest
+                double old = samples[head];
+                samples[head] = val;
+                head = (head + 1) % maxSamp;
+                addToSum(val - old);
+                double oldMean = mean;
+                mean += (val - old) / count;
+                m2 += (val - old) * (val - mean + old - oldMean);
+                if (sorted != null) sortedReplace(old, val);
+            } else {
+                samples[(head + count) % maxSamp] = val;
+                count++;
+                addToSum(val);
+                double delta = val - mean;
+                mean += delta / count;
+                m2 += delta * (val - mean);
+                if (sorted != null) sortedInsert(val);
+            }
+            seq++;
+            pushMinMax(val);
         } else {
             // Got a NaN -- remove 1 old sample so we continue to process queue
-            sum -= removeFirst();
-        }
-        if (samples.size() > maxSamp) {
-            sum -= removeFirst();
+            removeFirst();
         }
+        if (m2 < 0.0) m2 = 0.0;     // Guard against tiny negative values from rounding
     }
 
-    public Double removeFirst() {
-        if (samples.size() > 0) {
-            return samples.removeFirstCount(1);
+    public double removeFirst() {
+        if (count > 0) {
+            double old = samples[head];
+            head = (head + 1) % maxSamp;
+            count--;
+            addToSum(-old);
+            if (count == 0) {
+                mean = 0.0;
+                m2 = 0.0;
+                sum = 0.0;
+                sumComp = 0.0;
+            } else {
+                double oldMean = mean;
+                mean -= (old - mean) / count;
+                m2 -= (old - oldMean) * (old - mean);
+            }
+            if (sorted != null) sortedRemove(old);
+            dropExpired();
+            return old;
         } else {
             return 0.0;
         }
     }
 
     public double average() {
-        if (samples.size() > 0) {
-            return (sum / samples.size());
+        if (count > 0) {
+            return (sum / count);
         } else {
             return 9999.9;
         }
     }
 
+    /**
+     * @return Population variance of the samples in the window, 0 if empty
+     */
+    public double variance() {
+        if (count > 0) {
+            return (m2 / count);
+        } else {
+            return 0.0;
+        }
+    }
+
+    public double stdDev() {
+        return Math.sqrt(variance());
+    }
+
+    /**
+     * @return Smallest sample in the window, 9999.9 if empty (same as average)
+     */
+    public double min() {
+        if (minCount > 0) {
+            return valueOf(minSeq[minHead]);
+        } else {
+            return 9999.9;
+        }
+    }
+
+    /**
+     * @return Largest sample in the window, 9999.9 if empty (same as average)
+     */
+    public double max() {
+        if (maxCount > 0) {
+            return valueOf(maxSeq[maxHead]);
+        } else {
+            return 9999.9;
+        }
+    }
+
+    /**
+     * @return Median of the window, or average() if the median is not being tracked
+     */
+    public double median() {
+        if (sorted == null || count == 0) {
+            return average();
+        }
+        if ((count & 1) == 1) {
+            return sorted[count / 2];
+        } else {
+            return (sorted[count / 2 - 1] + sorted[count / 2]) / 2.0;
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isFull() {
+        return count == maxSamp;
+    }
+
+    /**
+     * Empty the window
+     */
+    public void clear() {
+        head = 0;
+        count = 0;
+        sum = 0.0;
+        sumComp = 0.0;
+        mean = 0.0;
+        m2 = 0.0;
+        minHead = 0;
+        minCount = 0;
+        maxHead = 0;
+        maxCount = 0;
+    }
+
+    // Kahan summation step
+    private void addToSum(double val) {
+        double y = val - sumComp;
+        double t = sum + y;
+        sumComp = (t - sum) - y;
+        sum = t;
+    }
+
+    // Sample value for a sequence number still in the window
+    private double valueOf(long s) {
+        int age = (int) (seq - 1 - s);                  // 0 is the newest sample
+        return samples[(head + count - 1 - age) % maxSamp];
+    }
+
+    private void pushMinMax(double val) {
+        dropExpired();
+        // Pop from the tail anything the new sample dominates
+        while (minCount > 0 && valueOf(minSeq[(minHead + minCount - 1) % maxSamp]) >= val) minCount--;
+        minSeq[(minHead + minCount) % maxSamp] = seq - 1;
+        minCount++;
+        while (maxCount > 0 && valueOf(maxSeq[(maxHead + maxCount - 1) % maxSamp]) <= val) maxCount--;
+        maxSeq[(maxHead + maxCount) % maxSamp] = seq - 1;
+        maxCount++;
+    }
+
+    // Drop deque heads that have left the window
+    private void dropExpired() {
+        long oldest = seq - count;
+        while (minCount > 0 && minSeq[minHead] < oldest) {
+            minHead = (minHead + 1) % maxSamp;
+            minCount--;
+        }
+        while (maxCount > 0 && maxSeq[maxHead] < oldest) {
+            maxHead = (maxHead + 1) % maxSamp;
+            maxCount--;
+        }
+    }
+
+    // Sorted window helpers. Called after count has been updated for insert, before for replace
+    private void sortedInsert(double val) {
+        int i = count - 1;
+        while (i > 0 && sorted[i - 1] > val) {
+            sorted[i] = sorted[i - 1];
+            i--;
+        }
+        sorted[i] = val;
+    }
+
+    private void sortedRemove(double val) {
+        int i = indexInSorted(val, count + 1);
+        for (; i < count; i++) {
+            sorted[i] = sorted[i + 1];
+        }
+    }
+
+    private void sortedReplace(double old, double val) {
+        int i = indexInSorted(old, count);
+        // Slide toward the correct spot for the new value
+        while (i > 0 && sorted[i - 1] > val) {
+            sorted[i] = sorted[i - 1];
+            i--;
+        }
+        while (i < count - 1 && sorted[i + 1] < val) {
+            sorted[i] = sorted[i + 1];
+            i++;
+        }
+        sorted[i] = val;
+    }
+
+    private int indexInSorted(double val, int n) {
+        int lo = 0;
+        int hi = n - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < val) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
 }
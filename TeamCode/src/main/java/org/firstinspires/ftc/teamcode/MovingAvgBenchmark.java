@@ -0,0 +1,246 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import org.firstinspires.ftc.robotcore.internal.collections.ArrayRunQueue;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Microbenchmark of MovingAvg against the old boxed ArrayRunQueue version.
+ *
+ * Runs the same sample stream (with the occasional NaN, like the distance sensors give us)
+ * through both and reports ns per add() in telemetry and the log.  Window sizes match what
+ * Intake (1) and AutoHelper (30) use.
+ *
+ * The old version had no variance, min/max or median, so for those the baseline is working them
+ * out from the window each time (ScanStats).  Each case also checks the two give the same
+ * answers.  run() also works on a PC.
+ */
+
+@TeleOp(name="Bench MovingAvg", group="DM18")
+@Disabled
+public class MovingAvgBenchmark extends LinearOpMode {
+
+    static final int SAMPLES = 200000;
+    static final int PASSES = 5;
+    static final int[] WINDOWS = {1, 30};
+
+    // What each case reads after every add()
+    static final int AVERAGE = 0;
+    static final int VARIANCE = 1;
+    static final int MIN_MAX = 2;
+    static final int MEDIAN = 3;
+    static final String[] CASES = {"average", "variance", "min/max", "median"};
+
+    @Override
+    public void runOpMode() throws InterruptedException {
+
+        telemetry.addData("Say", "Press start to run benchmark");
+        telemetry.update();
+        waitForStart();
+
+        for (String line : run()) {
+            telemetry.addData("MovingAvg", line);
+            RobotLog.i("DM10337 -- MovingAvg bench " + line);
+        }
+        telemetry.update();
+
+        while (opModeIsActive()) {
+            idle();
+        }
+    }
+
+    /**
+     * @return  One line of results for each window size and case
+     */
+    public static String[] run() {
+        double[] stream = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            stream[i] = ((i % 97) == 0) ? Double.NaN : 8.0 + Math.sin(i * 0.01) * 4.0 + (i % 7) * 0.1;
+        }
+
+        String[] lines = new String[WINDOWS.length * CASES.length];
+        int n = 0;
+        for (int w : WINDOWS) {
+            for (int c = 0; c < CASES.length; c++) {
+                lines[n++] = runCase(stream, w, c);
+            }
+        }
+        return lines;
+    }
+
+    private static String runCase(double[] stream, int window, int which) {
+        double oldNs = 0.0;
+        double ringNs = 0.0;
+        double check = 0.0;
+        for (int pass = 0; pass < PASSES; pass++) {
+            // Old implementation, or working it out from the window
+            BoxedAvg boxed = new BoxedAvg(window);
+            ScanStats scan = new ScanStats(window);
+            long start = System.nanoTime();
+            if (which == AVERAGE) {
+                for (int i = 0; i < SAMPLES; i++) {
+                    boxed.add(stream[i]);
+                    check += boxed.average();
+                }
+            } else {
+                for (int i = 0; i < SAMPLES; i++) {
+                    scan.add(stream[i]);
+                    check += read(scan, which);
+                }
+            }
+            oldNs = (double) (System.nanoTime() - start) / SAMPLES;
+
+            // Current implementation
+            MovingAvg ring = new MovingAvg(window, which == MEDIAN);
+            start = System.nanoTime();
+            for (int i = 0; i < SAMPLES; i++) {
+                ring.add(stream[i]);
+                check -= read(ring, which);
+            }
+            ringNs = (double) (System.nanoTime() - start) / SAMPLES;
+        }
+
+        // Report the last (warmed up) pass.  check adds up the differences, so it should be ~0
+        return String.format(Locale.US, "window %d %s: %s %.1f ns  ring %.1f ns  check %.2g",
+                window, CASES[which], (which == AVERAGE) ? "boxed" : "scan", oldNs, ringNs, check);
+    }
+
+    private static double read(MovingAvg avg, int which) {
+        switch (which) {
+            case VARIANCE:  return avg.variance();
+            case MIN_MAX:   return avg.min() + avg.max();
+            case MEDIAN:    return avg.median();
+            default:        return avg.average();
+        }
+    }
+
+    private static double read(ScanStats scan, int which) {
+        switch (which) {
+            case VARIANCE:  return scan.variance();
+            case MIN_MAX:   return scan.min() + scan.max();
+            default:        return scan.median();
+        }
+    }
+
+    /**
+     * The MovingAvg implementation we used to run, kept here only as the benchmark baseline
+     */
+    static class BoxedAvg {
+        int maxSamp = 0;
+        double sum = 0.0;
+        ArrayRunQueue<Double> samples;
+
+        BoxedAvg(int max) {
+            maxSamp = max;
+            samples = new ArrayRunQueue<Double>();
+        }
+
+        void add(Double val) {
+            if (!Double.isNaN(val)) {
+                samples.addLast(val);
+                sum += val;
+            } else {
+                sum -= removeFirst();
+            }
+            if (samples.size() > maxSamp) {
+                sum -= removeFirst();
+            }
+        }
+
+        Double removeFirst() {
+            if (samples.size() > 0) {
+                return samples.removeFirstCount(1);
+            } else {
+                return 0.0;
+            }
+        }
+
+        double average() {
+            if (samples.size() > 0) {
+                return (sum / samples.size());
+            } else {
+                return 9999.9;
+            }
+        }
+    }
+
+    /**
+     * The same window, with variance, min/max and median worked out from all of it on each
+     * call: what we would do without MovingAvg keeping them up to date
+     */
+    static class ScanStats {
+        final double[] window;
+        final double[] sorted;
+        int head = 0;
+        int count = 0;
+
+        ScanStats(int max) {
+            window = new double[max];
+            sorted = new double[max];
+        }
+
+        void add(double val) {
+            if (!Double.isNaN(val)) {
+                if (count == window.length) {
+                    window[head] = val;
+                    head = (head + 1) % window.length;
+                } else {
+                    window[(head + count) % window.length] = val;
+                    count++;
+                }
+            } else if (count > 0) {
+                // Same as MovingAvg: a NaN drops the oldest sample
+                head = (head + 1) % window.length;
+                count--;
+            }
+        }
+
+        private double at(int i) {
+            return window[(head + i) % window.length];
+        }
+
+        double variance() {
+            if (count == 0) return 0.0;
+            double mean = 0.0;
+            for (int i = 0; i < count; i++) mean += at(i);
+            mean /= count;
+            double m2 = 0.0;
+            for (int i = 0; i < count; i++) {
+                double d = at(i) - mean;
+                m2 += d * d;
+            }
+            return m2 / count;
+        }
+
+        double min() {
+            if (count == 0) return 9999.9;
+            double m = at(0);
+            for (int i = 1; i < count; i++) m = Math.min(m, at(i));
+            return m;
+        }
+
+        double max() {
+            if (count == 0) return 9999.9;
+            double m = at(0);
+            for (int i = 1; i < count; i++) m = Math.max(m, at(i));
+            return m;
+        }
+
+        double median() {
+            if (count == 0) return 9999.9;
+            for (int i = 0; i < count; i++) sorted[i] = at(i);
+            Arrays.sort(sorted, 0, count);
+            if ((count & 1) == 1) {
+                return sorted[count / 2];
+            } else {
+                return (sorted[count / 2 - 1] + sorted[count / 2]) / 2.0;
+            }
+        }
+    }
+}
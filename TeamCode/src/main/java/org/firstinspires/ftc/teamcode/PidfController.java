@@ -0,0 +1,227 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.util.Range;
+
+/**
+ *    PID controller with feedforward, for heading, drive and lift control.
+ *
+ *    - Integral only builds up while the output isn't pinned at a limit (anti-windup), and the
+ *      integral term can be capped on its own.
+ *    - Derivative is taken on the measurement, not the error, so a setpoint change doesn't kick
+ *      the output.  It is low pass filtered, or you can hand in a measured rate (gyro turn rate)
+ *      instead of differentiating.
+ *    - Feedforward: kS (power to get moving), kV (power per unit/sec), kA (power per unit/sec^2).
+ *    - Settled once the error and the rate have both been inside their tolerances for a while.
+ *    - Continuous mode wraps the error for angles, e.g. 360 for headings in degrees.
+ *
+ *    Nothing is allocated in update(), so it can run every loop.
+ *
+ *    Setters return the controller so they can be chained:
+ *      new PidfController(0.011, 0, 0.0008).setContinuous(360).setSettle(1.0, 5.0, 50);
+ */
+public class PidfController {
+
+    // Gains
+    double kP, kI, kD;
+    double kS = 0.0, kV = 0.0, kA = 0.0;
+
+    // Limits
+    double outMin = -1.0, outMax = 1.0;
+    double integralLimit = Double.POSITIVE_INFINITY;    // Most the I term can contribute
+    double derivativeFilter = 0.0;                      // 0 = no filter, towards 1 = heavier filter
+    double continuousRange = 0.0;                       // 0 = not continuous
+
+    // Settling
+    double settleError = 0.0;
+    double settleRate = Double.POSITIVE_INFINITY;
+    long settleNanos = 0;
+
+    // State
+    private double integral = 0.0;
+    private double lastMeasurement = 0.0;
+    private long lastNanos = 0;
+    private boolean haveLast = false;
+    private double rate = 0.0;
+    private double error = 0.0;
+    private double output = 0.0;
+    private long settledSince = -1;
+    private boolean settled = false;
+
+    public PidfController(double kP, double kI, double kD) {
+        this.kP = kP;
+        this.kI = kI;
+        this.kD = kD;
+    }
+
+    public PidfController setGains(double kP, double kI, double kD) {
+        this.kP = kP;
+        this.kI = kI;
+        this.kD = kD;
+        return this;
+    }
+
+    public PidfController setFeedforward(double kS, double kV, double kA) {
+        this.kS = kS;
+        this.kV = kV;
+        this.kA = kA;
+        return this;
+    }
+
+    public PidfController setOutputLimits(double min, double max) {
+        outMin = min;
+        outMax = max;
+        return this;
+    }
+
+    public PidfController setIntegralLimit(double limit) {
+        integralLimit = Math.abs(limit);
+        return this;
+    }
+
+    /**
+     * @param filter    Weight of the previous derivative, 0 to just under 1
+     */
+    public PidfController setDerivativeFilter(double filter) {
+        derivativeFilter = Range.clip(filter, 0.0, 0.99);
+        return this;
+    }
+
+    /**
+     * @param range     Size of one turn, e.g. 360 for degrees; 0 to turn off
+     */
+    public PidfController setContinuous(double range) {
+        continuousRange = Math.abs(range);
+        return this;
+    }
+
+    /**
+     * @param error     Settled when |error| is at most this...
+     * @param rate      ...and |rate of the measurement| is at most this...
+     * @param ms        ...for this long
+     */
+    public PidfController setSettle(double error, double rate, long ms) {
+        settleError = Math.abs(error);
+        settleRate = Math.abs(rate);
+        settleNanos = ms * 1000000L;
+        return this;
+    }
+
+    /**
+     *    Forget the integral, derivative and settling history.  Call before starting a new move.
+     */
+    public void reset() {
+        integral = 0.0;
+        haveLast = false;
+        rate = 0.0;
+        error = 0.0;
+        output = 0.0;
+        settledSince = -1;
+        settled = false;
+    }
+
+    /**
+     * One control cycle, differentiating the measurement for the D term
+     *
+     * @return  Output, within the output limits
+     */
+    public double update(double setpoint, double measurement, long nanos) {
+        double measuredRate = rate;
+        if (haveLast && nanos > lastNanos) {
+            double raw = wrap(measurement - lastMeasurement) / ((nanos - lastNanos) / 1.0e9);
+            measuredRate = derivativeFilter * rate + (1.0 - derivativeFilter) * raw;
+        }
+        return update(setpoint, measurement, measuredRate, 0.0, 0.0, nanos);
+    }
+
+    /**
+     * One control cycle with a measured rate (e.g. gyro turn rate) for the D term
+     *
+     * @return  Output, within the output limits
+     */
+    public double update(double setpoint, double measurement, double measuredRate, long nanos) {
+        return update(setpoint, measurement, measuredRate, 0.0, 0.0, nanos);
+    }
+
+    /**
+     * One control cycle following a profile
+     *
+     * @param setpoint      Where we should be
+     * @param measurement   Where we are
+     * @param measuredRate  How fast the measurement is changing, units/sec
+     * @param velocity      Profile velocity, for kS and kV
+     * @param acceleration  Profile acceleration, for kA
+     * @param nanos         Time of the measurement
+     * @return  Output, within the output limits
+     */
+    public double update(double setpoint, double measurement, double measuredRate,
+                         double velocity, double acceleration, long nanos) {
+        double dt = (haveLast && nanos > lastNanos) ? (nanos - lastNanos) / 1.0e9 : 0.0;
+        error = wrap(setpoint - measurement);
+        rate = measuredRate;
+
+        // Feedforward
+        double ff = kV * velocity + kA * acceleration;
+        if (velocity != 0.0) {
+            ff += kS * Math.signum(velocity);
+        } else if (Math.abs(error) > settleError) {
+            // Holding a position: kS to get us moving towards it
+            ff += kS * Math.signum(error);
+        }
+
+        double p = kP * error;
+        double d = -kD * rate;
+
+        // Integrate unless the output is already pinned in the direction the error pushes it
+        if (kI != 0.0 && dt > 0.0) {
+            double unclamped = ff + p + kI * integral + d;
+            boolean pinned = (unclamped >= outMax && error > 0.0) || (unclamped <= outMin && error < 0.0);
+            if (!pinned) {
+                integral += error * dt;
+                double limit = integralLimit / Math.abs(kI);
+                integral = Range.clip(integral, -limit, limit);
+            }
+        }
+
+        output = Range.clip(ff + p + kI * integral + d, outMin, outMax);
+
+        // Settling
+        if (Math.abs(error) <= settleError && Math.abs(rate) <= settleRate) {
+            if (settledSince < 0) settledSince = nanos;
+            settled = (nanos - settledSince) >= settleNanos;
+        } else {
+            settledSince = -1;
+            settled = false;
+        }
+
+        lastMeasurement = measurement;
+        lastNanos = nanos;
+        haveLast = true;
+        return output;
+    }
+
+    public boolean isSettled() {
+        return settled;
+    }
+
+    public double getError() {
+        return error;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public double getOutput() {
+        return output;
+    }
+
+    // Wrap to +/- half a turn in continuous mode
+    private double wrap(double value) {
+        if (continuousRange > 0.0) {
+            double half = continuousRange / 2.0;
+            while (value > half) value -= continuousRange;
+            while (value <= -half) value += continuousRange;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,175 @@
+package org.firstinspires.ftc.teamcode;
+
+import java.util.Locale;
+
+/**
+ *    Where the robot is on the field: x, y and heading, kept up to date every cycle from the drive
+ *    encoders and the gyro.
+ *
+ *    Each update takes the distance each side has gone since the last one (the average of its
+ *    two motors) and moves the robot half their sum along the heading halfway through the step.
+ *    The heading comes from the gyro when there is one; without one it comes from the
+ *    difference between the sides over the track width.
+ *
+ *    Field coordinates are inches, x forward from where setPose() put us and heading in degrees
+ *    CCW positive like the gyro (not wrapped).  Updates only do arithmetic on fields, so they
+ *    never allocate.
+ *
+ *    Track width calibration: call startCalibration(), spin in place a few times, and
+ *    calibratedTrackWidth() is the track width that makes the encoders agree with the gyro.
+ */
+public class PoseEstimator {
+
+    static final double MIN_CAL_TURN = 360.0;      // Degrees of turning for a calibration
+
+    private final double countsPerInch;
+    private double trackWidth;
+
+    private double x = 0.0;
+    private double y = 0.0;
+    private double heading = 0.0;
+
+    // Last readings
+    private boolean started = false;
+    private int lastLeft1;
+    private int lastLeft2;
+    private int lastRight1;
+    private int lastRight2;
+    private double lastGyro = Double.NaN;
+
+    // Track width calibration
+    private double calEncoderTurn = 0.0;            // Sum of right minus left, inches
+    private double calGyroTurn = 0.0;               // Degrees
+
+    /**
+     * @param countsPerInch     Drive encoder counts per inch of travel
+     * @param trackWidth        Inches between the left and right wheels
+     */
+    public PoseEstimator(double countsPerInch, double trackWidth) {
+        this.countsPerInch = countsPerInch;
+        this.trackWidth = trackWidth;
+    }
+
+    /**
+     * Move the pose on by the encoder counts since the last update
+     *
+     * @param frame     This cycle's snapshot
+     * @param gyro      Gyro heading in degrees, or NaN if we have no gyro
+     */
+    public void update(HardwareSnapshot frame, double gyro) {
+        if (!started) {
+            remember(frame, gyro);
+            started = true;
+            return;
+        }
+
+        double left = ((frame.leftDrive1Pos - lastLeft1) + (frame.leftDrive2Pos - lastLeft2)) / 2.0 / countsPerInch;
+        double right = ((frame.rightDrive1Pos - lastRight1) + (frame.rightDrive2Pos - lastRight2)) / 2.0 / countsPerInch;
+        double distance = (left + right) / 2.0;
+
+        double turn;
+        if (!Double.isNaN(gyro) && !Double.isNaN(lastGyro)) {
+            turn = SplinePath.wrap(gyro - lastGyro);
+            calGyroTurn += turn;
+            calEncoderTurn += right - left;
+        } else {
+            turn = Math.toDegrees((right - left) / trackWidth);
+        }
+
+        double mid = Math.toRadians(heading + turn / 2.0);
+        x += distance * Math.cos(mid);
+        y += distance * Math.sin(mid);
+        heading += turn;
+
+        remember(frame, gyro);
+    }
+
+    private void remember(HardwareSnapshot frame, double gyro) {
+        lastLeft1 = frame.leftDrive1Pos;
+        lastLeft2 = frame.leftDrive2Pos;
+        lastRight1 = frame.rightDrive1Pos;
+        lastRight2 = frame.rightDrive2Pos;
+        lastGyro = gyro;
+    }
+
+    /**
+     * Say where we are.  Later updates move on from here.
+     */
+    public void setPose(double x, double y, double heading) {
+        this.x = x;
+        this.y = y;
+        this.heading = heading;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getHeading() {
+        return heading;
+    }
+
+    /**
+     * @return  Straight line inches from here to a point
+     */
+    public double distanceTo(double px, double py) {
+        return Math.hypot(px - x, py - y);
+    }
+
+    /**
+     * @return  Inches to a point measured along a heading: how far to drive at that heading to
+     *          get level with it.  Negative if it is behind us.
+     */
+    public double distanceAlong(double px, double py, double alongHeading) {
+        double h = Math.toRadians(alongHeading);
+        return (px - x) * Math.cos(h) + (py - y) * Math.sin(h);
+    }
+
+    /**
+     * @return  Heading from here to a point, degrees -180 to 180
+     */
+    public double bearingTo(double px, double py) {
+        return Math.toDegrees(Math.atan2(py - y, px - x));
+    }
+
+    public double getTrackWidth() {
+        return trackWidth;
+    }
+
+    public void setTrackWidth(double trackWidth) {
+        this.trackWidth = trackWidth;
+    }
+
+    /**
+     * Start measuring the track width.  Spin in place until calibrationTurn() is past
+     * MIN_CAL_TURN.
+     */
+    public void startCalibration() {
+        calEncoderTurn = 0.0;
+        calGyroTurn = 0.0;
+    }
+
+    /**
+     * @return  Degrees the gyro has turned since startCalibration()
+     */
+    public double calibrationTurn() {
+        return calGyroTurn;
+    }
+
+    /**
+     * @return  Track width from the calibration spin, or NaN if we haven't turned enough
+     */
+    public double calibratedTrackWidth() {
+        if (Math.abs(calGyroTurn) < MIN_CAL_TURN) return Double.NaN;
+        return calEncoderTurn / Math.toRadians(calGyroTurn);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "x %.1f in  y %.1f in  heading %.1f", x, y, heading);
+    }
+}
@@ -0,0 +1,19 @@
+package org.firstinspires.ftc.teamcode;
+
+/**
+ *    Wall clock time.  What everything runs on unless a simulator hands it something else.
+ */
+public class RealClock implements Clock {
+
+    public static final RealClock INSTANCE = new RealClock();
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void sleep(long milliseconds) throws InterruptedException {
+        Thread.sleep(milliseconds);
+    }
+}
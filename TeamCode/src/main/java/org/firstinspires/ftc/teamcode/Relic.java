@@ -9,7 +9,8 @@ import com.qualcomm.robotcore.hardware.HardwareMap;
 import com.qualcomm.robotcore.hardware.PIDCoefficients;
 import com.qualcomm.robotcore.hardware.Servo;
 import com.qualcomm.robotcore.util.Range;
-import com.qualcomm.robotcore.util.RobotLog;
+
+import java.io.File;
 
 /**
  *    Everything related to the lift motor
@@ -23,18 +24,34 @@ public class Relic {
 
 
     // Servo Constants
-    static final double RELIC_GRIP_OPEN =  0.26;
-    static final double RELIC_GRIP_CLOSE = 0.845;
-    static final double RELIC_GRIP_GRAB = 0.845;
-    static final double RELIC_PIVOT_HOME = 1.0;
-    static final double RELIC_PIVOT_KICKSTAND = 0.82;
-    static final double RELIC_PIVOT_OUT = 0.0;
+    @Tunable static double RELIC_GRIP_OPEN =  0.26;
+    @Tunable static double RELIC_GRIP_CLOSE = 0.845;
+    @Tunable static double RELIC_GRIP_GRAB = 0.845;
+    @Tunable static double RELIC_PIVOT_HOME = 1.0;
+    @Tunable static double RELIC_PIVOT_KICKSTAND = 0.82;
+    @Tunable static double RELIC_PIVOT_OUT = 0.0;
 
     double relicPivotGrabPos = 0.25;
     double relicPivotDropPos = 0.25;
 
+    // Pivot positions by extension encoder.  The points are where the old step tables changed,
+    // re-tune them with relic_grab.txt and relic_drop.txt in the robot data directory.
+    static final CalibrationTable GRAB_TABLE = new CalibrationTable("relic grab", CalibrationTable.Mode.CUBIC,
+            new double[] { 750, 1100, 1450, 1800, 2150, 2500 },
+            new double[] { 0.2444, 0.2466, 0.2489, 0.2556, 0.2606, 0.2711 });
+    static final CalibrationTable DROP_TABLE = new CalibrationTable("relic drop", CalibrationTable.Mode.CUBIC,
+            new double[] { 1100, 1450, 1800, 2150, 2500 },
+            new double[] { 0.25, 0.258, 0.267, 0.27, 0.2789 });
+
+    CalibrationTable grabTable = GRAB_TABLE;
+    CalibrationTable dropTable = DROP_TABLE;
+
+    // Which table update() keeps the pivot on as the arm moves
+    enum PivotTracking { NONE, GRAB, DROP }
+    PivotTracking tracking = PivotTracking.NONE;
+
     /* Lift constants */
-    static final double     RELIC_POWER = 1.0;
+    @Tunable static double     RELIC_POWER = 1.0;
     static final int        EXTENSION_COUNTS_PER_MOTOR_REV    = 7 ;    // Neverrest
     static final double     EXTENSION_DRIVE_GEAR_REDUCTION    = 40; // Neverest 20:1
     static final double     EXTENSION_PULLEY_DIAMETER_INCHES   = 2.5;     // For figuring circumference
@@ -43,8 +60,8 @@ public class Relic {
 
 
     // Lift variables
-    public final int RELIC_OUT_POS = (int) (2300);
-    public final int RELIC_IN_POS = (int) (50);
+    @Tunable public static int RELIC_OUT_POS = (int) (2300);
+    @Tunable public static int RELIC_IN_POS = (int) (50);
 
     /**
      * Constructor
@@ -77,20 +94,23 @@ public class Relic {
 
         }
 
+        // Wrap after the DcMotorEx tuning above. Skips repeated writes of the same power/mode
+        relicMotor = ActuatorCache.wrap(relicMotor);
+
         // Set their operating modes and stop them
         relicMotor.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
         relicMotor.setPower(0.0);
 
         // Define and Initialize servos
-        relicGrip = hw.servo.get(servoGrip);
+        relicGrip = ActuatorCache.wrap(hw.servo.get(servoGrip));
         relicGrip.setPosition(RELIC_GRIP_CLOSE);
-        relicPivot = hw.servo.get(servoPivot);
+        relicPivot = ActuatorCache.wrap(hw.servo.get(servoPivot));
         relicPivot.setPosition(RELIC_PIVOT_HOME);
     }
 
     // Set relic arm to OUT position
     public void setRelicExtensionOut() {
-        RobotLog.i("DM10337 -- Set Relic OUT");
+        EventLog.log(EventLog.Event.RELIC_OUT);
         relicMotor.setTargetPosition(RELIC_OUT_POS);
         relicMotor.setMode(DcMotor.RunMode.RUN_TO_POSITION);
         relicMotor.setPower(RELIC_POWER);
@@ -99,7 +119,7 @@ public class Relic {
 
     // Set relic arm to IN position
     public void setRelicExtensionIn() {
-        RobotLog.i("DM10337 -- Set Relic IN");
+        EventLog.log(EventLog.Event.RELIC_IN);
         relicMotor.setTargetPosition(RELIC_IN_POS);
         relicMotor.setMode(DcMotor.RunMode.RUN_TO_POSITION);
         relicMotor.setPower(RELIC_POWER);
@@ -113,78 +133,88 @@ public class Relic {
 
     // Set relic grip open
     public void setRelicGripOpen() {
-        RobotLog.i("DM10337 -- Set Relic OPEN");
+        EventLog.log(EventLog.Event.RELIC_OPEN);
         relicGrip.setPosition(RELIC_GRIP_OPEN);
     }
 
     // Set relic grip closed
     public void setRelicGripClose() {
-        RobotLog.i("DM10337 -- Set Relic CLOSED");
+        EventLog.log(EventLog.Event.RELIC_CLOSED);
         relicGrip.setPosition(RELIC_GRIP_CLOSE);
     }
 
     // Set relic grip to grab
     public void setRelicGripGrab() {
-        RobotLog.i("DM10337 -- Set Relic GRAB");
+        EventLog.log(EventLog.Event.RELIC_GRAB);
         relicGrip.setPosition(RELIC_GRIP_GRAB);
     }
 
+    /**
+     * Load the pivot tables from the robot data directory, if they are there
+     *
+     * @param dir   Directory to look in, null to keep the built in tables
+     */
+    public void loadCalibration(File dir) {
+        grabTable = CalibrationTable.load((dir != null) ? new File(dir, "relic_grab.txt") : null, GRAB_TABLE);
+        dropTable = CalibrationTable.load((dir != null) ? new File(dir, "relic_drop.txt") : null, DROP_TABLE);
+    }
+
+    /**
+     * Keep the pivot at the grab or drop position for where the arm is now.  Call once a cycle;
+     * does nothing unless setRelicPivotGrabPos() or setRelicPivotDropPos() was the last pivot move.
+     *
+     * @param extension     Relic extension encoder, from the cycle's snapshot
+     */
+    public void update(int extension) {
+        if (tracking == PivotTracking.GRAB) {
+            relicPivotGrabPos = grabTable.get(extension);
+            relicPivot.setPosition(relicPivotGrabPos);
+        } else if (tracking == PivotTracking.DROP) {
+            relicPivotDropPos = dropTable.get(extension);
+            relicPivot.setPosition(relicPivotDropPos);
+        }
+    }
+
     // Set relic pivot to home position
     public void setRelicPivotHome() {
-        RobotLog.i("DM10337 -- Set Relic pivot HOME");
+        tracking = PivotTracking.NONE;
+        EventLog.log(EventLog.Event.RELIC_PIVOT_HOME);
         relicPivot.setPosition(RELIC_PIVOT_HOME);
     }
 
     // Set relic pivot to out position
     public void setRelicPivotOut() {
-        RobotLog.i("DM10337 -- Set Relic pivot OUT");
+        tracking = PivotTracking.NONE;
+        EventLog.log(EventLog.Event.RELIC_PIVOT_OUT);
         relicPivot.setPosition(RELIC_PIVOT_OUT);
     }
 
-    // Set relic pivot to grab position
+    // Set relic pivot to grab position, and keep it there as the arm moves
     public void setRelicPivotGrabPos() {
-        if (getExtensionEncoder() >= 2500) {
-            relicPivotGrabPos = 0.2711;
-        } else if (getExtensionEncoder() >= 2150) {
-            relicPivotGrabPos = 0.2606;
-        } else if (getExtensionEncoder() >= 1800) {
-            relicPivotGrabPos = 0.2556;
-        } else if (getExtensionEncoder() >= 1450) {
-            relicPivotGrabPos = 0.2489;
-        } else if (getExtensionEncoder() >= 1100) {
-            relicPivotGrabPos = 0.2466;
-        } else {
-            relicPivotGrabPos = 0.2444;
-        }
+        tracking = PivotTracking.GRAB;
+        relicPivotGrabPos = grabTable.get(getExtensionEncoder());
         relicPivot.setPosition(relicPivotGrabPos);
-        RobotLog.i("DM10337 -- Set Relic to GRAB pivot position: " + relicPivotGrabPos);
+        EventLog.log(EventLog.Event.RELIC_PIVOT_GRAB, relicPivotGrabPos);
     }
 
-    // Set relic pivot to grab position
+    // Set relic pivot to drop position, and keep it there as the arm moves
     public void setRelicPivotDropPos() {
-        if (getExtensionEncoder() >= 2500) {
-            relicPivotDropPos = 0.2789;
-        } else if (getExtensionEncoder() >= 2150) {
-            relicPivotDropPos = 0.27;
-        } else if (getExtensionEncoder() >= 1800) {
-            relicPivotDropPos = 0.267;
-        } else if (getExtensionEncoder() >= 1450) {
-            relicPivotDropPos = 0.258;
-        } else {
-            relicPivotDropPos = 0.25;
-        }
+        tracking = PivotTracking.DROP;
+        relicPivotDropPos = dropTable.get(getExtensionEncoder());
         relicPivot.setPosition(relicPivotDropPos);
-        RobotLog.i("DM10337 -- Set Relic to DROP pivot position: " + relicPivotDropPos);
+        EventLog.log(EventLog.Event.RELIC_PIVOT_DROP, relicPivotDropPos);
     }
 
     // Set relic pivot to kickstand position
     public void setRelicPivotKickstand() {
-        RobotLog.i("DM10337 -- Set Relic to kickstand position");
+        tracking = PivotTracking.NONE;
+        EventLog.log(EventLog.Event.RELIC_KICKSTAND);
         relicPivot.setPosition(RELIC_PIVOT_KICKSTAND);
     }
 
     // Manually rotate relic pivot
     public void rotate(double speed) {
+        tracking = PivotTracking.NONE;
         speed = Range.clip(speed, -1, 1);
         double current = relicPivot.getPosition();
         double target =  current + (((RELIC_PIVOT_OUT - RELIC_PIVOT_KICKSTAND) * speed) / 18);   // At full stick will take 20 cycles
@@ -0,0 +1,54 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.util.RobotLog;
+
+/**
+ * Runs our competition autonomous OpModes in the simulator, one after another, and reports how
+ * long each path took and where the robot ended up.  Doesn't touch the real hardware, so it can
+ * be run on the phone with nothing plugged in.  Runs on simulated time, so each 30 second auto
+ * takes a fraction of that.
+ *
+ * Each auto is run with the jewel red and then blue.
+ */
+
+@TeleOp(name="Sim Autos", group="DM18")
+@Disabled
+public class SimAutoRunner extends LinearOpMode {
+
+    @Override
+    public void runOpMode() throws InterruptedException {
+
+        telemetry.addData("Say", "Press start to run autos in the simulator");
+        telemetry.update();
+        waitForStart();
+
+        boolean[] jewelColors = {true, false};
+        for (boolean jewelRed : jewelColors) {
+            for (String name : SimRunner.MATCH_AUTOS) {
+                if (!opModeIsActive()) break;
+                SimRobot sim = new SimRobot();
+                sim.setJewelRed(jewelRed);
+                SimRunner.Result result;
+                try {
+                    result = SimRunner.run(SimRunner.newOpMode(name), sim, SimRunner.AUTO_TIME);
+                } catch (ReflectiveOperationException e) {
+                    RobotLog.e("DM10337 -- Sim can't make " + name + ": " + e);
+                    continue;
+                }
+                telemetry.addData(result.name + (jewelRed ? " red" : " blue"),
+                        "%.2f s (%.2f real)  x %.1f y %.1f hdg %.1f  glyphs %d",
+                        result.pathSeconds, result.realSeconds, result.x, result.y, result.heading,
+                        result.glyphsScored);
+                telemetry.update();
+                RobotLog.i("DM10337 -- Sim jewel red:" + jewelRed + " " + result);
+            }
+        }
+
+        while (opModeIsActive()) {
+            idle();
+        }
+    }
+}
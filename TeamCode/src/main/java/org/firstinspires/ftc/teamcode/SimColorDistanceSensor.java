@@ -0,0 +1,111 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.hardware.ColorSensor;
+import com.qualcomm.robotcore.hardware.DistanceSensor;
+import com.qualcomm.robotcore.hardware.I2cAddr;
+
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+
+/**
+ *    Simulated REV color/distance sensor for SimRobot.  The intake ones ("ds_left" is also our
+ *    glyph color sensor) see the glyph model, the jewel one sees the scenario's jewel color.
+ *
+ *    Raw counts are in the same small range the REV sensor gives us, and argb() scales them the
+ *    way the SDK does (NormalizedRGBA.toColor()), so it reads far lower than the raw counts.
+ */
+public class SimColorDistanceSensor implements ColorSensor, DistanceSensor {
+
+    // Alpha readings for a gray glyph, brown glyph and nothing in front of the sensor
+    static final int GRAY_ALPHA = 100;
+    static final int BROWN_ALPHA = 60;
+    static final int EMPTY_ALPHA = 20;
+    static final double COLOR_RANGE_CM = 10.0;
+    static final int MAX_READING = 10240;       // Raw count for a normalized reading of 1.0
+
+    final SimRobot sim;
+    final String name;
+    final boolean jewel;
+
+    I2cAddr address = I2cAddr.create7bit(0x39);
+    boolean ledOn = true;
+
+    /**
+     * @param jewel     True for the jewel sensor, false for an intake sensor
+     */
+    SimColorDistanceSensor(SimRobot sim, String name, boolean jewel) {
+        this.sim = sim;
+        this.name = name;
+        this.jewel = jewel;
+    }
+
+    @Override
+    public double getDistance(DistanceUnit unit) {
+        if (jewel) {
+            return distanceOutOfRange;
+        }
+        synchronized (sim) {
+            sim.update();
+            double cm = sim.intakeDistanceCm(this);
+            return Double.isInfinite(cm) ? distanceOutOfRange : unit.fromCm(cm);
+        }
+    }
+
+    @Override
+    public int red() {
+        if (jewel) {
+            return sim.jewelIsRed ? 12 : 2;
+        }
+        return glyphAlpha() / 3;
+    }
+
+    @Override
+    public int green() {
+        if (jewel) {
+            return 3;
+        }
+        return glyphAlpha() / 3;
+    }
+
+    @Override
+    public int blue() {
+        if (jewel) {
+            return sim.jewelIsRed ? 2 : 12;
+        }
+        return glyphAlpha() / 3;
+    }
+
+    @Override
+    public int alpha() {
+        if (jewel) {
+            return 17;
+        }
+        return glyphAlpha();
+    }
+
+    @Override
+    public int argb() {
+        return (toColor(alpha()) << 24) | (toColor(red()) << 16) | (toColor(green()) << 8) | toColor(blue());
+    }
+
+    // Raw count to an argb() channel, like NormalizedRGBA.toColor(): normalized value x 256
+    private static int toColor(int count) {
+        return Math.max(0, Math.min((int) (count / (float) MAX_READING * 256), 255));
+    }
+
+    private int glyphAlpha() {
+        synchronized (sim) {
+            sim.update();
+            return sim.glyphAlpha();
+        }
+    }
+
+    @Override public void enableLed(boolean enable) { ledOn = enable; }
+    @Override public void setI2cAddress(I2cAddr newAddress) { address = newAddress; }
+    @Override public I2cAddr getI2cAddress() { return address; }
+    @Override public Manufacturer getManufacturer() { return Manufacturer.Other; }
+    @Override public String getDeviceName() { return "Simulated color/distance sensor " + name; }
+    @Override public String getConnectionInfo() { return "sim; " + name; }
+    @Override public int getVersion() { return 1; }
+    @Override public void resetDeviceConfigurationForOpMode() { }
+    @Override public void close() { }
+}
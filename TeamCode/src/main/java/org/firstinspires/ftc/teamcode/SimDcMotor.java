@@ -0,0 +1,194 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorController;
+import com.qualcomm.robotcore.hardware.configuration.MotorConfigurationType;
+import com.qualcomm.robotcore.util.Range;
+
+/**
+ *    Simulated DC motor for SimRobot.
+ *
+ *    Keeps the commanded power, mode, direction and target.  SimRobot moves the mechanism by
+ *    output() each step and writes back how far it has travelled, which becomes the encoder count.
+ *    RUN_TO_POSITION is a proportional loop like the hub's, saturating at the commanded power.
+ */
+public class SimDcMotor implements DcMotor {
+
+    // Counts from target the hub treats as arrived
+    static final int TARGET_TOLERANCE = 10;
+
+    final SimRobot sim;
+    final String name;
+    final int port;
+    final double countsPerUnit;     // Encoder counts per unit of mechanism travel
+    final int mountSign;            // -1 if positive power on a FORWARD motor moves the mechanism backwards
+    final double rtpGain;           // RUN_TO_POSITION output per count of error
+
+    Direction direction = Direction.FORWARD;
+    RunMode mode = RunMode.RUN_WITHOUT_ENCODER;
+    ZeroPowerBehavior zeroPowerBehavior = ZeroPowerBehavior.FLOAT;
+    MotorConfigurationType motorType = null;
+    double power = 0.0;
+    int target = 0;
+
+    // Written by SimRobot
+    double travel = 0.0;            // Mechanism travel, positive forward
+    double resetTravel = 0.0;       // Travel when the encoder was last reset
+
+    /**
+     * @param sim               Model this motor belongs to
+     * @param name              Configuration name
+     * @param port              Port number to report
+     * @param countsPerUnit     Encoder counts per unit the mechanism moves
+     * @param mountSign         1, or -1 if the motor is mounted mirrored
+     * @param fullPowerUnits    RUN_TO_POSITION error (in units) that gives full output
+     */
+    SimDcMotor(SimRobot sim, String name, int port, double countsPerUnit, int mountSign, double fullPowerUnits) {
+        this.sim = sim;
+        this.name = name;
+        this.port = port;
+        this.countsPerUnit = countsPerUnit;
+        this.mountSign = mountSign;
+        this.rtpGain = 1.0 / (fullPowerUnits * countsPerUnit);
+    }
+
+    // Sign that turns a logical (direction applied) value into mechanism direction
+    private int sign() {
+        return (direction == Direction.REVERSE) ? -mountSign : mountSign;
+    }
+
+    private int position() {
+        return (int) Math.round(sign() * (travel - resetTravel) * countsPerUnit);
+    }
+
+    /**
+     * Make the encoder read counts from here on.  Used by FlightReplay.
+     */
+    void setPosition(int counts) {
+        travel = resetTravel + counts / (sign() * countsPerUnit);
+    }
+
+    /**
+     * @return  Drive to the mechanism, -1 to 1 in its forward direction.  Called by SimRobot.
+     */
+    double output() {
+        double out;
+        switch (mode) {
+            case STOP_AND_RESET_ENCODER:
+                out = 0.0;
+                break;
+            case RUN_TO_POSITION:
+                double limit = Math.abs(power);
+                out = Range.clip((target - position()) * rtpGain, -limit, limit);
+                break;
+            default:
+                out = power;
+                break;
+        }
+        return sign() * out;
+    }
+
+    @Override
+    public void setPower(double power) {
+        synchronized (sim) {
+            sim.update();
+            this.power = Range.clip(power, -1.0, 1.0);
+        }
+    }
+
+    @Override
+    public double getPower() {
+        return power;
+    }
+
+    @Override
+    public void setMode(RunMode mode) {
+        synchronized (sim) {
+            sim.update();
+            switch (mode) {
+                case RUN_WITHOUT_ENCODER:
+                case RUN_USING_ENCODER:
+                case RUN_TO_POSITION:
+                case STOP_AND_RESET_ENCODER:
+                    this.mode = mode;
+                    break;
+                default:
+                    // Only the SDK's deprecated aliases are left, and none of our code uses them
+                    throw new IllegalArgumentException("SimDcMotor doesn't simulate " + mode);
+            }
+            if (this.mode == RunMode.STOP_AND_RESET_ENCODER) {
+                resetTravel = travel;
+                power = 0.0;
+            }
+        }
+    }
+
+    @Override
+    public RunMode getMode() {
+        return mode;
+    }
+
+    @Override
+    public void setDirection(Direction direction) {
+        synchronized (sim) {
+            sim.update();
+            this.direction = direction;
+        }
+    }
+
+    @Override
+    public Direction getDirection() {
+        return direction;
+    }
+
+    @Override
+    public void setTargetPosition(int position) {
+        synchronized (sim) {
+            sim.update();
+            target = position;
+        }
+    }
+
+    @Override
+    public int getTargetPosition() {
+        return target;
+    }
+
+    @Override
+    public boolean isBusy() {
+        synchronized (sim) {
+            sim.update();
+            return sim.motorBusy(this);
+        }
+    }
+
+    /**
+     * @return  True if running to a target it hasn't reached.  Called by SimRobot.
+     */
+    boolean modelBusy() {
+        return (mode == RunMode.RUN_TO_POSITION) && (Math.abs(target - position()) > TARGET_TOLERANCE);
+    }
+
+    @Override
+    public int getCurrentPosition() {
+        synchronized (sim) {
+            sim.update();
+            return position();
+        }
+    }
+
+    @Override public MotorConfigurationType getMotorType() { return motorType; }
+    @Override public void setMotorType(MotorConfigurationType motorType) { this.motorType = motorType; }
+    @Override public DcMotorController getController() { return null; }
+    @Override public int getPortNumber() { return port; }
+    @Override public void setZeroPowerBehavior(ZeroPowerBehavior zeroPowerBehavior) { this.zeroPowerBehavior = zeroPowerBehavior; }
+    @Override public ZeroPowerBehavior getZeroPowerBehavior() { return zeroPowerBehavior; }
+    @Override @Deprecated public void setPowerFloat() { setZeroPowerBehavior(ZeroPowerBehavior.FLOAT); setPower(0.0); }
+    @Override public boolean getPowerFloat() { return zeroPowerBehavior == ZeroPowerBehavior.FLOAT && power == 0.0; }
+    @Override public Manufacturer getManufacturer() { return Manufacturer.Other; }
+    @Override public String getDeviceName() { return "Simulated motor " + name; }
+    @Override public String getConnectionInfo() { return "sim; port " + port; }
+    @Override public int getVersion() { return 1; }
+    @Override public void resetDeviceConfigurationForOpMode() { setDirection(Direction.FORWARD); setMode(RunMode.RUN_WITHOUT_ENCODER); setPower(0.0); }
+    @Override public void close() { setPower(0.0); }
+}
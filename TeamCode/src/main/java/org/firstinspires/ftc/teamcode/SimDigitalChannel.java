@@ -0,0 +1,47 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.hardware.DigitalChannel;
+import com.qualcomm.robotcore.hardware.DigitalChannelController;
+
+/**
+ *    Simulated lift limit switch for SimRobot.  Like the real ones, getState() is false while the
+ *    switch is pressed.
+ */
+public class SimDigitalChannel implements DigitalChannel {
+
+    final SimRobot sim;
+    final String name;
+    final int port;
+    final boolean isTop;
+
+    Mode mode = Mode.INPUT;
+
+    /**
+     * @param isTop     True for the top switch, false for the bottom one
+     */
+    SimDigitalChannel(SimRobot sim, String name, int port, boolean isTop) {
+        this.sim = sim;
+        this.name = name;
+        this.port = port;
+        this.isTop = isTop;
+    }
+
+    @Override
+    public boolean getState() {
+        synchronized (sim) {
+            sim.update();
+            return isTop ? !sim.liftAtTop() : !sim.liftAtBottom();
+        }
+    }
+
+    @Override public Mode getMode() { return mode; }
+    @Override public void setMode(Mode mode) { this.mode = mode; }
+    @Override public void setState(boolean state) { }
+    @Override @Deprecated public void setMode(DigitalChannelController.Mode mode) { this.mode = mode.migrate(); }
+    @Override public Manufacturer getManufacturer() { return Manufacturer.Other; }
+    @Override public String getDeviceName() { return "Simulated limit switch " + name; }
+    @Override public String getConnectionInfo() { return "sim; port " + port; }
+    @Override public int getVersion() { return 1; }
+    @Override public void resetDeviceConfigurationForOpMode() { mode = Mode.INPUT; }
+    @Override public void close() { }
+}
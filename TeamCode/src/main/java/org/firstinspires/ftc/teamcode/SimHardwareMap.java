@@ -0,0 +1,49 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+/**
+ *    HardwareMap holding a SimRobot's devices under the names in our robot configuration, so
+ *    HardwareDM18.init() finds them exactly as it would on the robot.
+ *
+ *    There is no app context, which AutoHelper takes as the cue to skip Vuforia.
+ */
+public class SimHardwareMap extends HardwareMap {
+
+    public final SimRobot sim;
+
+    public SimHardwareMap(SimRobot sim) {
+        super(null);
+        this.sim = sim;
+
+        dcMotor.put("ldrive1", sim.leftDrive1);
+        dcMotor.put("ldrive2", sim.leftDrive2);
+        dcMotor.put("rdrive1", sim.rightDrive1);
+        dcMotor.put("rdrive2", sim.rightDrive2);
+        dcMotor.put("intakeLeft", sim.intakeLeft);
+        dcMotor.put("intakeRight", sim.intakeRight);
+        dcMotor.put("lift", sim.lift);
+        dcMotor.put("relicMotor", sim.relicMotor);
+
+        servo.put("ils", sim.intakeLeftServo);
+        servo.put("irs", sim.intakeRightServo);
+        servo.put("gripP", sim.purpleGrip);
+        servo.put("gripB", sim.blackGrip);
+        servo.put("gripRotate", sim.gripRotate);
+        servo.put("gripExtend", sim.gripExtend);
+        servo.put("relicGrip", sim.relicGrip);
+        servo.put("relicPivot", sim.relicPivot);
+        servo.put("jewel", sim.jewel);
+        servo.put("jewelRot", sim.jewelRot);
+
+        digitalChannel.put("llb", sim.liftLimitBtm);
+        digitalChannel.put("llt", sim.liftLimitTop);
+
+        // The REV sensor is both a color sensor and a distance sensor under one name
+        colorSensor.put("ds_left", sim.distLeft);
+        colorSensor.put("ds_right", sim.distRight);
+        colorSensor.put("cs", sim.jewelCS);
+
+        put("gyro", sim.gyro);
+    }
+}
@@ -0,0 +1,104 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.hardware.bosch.BNO055IMU;
+import com.qualcomm.robotcore.hardware.HardwareDevice;
+
+import org.firstinspires.ftc.robotcore.external.navigation.Acceleration;
+import org.firstinspires.ftc.robotcore.external.navigation.AngularVelocity;
+import org.firstinspires.ftc.robotcore.external.navigation.AxesOrder;
+import org.firstinspires.ftc.robotcore.external.navigation.AxesReference;
+import org.firstinspires.ftc.robotcore.external.navigation.MagneticFlux;
+import org.firstinspires.ftc.robotcore.external.navigation.Orientation;
+import org.firstinspires.ftc.robotcore.external.navigation.Position;
+import org.firstinspires.ftc.robotcore.external.navigation.Quaternion;
+import org.firstinspires.ftc.robotcore.external.navigation.Temperature;
+import org.firstinspires.ftc.robotcore.external.navigation.Velocity;
+
+/**
+ *    Simulated BNO055 for SimRobot.  Heading and turn rate come from the drive model; the robot
+ *    stays flat so the other angles and the accelerometer are zero.  Always calibrated.
+ */
+public class SimImu implements BNO055IMU, HardwareDevice {
+
+    final SimRobot sim;
+    final String name;
+
+    Parameters parameters = new Parameters();
+
+    // BNO055IMU has its own AngleUnit, so spell out the navigation one
+    static final org.firstinspires.ftc.robotcore.external.navigation.AngleUnit DEGREES =
+            org.firstinspires.ftc.robotcore.external.navigation.AngleUnit.DEGREES;
+    static final org.firstinspires.ftc.robotcore.external.navigation.AngleUnit RADIANS =
+            org.firstinspires.ftc.robotcore.external.navigation.AngleUnit.RADIANS;
+
+    SimImu(SimRobot sim, String name) {
+        this.sim = sim;
+        this.name = name;
+    }
+
+    @Override
+    public boolean initialize(Parameters parameters) {
+        this.parameters = parameters;
+        return true;
+    }
+
+    @Override
+    public Parameters getParameters() {
+        return parameters;
+    }
+
+    @Override
+    public Orientation getAngularOrientation() {
+        Orientation angles;
+        synchronized (sim) {
+            sim.update();
+            angles = new Orientation(AxesReference.INTRINSIC, AxesOrder.ZYX, DEGREES,
+                    (float) sim.gyroHeading(), 0.0f, 0.0f, sim.nanoTime());
+        }
+        return angles.toAngleUnit((parameters.angleUnit == AngleUnit.RADIANS) ? RADIANS : DEGREES);
+    }
+
+    @Override
+    public Orientation getAngularOrientation(AxesReference reference, AxesOrder order, org.firstinspires.ftc.robotcore.external.navigation.AngleUnit angleUnit) {
+        return getAngularOrientation().toAxesReference(reference).toAxesOrder(order).toAngleUnit(angleUnit);
+    }
+
+    @Override
+    public AngularVelocity getAngularVelocity() {
+        synchronized (sim) {
+            sim.update();
+            return new AngularVelocity(DEGREES, 0.0f, 0.0f, (float) sim.turnRate(), sim.nanoTime());
+        }
+    }
+
+    @Override public void close() { }
+    @Override public Acceleration getOverallAcceleration() { return new Acceleration(); }
+    @Override public Acceleration getLinearAcceleration() { return new Acceleration(); }
+    @Override public Acceleration getGravity() { return new Acceleration(); }
+    @Override public Temperature getTemperature() { return new Temperature(); }
+    @Override public MagneticFlux getMagneticFieldStrength() { return new MagneticFlux(); }
+    @Override public Quaternion getQuaternionOrientation() { return new Quaternion(); }
+    @Override public Position getPosition() { return new Position(); }
+    @Override public Velocity getVelocity() { return new Velocity(); }
+    @Override public Acceleration getAcceleration() { return new Acceleration(); }
+    @Override public void startAccelerationIntegration(Position initialPosition, Velocity initialVelocity, int msPollInterval) { }
+    @Override public void stopAccelerationIntegration() { }
+    @Override public SystemStatus getSystemStatus() { return SystemStatus.RUNNING_FUSION; }
+    @Override public SystemError getSystemError() { return SystemError.NO_ERROR; }
+    @Override public CalibrationStatus getCalibrationStatus() { return new CalibrationStatus(0xFF); }
+    @Override public boolean isSystemCalibrated() { return true; }
+    @Override public boolean isGyroCalibrated() { return true; }
+    @Override public boolean isAccelerometerCalibrated() { return true; }
+    @Override public boolean isMagnetometerCalibrated() { return true; }
+    @Override public CalibrationData readCalibrationData() { return new CalibrationData(); }
+    @Override public void writeCalibrationData(CalibrationData data) { }
+    @Override public byte read8(Register register) { return 0; }
+    @Override public byte[] read(Register register, int cb) { return new byte[cb]; }
+    @Override public void write8(Register register, int bVal) { }
+    @Override public void write(Register register, byte[] data) { }
+    @Override public Manufacturer getManufacturer() { return Manufacturer.Other; }
+    @Override public String getDeviceName() { return "Simulated BNO055 " + name; }
+    @Override public String getConnectionInfo() { return "sim; " + name; }
+    @Override public int getVersion() { return 1; }
+    @Override public void resetDeviceConfigurationForOpMode() { }
+}
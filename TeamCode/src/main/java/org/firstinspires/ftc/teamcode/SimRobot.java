@@ -0,0 +1,319 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.util.Range;
+
+/**
+ *    Headless physics model of the DM18 robot, used to run our OpModes without any hardware.
+ *
+ *    Owns a fake of every device HardwareDM18 looks up (see SimHardwareMap).  Nothing runs in the
+ *    background: any device read or write first calls update(), which steps the model forward to
+ *    the current time in fixed steps.  So the model always reflects every command the OpMode has
+ *    sent, no matter how slowly or quickly it polls.
+ *
+ *    What is modelled:
+ *      Drive       Tank drive.  Each side responds to its average motor power with a first order
+ *                  lag, wheel travel is turned into encoder counts with HardwareDM18.COUNTS_PER_INCH
+ *                  and the pose is integrated from the two sides.
+ *      Lift        Runs between the bottom and top limit switches at a speed set by its power.
+ *      Relic       Extension travel only.
+ *      Intake      Glyph pile.  While the intake runs in and the robot drives forward the distance
+ *                  sensors count down to the next glyph until it is pulled in.  Opening the intake
+ *                  with a grip closed hands the glyph to the gripper when the lift goes up, and
+ *                  opening the grip above the floor scores what it holds.
+ *      Sensors     Gyro heading, jewel color and glyph color (gray/brown alternate).
+ *
+ *    Field coordinates are inches from where the robot started, x forward and heading in degrees
+ *    counter clockwise, same sign as the gyro.
+ */
+public class SimRobot {
+
+    // Model constants
+    static final double STEP_SEC = 0.002;               // Physics step
+    static final double DRIVE_MAX_SPEED = 48.0;         // in/sec at full power (NeveRest 20 through 72:48)
+    static final double DRIVE_LAG_SEC = 0.06;           // Time constant of the drive response
+    static final double TRACK_WIDTH = 15.25;            // in between left and right wheels
+    static final double LIFT_MAX_SPEED = 22.0;          // in/sec
+    static final double LIFT_TRAVEL = 12.9;             // in from bottom switch to top switch
+    static final double RELIC_MAX_SPEED = 12.0;         // in/sec
+    static final double PILE_DEPTH = 10.0;              // in driven into the pile before a glyph is in
+    static final double INTAKE_REACH = 6.0;             // in from the intake the wheels can pull a glyph
+    static final double INTAKE_PULL_SPEED = 10.0;       // in/sec the wheels pull a glyph in
+    static final double GLYPH_HELD_CM = 5.0;            // Distance reading with a glyph in the intake
+    static final double GLYPH_VISIBLE_CM = 30.0;        // Distance sensors report out of range past this
+
+    // Drive train
+    public final SimDcMotor leftDrive1 = new SimDcMotor(this, "ldrive1", 0, HardwareDM18.COUNTS_PER_INCH, -1, 3.0);
+    public final SimDcMotor leftDrive2 = new SimDcMotor(this, "ldrive2", 1, HardwareDM18.COUNTS_PER_INCH, -1, 3.0);
+    public final SimDcMotor rightDrive1 = new SimDcMotor(this, "rdrive1", 2, HardwareDM18.COUNTS_PER_INCH, 1, 3.0);
+    public final SimDcMotor rightDrive2 = new SimDcMotor(this, "rdrive2", 3, HardwareDM18.COUNTS_PER_INCH, 1, 3.0);
+
+    // Intake
+    public final SimDcMotor intakeLeft = new SimDcMotor(this, "intakeLeft", 0, 1.0, -1, 1.0);
+    public final SimDcMotor intakeRight = new SimDcMotor(this, "intakeRight", 1, 1.0, 1, 1.0);
+    public final SimServo intakeLeftServo = new SimServo(this, "ils", 0);
+    public final SimServo intakeRightServo = new SimServo(this, "irs", 1);
+    public final SimColorDistanceSensor distLeft = new SimColorDistanceSensor(this, "ds_left", false);
+    public final SimColorDistanceSensor distRight = new SimColorDistanceSensor(this, "ds_right", false);
+
+    // Gripper
+    public final SimServo purpleGrip = new SimServo(this, "gripP", 2);
+    public final SimServo blackGrip = new SimServo(this, "gripB", 3);
+    public final SimServo gripRotate = new SimServo(this, "gripRotate", 4);
+    public final SimServo gripExtend = new SimServo(this, "gripExtend", 5);
+
+    // Lift
+    public final SimDcMotor lift = new SimDcMotor(this, "lift", 2, Lift.LIFT_COUNTS_PER_INCH, 1, 1.0);
+    public final SimDigitalChannel liftLimitBtm = new SimDigitalChannel(this, "llb", 0, false);
+    public final SimDigitalChannel liftLimitTop = new SimDigitalChannel(this, "llt", 1, true);
+
+    // Relic
+    public final SimDcMotor relicMotor = new SimDcMotor(this, "relicMotor", 3, Relic.EXTENSION_COUNTS_PER_INCH, 1, 1.0);
+    public final SimServo relicGrip = new SimServo(this, "relicGrip", 0);
+    public final SimServo relicPivot = new SimServo(this, "relicPivot", 1);
+
+    // Jewel arm and sensors
+    public final SimServo jewel = new SimServo(this, "jewel", 2);
+    public final SimServo jewelRot = new SimServo(this, "jewelRot", 3);
+    public final SimColorDistanceSensor jewelCS = new SimColorDistanceSensor(this, "cs", true);
+    public final SimImu gyro = new SimImu(this, "gyro");
+
+    // Pose
+    double x = 0.0;
+    double y = 0.0;
+    double heading = 0.0;           // Degrees, CCW positive, not wrapped
+    double leftSpeed = 0.0;         // in/sec
+    double rightSpeed = 0.0;
+    double leftTravel = 0.0;        // in of wheel travel
+    double rightTravel = 0.0;
+
+    // Mechanisms
+    double liftHeight = 0.0;        // in above the bottom switch
+    double relicExtension = 0.0;
+
+    // Glyphs
+    boolean glyphInIntake = false;
+    double pileTravel = 0.0;        // in driven into the pile with the intake running
+    int glyphsCollected = 0;
+    int glyphsInGripper = 0;
+    int glyphsScored = 0;
+
+    // Scenario
+    boolean jewelIsRed = true;      // Color of the jewel in front of the sensor
+
+    // Time the model runs on.  HardwareDM18 picks this up so the OpMode runs on it too
+    public final Clock clock;
+    long lastNanos;
+
+    // Flight recording of the code running on us, set by HardwareDM18.init()
+    FlightRecorder recorder = null;
+
+    /**
+     * Robot sitting at the origin with the lift on its bottom switch, running on simulated time
+     */
+    public SimRobot() {
+        this(new VirtualClock());
+    }
+
+    /**
+     * @param clock     Clock to run on.  RealClock to watch it run at real speed
+     */
+    public SimRobot(Clock clock) {
+        this.clock = clock;
+        lastNanos = nanoTime();
+    }
+
+    /**
+     * @param red   True if the jewel the sensor sees is red
+     */
+    public void setJewelRed(boolean red) {
+        jewelIsRed = red;
+    }
+
+    long nanoTime() {
+        return clock.nanoTime();
+    }
+
+    /**
+     * Bring the model up to the current time.  Called by every device before it reads or changes
+     * anything.
+     */
+    synchronized void update() {
+        long now = nanoTime();
+        double elapsed = (now - lastNanos) / 1.0e9;
+        if (elapsed < STEP_SEC) {
+            return;
+        }
+        int steps = (int) (elapsed / STEP_SEC);
+        for (int i = 0; i < steps; i++) {
+            step(STEP_SEC);
+        }
+        lastNanos += (long) (steps * STEP_SEC * 1.0e9);
+    }
+
+    // Advance every mechanism by dt seconds
+    private void step(double dt) {
+        // Drive train.  Both motors on a side turn the same wheels
+        double leftCmd = (leftDrive1.output() + leftDrive2.output()) / 2.0;
+        double rightCmd = (rightDrive1.output() + rightDrive2.output()) / 2.0;
+        leftSpeed += (leftCmd * DRIVE_MAX_SPEED - leftSpeed) * dt / DRIVE_LAG_SEC;
+        rightSpeed += (rightCmd * DRIVE_MAX_SPEED - rightSpeed) * dt / DRIVE_LAG_SEC;
+        double dLeft = leftSpeed * dt;
+        double dRight = rightSpeed * dt;
+        leftTravel += dLeft;
+        rightTravel += dRight;
+
+        double forward = (dLeft + dRight) / 2.0;
+        double midHeading = Math.toRadians(heading + Math.toDegrees((dRight - dLeft) / TRACK_WIDTH) / 2.0);
+        x += forward * Math.cos(midHeading);
+        y += forward * Math.sin(midHeading);
+        heading += Math.toDegrees((dRight - dLeft) / TRACK_WIDTH);
+
+        leftDrive1.travel = leftTravel;
+        leftDrive2.travel = leftTravel;
+        rightDrive1.travel = rightTravel;
+        rightDrive2.travel = rightTravel;
+
+        // Lift stops hard at either switch
+        liftHeight = Range.clip(liftHeight + lift.output() * LIFT_MAX_SPEED * dt, 0.0, LIFT_TRAVEL);
+        lift.travel = liftHeight;
+
+        relicExtension = Math.max(0.0, relicExtension + relicMotor.output() * RELIC_MAX_SPEED * dt);
+        relicMotor.travel = relicExtension;
+
+        intakeLeft.travel += intakeLeft.output() * dt;
+        intakeRight.travel += intakeRight.output() * dt;
+
+        stepGlyphs(forward, dt);
+    }
+
+    private void stepGlyphs(double forward, double dt) {
+        double intakePower = (intakeLeft.output() + intakeRight.output()) / 2.0;
+        boolean intakeOpen = intakeLeftServo.position > 0.2;
+        boolean gripClosed = (purpleGrip.position < 0.5) || (blackGrip.position < 0.5);
+
+        if (glyphInIntake) {
+            if (intakePower < -0.3) {
+                // Spat back out
+                glyphInIntake = false;
+                pileTravel = 0.0;
+            } else if (intakeOpen && gripClosed && liftHeight > 1.0) {
+                // Lift carried it out of the intake
+                glyphInIntake = false;
+                glyphsInGripper++;
+            }
+        } else if (intakePower > 0.3 && !intakeOpen) {
+            pileTravel = Math.max(0.0, pileTravel + forward);
+            if (PILE_DEPTH - pileTravel < INTAKE_REACH) {
+                // Close enough for the wheels to grab it
+                pileTravel += INTAKE_PULL_SPEED * dt;
+            }
+            if (pileTravel >= PILE_DEPTH) {
+                glyphInIntake = true;
+                glyphsCollected++;
+                pileTravel = 0.0;
+            }
+        } else {
+            pileTravel = 0.0;
+        }
+
+        if (glyphsInGripper > 0 && !gripClosed && liftHeight > 1.0) {
+            glyphsScored += glyphsInGripper;
+            glyphsInGripper = 0;
+        }
+    }
+
+    // Sensor models.  All called with the model up to date
+
+    synchronized double glyphDistanceCm() {
+        if (glyphInIntake) {
+            return GLYPH_HELD_CM;
+        }
+        double intakePower = (intakeLeft.output() + intakeRight.output()) / 2.0;
+        if (intakePower <= 0.3) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double cm = GLYPH_HELD_CM + (PILE_DEPTH - pileTravel) * 2.54;
+        return (cm > GLYPH_VISIBLE_CM) ? Double.POSITIVE_INFINITY : cm;
+    }
+
+    /**
+     * @return  What an intake distance sensor reads.  Both see the same glyph
+     */
+    synchronized double intakeDistanceCm(SimColorDistanceSensor sensor) {
+        return glyphDistanceCm();
+    }
+
+    /**
+     * @return  Alpha the glyph color sensor reads
+     */
+    synchronized int glyphAlpha() {
+        if (glyphDistanceCm() > SimColorDistanceSensor.COLOR_RANGE_CM) {
+            return SimColorDistanceSensor.EMPTY_ALPHA;
+        }
+        return nextGlyphIsGray() ? SimColorDistanceSensor.GRAY_ALPHA : SimColorDistanceSensor.BROWN_ALPHA;
+    }
+
+    synchronized boolean nextGlyphIsGray() {
+        // Glyph in the intake, or the one we are about to reach
+        int glyph = glyphInIntake ? glyphsCollected : glyphsCollected + 1;
+        return (glyph % 2) == 1;
+    }
+
+    synchronized boolean liftAtBottom() {
+        return liftHeight <= 0.05;
+    }
+
+    synchronized boolean liftAtTop() {
+        return liftHeight >= LIFT_TRAVEL - 0.05;
+    }
+
+    synchronized boolean motorBusy(SimDcMotor motor) {
+        return motor.modelBusy();
+    }
+
+    /**
+     * @return  Heading the way the IMU reports it, -180 to 180
+     */
+    synchronized double gyroHeading() {
+        double h = heading % 360.0;
+        if (h > 180.0) h -= 360.0;
+        if (h <= -180.0) h += 360.0;
+        return h;
+    }
+
+    synchronized double turnRate() {
+        return Math.toDegrees((rightSpeed - leftSpeed) / TRACK_WIDTH);
+    }
+
+    // Results
+
+    public synchronized double getX() {
+        update();
+        return x;
+    }
+
+    public synchronized double getY() {
+        update();
+        return y;
+    }
+
+    public synchronized double getHeading() {
+        update();
+        return gyroHeading();
+    }
+
+    public synchronized int getGlyphsScored() {
+        update();
+        return glyphsScored;
+    }
+
+    public synchronized int getGlyphsCollected() {
+        update();
+        return glyphsCollected;
+    }
+
+    public synchronized String poseString() {
+        update();
+        return String.format("x %.1f in  y %.1f in  heading %.1f deg", x, y, gyroHeading());
+    }
+}
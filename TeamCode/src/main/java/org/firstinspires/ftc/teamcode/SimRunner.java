@@ -0,0 +1,217 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import com.qualcomm.robotcore.hardware.Gamepad;
+import com.qualcomm.robotcore.robocol.TelemetryMessage;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import org.firstinspires.ftc.robotcore.internal.opmode.OpModeServices;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ *    Runs a LinearOpMode against a SimRobot the same way the event loop runs it on the robot:
+ *    init(), init_loop() until we press "start", start(), then loop() until runOpMode() returns,
+ *    throws, or the timeout runs out.
+ *
+ *    Reports how long the path took from start and where the robot ended up.  On a VirtualClock
+ *    the OpMode's sleeps take no real time, so the run finishes as fast as the code executes; the
+ *    event loop here then polls on real time so it doesn't move the simulated clock itself.
+ *
+ *    On a computer, main() runs autos by name and prints a Result line for each; TeamCodeSim's
+ *    simAuto task builds and runs it:
+ *
+ *      gradle -p TeamCodeSim simAuto                              The match autos, jewel red
+ *      gradle -p TeamCodeSim simAuto -Pargs="--blue Auto_Blue_L_3G"
+ */
+public class SimRunner {
+
+    static final long LOOP_MS = 10;             // Event loop period
+    static final int INIT_LOOPS = 100;          // Event loop passes in init before pressing start
+    static final long STOP_WAIT_MS = 1000;      // How long to wait for the OpMode to stop
+    static final double AUTO_TIME = 30.0;       // Autonomous period
+
+    // The autos we run in matches, by class name
+    static final String[] MATCH_AUTOS = {
+            "Auto_Blue_L_3G",
+            "Auto_Blue_R_3G_Cipher",
+            "Auto__Red_L_3G_Cipher",
+            "Auto__Red_R_3G"
+    };
+
+    /**
+     *    What happened in one run
+     */
+    public static class Result {
+        public String name;
+        public boolean finished = false;        // runOpMode() returned on its own
+        public boolean stuck = false;           // OpMode ignored the stop request
+        public double pathSeconds = 0.0;        // start to finish (or to timeout), robot time
+        public double realSeconds = 0.0;        // How long that took to run
+        public double x;
+        public double y;
+        public double heading;
+        public int glyphsCollected;
+        public int glyphsScored;
+        public RuntimeException error = null;
+
+        @Override
+        public String toString() {
+            String status = (error != null) ? "FAILED " + error : (finished ? "done" : "TIMED OUT");
+            return String.format("%s: %s in %.2f s (ran in %.2f s), pose x %.1f y %.1f hdg %.1f, glyphs in %d scored %d%s",
+                    name, status, pathSeconds, realSeconds, x, y, heading, glyphsCollected, glyphsScored,
+                    stuck ? " (did not stop)" : "");
+        }
+    }
+
+    /**
+     *    Stands in for the event loop's services: swallows telemetry and notes when the OpMode
+     *    asks to stop, which LinearOpMode does when runOpMode() returns.
+     */
+    static class Services implements OpModeServices {
+        volatile boolean stopRequested = false;
+        int telemetryUpdates = 0;
+
+        @Override
+        public void refreshUserTelemetry(TelemetryMessage telemetry, double sInterval) {
+            telemetryUpdates++;
+        }
+
+        @Override
+        public void requestOpModeStop(OpMode opModeToStopIfActive) {
+            stopRequested = true;
+        }
+    }
+
+    /**
+     * Run an OpMode in the simulator
+     *
+     * @param opMode        Fresh instance of the OpMode to run
+     * @param sim           Robot model to run it on
+     * @param timeoutSec    Give up this long after start (30 for a match autonomous)
+     * @return  How it went
+     */
+    public static Result run(final LinearOpMode opMode, SimRobot sim, double timeoutSec) throws InterruptedException {
+        Result result = new Result();
+        result.name = opMode.getClass().getSimpleName();
+
+        Services services = new Services();
+        opMode.hardwareMap = new SimHardwareMap(sim);
+        opMode.internalOpModeServices = services;
+        if (opMode.gamepad1 == null) opMode.gamepad1 = new Gamepad();
+        if (opMode.gamepad2 == null) opMode.gamepad2 = new Gamepad();
+
+        RobotLog.i("DM10337 -- Sim starting " + result.name);
+
+        try {
+            opMode.internalPreInit();
+            opMode.init();
+
+            for (int i = 0; i < INIT_LOOPS && !services.stopRequested; i++) {
+                opMode.init_loop();
+                opMode.internalPostInitLoop();
+                pause(sim.clock);
+            }
+
+            opMode.start();
+            long start = now(sim.clock);
+            long realStart = System.nanoTime();
+            while (!services.stopRequested && (now(sim.clock) - start) / 1.0e9 < timeoutSec) {
+                opMode.loop();
+                opMode.internalPostLoop();
+                pause(sim.clock);
+            }
+            result.finished = services.stopRequested;
+            result.pathSeconds = (now(sim.clock) - start) / 1.0e9;
+            result.realSeconds = (System.nanoTime() - realStart) / 1.0e9;
+        } catch (RuntimeException e) {
+            // Thrown out of loop() when runOpMode() threw
+            result.error = e;
+        }
+
+        // Stop it on another thread so an OpMode that never checks for stop can't hang us
+        Thread stopper = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                opMode.stop();
+            }
+        }, "Sim stop");
+        stopper.start();
+        stopper.join(STOP_WAIT_MS);
+        result.stuck = stopper.isAlive();
+
+        result.x = sim.getX();
+        result.y = sim.getY();
+        result.heading = sim.getHeading();
+        result.glyphsCollected = sim.getGlyphsCollected();
+        result.glyphsScored = sim.getGlyphsScored();
+
+        RobotLog.i("DM10337 -- Sim " + result);
+        return result;
+    }
+
+    /**
+     * Run autos off the robot and print how each went
+     *
+     * @param args  [--blue] [auto class names...]; the match autos if none are named.  The jewel
+     *              is red unless --blue is given.
+     */
+    public static void main(String[] args) throws Exception {
+        boolean jewelRed = true;
+        List<String> names = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.equals("--blue")) {
+                jewelRed = false;
+            } else {
+                names.add(arg);
+            }
+        }
+        if (names.isEmpty()) {
+            names.addAll(Arrays.asList(MATCH_AUTOS));
+        }
+
+        boolean ok = true;
+        List<Result> results = new ArrayList<>();
+        for (String name : names) {
+            SimRobot sim = new SimRobot();
+            sim.setJewelRed(jewelRed);
+            Result result = run(newOpMode(name), sim, AUTO_TIME);
+            results.add(result);
+            ok &= result.finished && result.error == null && !result.stuck;
+        }
+
+        // Summary after all the OpModes' own logging
+        System.out.println();
+        for (Result result : results) {
+            System.out.println(result + (jewelRed ? ", jewel red" : ", jewel blue"));
+        }
+        System.exit(ok ? 0 : 1);
+    }
+
+    /**
+     * @return  A fresh instance of the named OpMode, by full class name or simple name in this package
+     */
+    static LinearOpMode newOpMode(String name) throws ReflectiveOperationException {
+        if (!name.contains(".")) name = SimRunner.class.getPackage().getName() + "." + name;
+        Class<?> cls = Class.forName(name);
+        return (LinearOpMode) cls.getDeclaredConstructor().newInstance();
+    }
+
+    // Read the clock without moving simulated time
+    private static long now(Clock clock) {
+        return (clock instanceof VirtualClock) ? ((VirtualClock) clock).peekNanoTime() : clock.nanoTime();
+    }
+
+    // Wait between event loop passes
+    private static void pause(Clock clock) throws InterruptedException {
+        if (clock instanceof VirtualClock) {
+            // Let the OpMode thread run; it moves the clock
+            Thread.sleep(1);
+        } else {
+            clock.sleep(LOOP_MS);
+        }
+    }
+}
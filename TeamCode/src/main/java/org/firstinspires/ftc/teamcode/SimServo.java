@@ -0,0 +1,61 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.hardware.Servo;
+import com.qualcomm.robotcore.hardware.ServoController;
+import com.qualcomm.robotcore.util.Range;
+
+/**
+ *    Simulated servo for SimRobot.  Moves instantly; the OpModes already wait out servo travel
+ *    with their own timers.  position is what the servo was told after direction and range are
+ *    applied, which is what SimRobot looks at.
+ */
+public class SimServo implements Servo {
+
+    final SimRobot sim;
+    final String name;
+    final int port;
+
+    Direction direction = Direction.FORWARD;
+    double scaleMin = MIN_POSITION;
+    double scaleMax = MAX_POSITION;
+    double commanded = 0.0;         // As the OpMode set it
+    double position = 0.0;          // Actual servo position, read by SimRobot
+
+    SimServo(SimRobot sim, String name, int port) {
+        this.sim = sim;
+        this.name = name;
+        this.port = port;
+    }
+
+    @Override
+    public void setPosition(double position) {
+        synchronized (sim) {
+            sim.update();
+            commanded = Range.clip(position, MIN_POSITION, MAX_POSITION);
+            double pos = (direction == Direction.REVERSE) ? MAX_POSITION - commanded : commanded;
+            this.position = Range.scale(pos, MIN_POSITION, MAX_POSITION, scaleMin, scaleMax);
+        }
+    }
+
+    @Override
+    public double getPosition() {
+        return commanded;
+    }
+
+    @Override
+    public void scaleRange(double min, double max) {
+        scaleMin = Range.clip(Math.min(min, max), MIN_POSITION, MAX_POSITION);
+        scaleMax = Range.clip(Math.max(min, max), MIN_POSITION, MAX_POSITION);
+    }
+
+    @Override public void setDirection(Direction direction) { this.direction = direction; }
+    @Override public Direction getDirection() { return direction; }
+    @Override public ServoController getController() { return null; }
+    @Override public int getPortNumber() { return port; }
+    @Override public Manufacturer getManufacturer() { return Manufacturer.Other; }
+    @Override public String getDeviceName() { return "Simulated servo " + name; }
+    @Override public String getConnectionInfo() { return "sim; port " + port; }
+    @Override public int getVersion() { return 1; }
+    @Override public void resetDeviceConfigurationForOpMode() { direction = Direction.FORWARD; scaleMin = MIN_POSITION; scaleMax = MAX_POSITION; }
+    @Override public void close() { }
+}
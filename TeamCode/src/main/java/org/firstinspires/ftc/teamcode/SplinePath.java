@@ -0,0 +1,236 @@
+package org.firstinspires.ftc.teamcode;
+
+/**
+ *    A smooth path through waypoints, for driving through a corner instead of stopping to turn
+ *    in place.
+ *
+ *    Each leg is a quintic Hermite spline: it leaves one waypoint and arrives at the next pointed
+ *    along their headings, and its curvature is zero at both ends, so the legs join without a
+ *    jump in turn rate.  The path is sampled every DS inches of arc length into plain arrays
+ *    (position, heading, curvature) as it is built; a Trajectory then plans the speed along them.
+ *
+ *      SplinePath path = new SplinePath(false)
+ *              .start(0, 0, 0)
+ *              .splineTo(30, 12, 45)
+ *              .splineTo(48, 24, 0);
+ *
+ *    Positions are inches from anywhere (the follower only uses the distance along the path).
+ *    Headings are degrees like the gyro, CCW positive, and are the way the robot faces: on a
+ *    reversed path the robot backs along it.
+ */
+public class SplinePath {
+
+    public static final double DS = 0.5;            // Inches between samples
+    static final int STEPS = 200;                   // Arc length integration steps per leg
+
+    private final boolean reversed;
+
+    private double[] s = new double[0];
+    private double[] x = new double[0];
+    private double[] y = new double[0];
+    private double[] heading = new double[0];       // Degrees the robot faces, continuous
+    private double[] curvature = new double[0];     // Radians per inch, +ve turning CCW
+    private int n = 0;
+
+    // End of the path so far
+    private double lastX;
+    private double lastY;
+    private double lastHeading;
+    private boolean started = false;
+
+    // Scratch for one leg's arc length table
+    private final double[] legU = new double[STEPS + 1];
+    private final double[] legS = new double[STEPS + 1];
+
+    /**
+     * @param reversed      True to back along the path
+     */
+    public SplinePath(boolean reversed) {
+        this.reversed = reversed;
+    }
+
+    /**
+     * Where the path starts
+     */
+    public SplinePath start(double x, double y, double heading) {
+        n = 0;
+        lastX = x;
+        lastY = y;
+        lastHeading = heading;
+        started = true;
+        add(0.0, x, y, heading, 0.0);
+        return this;
+    }
+
+    /**
+     * Add a leg to the next waypoint
+     *
+     * @param x         Inches
+     * @param y         Inches
+     * @param heading   Degrees the robot should face when it gets there
+     */
+    public SplinePath splineTo(double x, double y, double heading) {
+        if (!started) {
+            throw new IllegalStateException("SplinePath: start() before splineTo()");
+        }
+        double chord = Math.hypot(x - lastX, y - lastY);
+        if (chord < 1e-6) return this;
+
+        // Tangents along the direction of travel, as long as the leg
+        double t0 = Math.toRadians(travel(lastHeading));
+        double t1 = Math.toRadians(travel(heading));
+        double x0 = lastX, y0 = lastY;
+        double tx0 = chord * Math.cos(t0), ty0 = chord * Math.sin(t0);
+        double tx1 = chord * Math.cos(t1), ty1 = chord * Math.sin(t1);
+
+        // Arc length along the leg by parameter
+        legU[0] = 0.0;
+        legS[0] = 0.0;
+        double prevSpeed = speed(0.0, x0, y0, tx0, ty0, tx1, ty1, x, y);
+        for (int i = 1; i <= STEPS; i++) {
+            double u = (double) i / STEPS;
+            double sp = speed(u, x0, y0, tx0, ty0, tx1, ty1, x, y);
+            legU[i] = u;
+            legS[i] = legS[i - 1] + 0.5 * (prevSpeed + sp) / STEPS;
+            prevSpeed = sp;
+        }
+        double legLength = legS[STEPS];
+
+        // Sample every DS along the leg, and exactly at its end
+        double base = s[n - 1];
+        double prevHeading = this.heading[n - 1];
+        int j = 0;
+        int count = Math.max(1, (int) Math.ceil(legLength / DS - 1e-9));
+        for (int k = 1; k <= count; k++) {
+            double target = Math.min(k * DS, legLength);
+            if (k == count) target = legLength;
+            while (j < STEPS - 1 && legS[j + 1] < target) j++;
+            double span = legS[j + 1] - legS[j];
+            double u = legU[j] + ((span > 0.0) ? (target - legS[j]) / span : 0.0) / STEPS;
+
+            double[] h = basis(u);
+            double px = h[0] * x0 + h[1] * tx0 + h[2] * tx1 + h[3] * x;
+            double py = h[0] * y0 + h[1] * ty0 + h[2] * ty1 + h[3] * y;
+            double dx = h[4] * x0 + h[5] * tx0 + h[6] * tx1 + h[7] * x;
+            double dy = h[4] * y0 + h[5] * ty0 + h[6] * ty1 + h[7] * y;
+            double ddx = h[8] * x0 + h[9] * tx0 + h[10] * tx1 + h[11] * x;
+            double ddy = h[8] * y0 + h[9] * ty0 + h[10] * ty1 + h[11] * y;
+            double v2 = dx * dx + dy * dy;
+            double k2 = (v2 > 1e-12) ? (dx * ddy - dy * ddx) / (v2 * Math.sqrt(v2)) : 0.0;
+
+            // Face along the path (or away from it when reversed), without wrapping
+            double face = Math.toDegrees(Math.atan2(dy, dx)) + (reversed ? 180.0 : 0.0);
+            face = prevHeading + wrap(face - prevHeading);
+            prevHeading = face;
+
+            add(base + target, px, py, face, k2);
+        }
+
+        lastX = x;
+        lastY = y;
+        lastHeading = heading;
+        return this;
+    }
+
+    // Heading of the direction of travel
+    private double travel(double facing) {
+        return reversed ? facing + 180.0 : facing;
+    }
+
+    // Speed along the leg at parameter u, for the arc length integral
+    private double speed(double u, double x0, double y0, double tx0, double ty0,
+                         double tx1, double ty1, double x1, double y1) {
+        double[] h = basis(u);
+        double dx = h[4] * x0 + h[5] * tx0 + h[6] * tx1 + h[7] * x1;
+        double dy = h[4] * y0 + h[5] * ty0 + h[6] * ty1 + h[7] * y1;
+        return Math.hypot(dx, dy);
+    }
+
+    // Quintic Hermite basis (zero second derivatives at the ends) for p0, t0, t1, p1, and its
+    // first and second derivatives
+    private final double[] hb = new double[12];
+
+    private double[] basis(double u) {
+        double u2 = u * u, u3 = u2 * u, u4 = u3 * u, u5 = u4 * u;
+        hb[0] = 1 - 10 * u3 + 15 * u4 - 6 * u5;
+        hb[1] = u - 6 * u3 + 8 * u4 - 3 * u5;
+        hb[2] = -4 * u3 + 7 * u4 - 3 * u5;
+        hb[3] = 10 * u3 - 15 * u4 + 6 * u5;
+        hb[4] = -30 * u2 + 60 * u3 - 30 * u4;
+        hb[5] = 1 - 18 * u2 + 32 * u3 - 15 * u4;
+        hb[6] = -12 * u2 + 28 * u3 - 15 * u4;
+        hb[7] = 30 * u2 - 60 * u3 + 30 * u4;
+        hb[8] = -60 * u + 180 * u2 - 120 * u3;
+        hb[9] = -36 * u + 96 * u2 - 60 * u3;
+        hb[10] = -24 * u + 84 * u2 - 60 * u3;
+        hb[11] = 60 * u - 180 * u2 + 120 * u3;
+        return hb;
+    }
+
+    static double wrap(double degrees) {
+        while (degrees > 180.0) degrees -= 360.0;
+        while (degrees <= -180.0) degrees += 360.0;
+        return degrees;
+    }
+
+    private void add(double sv, double xv, double yv, double hv, double kv) {
+        if (s.length < n + 1) {
+            int cap = Math.max(64, 2 * s.length);
+            s = grow(s, cap);
+            x = grow(x, cap);
+            y = grow(y, cap);
+            heading = grow(heading, cap);
+            curvature = grow(curvature, cap);
+        }
+        s[n] = sv;
+        x[n] = xv;
+        y[n] = yv;
+        heading[n] = hv;
+        curvature[n] = kv;
+        n++;
+    }
+
+    private static double[] grow(double[] a, int cap) {
+        double[] b = new double[cap];
+        System.arraycopy(a, 0, b, 0, a.length);
+        return b;
+    }
+
+    public boolean isReversed() {
+        return reversed;
+    }
+
+    /**
+     * @return  Number of samples
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * @return  Inches from start to end
+     */
+    public double length() {
+        return (n > 0) ? s[n - 1] : 0.0;
+    }
+
+    public double distance(int i) {
+        return s[i];
+    }
+
+    public double x(int i) {
+        return x[i];
+    }
+
+    public double y(int i) {
+        return y[i];
+    }
+
+    public double heading(int i) {
+        return heading[i];
+    }
+
+    public double curvature(int i) {
+        return curvature[i];
+    }
+}
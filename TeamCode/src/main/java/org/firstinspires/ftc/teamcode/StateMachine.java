@@ -0,0 +1,256 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.util.RobotLog;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+
+/**
+ *    A sequence of robot moves written as a table of states instead of a switch, and run a step
+ *    at a time so the loop that ticks it keeps driving.
+ *
+ *    Each state can have:
+ *      onEnter - done once when we get to the state (start a lift move, close a gripper)
+ *      during  - done every tick while we are in it
+ *      when    - conditions to leave by, checked in order; the first one met wins.  A null next
+ *                state means the sequence is done.
+ *      onExit  - done once when we leave, whichever way
+ *      timeout - leave for the given state if we've been here too long
+ *
+ *    Interrupts are checked every tick before the state's own conditions and can jump to any
+ *    state from anywhere.
+ *
+ *      machine.state(RESET_LOWER)
+ *              .onEnter(new StateMachine.Action() { public void run() { robot.lift.setLiftBtm(); } })
+ *              .when(liftOnFloor, null)
+ *              .timeout(3000, null);
+ *      machine.start(RESET_OPEN);
+ *      ...
+ *      machine.tick();         // Once a loop
+ *
+ *    At most one transition per tick, like our old switch blocks.  Transitions go in the robot
+ *    log.
+ */
+public class StateMachine<S extends Enum<S>> {
+
+    /**
+     *    Something to do on the way in or out of a state
+     */
+    public interface Action {
+        void run();
+    }
+
+    /**
+     *    One row of the table
+     */
+    public class State {
+        final S id;
+        Action enter = null;
+        Action during = null;
+        Action exit = null;
+        final List<Waiter.Condition> conditions = new ArrayList<Waiter.Condition>();
+        final List<S> targets = new ArrayList<S>();
+        long timeoutMs = 0;
+        S timeoutTarget = null;
+
+        State(S id) {
+            this.id = id;
+        }
+
+        public State onEnter(Action action) {
+            enter = action;
+            return this;
+        }
+
+        public State during(Action action) {
+            during = action;
+            return this;
+        }
+
+        public State onExit(Action action) {
+            exit = action;
+            return this;
+        }
+
+        /**
+         * @param condition     When to leave
+         * @param next          Where to go, or null if the sequence is done
+         */
+        public State when(Waiter.Condition condition, S next) {
+            conditions.add(condition);
+            targets.add(next);
+            return this;
+        }
+
+        /**
+         * @param ms        How long we can stay here
+         * @param next      Where to go when that runs out, or null to end the sequence
+         */
+        public State timeout(long ms, S next) {
+            timeoutMs = ms;
+            timeoutTarget = next;
+            return this;
+        }
+    }
+
+    /**
+     *    Always true, for a state that only has to do its entry action
+     */
+    public static final Waiter.Condition ALWAYS = new Waiter.Condition() {
+        @Override
+        public boolean isMet() {
+            return true;
+        }
+    };
+
+    private final String name;
+    private final Clock clock;
+    private final EnumMap<S, State> states;
+    private final List<Waiter.Condition> interrupts = new ArrayList<Waiter.Condition>();
+    private final List<S> interruptTargets = new ArrayList<S>();
+
+    private State current = null;
+    private long enteredNanos = 0;
+    private boolean timedOut = false;
+    private boolean exitingOnTimeout = false;
+
+    /**
+     * @param name      Name for the log
+     * @param type      The state enum's class
+     * @param clock     Clock for timeouts
+     */
+    public StateMachine(String name, Class<S> type, Clock clock) {
+        this.name = name;
+        this.clock = clock;
+        states = new EnumMap<S, State>(type);
+    }
+
+    /**
+     * Add a state to the table
+     */
+    public State state(S id) {
+        State s = new State(id);
+        states.put(id, s);
+        return s;
+    }
+
+    /**
+     * Jump to a state from anywhere when a condition is met
+     *
+     * @param target    Where to go, or null to end the sequence
+     */
+    public StateMachine<S> interrupt(Waiter.Condition condition, S target) {
+        interrupts.add(condition);
+        interruptTargets.add(target);
+        return this;
+    }
+
+    /**
+     * Start at a state, dropping whatever we were doing (its exit action does not run)
+     */
+    public void start(S first) {
+        RobotLog.i("DM10337 -- " + name + ": start " + first);
+        timedOut = false;
+        go(first);
+    }
+
+    /**
+     * End the sequence where it is.  The current state's exit action does not run.
+     */
+    public void stop() {
+        if (current != null) {
+            RobotLog.i("DM10337 -- " + name + ": stopped in " + current.id);
+        }
+        current = null;
+    }
+
+    /**
+     * Run one step.  Call once a loop.
+     *
+     * @return  True if the sequence is still running
+     */
+    public boolean tick() {
+        if (current == null) return false;
+
+        for (int i = 0; i < interrupts.size(); i++) {
+            S target = interruptTargets.get(i);
+            if ((target == null || target != current.id) && interrupts.get(i).isMet()) {
+                RobotLog.i("DM10337 -- " + name + ": interrupted in " + current.id);
+                leave(target);
+                return current != null;
+            }
+        }
+
+        if (current.during != null) current.during.run();
+
+        for (int i = 0; i < current.conditions.size(); i++) {
+            if (current.conditions.get(i).isMet()) {
+                leave(current.targets.get(i));
+                return current != null;
+            }
+        }
+
+        if (current.timeoutMs > 0 && stateMs() >= current.timeoutMs) {
+            RobotLog.i("DM10337 -- " + name + ": timed out in " + current.id + " after " + current.timeoutMs + " ms");
+            timedOut = true;
+            exitingOnTimeout = true;
+            leave(current.timeoutTarget);
+        }
+        return current != null;
+    }
+
+    public boolean isRunning() {
+        return current != null;
+    }
+
+    /**
+     * @return  The state we are in, or null if not running
+     */
+    public S current() {
+        return (current != null) ? current.id : null;
+    }
+
+    /**
+     * @return  True if any state has timed out since start()
+     */
+    public boolean hasTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * @return  True while an exit action runs because its own state timed out
+     */
+    public boolean isExitingOnTimeout() {
+        return exitingOnTimeout;
+    }
+
+    /**
+     * @return  Milliseconds in the current state
+     */
+    public double stateMs() {
+        return (clock.nanoTime() - enteredNanos) / 1.0e6;
+    }
+
+    private void leave(S next) {
+        if (current != null && current.exit != null) current.exit.run();
+        exitingOnTimeout = false;
+        if (next == null) {
+            RobotLog.i("DM10337 -- " + name + ": " + current.id + " done");
+            current = null;
+        } else {
+            RobotLog.i("DM10337 -- " + name + ": " + current.id + " -> " + next);
+            go(next);
+        }
+    }
+
+    private void go(S next) {
+        State s = states.get(next);
+        if (s == null) {
+            throw new IllegalArgumentException(name + " has no state " + next);
+        }
+        current = s;
+        enteredNanos = clock.nanoTime();
+        if (s.enter != null) s.enter.run();
+    }
+}
@@ -0,0 +1,14 @@
+package org.firstinspires.ftc.teamcode;
+
+/**
+ *    The parts of the robot a Command can claim.  Two commands that claim the same one can't run
+ *    at the same time; the CommandScheduler interrupts the old one.
+ */
+public enum Subsystem {
+    DRIVE,          // Drive motors
+    LIFT,           // Lift motor
+    GRIPPER,        // Gripper grips, flip and pusher
+    INTAKE,         // Intake arms and motors
+    RELIC,          // Relic arm, pivot and grip
+    JEWEL           // Jewel arm, rotation and color sensor LED
+}
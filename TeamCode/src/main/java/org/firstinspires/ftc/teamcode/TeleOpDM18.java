@@ -61,6 +61,11 @@ public class TeleOpDM18 extends OpMode {
     HardwareDM18 robot = new HardwareDM18(); // use the class created to define a Pushbot's hardware
     // could also use HardwarePushbotMatrix class.
 
+    // How each driver likes the sticks to feel, and the shaping for each stick we use
+    InputShaper.Profile driver1 = InputShaper.DRIVER;
+    InputShaper throttleInput;
+    InputShaper turnInput;
+
 
     boolean intake = false;
     boolean isPressed = false;
@@ -84,6 +89,10 @@ public class TeleOpDM18 extends OpMode {
          */
         robot.init(hardwareMap, true, true);
 
+        // Stick shaping times its slew limits on the robot clock
+        throttleInput = new InputShaper(driver1, robot.clock);
+        turnInput = new InputShaper(driver1, robot.clock);
+
 
 
         // Send telemetry message to signify robot waiting;
@@ -138,8 +147,8 @@ public class TeleOpDM18 extends OpMode {
         double direction = gamepad1.right_stick_x;
 
         // Smooth and deadzone the joytick values
-        throttle = smoothPowerCurve(deadzone(throttle, 0.10));
-        direction = (smoothPowerCurve(deadzone(direction, 0.10)))/2;
+        throttle = throttleInput.shape(throttle);
+        direction = turnInput.shape(direction)/2;
 
         // Calculate the drive motors for left and right
         right = throttle - direction;
@@ -319,63 +328,4 @@ public class TeleOpDM18 extends OpMode {
         @Override
         public void stop() {
         }
-
-
-    /**
-     * This does the cubic smoothing equation on joystick value.
-     * Assumes you have already done any deadzone processing.
-     *
-     * @param x  joystick input
-     * @return  smoothed value
-     */
-    protected double smoothPowerCurve (double x) {
-        //double a = this.getThrottle();
-        double a = 1.0;         // Hard code to max smoothing
-        double b = 0.05;		// Min power to overcome motor stall
-
-        if (x > 0.0)
-            return (b + (1.0-b)*(a*x*x*x+(1.0-a)*x));
-
-        else if (x<0.0)
-            return (-b + (1.0-b)*(a*x*x*x+(1.0-a)*x));
-        else return 0.0;
-    }
-
-    /**
-     * Add deadzone to a stick value
-     *
-     * @param rawStick  Raw value from joystick read -1.0 to 1.0
-     * @param dz	Deadzone value to use 0 to 0.999
-     * @return		Value after deadzone processing
-     */
-    protected double deadzone(double rawStick, double dz) {
-        double stick;
-
-        // Force limit to -1.0 to 1.0
-        if (rawStick > 1.0) {
-            stick = 1.0;
-        } else if (rawStick < -1.0) {
-            stick = -1.0;
-        } else {
-            stick = rawStick;
-        }
-
-        // Check if value is inside the dead zone
-        if (stick >= 0.0){
-            if (Math.abs(stick) >= dz)
-                return (stick - dz)/(1 -  dz);
-            else
-                return 0.0;
-
-        }
-        else {
-            if (Math.abs(stick) >= dz)
-                return (stick + dz)/(1 - dz);
-            else
-                return 0.0;
-
-        }
-    }
-
-
 }
\ No newline at end of file
@@ -65,15 +65,27 @@ public class TeleOpDM18_Janus extends OpMode {
     HardwareDM18 robot = new HardwareDM18(); // use the class created to define a Pushbot's hardware
     // could also use HardwarePushbotMatrix class.
 
+    // How each driver likes the sticks to feel, and the shaping for each stick we use
+    InputShaper.Profile driver1 = InputShaper.DRIVER;
+    InputShaper.Profile driver2 = InputShaper.OPERATOR;
+    InputShaper throttleInput;
+    InputShaper turnInput;
+    InputShaper liftInput;
+    InputShaper relicInput;
+    InputShaper extendInput;
+    InputShaper pivotInput;
 
-    public enum States {INIT_1, INIT_2, INIT_3, RESET_1, RESET_2, RESET_2_1,  RESET_3, RESET_4, AUTO_LOAD_INIT, AUTO_LOAD_1, AUTO_LOAD_1_2, AUTO_LOAD_2, AUTO_LOAD_3, AUTO_LOAD_4, AUTO_LOAD_5, AUTO_LOAD_SECOND}
+
+    // TeleOp init sequence.  Reset and auto load are in GlyphSequencer
+    public enum States {INIT_1, INIT_2, INIT_3}
 
     States nStates = States.INIT_1;
 
+    // Reset and auto load sequences
+    GlyphSequencer glyph;
+
     boolean startInit = false;
     boolean init_TeleOp = true;
-    boolean init_AutoLoad = false;
-    boolean init_Reset = false;
 
     boolean glyphMode = true;
     boolean relicMode = false;
@@ -87,8 +99,6 @@ public class TeleOpDM18_Janus extends OpMode {
     boolean resetLiftTop = false;
     boolean liftChangePos = false;
 
-    boolean topGripisClosed = false;
-
     boolean isButtonPressed = false;
 
     boolean flip = false;
@@ -121,6 +131,16 @@ public class TeleOpDM18_Janus extends OpMode {
          */
         robot.init(hardwareMap, false, false);
 
+        // Stick shaping times its slew limits on the robot clock
+        throttleInput = new InputShaper(driver1, robot.clock);
+        turnInput = new InputShaper(driver1, robot.clock);
+        liftInput = new InputShaper(driver2, robot.clock);
+        relicInput = new InputShaper(driver2, robot.clock);
+        extendInput = new InputShaper(driver2, robot.clock);
+        pivotInput = new InputShaper(driver2, robot.clock);
+
+        glyph = new GlyphSequencer(robot);
+
         robot.relic.setRelicPivotKickstand();
         robot.relic.setRelicGripOpen();
 
@@ -224,13 +244,13 @@ public class TeleOpDM18_Janus extends OpMode {
         }
 
         // Toggle drive train speed to SLOW when pusher is OUT or RELIC is extended
-        if (!init_TeleOp && !init_Reset && robot.gripper.isPusherOut()) {
+        if (!init_TeleOp && !glyph.isResetting() && robot.gripper.isPusherOut()) {
             slowDriveTrain = true;
             slowDriveTrainOveride = true;
         } else slowDriveTrain = false;
 
         // Driver 1 ability to slow down drivetrain
-        if (gamepad1.left_bumper && !init_AutoLoad && !init_Reset) {
+        if (gamepad1.left_bumper && !glyph.isRunning()) {
             slowDriveTrain2 = true;
             slowDriveTrainOveride = true;
         } else slowDriveTrain2 = false;
@@ -245,8 +265,8 @@ public class TeleOpDM18_Janus extends OpMode {
         }
 
         // Smooth and deadzone the joystick values
-        throttle = smoothPowerCurve(deadzone(throttle, 0.10)) / driveCoefficient;
-        direction = (smoothPowerCurve(deadzone(direction, 0.10))) / turnCoefficient;
+        throttle = throttleInput.shape(throttle) / driveCoefficient;
+        direction = turnInput.shape(direction) / turnCoefficient;
 
         // Calculate the drive motors for left and right
         right = throttle - direction;
@@ -297,8 +317,7 @@ public class TeleOpDM18_Janus extends OpMode {
 
                 // Override auto moves
                 autoMove = false;
-                init_AutoLoad = false;
-                init_Reset = false;
+                glyph.stop();
 
                 // reset all auto lift booleans to default
                 resetLiftBtm = false;
@@ -331,8 +350,7 @@ public class TeleOpDM18_Janus extends OpMode {
 
                 // Override auto moves
                 autoMove = false;
-                init_AutoLoad = false;
-                init_Reset = false;
+                glyph.stop();
 
                 // reset all auto lift booleans to default
                 resetLiftBtm = false;
@@ -349,7 +367,7 @@ public class TeleOpDM18_Janus extends OpMode {
                 // Move lift
                 robot.lift.liftMotor.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
                 double liftPower = -gamepad2.right_stick_y;
-                liftPower = smoothPowerCurve(deadzone(liftPower, 0.20));
+                liftPower = liftInput.shape(liftPower);
                 if (!robot.lift.liftLimitT.getState()) {
                     liftPower = Range.clip(liftPower, -1, -0.15);
                 } else if (!robot.lift.liftLimitB.getState()) {
@@ -424,24 +442,24 @@ public class TeleOpDM18_Janus extends OpMode {
          */
 
             // INITIATE FLIP
-            if (gamepad2.x && !isButtonPressed && !init_TeleOp && !init_AutoLoad) {
+            if (gamepad2.x && !isButtonPressed && !init_TeleOp && !glyph.isLoading()) {
                 isButtonPressed = true;
                 flip = true;
                 autoMove = true;
             }
 
             // FLIP GRIPPER
-            if (flip && autoMove && (robot.lift.distFromBottom() >= 7.75) && !init_AutoLoad) {
+            if (flip && autoMove && (robot.lift.distFromBottom() >= 7.75) && !glyph.isLoading()) {
                 // Flip after determining gripper is high enough
                 robot.gripper.flip();
                 flip = false;
-            } else if ((flip && autoMove && robot.lift.distFromBottom() < 7.75) && !init_AutoLoad) {
+            } else if ((flip && autoMove && robot.lift.distFromBottom() < 7.75) && !glyph.isLoading()) {
                 // Move gripper to top position before flipping if in another lift position
                 robot.lift.setLiftHeight(8.25);
             }
 
             // PUSHER IN/OUT
-            if (gamepad2.left_stick_y > 0.2 && !init_TeleOp && !init_Reset || gamepad2.left_stick_y < -0.2 && !init_TeleOp && !init_Reset) {
+            if (gamepad2.left_stick_y > 0.2 && !init_TeleOp && !glyph.isResetting() || gamepad2.left_stick_y < -0.2 && !init_TeleOp && !glyph.isResetting()) {
 
                 // reset all auto lift booleans to default
                 resetLiftBtm = false;
@@ -453,7 +471,7 @@ public class TeleOpDM18_Janus extends OpMode {
                 if ((robot.lift.distFromBottom() > 8) ||
                         (!robot.intake.isClosed() && !robot.intake.isMoving() &&
                                 (robot.gripper.isBtmClosed() || robot.gripper.isBtmPartialOpen()) && !robot.gripper.isMoving())) {
-                    double speed = smoothPowerCurve(deadzone(-gamepad2.left_stick_y, 0.2));
+                    double speed = extendInput.shape(-gamepad2.left_stick_y);
                     speed = Range.clip(speed, -1, 1);
                     robot.gripper.moveInOut(speed);
                 } else {
@@ -468,25 +486,25 @@ public class TeleOpDM18_Janus extends OpMode {
 
             // OPEN & CLOSE GRIPPERS
             // close grippers
-            if ((gamepad2.right_trigger > 0.5) && !init_TeleOp && !init_AutoLoad && !init_Reset) {
+            if ((gamepad2.right_trigger > 0.5) && !init_TeleOp && !glyph.isRunning()) {
                 robot.gripper.setBtmClosed();
             }
-            if (gamepad2.right_bumper && !isButtonPressed && !init_TeleOp && !init_AutoLoad && !init_Reset) {
+            if (gamepad2.right_bumper && !isButtonPressed && !init_TeleOp && !glyph.isRunning()) {
                 robot.gripper.setTopClosed();
                 isButtonPressed = true;
-                topGripisClosed = true;
+                glyph.topHasGlyph = true;
             }
 
             // open grippers
-            if ((gamepad2.left_trigger > 0.5) && !init_TeleOp && !init_AutoLoad && !init_Reset) {
+            if ((gamepad2.left_trigger > 0.5) && !init_TeleOp && !glyph.isRunning()) {
                 // Set fully open
                 robot.gripper.setBtmOpen();
 
             }
-            if (gamepad2.left_bumper && !isButtonPressed && !init_TeleOp && !init_AutoLoad && !init_Reset) {
+            if (gamepad2.left_bumper && !isButtonPressed && !init_TeleOp && !glyph.isRunning()) {
                 // Set fully open
                 robot.gripper.setTopOpen();
-                topGripisClosed = false;
+                glyph.topHasGlyph = false;
                 isButtonPressed = true;
             }
 
@@ -498,8 +516,6 @@ public class TeleOpDM18_Janus extends OpMode {
             if (gamepad2.y && gamepad2.b && !isButtonPressed && !init_TeleOp) {
                 isButtonPressed = true;
                 autoMove = true;
-                init_Reset = true;
-                init_AutoLoad = false;
 
                 // reset all auto lift booleans to default
                 resetLiftBtm = false;
@@ -507,69 +523,8 @@ public class TeleOpDM18_Janus extends OpMode {
                 liftChangePos = false;
                 flip = false;
 
-                nStates = States.RESET_1;
-            }
-
-            if (init_Reset && autoMove) {
-                switch (nStates) {
-
-                    case RESET_1: // OPEN INTAKE
-                        telemetry.clearAll();
-                        telemetry.addData("Reset: ", "1");
-
-                        slowDriveTrainOveride = false;
-
-                        if (robot.intake.isClosed()) {
-                            robot.intake.setOpen();
-                            robot.gripper.setBothOpen();
-                            nStates = States.RESET_2;
-                        } else {
-                            robot.gripper.setBothOpen();
-                            nStates = States.RESET_2;
-                        }
-                        break;
-
-                    case RESET_2: // LIFT ABOVE INTAKE IF NOT ALREADY
-                        telemetry.clearAll();
-                        telemetry.addData("Reset: ", "2");
-                        if (!robot.intake.isMoving() && !robot.gripper.isReleasing()) {
-                            if (robot.lift.distFromBottom() < 5.0) {
-                                robot.lift.setLiftHeight(5.5);
-                                nStates = States.RESET_2_1;
-                            } else nStates = States.RESET_2_1;
-                        }
-                        break;
-
-                    case RESET_2_1: // PUSHER IN & OPEN GRIPPERS
-                        telemetry.clearAll();
-                        telemetry.addData("Reset: ", "2_1");
-                        if (robot.lift.distFromBottom() > 5.0) {
-                            robot.gripper.setExtendIn();
-                            robot.gripper.setBothOpen();
-                            topGripisClosed = false;
-                            nStates = States.RESET_3;
-                        }
-                        break;
-
-                    case RESET_3:
-                        telemetry.clearAll();
-                        telemetry.addData("Reset: ", "3");
-                        if (!robot.gripper.isExtending()) {
-                            robot.lift.setLiftBtm();
-                            nStates = States.RESET_4;
-                        }
-                        break;
-
-                    case RESET_4:
-                        telemetry.clearAll();
-                        telemetry.addData("Reset: ", "4");
-                        if (robot.lift.reachedFloor()) {
-                            if (robot.lift.resetFloorPos()) {
-                                init_Reset = false;
-                            }
-                        }
-
-                }
+                slowDriveTrainOveride = false;
+                glyph.startReset();
             }
 
         /*
@@ -577,98 +532,15 @@ public class TeleOpDM18_Janus extends OpMode {
          */
 
             // INITIATE AUTO LOAD - DRIVER 2 - Can be activated when glyph is detected
-            if (gamepad2.a && glyphDetected && !isButtonPressed && !init_TeleOp && !init_AutoLoad) {
+            if (gamepad2.a && glyphDetected && !isButtonPressed && !init_TeleOp && !glyph.isLoading()) {
                 isButtonPressed = true;
-                nStates = States.AUTO_LOAD_INIT;
-                init_AutoLoad = true;
                 autoMove = true;
-                init_Reset = false;
+                glyph.startAutoLoad();
             }
 
-            if (init_AutoLoad && autoMove) {
-
-                switch (nStates) {
-
-                    case AUTO_LOAD_INIT: // CHECK TO SEE IF LIFT IS AT BTM POS AND BTM GRIPPERS ARE OPEN
-                        if (robot.gripper.isBtmClosed()) {
-                            robot.gripper.setBtmOpen();
-                        } else if (!robot.gripper.btmIsMoving()) {
-                            robot.lift.setLiftBtm();
-                        }
-                        if (!robot.gripper.isBtmClosed() && robot.lift.targetPos == robot.lift.LIFT_BTM_POS && robot.lift.reachedFloor()) {
-                            // Move lift down to BTM limit switch
-                            if (robot.lift.resetFloorPos()) {
-                                nStates = States.AUTO_LOAD_1;
-                            }
-                        }
-                        break;
-
-                    case AUTO_LOAD_1: // GRAB GLYPH & OPEN INTAKE WHEELS
-                        // Grab glyph with BTM gripper
-                        if (!robot.gripper.isBtmClosed()) {
-                            robot.gripper.setBtmClosed();
-                            nStates = States.AUTO_LOAD_1_2;
-                        }
-                        break;
-
-                    case AUTO_LOAD_1_2:
-                        // Open intake after gripper has closed
-                        telemetry.clearAll();
-                        telemetry.addData("Top is closed:", topGripisClosed);
-                        if (!robot.gripper.btmIsMoving()) {
-                            robot.intake.setOpen();
-                            if (!topGripisClosed) {
-                                nStates = States.AUTO_LOAD_2;
-                            } else {
-                                nStates = States.AUTO_LOAD_SECOND;
-                            }
-                        }
-                        break;
-
-                    // LOAD SEQUENCE FOR FIRST GLYPH - Determined if top gripper is OPEN, therefore does not have glyph.
-                    case AUTO_LOAD_2: // LIFT TO LIFT POSITION
-                        // Set lift position to move to top after intake has opened
-                        if (!robot.intake.isMoving()) {
-                            robot.lift.setLiftHeight(8.25);
-                            nStates = States.AUTO_LOAD_3;
-                        }
-                        break;
-
-                    case AUTO_LOAD_3: // FLIP AFTER FLIP HEIGHT REACHED
-                        if (robot.lift.distFromBottom() > 7.75) { // Check to see if lift reached height to flip
-                            // If it reached target position, set intake back to closed position and start intaking again
-                            robot.intake.setClosed();
-                            robot.intake.setIn();
-                            robot.gripper.flip(); // Flip gripper
-                            topGripisClosed = true;
-                            nStates = States.AUTO_LOAD_4; // Go to next state in auto load sequence
-                        }
-                        break;
-
-                    case AUTO_LOAD_4: // MOVE TO BTM FLOOR
-
-                        if (!robot.gripper.isFlipping()) {
-                            robot.lift.setLiftHeight(0.5); // Move lift to btm position after gripper is done flipping
-                            //nStates = States.AUTO_LOAD_5;
-                            init_AutoLoad = false;
-                        }
-                        break;
-
-                    case AUTO_LOAD_5: // RESET ENCODER TO '0' USING BTM LIMIT SWITCH
-                        if (robot.lift.reachedFloor()) {
-                            robot.lift.resetFloorPos();
-                            init_AutoLoad = false;
-                        }
-                        break;
-
-                    // LOAD SEQUENCE FOR SECOND GLYPH - Determined if top gripper is CLOSED, therefore assumed it has a glyph.
-                    case AUTO_LOAD_SECOND: // LIFT TO DRIVE
-                        if (!robot.intake.isMoving()) {
-                            robot.lift.setLiftHeight(1.0); // Lift above ground to drive
-                            init_AutoLoad = false;
-                        }
-                        break;
-                }
+            // Step whichever sequence is running
+            if (autoMove && glyph.isRunning()) {
+                glyph.tick(robot.snapshot());
             }
         }
 
@@ -697,7 +569,7 @@ public class TeleOpDM18_Janus extends OpMode {
                 autoMove = false;
                 robot.relic.relicMotor.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
                 double relicPower = -gamepad2.left_stick_y;
-                relicPower = smoothPowerCurve(deadzone(relicPower, 0.20));
+                relicPower = relicInput.shape(relicPower);
                 // Driver 2 control to slow down extension speed for fine adjustments
                 if (gamepad2.right_bumper || gamepad2.left_bumper) {
                     relicPower = relicPower / 2;
@@ -725,7 +597,7 @@ public class TeleOpDM18_Janus extends OpMode {
 
             // MANUAL MOVEMENT OF RELIC PIVOT
             if (gamepad2.right_stick_y > 0.2 || gamepad2.right_stick_y < -0.2) {
-                double speed = smoothPowerCurve(deadzone(-gamepad2.right_stick_y, 0.2));
+                double speed = pivotInput.shape(-gamepad2.right_stick_y);
                 speed = (speed / (1 + robot.relic.relicPivot.getPosition()));
                 if (gamepad2.left_bumper || gamepad2.right_bumper) {
                     speed = speed / 8;
@@ -771,63 +643,6 @@ public class TeleOpDM18_Janus extends OpMode {
     public void stop () {
     }
 
-    /**
-     * This does the cubic smoothing equation on joystick value.
-     * Assumes you have already done any deadzone processing.
-     *
-     * @param x  joystick input
-     * @return  smoothed value
-     */
-    protected double smoothPowerCurve (double x) {
-        //double a = this.getThrottle();
-        double a = 1.0;         // Hard code to max smoothing
-        double b = 0.05;      // Min power to overcome motor stall
-
-        if (x > 0.0)
-            return (b + (1.0-b)*(a*x*x*x+(1.0-a)*x));
-
-        else if (x<0.0)
-            return (-b + (1.0-b)*(a*x*x*x+(1.0-a)*x));
-        else return 0.0;
-    }
-
-    /**
-     * Add deadzone to a stick value
-     *
-     * @param rawStick  Raw value from joystick read -1.0 to 1.0
-     * @param dz   Deadzone value to use 0 to 0.999
-     * @return    Value after deadzone processing
-     */
-    protected double deadzone(double rawStick, double dz) {
-        double stick;
-
-        // Force limit to -1.0 to 1.0
-        if (rawStick > 1.0) {
-            stick = 1.0;
-        } else if (rawStick < -1.0) {
-            stick = -1.0;
-        } else {
-            stick = rawStick;
-        }
-
-        // Check if value is inside the dead zone
-        if (stick >= 0.0){
-            if (Math.abs(stick) >= dz)
-                return (stick - dz)/(1 -  dz);
-            else
-                return 0.0;
-
-        }
-        else {
-            if (Math.abs(stick) >= dz)
-                return (stick + dz)/(1 - dz);
-            else
-                return 0.0;
-
-        }
-    }
-
-
 // Intake Control
 
     public void intakeControl()  {
@@ -836,7 +651,7 @@ public class TeleOpDM18_Janus extends OpMode {
         robot.intake.updateDistAvg();
 
         // Intake IN
-        if (gamepad1.right_trigger > 0.5 && !init_AutoLoad && !init_Reset) {
+        if (gamepad1.right_trigger > 0.5 && !glyph.isRunning()) {
             robot.intake.setIn();
             robot.intake.setClosed();
             squaringGlyph = false;
@@ -844,7 +659,7 @@ public class TeleOpDM18_Janus extends OpMode {
         }
 
         // Intake IN - Start Squaring Glyph
-        if (gamepad1.right_bumper && !init_AutoLoad && !init_Reset) {
+        if (gamepad1.right_bumper && !glyph.isRunning()) {
             squaringGlyph = true;
             timedStopIntake = false;
         }
@@ -875,7 +690,7 @@ public class TeleOpDM18_Janus extends OpMode {
 
 
         // Intake OUT
-        if (gamepad1.left_trigger > 0.5 && !init_AutoLoad && !init_Reset) {
+        if (gamepad1.left_trigger > 0.5 && !glyph.isRunning()) {
             robot.intake.setOut();
             robot.intake.setClosed();
             timedStopIntake = false;
@@ -883,17 +698,17 @@ public class TeleOpDM18_Janus extends OpMode {
         }
 
         // Intake STOP
-        if (gamepad1.a && !init_AutoLoad && !init_Reset) {
+        if (gamepad1.a && !glyph.isRunning()) {
             robot.intake.setStop();
             squaringGlyph = false;
             timedStopIntake = false;
         }
 
         // Intake open & close
-        if (gamepad1.x && !init_AutoLoad && !init_Reset) {
+        if (gamepad1.x && !glyph.isRunning()) {
             robot.intake.setClosed();
         }
-        if (gamepad1.b && !init_AutoLoad && !init_Reset) {
+        if (gamepad1.b && !glyph.isRunning()) {
             robot.intake.setOpen();
 
         }
@@ -915,7 +730,7 @@ public class TeleOpDM18_Janus extends OpMode {
     Orientation readGyro() {
         Orientation gyroRead;
 
-        gyroRead = robot.adaGyro.getAngularOrientation().toAxesReference(AxesReference.INTRINSIC).toAxesOrder(AxesOrder.ZYX);
+        gyroRead = robot.gyro().getAngularOrientation().toAxesReference(AxesReference.INTRINSIC).toAxesOrder(AxesOrder.ZYX);
         return gyroRead;
     }
 }
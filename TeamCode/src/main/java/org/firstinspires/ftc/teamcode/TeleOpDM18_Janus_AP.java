@@ -63,15 +63,27 @@ public class TeleOpDM18_Janus_AP extends OpMode {
     HardwareDM18 robot = new HardwareDM18(); // use the class created to define a Pushbot's hardware
     // could also use HardwarePushbotMatrix class.
 
+    // How each driver likes the sticks to feel, and the shaping for each stick we use
+    InputShaper.Profile driver1 = InputShaper.DRIVER;
+    InputShaper.Profile driver2 = InputShaper.OPERATOR;
+    InputShaper throttleInput;
+    InputShaper turnInput;
+    InputShaper liftInput;
+    InputShaper relicInput;
+    InputShaper extendInput;
+    InputShaper pivotInput;
 
-    public enum States {INIT_1, INIT_2, INIT_3, RESET_1, RESET_2, RESET_2_1,  RESET_3, RESET_4, AUTO_LOAD_INIT, AUTO_LOAD_1, AUTO_LOAD_1_2, AUTO_LOAD_2, AUTO_LOAD_3, AUTO_LOAD_4, AUTO_LOAD_5, AUTO_LOAD_SECOND}
+
+    // TeleOp init sequence.  Reset and auto load are in GlyphSequencer
+    public enum States {INIT_1, INIT_2, INIT_3}
 
     States nStates = States.INIT_1;
 
+    // Reset and auto load sequences
+    GlyphSequencer glyph;
+
     boolean startInit = false;
     boolean init_TeleOp = true;
-    boolean init_AutoLoad = false;
-    boolean init_Reset = false;
 
     boolean autoPark = false;
     boolean autoParking = false;
@@ -92,9 +104,8 @@ public class TeleOpDM18_Janus_AP extends OpMode {
     boolean resetLiftTop = false;
     boolean liftChangePos = false;
 
-    boolean topGripisClosed = false;
-
-    boolean isButtonPressed = false;
+    // Both gamepads' buttons, read once at the top of each loop
+    GamepadState pad = new GamepadState();
 
     boolean flip = false;
 
@@ -113,12 +124,18 @@ public class TeleOpDM18_Janus_AP extends OpMode {
     int liftFloorTarget = 0;
 
     double liftPower = 0;
+    double liftHoldHeight = Double.NaN;     // Where the lift was when driver 2 let go of the stick
 
     ElapsedTime intakeStopTimer = new ElapsedTime();
     ElapsedTime parkTimer = new ElapsedTime();
 
     Orientation angles;
 
+    // Loop timing, by section of loop()
+    static final int SNAPSHOT = 0, TELEMETRY = 1, INIT_SEQUENCE = 2, DRIVER1 = 3, INTAKE = 4, DRIVE = 5,
+            DETECT = 6, GLYPH = 7, SEQUENCES = 8, RELIC = 9;
+    LoopTimer loopTimer;
+
     /*
      * Code to run ONCE when the driver hits INIT
      */
@@ -129,9 +146,22 @@ public class TeleOpDM18_Janus_AP extends OpMode {
          */
         robot.init(hardwareMap, false, false);
 
+        // Stick shaping times its slew limits on the robot clock
+        throttleInput = new InputShaper(driver1, robot.clock);
+        turnInput = new InputShaper(driver1, robot.clock);
+        liftInput = new InputShaper(driver2, robot.clock);
+        relicInput = new InputShaper(driver2, robot.clock);
+        extendInput = new InputShaper(driver2, robot.clock);
+        pivotInput = new InputShaper(driver2, robot.clock);
+
+        glyph = new GlyphSequencer(robot);
+
         robot.relic.setRelicPivotKickstand();
         robot.relic.setRelicGripOpen();
 
+        loopTimer = new LoopTimer(robot.clock, "snapshot", "telemetry", "init sequence", "driver 1",
+                "intake", "drive", "detect glyph", "glyph", "sequences", "relic");
+
         // Send telemetry message to signify robot waiting;
         telemetry.addData("Say", "Hello Driver");
 
@@ -158,8 +188,22 @@ public class TeleOpDM18_Janus_AP extends OpMode {
     @Override
     public void loop() {
 
+        loopTimer.startLoop();
+
+        // Read the motors and lift switches once for this cycle
+        HardwareSnapshot frame = robot.snapshot();
+        pad.update(gamepad1, gamepad2, frame.nanoTime);
+        loopTimer.mark(SNAPSHOT);
+
+        // Report what the actuator cache saved last cycle, then start counting this one
+        telemetry.addData("Bus writes skipped: ", ActuatorCache.writesSkippedThisCycle());
+        telemetry.addData("Bus reads served: ", ActuatorCache.readsServedThisCycle());
+        ActuatorCache.startCycle();
 
         telemetry.addData("Relic Mode: ", relicMode);
+        telemetry.addData("Buttons: ", pad);
+        telemetry.addData("Pose: ", robot.pose);
+        telemetry.addData("Glyph: ", robot.intake.glyphDetector);
         //telemetry.addData("alpha: " + robot.intake.glyphColorSensor.alpha(), "dist: " + robot.intake.intakeDistance);
         //telemetry.addData("LEFT_AVG: ", robot.intake.distSensor_leftAvg.average());
         //telemetry.addData("RIGHT_AVG: ", robot.intake.distSensor_rightAvg.average());
@@ -167,8 +211,10 @@ public class TeleOpDM18_Janus_AP extends OpMode {
         //telemetry.addData("RIGHT: ", robot.intake.distanceSensor_right.getDistance(DistanceUnit.CM));
         //telemetry.addData("timer: "+ intakeStopTimer.milliseconds() +
         //        "sqg: " + squaringGlyph +"  tsi:  ", timedStopIntake);
+        loopTimer.report(telemetry);
 
         telemetry.update();
+        loopTimer.mark(TELEMETRY);
 
         /*
         INITIATION SEQUENCE. RESETS LIFT AND GRIPPER
@@ -201,8 +247,8 @@ public class TeleOpDM18_Janus_AP extends OpMode {
                     break;
 
                 case INIT_3: // INIT DRIVER CONTROL _ LIFT TO BOTTOM POSITION
-                    telemetry.addData("Enc: ", robot.lift.liftMotor.getCurrentPosition());
-                    if (robot.lift.reachedFloor()) {
+                    telemetry.addData("Enc: ", frame.liftPos);
+                    if (robot.lift.reachedFloor(frame)) {
                         if (robot.lift.resetFloorPos()) {
                             init_TeleOp = false;
                         }
@@ -211,13 +257,13 @@ public class TeleOpDM18_Janus_AP extends OpMode {
             }
 
         }
+        loopTimer.mark(INIT_SEQUENCE);
 
         /*
           DRIVE 1 CONTROLS
          */
 
-        if (gamepad1.y && !isButtonPressed) {
-            isButtonPressed = true;
+        if (pad.pressed(GamepadState.G1_Y)) {
             autoParking = true;
             autoPark(0.6, -20.0);
             parkTimer.reset();
@@ -229,9 +275,11 @@ public class TeleOpDM18_Janus_AP extends OpMode {
             autoParking = false;
             robot.setDriveMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
          }
+        loopTimer.mark(DRIVER1);
 
         // Intake controls. Some intake controls do not function while auto load sequence is activate
         intakeControl();
+        loopTimer.mark(INTAKE);
 
         if (!autoParking){
             double left;
@@ -245,7 +293,7 @@ public class TeleOpDM18_Janus_AP extends OpMode {
             }
 
             // Toggle drive train speed to SLOW when pusher is OUT or RELIC is extended
-            if (!init_TeleOp && !init_Reset && robot.gripper.isPusherOut()) {
+            if (!init_TeleOp && !glyph.isResetting() && robot.gripper.isPusherOut()) {
                 slowDriveTrain = true;
                 slowDriveTrainOveride = true;
                 robot.intake.setOpen();
@@ -255,7 +303,7 @@ public class TeleOpDM18_Janus_AP extends OpMode {
             } else slowDriveTrain = false;
 
             // Driver 1 ability to slow down drivetrain
-            if (gamepad1.left_bumper && !init_AutoLoad && !init_Reset) {
+            if (pad.isDown(GamepadState.G1_LEFT_BUMPER) && !glyph.isRunning()) {
                 slowDriveTrain2 = true;
                 slowDriveTrainOveride = true;
             } else slowDriveTrain2 = false;
@@ -270,8 +318,8 @@ public class TeleOpDM18_Janus_AP extends OpMode {
             }
 
             // Smooth and deadzone the joystick values
-            throttle = smoothPowerCurve(deadzone(throttle, 0.10)) / driveCoefficient;
-            direction = (smoothPowerCurve(deadzone(direction, 0.10))) / turnCoefficient;
+            throttle = throttleInput.shape(throttle) / driveCoefficient;
+            direction = turnInput.shape(direction) / turnCoefficient;
 
             // Calculate the drive motors for left and right
             right = throttle - direction;
@@ -293,20 +341,18 @@ public class TeleOpDM18_Janus_AP extends OpMode {
             robot.rightDrive1.setPower(right);
             robot.rightDrive2.setPower(right);
         }
+        loopTimer.mark(DRIVE);
 
         // Determine if glyph is detected in intake. Necessary to start auto-load sequence
         glyphDetected = robot.intake.detectGlyph();
-
+        loopTimer.mark(DETECT);
 
         /*
           DRIVER_2 CONTROLS
          */
 
-        // Determine if button is still pressed. Used to prevent multiple firing of robot actions when button is held down.
-        if (!gamepad2.a && !gamepad2.x && !gamepad2.y && !gamepad2.b && !gamepad2.left_bumper && !gamepad2.right_bumper && !gamepad2.dpad_down
-                && !gamepad2.dpad_left && !gamepad2.dpad_right && !gamepad2.dpad_up && !gamepad2.start) {
-            isButtonPressed = false;
-        }
+        // Actions that should happen once per press use pad.pressed(), which is only true in the
+        // loop the button (or the last button of a chord) goes down, so holding it doesn't repeat them
 
         /*
          GLYPH MODE CONTROLS for DRIVER 2
@@ -317,14 +363,15 @@ public class TeleOpDM18_Janus_AP extends OpMode {
         if (glyphMode) {
 
             // SETS DRIVER 2 to RELIC MODE
-            if (gamepad2.start && gamepad2.y && !isButtonPressed) {
+            if (pad.pressed(GamepadState.G2_START | GamepadState.G2_Y)) {
 
                 RobotLog.i("DM10337 -- SWITCHING to RELIC mode");
 
-                isButtonPressed = true;
+                // So relic mode doesn't also see the y press this loop
+                pad.consume(GamepadState.G2_START | GamepadState.G2_Y);
 
                 // Override auto load
-                init_AutoLoad = false;
+                if (glyph.isLoading()) glyph.stop();
                 autoMove = false;
 
                 // reset all auto lift booleans to default
@@ -358,8 +405,7 @@ public class TeleOpDM18_Janus_AP extends OpMode {
 
                 // Override auto moves
                 autoMove = false;
-                init_AutoLoad = false;
-                init_Reset = false;
+                glyph.stop();
 
                 // reset all auto lift booleans to default
                 resetLiftBtm = false;
@@ -367,46 +413,57 @@ public class TeleOpDM18_Janus_AP extends OpMode {
                 liftChangePos = false;
                 flip = false;
 
-                if (robot.lift.distFromBottom() < 8.0){
+                if (robot.lift.distFromBottom(frame) < 8.0){
                     // Open intake wheels
                     robot.intake.setOpen();
                     robot.intake.setStop();
                 }
 
                 // Move lift
+                liftHoldHeight = Double.NaN;
+                robot.lift.releaseHold();
                 robot.lift.liftMotor.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
                 liftPower = -gamepad2.right_stick_y;
-                liftPower = smoothPowerCurve(deadzone(liftPower, 0.20));
-                if (!robot.lift.liftLimitT.getState()) {
+                liftPower = liftInput.shape(liftPower);
+                if (frame.liftAtTop) {
                     liftPower = Range.clip(liftPower, -1, 0);
-                } else if (!robot.lift.liftLimitB.getState()) {
+                } else if (frame.liftAtBottom) {
                     liftPower = Range.clip(liftPower, 0, 1);
                 } else liftPower = Range.clip(liftPower, -1, 1);
 
                 robot.lift.liftMotor.setPower(liftPower);
 
             } else if (!autoMove && !init_TeleOp) {
-                // Stops lift if no joystick input or auto moves active
-                robot.lift.stopLift();
+                if (frame.liftAtTop || frame.liftAtBottom) {
+                    // Resting on a limit switch, nothing to hold against
+                    liftHoldHeight = Double.NaN;
+                    robot.lift.releaseHold();
+                    robot.lift.stopLift();
+                } else {
+                    // Hold the lift where driver 2 left it
+                    if (Double.isNaN(liftHoldHeight)) liftHoldHeight = robot.lift.distFromBottom(frame);
+                    robot.lift.holdHeight(liftHoldHeight, frame);
+                }
+            } else if (autoMove) {
+                // An auto move owns the lift, pick a fresh hold height when it's done
+                liftHoldHeight = Double.NaN;
+                robot.lift.releaseHold();
             }
 
             // SETS LIFT POSITION
-            if (gamepad2.dpad_up && !isButtonPressed) {
-                isButtonPressed = true;
+            if (pad.pressed(GamepadState.G2_DPAD_UP)) {
                 liftFloorTarget = 2;            // Top floor
                 liftChangePos = true;
                 autoMove = true;
             }
 
-            if ((gamepad2.dpad_left || gamepad2.dpad_right) && !isButtonPressed) {
-                isButtonPressed = true;
+            if (pad.pressed(GamepadState.G2_DPAD_LEFT) || pad.pressed(GamepadState.G2_DPAD_RIGHT)) {
                 liftFloorTarget = 1;            // Middle floor
                 liftChangePos = true;
                 autoMove = true;
             }
 
-            if (gamepad2.dpad_down && !gamepad2.b && !isButtonPressed) {
-                isButtonPressed = true;
+            if (pad.pressed(GamepadState.G2_DPAD_DOWN) && !pad.isDown(GamepadState.G2_B)) {
                 liftFloorTarget = 0;            // Bottom floor
                 liftChangePos = true;
                 autoMove = true;
@@ -433,14 +490,14 @@ public class TeleOpDM18_Janus_AP extends OpMode {
             }
 
             // Find BTM limit switch after changing lift position BTM
-            if (resetLiftBtm && robot.lift.reachedFloor() && autoMove) {
+            if (resetLiftBtm && robot.lift.reachedFloor(frame) && autoMove) {
                 if (robot.lift.resetFloorPos()) {
                     resetLiftBtm = false;
                 }
             }
 
             // Find TOP limit switch after changing lift position to TOP
-            if (resetLiftTop && robot.lift.reachedFloor() && autoMove) {
+            if (resetLiftTop && robot.lift.reachedFloor(frame) && autoMove) {
                 if (robot.lift.resetTopPos()) {
                     resetLiftTop = false;
                 }
@@ -451,24 +508,23 @@ public class TeleOpDM18_Janus_AP extends OpMode {
          */
 
             // INITIATE FLIP
-            if (gamepad2.x && !isButtonPressed && !init_TeleOp && !init_AutoLoad) {
-                isButtonPressed = true;
+            if (pad.pressed(GamepadState.G2_X) && !init_TeleOp && !glyph.isLoading()) {
                 flip = true;
                 autoMove = true;
             }
 
             // FLIP GRIPPER
-            if (flip && autoMove && (robot.lift.distFromBottom() >= 7.75) && !init_AutoLoad) {
+            if (flip && autoMove && (robot.lift.distFromBottom(frame) >= 7.75) && !glyph.isLoading()) {
                 // Flip after determining gripper is high enough
                 robot.gripper.flip();
                 flip = false;
-            } else if ((flip && autoMove && robot.lift.distFromBottom() < 7.75) && !init_AutoLoad) {
+            } else if ((flip && autoMove && robot.lift.distFromBottom(frame) < 7.75) && !glyph.isLoading()) {
                 // Move gripper to top position before flipping if in another lift position
                 robot.lift.setLiftHeight(8.25);
             }
 
             // PUSHER IN/OUT
-            if (gamepad2.left_stick_y > 0.2 && !init_TeleOp && !init_Reset || gamepad2.left_stick_y < -0.2 && !init_TeleOp && !init_Reset) {
+            if (gamepad2.left_stick_y > 0.2 && !init_TeleOp && !glyph.isResetting() || gamepad2.left_stick_y < -0.2 && !init_TeleOp && !glyph.isResetting()) {
 
                 // reset all auto lift booleans to default
                 resetLiftBtm = false;
@@ -477,10 +533,10 @@ public class TeleOpDM18_Janus_AP extends OpMode {
                 flip = false;
 
 
-                if ((robot.lift.distFromBottom() > 8) ||
+                if ((robot.lift.distFromBottom(frame) > 8) ||
                         (!robot.intake.isClosed() && !robot.intake.isMoving() &&
                                 (robot.gripper.isBtmClosed() || robot.gripper.isBtmPartialOpen()) && !robot.gripper.isMoving())) {
-                    double speed = smoothPowerCurve(deadzone(-gamepad2.left_stick_y, 0.2));
+                    double speed = extendInput.shape(-gamepad2.left_stick_y);
                     speed = Range.clip(speed, -1, 1);
                     robot.gripper.moveInOut(speed);
                 } else {
@@ -495,39 +551,37 @@ public class TeleOpDM18_Janus_AP extends OpMode {
 
             // OPEN & CLOSE GRIPPERS
             // close grippers
-            if ((gamepad2.right_trigger > 0.5) && !init_TeleOp && !init_AutoLoad && !init_Reset) {
+            if (pad.isDown(GamepadState.G2_RIGHT_TRIGGER) && !init_TeleOp && !glyph.isRunning()) {
                 robot.gripper.setBtmClosed();
             }
-            if (gamepad2.right_bumper && !isButtonPressed && !init_TeleOp && !init_AutoLoad && !init_Reset) {
+            if (pad.pressed(GamepadState.G2_RIGHT_BUMPER) && !init_TeleOp && !glyph.isRunning()) {
                 robot.gripper.setTopClosed();
-                isButtonPressed = true;
-                topGripisClosed = true;
+                glyph.topHasGlyph = true;
             }
 
             // open grippers
-            if ((gamepad2.left_trigger > 0.5) && !init_TeleOp && !init_AutoLoad && !init_Reset) {
+            if (pad.isDown(GamepadState.G2_LEFT_TRIGGER) && !init_TeleOp && !glyph.isRunning()) {
                 // Set fully open
                 robot.gripper.setBtmOpen();
 
             }
-            if (gamepad2.left_bumper && !isButtonPressed && !init_TeleOp && !init_AutoLoad && !init_Reset) {
+            if (pad.pressed(GamepadState.G2_LEFT_BUMPER) && !init_TeleOp && !glyph.isRunning()) {
                 // Set fully open
                 robot.gripper.setTopOpen();
-                topGripisClosed = false;
-                isButtonPressed = true;
+                glyph.topHasGlyph = false;
             }
 
+            loopTimer.mark(GLYPH);
+
         /*
         AUTO RESET LIFT/GRIPPER SEQUENCE
          */
 
             // RESET auto load sequence. To be used by both drivers is something in sequence goes wrong
-            if (gamepad2.y && gamepad2.b && !isButtonPressed && !init_TeleOp) {
+            if (pad.pressed(GamepadState.G2_Y | GamepadState.G2_B) && !init_TeleOp) {
                 RobotLog.i("DM10337 -- RESET glyph mechanism");
-                isButtonPressed = true;
+                pad.consume(GamepadState.G2_Y | GamepadState.G2_B);
                 autoMove = true;
-                init_Reset = true;
-                init_AutoLoad = false;
 
                 // reset all auto lift booleans to default
                 resetLiftBtm = false;
@@ -535,73 +589,9 @@ public class TeleOpDM18_Janus_AP extends OpMode {
                 liftChangePos = false;
                 flip = false;
 
-                nStates = States.RESET_1;
-            }
-
-            if (init_Reset && autoMove) {
-                switch (nStates) {
-
-                    case RESET_1: // OPEN INTAKE
-
-                        slowDriveTrainOveride = false;
-                        glyphBump = false;
-
-                        if (robot.intake.isClosed()) {
-                            robot.intake.setOpen();
-                            robot.gripper.setBothOpen();
-                            nStates = States.RESET_2;
-                            RobotLog.i("DM10337 -- RESET glyph sequence 1 complete");
-                        } else {
-                            robot.gripper.setBothOpen();
-                            nStates = States.RESET_2;
-                            RobotLog.i("DM10337 -- RESET glyph sequence 1 complete");
-                        }
-                        break;
-
-                    case RESET_2: // LIFT ABOVE INTAKE IF NOT ALREADY
-
-                        if (!robot.intake.isMoving() && !robot.gripper.isReleasing()) {
-                            if (robot.lift.distFromBottom() < 5.0) {
-                                robot.lift.setLiftHeight(5.5);
-                                nStates = States.RESET_2_1;
-                                RobotLog.i("DM10337 -- RESET glyph sequence 2 complete");
-                            } else {
-                                nStates = States.RESET_2_1;
-                                RobotLog.i("DM10337 -- RESET glyph sequence 2 complete");
-                            }
-                        }
-                        break;
-
-                    case RESET_2_1: // PUSHER IN & OPEN GRIPPERS
-
-                        if (robot.lift.distFromBottom() > 5.0) {
-                            robot.gripper.setExtendIn();
-                            robot.gripper.setBothOpen();
-                            topGripisClosed = false;
-                            nStates = States.RESET_3;
-                            RobotLog.i("DM10337 -- RESET glyph sequence 2_1 complete");
-                        }
-                        break;
-
-                    case RESET_3:
-
-                        if (!robot.gripper.isExtending()) {
-                            robot.lift.setLiftBtm();
-                            nStates = States.RESET_4;
-                            RobotLog.i("DM10337 -- RESET glyph sequence 3 complete");
-                        }
-                        break;
-
-                    case RESET_4:
-
-                        if (robot.lift.reachedFloor()) {
-                            if (robot.lift.resetFloorPos()) {
-                                init_Reset = false;
-                                RobotLog.i("DM10337 -- RESET glyph sequence 4 complete");
-                            }
-                        }
-
-                }
+                slowDriveTrainOveride = false;
+                glyphBump = false;
+                glyph.startReset();
             }
 
         /*
@@ -609,113 +599,21 @@ public class TeleOpDM18_Janus_AP extends OpMode {
          */
 
             // INITIATE AUTO LOAD - DRIVER 2 - Can be activated when glyph is detected
-            if (gamepad2.a && glyphDetected && !isButtonPressed && !init_TeleOp && !init_AutoLoad) {
+            if (pad.pressed(GamepadState.G2_A) && glyphDetected && !init_TeleOp && !glyph.isLoading()) {
                 RobotLog.i("DM10337 -- Start AUTOLOAD sequence");
-                isButtonPressed = true;
-                nStates = States.AUTO_LOAD_INIT;
-                init_AutoLoad = true;
                 autoMove = true;
-                init_Reset = false;
+                glyph.startAutoLoad();
             }
 
-            if (init_AutoLoad && autoMove) {
-
-                glyphBump = false;
-
-                switch (nStates) {
-
-                    case AUTO_LOAD_INIT: // CHECK TO SEE IF LIFT IS AT BTM POS AND BTM GRIPPERS ARE OPEN
-                        if (robot.gripper.isBtmClosed()) {
-                            robot.gripper.setBtmOpen();
-                        } else if (!robot.gripper.btmIsMoving()) {
-                            robot.lift.setLiftBtm();
-                        }
-                        if (!robot.gripper.isBtmClosed() && robot.lift.targetPos == robot.lift.LIFT_BTM_POS && robot.lift.reachedFloor()) {
-                            // Move lift down to BTM limit switch
-                            if (robot.lift.resetFloorPos()) {
-                                robot.lift.setPower(-0.7);
-                                nStates = States.AUTO_LOAD_1;
-                                RobotLog.i("DM10337 -- AUTO LOAD Seqeunce Init Complete");
-                            }
-                        }
-                        break;
-
-                    case AUTO_LOAD_1: // GRAB GLYPH & OPEN INTAKE WHEELS
-                        // Grab glyph with BTM gripper
-                        if (!robot.gripper.isBtmClosed()) {
-                            robot.gripper.setBtmClosed();
-                            nStates = States.AUTO_LOAD_1_2;
-                            RobotLog.i("DM10337 -- AUTO LOAD Seqeunce 1 Complete");
-                        }
-                        break;
-
-                    case AUTO_LOAD_1_2:
-                        // Open intake after gripper has closed
-                        if (!robot.gripper.btmIsMoving()) {
-                            robot.intake.setOpen();
-                            robot.intake.setStop();
-                            if (!topGripisClosed) {
-                                nStates = States.AUTO_LOAD_2;
-                                RobotLog.i("DM10337 -- AUTO LOAD Seqeunce 1_2 Complete");
-                            } else {
-                                nStates = States.AUTO_LOAD_SECOND;
-                                RobotLog.i("DM10337 -- AUTO LOAD Seqeunce 1_2 Complete");
-                            }
-                        }
-                        break;
-
-                    // LOAD SEQUENCE FOR FIRST GLYPH - Determined if top gripper is OPEN, therefore does not have glyph.
-                    case AUTO_LOAD_2: // LIFT TO LIFT POSITION
-                        // Set lift position to move to top after intake has opened
-                        if (!robot.intake.isMoving()) {
-                            robot.lift.setLiftHeight(8.25);
-                            nStates = States.AUTO_LOAD_3;
-                            RobotLog.i("DM10337 -- AUTO LOAD Seqeunce 2 Complete");
-                        }
-                        break;
-
-                    case AUTO_LOAD_3: // FLIP AFTER FLIP HEIGHT REACHED
-                        if (robot.lift.distFromBottom() > 7.75) { // Check to see if lift reached height to flip
-                            // If it reached target position, set intake back to closed position and start intaking again
-                            robot.intake.setClosed();
-                            robot.intake.setIn();
-                            robot.gripper.flip(); // Flip gripper
-                            topGripisClosed = true;
-                            nStates = States.AUTO_LOAD_4; // Go to next state in auto load sequence
-                            RobotLog.i("DM10337 -- AUTO LOAD Seqeunce 3 Complete");
-                        }
-                        break;
-
-                    case AUTO_LOAD_4: // MOVE TO BTM FLOOR
-
-                        if (!robot.gripper.isFlipping()) {
-                            robot.lift.setLiftHeight(0.5); // Move lift to btm position after gripper is done flipping
-                            //nStates = States.AUTO_LOAD_5;
-                            init_AutoLoad = false;
-                            RobotLog.i("DM10337 -- AUTO LOAD Seqeunce 4 Complete");
-                        }
-                        break;
-
-                    case AUTO_LOAD_5: // RESET ENCODER TO '0' USING BTM LIMIT SWITCH
-                        if (robot.lift.reachedFloor()) {
-                            robot.lift.resetFloorPos();
-                            init_AutoLoad = false;
-                            RobotLog.i("DM10337 -- AUTO LOAD Seqeunce 5 Complete");
-                        }
-                        break;
-
-                    // LOAD SEQUENCE FOR SECOND GLYPH - Determined if top gripper is CLOSED, therefore assumed it has a glyph.
-                    case AUTO_LOAD_SECOND: // LIFT TO DRIVE
-                        if (!robot.intake.isMoving()) {
-                            robot.lift.setLiftHeight(1.0); // Lift above ground to drive
-                            init_AutoLoad = false;
-                            RobotLog.i("DM10337 -- AUTO LOAD Seqeunce SECOND Complete");
-                        }
-                        break;
-                }
+            // Step whichever sequence is running
+            if (autoMove) {
+                if (glyph.isLoading()) glyphBump = false;
+                glyph.tick(frame);
             }
         }
 
+        loopTimer.mark(SEQUENCES);
+
         /*
         RELIC MODE CONTROLS for DRIVER 2 //
         */
@@ -725,9 +623,9 @@ public class TeleOpDM18_Janus_AP extends OpMode {
         if (relicMode) {
 
             // SETS DRIVER 2 to GLYPH MODE
-            if (gamepad2.start && gamepad2.b && !isButtonPressed) {
+            if (pad.pressed(GamepadState.G2_START | GamepadState.G2_B)) {
 
-                isButtonPressed = true;
+                pad.consume(GamepadState.G2_START | GamepadState.G2_B);
 
                 // set DRIVE MODE to GLYPH
                 relicMode = false;
@@ -736,70 +634,9 @@ public class TeleOpDM18_Janus_AP extends OpMode {
 
             }
 
-            if (init_Reset) {
-                switch (nStates) {
-
-                    case RESET_1: // OPEN INTAKE
-
-                        slowDriveTrainOveride = false;
-                        glyphBump = false;
-
-                        if (robot.intake.isClosed()) {
-                            robot.intake.setOpen();
-                            robot.gripper.setBothOpen();
-                            nStates = States.RESET_2;
-                            RobotLog.i("DM10337 -- RESET glyph sequence 1 complete");
-                        } else {
-                            robot.gripper.setBothOpen();
-                            nStates = States.RESET_2;
-                            RobotLog.i("DM10337 -- RESET glyph sequence 1 complete");
-                        }
-                        break;
-
-                    case RESET_2: // LIFT ABOVE INTAKE IF NOT ALREADY
-
-                        if (!robot.intake.isMoving() && !robot.gripper.isReleasing()) {
-                            if (robot.lift.distFromBottom() < 5.0) {
-                                robot.lift.setLiftHeight(5.5);
-                                nStates = States.RESET_2_1;
-                                RobotLog.i("DM10337 -- RESET glyph sequence 2 complete");
-                            } else {
-                                nStates = States.RESET_2_1;
-                                RobotLog.i("DM10337 -- RESET glyph sequence 2 complete");
-                            }
-                        }
-                        break;
-
-                    case RESET_2_1: // PUSHER IN & OPEN GRIPPERS
-
-                        if (robot.lift.distFromBottom() > 5.0) {
-                            robot.gripper.setExtendIn();
-                            robot.gripper.setBothOpen();
-                            topGripisClosed = false;
-                            nStates = States.RESET_3;
-                            RobotLog.i("DM10337 -- RESET glyph sequence 2_1 complete");
-                        }
-                        break;
-
-                    case RESET_3:
-
-                        if (!robot.gripper.isExtending()) {
-                            robot.lift.setLiftBtm();
-                            nStates = States.RESET_4;
-                            RobotLog.i("DM10337 -- RESET glyph sequence 3 complete");
-                        }
-                        break;
-
-                    case RESET_4:
-
-                        if (robot.lift.reachedFloor()) {
-                            if (robot.lift.resetFloorPos()) {
-                                init_Reset = false;
-                                RobotLog.i("DM10337 -- RESET glyph sequence 4 complete");
-                            }
-                        }
-
-                }
+            // Keep resetting the glyph mechanism if we switched over partway through
+            if (glyph.isResetting()) {
+                glyph.tick(frame);
             }
 
             // / MANUAL MOVEMENT OF RELIC EXTENSION
@@ -809,13 +646,13 @@ public class TeleOpDM18_Janus_AP extends OpMode {
                 autoMove = false;
                 robot.relic.relicMotor.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
                 double relicPower = -gamepad2.left_stick_y;
-                relicPower = smoothPowerCurve(deadzone(relicPower, 0.20));
+                relicPower = relicInput.shape(relicPower);
                 // Driver 2 control to slow down extension speed for fine adjustments
-                if (gamepad2.right_bumper || gamepad2.left_bumper) {
+                if (pad.isAnyDown(GamepadState.G2_LEFT_BUMPER | GamepadState.G2_RIGHT_BUMPER)) {
                     relicPower = relicPower / 1.5;
                     }
 
-                if (robot.relic.relicMotor.getCurrentPosition() >= 0) {
+                if (frame.relicPos >= 0) {
                     relicPower = Range.clip(relicPower, -1, 1);
                 } else {
                     relicPower = Range.clip(relicPower, 0, 1);
@@ -824,22 +661,22 @@ public class TeleOpDM18_Janus_AP extends OpMode {
             } else if (!autoMove) robot.relic.stopRelicExtension();
 
             // Set relic extension to out position
-            if (gamepad2.dpad_up) {
+            if (pad.isDown(GamepadState.G2_DPAD_UP)) {
                 robot.relic.setRelicExtensionOut();
                 autoMove = true;
             }
 
             // Set relic extension to in position
-            if (gamepad2.dpad_down) {
+            if (pad.isDown(GamepadState.G2_DPAD_DOWN)) {
                 robot.relic.setRelicExtensionIn();
                 autoMove = true;
             }
 
             // MANUAL MOVEMENT OF RELIC PIVOT
             if (gamepad2.right_stick_y > 0.2 || gamepad2.right_stick_y < -0.2) {
-                double speed = smoothPowerCurve(deadzone(-gamepad2.right_stick_y, 0.2));
+                double speed = pivotInput.shape(-gamepad2.right_stick_y);
                 speed = (speed / (1 + robot.relic.relicPivot.getPosition()));
-                if (gamepad2.left_bumper || gamepad2.right_bumper) {
+                if (pad.isAnyDown(GamepadState.G2_LEFT_BUMPER | GamepadState.G2_RIGHT_BUMPER)) {
                     speed = speed / 8;
                 }
                 speed = Range.clip(speed, -1, 1);
@@ -847,27 +684,24 @@ public class TeleOpDM18_Janus_AP extends OpMode {
             }
 
             // Relic grip grab
-            if (gamepad2.a && !isButtonPressed) {
-                isButtonPressed = true;
+            if (pad.pressed(GamepadState.G2_A)) {
                 if (robot.relic.isGripClosed()) {
                     robot.relic.setRelicGripOpen();
                 } else { robot.relic.setRelicGripGrab(); }
             }
 
             // Relic arm to kickstand position
-            if (gamepad2.b) {
+            if (pad.isDown(GamepadState.G2_B)) {
                 robot.relic.setRelicPivotKickstand();
                 autoMove = true;
              }
 
-            if (gamepad2.y && !isButtonPressed) {
+            if (pad.pressed(GamepadState.G2_Y)) {
                 robot.relic.setRelicGripOpen();
                 robot.relic.setRelicPivotKickstand();
-                isButtonPressed = true;
             }
 
-            if (gamepad2.x && !isButtonPressed) {
-                isButtonPressed = true;
+            if (pad.pressed(GamepadState.G2_X)) {
                 gamepadx = true;
                 robot.relic.setRelicPivotKickstand();
             }
@@ -884,6 +718,12 @@ public class TeleOpDM18_Janus_AP extends OpMode {
 
 
         }
+
+        // Keep the pivot on the grab/drop table as the arm moves
+        robot.relic.update(frame.relicPos);
+
+        loopTimer.mark(RELIC);
+        loopTimer.endLoop();
     }
 
     /*
@@ -891,66 +731,10 @@ public class TeleOpDM18_Janus_AP extends OpMode {
      */
     @Override
     public void stop () {
-
-    }
-
-    /**
-     * This does the cubic smoothing equation on joystick value.
-     * Assumes you have already done any deadzone processing.
-     *
-     * @param x  joystick input
-     * @return  smoothed value
-     */
-    protected double smoothPowerCurve (double x) {
-        //double a = this.getThrottle();
-        double a = 1.0;         // Hard code to max smoothing
-        double b = 0.05;      // Min power to overcome motor stall
-
-        if (x > 0.0)
-            return (b + (1.0-b)*(a*x*x*x+(1.0-a)*x));
-
-        else if (x<0.0)
-            return (-b + (1.0-b)*(a*x*x*x+(1.0-a)*x));
-        else return 0.0;
+        loopTimer.log();
+        RobotLog.i("DM10337 -- Glyph detector: " + robot.intake.glyphDetector);
     }
 
-    /**
-     * Add deadzone to a stick value
-     *
-     * @param rawStick  Raw value from joystick read -1.0 to 1.0
-     * @param dz   Deadzone value to use 0 to 0.999
-     * @return    Value after deadzone processing
-     */
-    protected double deadzone(double rawStick, double dz) {
-        double stick;
-
-        // Force limit to -1.0 to 1.0
-        if (rawStick > 1.0) {
-            stick = 1.0;
-        } else if (rawStick < -1.0) {
-            stick = -1.0;
-        } else {
-            stick = rawStick;
-        }
-
-        // Check if value is inside the dead zone
-        if (stick >= 0.0){
-            if (Math.abs(stick) >= dz)
-                return (stick - dz)/(1 -  dz);
-            else
-                return 0.0;
-
-        }
-        else {
-            if (Math.abs(stick) >= dz)
-                return (stick + dz)/(1 - dz);
-            else
-                return 0.0;
-
-        }
-    }
-
-
 // Intake Control
 
     public void intakeControl()  {
@@ -959,7 +743,7 @@ public class TeleOpDM18_Janus_AP extends OpMode {
         robot.intake.updateDistAvg();
 
         // Intake IN
-        if (gamepad1.right_trigger > 0.5 && !init_AutoLoad && !init_Reset) {
+        if (pad.isDown(GamepadState.G1_RIGHT_TRIGGER) && !glyph.isRunning()) {
             robot.intake.setIn();
             robot.intake.setClosed();
             squaringGlyph = false;
@@ -967,16 +751,16 @@ public class TeleOpDM18_Janus_AP extends OpMode {
         }
 
         // Intake IN - Start Squaring Glyph
-        //if (gamepad1.right_bumper && !init_AutoLoad && !init_Reset) {
+        //if (gamepad1.right_bumper && !glyph.isRunning()) {
         //    squaringGlyph = true;
         //    timedStopIntake = false;
         // }
 
-        if (gamepad1.right_bumper && !init_AutoLoad && !init_Reset) {
+        if (pad.isDown(GamepadState.G1_RIGHT_BUMPER) && !glyph.isRunning()) {
             robot.intake.setOpen();
             glyphBump = true;
 
-        } else if (glyphBump && !init_AutoLoad && !init_Reset ) {
+        } else if (glyphBump && !glyph.isRunning() ) {
             robot.intake.setClosed();
             glyphBump = false;
         }
@@ -987,7 +771,7 @@ public class TeleOpDM18_Janus_AP extends OpMode {
         }
 
         // Intake STOP - square glyph if necessary then stop intaking
-        if (squaringGlyph && init_AutoLoad) {
+        if (squaringGlyph && glyph.isLoading()) {
             squaringGlyph = false;
         } else if (squaringGlyph && robot.intake.distLeft() > 10.0 && robot.intake.distRight() > 10.0) {
             robot.intake.setIn();
@@ -1008,7 +792,7 @@ public class TeleOpDM18_Janus_AP extends OpMode {
         }
 
         // Intake OUT
-        if (gamepad1.left_trigger > 0.5 && !init_AutoLoad && !init_Reset) {
+        if (pad.isDown(GamepadState.G1_LEFT_TRIGGER) && !glyph.isRunning()) {
             robot.intake.setOut();
             robot.intake.setClosed();
             timedStopIntake = false;
@@ -1016,24 +800,24 @@ public class TeleOpDM18_Janus_AP extends OpMode {
         }
 
         // Intake STOP
-        if (gamepad1.a && !init_AutoLoad && !init_Reset) {
+        if (pad.isDown(GamepadState.G1_A) && !glyph.isRunning()) {
             robot.intake.setStop();
             squaringGlyph = false;
             timedStopIntake = false;
         }
 
         // Intake open & close
-        if (gamepad1.x && !init_AutoLoad && !init_Reset) {
+        if (pad.isDown(GamepadState.G1_X) && !glyph.isRunning()) {
             robot.intake.setClosed();
         }
-        if (gamepad1.b && !init_AutoLoad && !init_Reset) {
+        if (pad.isDown(GamepadState.G1_B) && !glyph.isRunning()) {
             robot.intake.setOpen();
 
         }
-        if (gamepad1.dpad_up) {
+        if (pad.isDown(GamepadState.G1_DPAD_UP)) {
             reverseDrive = false;
         }
-        if (gamepad1.dpad_down) {
+        if (pad.isDown(GamepadState.G1_DPAD_DOWN)) {
             reverseDrive = true;
         }
 
@@ -1074,7 +858,7 @@ public class TeleOpDM18_Janus_AP extends OpMode {
     Orientation readGyro() {
         Orientation gyroRead;
 
-        gyroRead = robot.adaGyro.getAngularOrientation().toAxesReference(AxesReference.INTRINSIC).toAxesOrder(AxesOrder.ZYX);
+        gyroRead = robot.gyro().getAngularOrientation().toAxesReference(AxesReference.INTRINSIC).toAxesOrder(AxesOrder.ZYX);
         return gyroRead;
     }
 }
@@ -68,6 +68,13 @@ public class TeleOpDM18_MechManipulator extends OpMode {
     HardwareDM18 robot = new HardwareDM18(); // use the class created to define a Pushbot's hardware
     // could also use HardwarePushbotMatrix class.
 
+    // How each driver likes the sticks to feel, and the shaping for each stick we use
+    InputShaper.Profile driver1 = InputShaper.DRIVER;
+    InputShaper throttleInput;
+    InputShaper turnInput;
+    InputShaper liftInput;
+    InputShaper relicInput;
+
 
     boolean intake = false;
     boolean resetLift = false;
@@ -100,6 +107,12 @@ public class TeleOpDM18_MechManipulator extends OpMode {
          */
         robot.init(hardwareMap, true, true);
 
+        // Stick shaping times its slew limits on the robot clock
+        throttleInput = new InputShaper(driver1, robot.clock);
+        turnInput = new InputShaper(driver1, robot.clock);
+        liftInput = new InputShaper(driver1, robot.clock);
+        relicInput = new InputShaper(driver1, robot.clock);
+
 
 
         // Send telemetry message to signify robot waiting;
@@ -260,8 +273,8 @@ public class TeleOpDM18_MechManipulator extends OpMode {
                 telemetry.addData("JEWEL", "ROTATE");
                 telemetry.addData("Pos: ", robot.jewelRotServo.getPosition());
 
-                Color.RGBToHSV(robot.jewelCS.red() * 255, robot.jewelCS.green() * 255,
-                        robot.jewelCS.blue() * 255, adaHSV);
+                Color.RGBToHSV(robot.jewelCS().red() * 255, robot.jewelCS().green() * 255,
+                        robot.jewelCS().blue() * 255, adaHSV);
 
                 // Normalize hue to -270 to 90 degrees
                 while (adaHSV[0] >= 90.0) {
@@ -293,8 +306,8 @@ public class TeleOpDM18_MechManipulator extends OpMode {
                 telemetry.addData("Pos: ", robot.jewelServo.getPosition());
 
                 // convert the RGB adaValues to HSV adaValues.
-                Color.RGBToHSV(robot.jewelCS.red() * 255, robot.jewelCS.green() * 255,
-                        robot.jewelCS.blue() * 255, adaHSV);
+                Color.RGBToHSV(robot.jewelCS().red() * 255, robot.jewelCS().green() * 255,
+                        robot.jewelCS().blue() * 255, adaHSV);
 
                 // Normalize hue to -270 to 90 degrees
                 while (adaHSV[0] >= 90.0) {
@@ -345,7 +358,7 @@ public class TeleOpDM18_MechManipulator extends OpMode {
                 if (gamepad2.right_stick_y > 0.2 || gamepad2.right_stick_y < -0.2){
                     robot.lift.liftMotor.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
                     double liftPower = -gamepad2.right_stick_y;
-                    liftPower = smoothPowerCurve(deadzone(liftPower, 0.10));
+                    liftPower = liftInput.shape(liftPower);
                     Range.clip(liftPower, -1, 1);
                     robot.lift.liftMotor.setPower(liftPower);
                     autoLift = false;
@@ -400,7 +413,7 @@ public class TeleOpDM18_MechManipulator extends OpMode {
                 telemetry.addData("ldrive2: ", robot.leftDrive2.getCurrentPosition());
                 telemetry.addData("rdrive1: ", robot.rightDrive1.getCurrentPosition());
                 telemetry.addData("rdrive2: ", robot.rightDrive2.getCurrentPosition());
-                Orientation angles = robot.adaGyro.getAngularOrientation().toAxesReference(AxesReference.INTRINSIC).toAxesOrder(AxesOrder.ZYX);
+                Orientation angles = robot.gyro().getAngularOrientation().toAxesReference(AxesReference.INTRINSIC).toAxesOrder(AxesOrder.ZYX);
                 telemetry.addData("Gyro: ", angles.firstAngle);
 
                 double left;
@@ -410,8 +423,8 @@ public class TeleOpDM18_MechManipulator extends OpMode {
                 double direction = gamepad2.right_stick_x;
 
                 // Smooth and deadzone the joytick values
-                throttle = smoothPowerCurve(deadzone(throttle, 0.10));
-                direction = (smoothPowerCurve(deadzone(direction, 0.10))) / 2;
+                throttle = throttleInput.shape(throttle);
+                direction = turnInput.shape(direction) / 2;
 
                 // Calculate the drive motors for left and right
                 right = throttle - direction;
@@ -451,7 +464,7 @@ public class TeleOpDM18_MechManipulator extends OpMode {
                 if (gamepad2.right_stick_y > 0.2 || gamepad2.right_stick_y < -0.2){
                     robot.relic.relicMotor.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
                     double relicPower = -gamepad2.right_stick_y;
-                    relicPower = smoothPowerCurve(deadzone(relicPower, 0.10));
+                    relicPower = relicInput.shape(relicPower);
                     relicPower = Range.clip(relicPower, -1, 1);
                     robot.relic.relicMotor.setPower(relicPower);
                     autoLift = false;
@@ -506,63 +519,6 @@ public class TeleOpDM18_MechManipulator extends OpMode {
     public void stop () {
     }
 
-    /**
-     * This does the cubic smoothing equation on joystick value.
-     * Assumes you have already done any deadzone processing.
-     *
-     * @param x  joystick input
-     * @return  smoothed value
-     */
-    protected double smoothPowerCurve (double x) {
-        //double a = this.getThrottle();
-        double a = 1.0;         // Hard code to max smoothing
-        double b = 0.05;      // Min power to overcome motor stall
-
-        if (x > 0.0)
-            return (b + (1.0-b)*(a*x*x*x+(1.0-a)*x));
-
-        else if (x<0.0)
-            return (-b + (1.0-b)*(a*x*x*x+(1.0-a)*x));
-        else return 0.0;
-    }
-
-    /**
-     * Add deadzone to a stick value
-     *
-     * @param rawStick  Raw value from joystick read -1.0 to 1.0
-     * @param dz   Deadzone value to use 0 to 0.999
-     * @return    Value after deadzone processing
-     */
-    protected double deadzone(double rawStick, double dz) {
-        double stick;
-
-        // Force limit to -1.0 to 1.0
-        if (rawStick > 1.0) {
-            stick = 1.0;
-        } else if (rawStick < -1.0) {
-            stick = -1.0;
-        } else {
-            stick = rawStick;
-        }
-
-        // Check if value is inside the dead zone
-        if (stick >= 0.0){
-            if (Math.abs(stick) >= dz)
-                return (stick - dz)/(1 -  dz);
-            else
-                return 0.0;
-
-        }
-        else {
-            if (Math.abs(stick) >= dz)
-                return (stick + dz)/(1 - dz);
-            else
-                return 0.0;
-
-        }
-    }
-
-
 // Intake Control
 
     public void intakeControl()
@@ -66,6 +66,11 @@ public class TeleOpDM18_RelicLimitAdjuster extends OpMode {
     HardwareDM18 robot = new HardwareDM18(); // use the class created to define a Pushbot's hardware
     // could also use HardwarePushbotMatrix class.
 
+    // How each driver likes the sticks to feel, and the shaping for each stick we use
+    InputShaper.Profile driver2 = InputShaper.OPERATOR;
+    InputShaper relicInput;
+    InputShaper pivotInput;
+
 
     boolean intake = false;
     boolean resetLift = false;
@@ -98,6 +103,10 @@ public class TeleOpDM18_RelicLimitAdjuster extends OpMode {
          */
         robot.init(hardwareMap, true, true);
 
+        // Stick shaping times its slew limits on the robot clock
+        relicInput = new InputShaper(driver2, robot.clock);
+        pivotInput = new InputShaper(driver2, robot.clock);
+
 
 
         // Send telemetry message to signify robot waiting;
@@ -135,7 +144,7 @@ public class TeleOpDM18_RelicLimitAdjuster extends OpMode {
         if (gamepad2.left_stick_y > 0.2 || gamepad2.left_stick_y < -0.2) {
             robot.relic.relicMotor.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
             double relicPower = -gamepad2.left_stick_y;
-            relicPower = smoothPowerCurve(deadzone(relicPower, 0.20));
+            relicPower = relicInput.shape(relicPower);
             // Driver 2 control to slow down extension speed for fine adjustments
             if (gamepad2.right_bumper || gamepad2.left_bumper) {
                 relicPower = relicPower / 2;
@@ -150,7 +159,7 @@ public class TeleOpDM18_RelicLimitAdjuster extends OpMode {
         } else robot.relic.stopRelicExtension();
 
         if (gamepad2.right_stick_y > 0.2 || gamepad2.right_stick_y < -0.2) {
-            double speed = smoothPowerCurve(deadzone(-gamepad2.right_stick_y, 0.2));
+            double speed = pivotInput.shape(-gamepad2.right_stick_y);
             speed = (speed / (1 + robot.relic.relicPivot.getPosition()));
             if (gamepad2.left_bumper || gamepad2.right_bumper) {
                 speed = speed / 8;
@@ -189,63 +198,6 @@ public class TeleOpDM18_RelicLimitAdjuster extends OpMode {
     public void stop () {
     }
 
-    /**
-     * This does the cubic smoothing equation on joystick value.
-     * Assumes you have already done any deadzone processing.
-     *
-     * @param x  joystick input
-     * @return  smoothed value
-     */
-    protected double smoothPowerCurve (double x) {
-        //double a = this.getThrottle();
-        double a = 1.0;         // Hard code to max smoothing
-        double b = 0.05;      // Min power to overcome motor stall
-
-        if (x > 0.0)
-            return (b + (1.0-b)*(a*x*x*x+(1.0-a)*x));
-
-        else if (x<0.0)
-            return (-b + (1.0-b)*(a*x*x*x+(1.0-a)*x));
-        else return 0.0;
-    }
-
-    /**
-     * Add deadzone to a stick value
-     *
-     * @param rawStick  Raw value from joystick read -1.0 to 1.0
-     * @param dz   Deadzone value to use 0 to 0.999
-     * @return    Value after deadzone processing
-     */
-    protected double deadzone(double rawStick, double dz) {
-        double stick;
-
-        // Force limit to -1.0 to 1.0
-        if (rawStick > 1.0) {
-            stick = 1.0;
-        } else if (rawStick < -1.0) {
-            stick = -1.0;
-        } else {
-            stick = rawStick;
-        }
-
-        // Check if value is inside the dead zone
-        if (stick >= 0.0){
-            if (Math.abs(stick) >= dz)
-                return (stick - dz)/(1 -  dz);
-            else
-                return 0.0;
-
-        }
-        else {
-            if (Math.abs(stick) >= dz)
-                return (stick + dz)/(1 - dz);
-            else
-                return 0.0;
-
-        }
-    }
-
-
 // Intake Control
 
     public void intakeControl()
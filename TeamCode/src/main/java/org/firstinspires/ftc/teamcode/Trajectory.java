@@ -0,0 +1,173 @@
+package org.firstinspires.ftc.teamcode;
+
+/**
+ *    Speeds and times along a SplinePath for our tank drive, planned up front and looked up by
+ *    time since the move started, like MotionProfile does for a straight move.
+ *
+ *    The speed at each sample is the least of:
+ *      - maxVel
+ *      - what keeps the outside wheels at or under maxVel on a curve: v * (1 + |k| * W / 2)
+ *      - what we can reach from the start, and stop from before the end, at maxAccel
+ *    so the robot slows for tight curves and keeps going through gentle ones.
+ *
+ *    Everything is kept in plain arrays indexed like the path's samples: time, speed, and the
+ *    left and right wheel speeds and distances the follower drives to.
+ */
+public class Trajectory {
+
+    private final SplinePath path;
+    private final int n;
+    private final double[] t;
+    private final double[] vel;                 // Speed along the path, always +ve
+    private final double[] leftVel;             // Wheel speeds, +ve forward
+    private final double[] rightVel;
+    private final double[] leftPos;             // Wheel distances from the start, +ve forward
+    private final double[] rightPos;
+    private int cursor = 0;                     // Last lookup, times usually go up
+
+    /**
+     * @param path          Where to drive
+     * @param maxVel        Fastest a wheel can go, inches/sec
+     * @param maxAccel      Speeding up and slowing down along the path, inches/sec^2
+     * @param trackWidth    Inches between the left and right wheels
+     */
+    public Trajectory(SplinePath path, double maxVel, double maxAccel, double trackWidth) {
+        this.path = path;
+        n = path.size();
+        t = new double[n];
+        vel = new double[n];
+        leftVel = new double[n];
+        rightVel = new double[n];
+        leftPos = new double[n];
+        rightPos = new double[n];
+        if (n == 0) return;
+
+        // Curvature and speed limits
+        for (int i = 0; i < n; i++) {
+            vel[i] = maxVel / (1.0 + Math.abs(path.curvature(i)) * trackWidth / 2.0);
+        }
+
+        // Start and end stopped, and keep within maxAccel both ways
+        vel[0] = 0.0;
+        for (int i = 1; i < n; i++) {
+            double ds = path.distance(i) - path.distance(i - 1);
+            vel[i] = Math.min(vel[i], Math.sqrt(vel[i - 1] * vel[i - 1] + 2.0 * maxAccel * ds));
+        }
+        vel[n - 1] = 0.0;
+        for (int i = n - 2; i >= 0; i--) {
+            double ds = path.distance(i + 1) - path.distance(i);
+            vel[i] = Math.min(vel[i], Math.sqrt(vel[i + 1] * vel[i + 1] + 2.0 * maxAccel * ds));
+        }
+
+        // Time to each sample, and what each wheel does.  The robot turns at k * v; backing up,
+        // both wheels run backwards but the turn is the same.
+        double dir = path.isReversed() ? -1.0 : 1.0;
+        for (int i = 0; i < n; i++) {
+            if (i > 0) {
+                double ds = path.distance(i) - path.distance(i - 1);
+                double avg = 0.5 * (vel[i] + vel[i - 1]);
+                t[i] = t[i - 1] + ((avg > 1e-9) ? ds / avg : 0.0);
+            }
+            double turn = path.curvature(i) * vel[i] * trackWidth / 2.0;
+            leftVel[i] = dir * vel[i] - turn;
+            rightVel[i] = dir * vel[i] + turn;
+            if (i > 0) {
+                double dt = t[i] - t[i - 1];
+                leftPos[i] = leftPos[i - 1] + 0.5 * (leftVel[i] + leftVel[i - 1]) * dt;
+                rightPos[i] = rightPos[i - 1] + 0.5 * (rightVel[i] + rightVel[i - 1]) * dt;
+            }
+        }
+    }
+
+    public SplinePath getPath() {
+        return path;
+    }
+
+    /**
+     * @return  Seconds from start to the end of the path
+     */
+    public double duration() {
+        return (n > 0) ? t[n - 1] : 0.0;
+    }
+
+    public boolean isDone(double time) {
+        return time >= duration();
+    }
+
+    /**
+     * @return  Inches along the path at a time
+     */
+    public double distance(double time) {
+        int i = index(time);
+        return lerp(path.distance(i), path.distance(next(i)), frac(i, time));
+    }
+
+    public double velocity(double time) {
+        return lookup(vel, time);
+    }
+
+    /**
+     * @return  Heading the robot should face, degrees (not wrapped)
+     */
+    public double heading(double time) {
+        int i = index(time);
+        return lerp(path.heading(i), path.heading(next(i)), frac(i, time));
+    }
+
+    public double leftVelocity(double time) {
+        return lookup(leftVel, time);
+    }
+
+    public double rightVelocity(double time) {
+        return lookup(rightVel, time);
+    }
+
+    public double leftPosition(double time) {
+        return lookup(leftPos, time);
+    }
+
+    public double rightPosition(double time) {
+        return lookup(rightPos, time);
+    }
+
+    /**
+     * @return  Where the left wheels are at the end, inches from the start
+     */
+    public double leftDistance() {
+        return (n > 0) ? leftPos[n - 1] : 0.0;
+    }
+
+    public double rightDistance() {
+        return (n > 0) ? rightPos[n - 1] : 0.0;
+    }
+
+    // Linear interpolation between samples, holding the end values outside the path
+    private double lookup(double[] values, double time) {
+        int i = index(time);
+        return lerp(values[i], values[next(i)], frac(i, time));
+    }
+
+    // Last sample at or before a time
+    private int index(double time) {
+        if (n == 0) throw new IllegalStateException("Trajectory: empty path");
+        if (time <= 0.0) return cursor = 0;
+        if (time >= t[n - 1]) return cursor = n - 1;
+        if (t[cursor] > time) cursor = 0;
+        while (cursor < n - 1 && t[cursor + 1] <= time) cursor++;
+        return cursor;
+    }
+
+    private int next(int i) {
+        return Math.min(i + 1, n - 1);
+    }
+
+    private double frac(int i, double time) {
+        int j = next(i);
+        double span = t[j] - t[i];
+        return (span > 0.0) ? Math.max(0.0, Math.min(1.0, (time - t[i]) / span)) : 0.0;
+    }
+
+    private static double lerp(double a, double b, double f) {
+        return a + (b - a) * f;
+    }
+}
@@ -0,0 +1,16 @@
+package org.firstinspires.ftc.teamcode;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ *    Marks a static double or int constant that CalibrationStore may replace at init.  The field
+ *    must not be final.  Code reads it like any other static field; the source value is the
+ *    default when there is no calibration file.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Tunable {
+}
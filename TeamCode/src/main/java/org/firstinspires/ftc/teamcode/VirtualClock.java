@@ -0,0 +1,51 @@
+package org.firstinspires.ftc.teamcode;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *    Simulated time.  sleep() returns immediately after moving the clock forward, so code that
+ *    waits on this clock takes no real time at all.
+ *
+ *    Every nanoTime() read also moves the clock forward a little (READ_TICK_NS), standing in for
+ *    the time a loop pass takes on the robot.  Without it a loop that polls a timer or a sensor
+ *    without sleeping would never see time pass.
+ */
+public class VirtualClock implements Clock {
+
+    public static final long READ_TICK_NS = 50000;      // 50 us per read
+
+    final AtomicLong now = new AtomicLong(0);
+
+    @Override
+    public long nanoTime() {
+        return now.addAndGet(READ_TICK_NS);
+    }
+
+    /**
+     * @return  Current time without moving the clock.  For watching the clock from another thread.
+     */
+    public long peekNanoTime() {
+        return now.get();
+    }
+
+    @Override
+    public void sleep(long milliseconds) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (milliseconds > 0) {
+            advance(milliseconds * 1000000L);
+        }
+        // Let anything watching the clock (the simulated event loop) run
+        Thread.yield();
+    }
+
+    /**
+     * Move the clock forward
+     *
+     * @param nanos How far
+     */
+    public void advance(long nanos) {
+        now.addAndGet(nanos);
+    }
+}
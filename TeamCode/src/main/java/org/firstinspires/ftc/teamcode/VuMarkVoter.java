@@ -0,0 +1,181 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import org.firstinspires.ftc.robotcore.external.navigation.RelicRecoveryVuMark;
+import org.firstinspires.ftc.robotcore.external.navigation.VuforiaTrackable;
+
+import java.util.Locale;
+
+/**
+ *    Watches the VuMark on its own thread from init until auto asks for the column, so one bad
+ *    camera frame can't give us the wrong column or none at all.
+ *
+ *    Every SAMPLE_PERIOD_MS the column we see (if any) gets a vote.  Older votes fade with a time
+ *    constant of DECAY_SEC, so if the robot is moved during init the new view wins quickly.  The
+ *    column only counts once its votes are at least MIN_SCORE and MIN_SHARE of all the votes;
+ *    until then result() is UNKNOWN.
+ *
+ *    vote() can also be called directly, e.g. by a simulation with no camera.
+ */
+public class VuMarkVoter implements Runnable {
+
+    static final long   SAMPLE_PERIOD_MS = 50;      // Faster than this just sees the same frame
+    static final double DECAY_SEC = 2.0;            // Votes fade to a third in this long
+    static final double MIN_SCORE = 3.0;            // About three recent votes
+    static final double MIN_SHARE = 0.6;            // Of all the recent votes
+
+    // Columns we vote for, in RelicRecoveryVuMark order
+    static final RelicRecoveryVuMark[] COLUMNS = {
+            RelicRecoveryVuMark.LEFT, RelicRecoveryVuMark.CENTER, RelicRecoveryVuMark.RIGHT };
+
+    final VuforiaTrackable template;
+    final Clock clock;
+    final LinearOpMode opMode;
+
+    // Votes by column, as of lastVoteNanos
+    private final double[] score = new double[COLUMNS.length];
+    private long lastVoteNanos = -1;
+    private long samples = 0;
+    private long seen = 0;
+
+    private Thread thread = null;
+    private volatile boolean running = false;
+
+    /**
+     * @param template  VuMark trackable to read, null for none
+     * @param clock     Robot clock, for the vote decay and sample period
+     * @param opMode    Voter stops when this OpMode is stopped; null to only stop on stop()
+     */
+    public VuMarkVoter(VuforiaTrackable template, Clock clock, LinearOpMode opMode) {
+        this.template = template;
+        this.clock = clock;
+        this.opMode = opMode;
+    }
+
+    /**
+     *    Start watching.  Does nothing without a trackable, or on simulated time (a second
+     *    thread sleeping on a VirtualClock would move it forward).
+     */
+    public void start() {
+        if (template == null || clock instanceof VirtualClock || running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this, "VuMark voter");
+        thread.setDaemon(true);
+        thread.start();
+        RobotLog.i("DM10337 -- VuMark voter started");
+    }
+
+    /**
+     *    Stop watching.  result() keeps the votes so far.
+     */
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+            RobotLog.i("DM10337 -- VuMark voter stopped: " + this);
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running && !(opMode != null && opMode.isStopRequested())) {
+            long start = clock.nanoTime();
+            try {
+                vote(RelicRecoveryVuMark.from(template), clock.nanoTime());
+            } catch (RuntimeException e) {
+                // A bad frame shouldn't kill the thread
+                RobotLog.i("DM10337 -- VuMark read failed: " + e);
+            }
+            long waitMs = SAMPLE_PERIOD_MS - (clock.nanoTime() - start) / 1000000L;
+            try {
+                clock.sleep(Math.max(1, waitMs));
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+        running = false;
+    }
+
+    /**
+     * Count one camera frame
+     *
+     * @param mark      What the frame showed, UNKNOWN if no VuMark
+     * @param nanos     Clock time of the frame
+     */
+    public synchronized void vote(RelicRecoveryVuMark mark, long nanos) {
+        decayTo(nanos);
+        samples++;
+        int i = column(mark);
+        if (i >= 0) {
+            score[i] += 1.0;
+            seen++;
+        }
+    }
+
+    // Fade the votes to a time
+    private void decayTo(long nanos) {
+        if (lastVoteNanos >= 0 && nanos > lastVoteNanos) {
+            double keep = Math.exp(-(nanos - lastVoteNanos) / 1.0e9 / DECAY_SEC);
+            for (int i = 0; i < score.length; i++) score[i] *= keep;
+        }
+        if (nanos > lastVoteNanos) lastVoteNanos = nanos;
+    }
+
+    private static int column(RelicRecoveryVuMark mark) {
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (COLUMNS[i] == mark) return i;
+        }
+        return -1;
+    }
+
+    private int best() {
+        int best = 0;
+        for (int i = 1; i < score.length; i++) {
+            if (score[i] > score[best]) best = i;
+        }
+        return best;
+    }
+
+    private double total() {
+        double total = 0.0;
+        for (double s : score) total += s;
+        return total;
+    }
+
+    /**
+     * @return  The column most of the recent votes are for, or UNKNOWN if there aren't enough
+     *          votes or they don't agree
+     */
+    public synchronized RelicRecoveryVuMark result() {
+        int best = best();
+        double total = total();
+        if (score[best] >= MIN_SCORE && score[best] >= MIN_SHARE * total) {
+            return COLUMNS[best];
+        }
+        return RelicRecoveryVuMark.UNKNOWN;
+    }
+
+    /**
+     * @return  0 to 1: the leading column's share of the votes, less until it has MIN_SCORE
+     */
+    public synchronized double confidence() {
+        int best = best();
+        double total = total();
+        if (total <= 0.0) return 0.0;
+        return (score[best] / total) * Math.min(1.0, score[best] / MIN_SCORE);
+    }
+
+    /**
+     * @return  The column votes as they stand, for telemetry
+     */
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US, "%s (%.2f)  L %.1f C %.1f R %.1f  seen %d of %d",
+                result(), confidence(), score[0], score[1], score[2], seen, samples);
+    }
+}
@@ -0,0 +1,186 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ *    Waits for something on the robot to happen -- lift at the bottom, gripper done moving, etc.
+ *    Replaces our old "while (!done) sleep(1);" loops.
+ *
+ *    Every wait has a deadline, so a stuck lift or a missed limit switch costs us that much time
+ *    instead of the rest of auto.  Polling starts fast and backs off the longer we wait, so short
+ *    waits still react quickly but long ones don't read the hardware every millisecond.
+ *
+ *    Each call site keeps stats (how many waits, how long, how many timed out) that get logged at
+ *    the end of auto so we can see where the time went.
+ */
+public class Waiter {
+
+    /**
+     *    The thing we are waiting for.  Checked once per poll, so keep it quick.
+     */
+    public interface Condition {
+        boolean isMet();
+    }
+
+    /**
+     *    How often to check the condition.  First poll waits minMs, each poll after that waits
+     *    growth times as long, up to maxMs.
+     */
+    public static class PollPolicy {
+        public final long minMs;
+        public final long maxMs;
+        public final double growth;
+
+        public PollPolicy(long minMs, long maxMs, double growth) {
+            this.minMs = Math.max(1, minMs);
+            this.maxMs = Math.max(this.minMs, maxMs);
+            this.growth = Math.max(1.0, growth);
+        }
+    }
+
+    // Every millisecond -- for things that should be done almost right away (motor targets)
+    public static final PollPolicy TIGHT = new PollPolicy(1, 1, 1.0);
+    // Start fast, back off to 16 ms -- servos, lift moves
+    public static final PollPolicy BACKOFF = new PollPolicy(1, 16, 2.0);
+    // Waiting on a person
+    public static final PollPolicy RELAXED = new PollPolicy(10, 50, 1.5);
+
+    /**
+     *    Wait statistics for one call site
+     */
+    public static class Stats {
+        public final String site;
+        public int waits = 0;
+        public int timeouts = 0;
+        public long polls = 0;
+        public double totalMs = 0.0;
+        public double maxMs = 0.0;
+
+        Stats(String site) {
+            this.site = site;
+        }
+
+        public double avgMs() {
+            return (waits > 0) ? totalMs / waits : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: waits %d  avg %.1f ms  max %.1f ms  total %.1f ms  polls %d  timeouts %d",
+                    site, waits, avgMs(), maxMs, totalMs, polls, timeouts);
+        }
+    }
+
+    Clock clock = RealClock.INSTANCE;
+    LinearOpMode opMode = null;
+    private final Map<String, Stats> stats = new LinkedHashMap<String, Stats>();
+
+    public Waiter() {
+    }
+
+    /**
+     * @param clock     Clock to time waits and sleep on
+     * @param opMode    Stop waiting if this OpMode is stopped; null to not check
+     */
+    public Waiter(Clock clock, LinearOpMode opMode) {
+        this.clock = clock;
+        this.opMode = opMode;
+    }
+
+    /**
+     * Wait until a condition is met
+     *
+     * @param site          Name of the call site for the stats, e.g. "autoLoad lift reset"
+     * @param condition     What to wait for
+     * @param deadlineMs    Give up after this long
+     * @param policy        How often to check
+     * @return  True if the condition was met, false if we timed out or were stopped
+     */
+    public boolean waitUntil(String site, Condition condition, long deadlineMs, PollPolicy policy) {
+        long start = clock.nanoTime();
+        long deadline = start + deadlineMs * 1000000L;
+        double pollMs = policy.minMs;
+        long polls = 0;
+        boolean met;
+        boolean stopped = false;
+
+        while (true) {
+            polls++;
+            met = condition.isMet();
+            if (met) break;
+
+            long now = clock.nanoTime();
+            if (now >= deadline) break;
+            if (Thread.currentThread().isInterrupted() ||
+                    (opMode != null && opMode.isStopRequested())) {
+                stopped = true;
+                break;
+            }
+
+            // Don't sleep past the deadline
+            long sleepMs = Math.min((long) pollMs, Math.max(1, (deadline - now) / 1000000L));
+            try {
+                clock.sleep(sleepMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stopped = true;
+                break;
+            }
+            pollMs = Math.min(pollMs * policy.growth, policy.maxMs);
+        }
+
+        double waitedMs = (clock.nanoTime() - start) / 1.0e6;
+        record(site, waitedMs, polls, !met && !stopped);
+        if (!met && !stopped) {
+            RobotLog.i("DM10337 -- Wait timed out: " + site + " after " + deadlineMs + " ms");
+        }
+        return met;
+    }
+
+    private synchronized void record(String site, double waitedMs, long polls, boolean timedOut) {
+        Stats s = stats.get(site);
+        if (s == null) {
+            s = new Stats(site);
+            stats.put(site, s);
+        }
+        s.waits++;
+        s.polls += polls;
+        s.totalMs += waitedMs;
+        s.maxMs = Math.max(s.maxMs, waitedMs);
+        if (timedOut) s.timeouts++;
+    }
+
+    /**
+     * @return  Stats for a call site, or null if it hasn't waited yet
+     */
+    public synchronized Stats getStats(String site) {
+        return stats.get(site);
+    }
+
+    /**
+     *    Write the stats for every call site to the robot log, longest total wait first
+     */
+    public synchronized void logStats() {
+        Stats[] all = stats.values().toArray(new Stats[stats.size()]);
+        Arrays.sort(all, new Comparator<Stats>() {
+            @Override
+            public int compare(Stats a, Stats b) {
+                return Double.compare(b.totalMs, a.totalMs);
+            }
+        });
+        RobotLog.i("DM10337 -- Wait stats (" + all.length + " sites)");
+        for (Stats s : all) {
+            RobotLog.i("DM10337 --   " + s);
+        }
+    }
+
+    public synchronized void resetStats() {
+        stats.clear();
+    }
+}
@@ -0,0 +1,17 @@
+package android.content;
+
+import android.content.res.Resources;
+
+/**
+ * The app context, for the SDK classes that ask it for resource ids
+ */
+public class Context {
+
+    public String getPackageName() {
+        return "sim";
+    }
+
+    public Resources getResources() {
+        return new Resources();
+    }
+}
@@ -0,0 +1,11 @@
+package android.content.res;
+
+/**
+ * No resources off the phone; every lookup finds id 0
+ */
+public class Resources {
+
+    public int getIdentifier(String name, String defType, String defPackage) {
+        return 0;
+    }
+}
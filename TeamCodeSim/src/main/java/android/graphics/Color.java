@@ -0,0 +1,38 @@
+package android.graphics;
+
+/**
+ * Android's Color, for the color sensor code.  RGBToHSV() works the same as on the phone.
+ */
+public class Color {
+
+    public static final int WHITE = -1;
+
+    public static void RGBToHSV(int red, int green, int blue, float[] hsv) {
+        float r = red / 255f;
+        float g = green / 255f;
+        float b = blue / 255f;
+        float max = Math.max(r, Math.max(g, b));
+        float min = Math.min(r, Math.min(g, b));
+        float range = max - min;
+
+        float h;
+        if (range == 0) {
+            h = 0;
+        } else if (max == r) {
+            h = 60 * (((g - b) / range) % 6);
+        } else if (max == g) {
+            h = 60 * ((b - r) / range + 2);
+        } else {
+            h = 60 * ((r - g) / range + 4);
+        }
+        if (h < 0) h += 360;
+
+        hsv[0] = h;
+        hsv[1] = (max == 0) ? 0 : range / max;
+        hsv[2] = max;
+    }
+
+    public static int HSVToColor(int alpha, float[] hsv) {
+        return 0;
+    }
+}
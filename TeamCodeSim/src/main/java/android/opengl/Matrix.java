@@ -0,0 +1,50 @@
+package android.opengl;
+
+/**
+ * Enough of Android's Matrix for the SDK's OpenGLMatrix to load.  Only identity is simulated;
+ * nothing we simulate transforms matrices.
+ */
+public class Matrix {
+
+    public static void setIdentityM(float[] sm, int smOffset) {
+        for (int i = 0; i < 16; i++) {
+            sm[smOffset + i] = (i % 5 == 0) ? 1.0f : 0.0f;
+        }
+    }
+
+    public static void setRotateM(float[] rm, int rmOffset, float a, float x, float y, float z) {
+        throw new UnsupportedOperationException("Matrix not simulated");
+    }
+
+    public static void scaleM(float[] m, int mOffset, float x, float y, float z) {
+        throw new UnsupportedOperationException("Matrix not simulated");
+    }
+
+    public static void scaleM(float[] sm, int smOffset, float[] m, int mOffset, float x, float y, float z) {
+        throw new UnsupportedOperationException("Matrix not simulated");
+    }
+
+    public static void translateM(float[] m, int mOffset, float x, float y, float z) {
+        throw new UnsupportedOperationException("Matrix not simulated");
+    }
+
+    public static void translateM(float[] tm, int tmOffset, float[] m, int mOffset, float x, float y, float z) {
+        throw new UnsupportedOperationException("Matrix not simulated");
+    }
+
+    public static void rotateM(float[] m, int mOffset, float a, float x, float y, float z) {
+        throw new UnsupportedOperationException("Matrix not simulated");
+    }
+
+    public static void rotateM(float[] rm, int rmOffset, float[] m, int mOffset, float a, float x, float y, float z) {
+        throw new UnsupportedOperationException("Matrix not simulated");
+    }
+
+    public static boolean invertM(float[] mInv, int mInvOffset, float[] m, int mOffset) {
+        throw new UnsupportedOperationException("Matrix not simulated");
+    }
+
+    public static void multiplyMM(float[] result, int resultOffset, float[] lhs, int lhsOffset, float[] rhs, int rhsOffset) {
+        throw new UnsupportedOperationException("Matrix not simulated");
+    }
+}
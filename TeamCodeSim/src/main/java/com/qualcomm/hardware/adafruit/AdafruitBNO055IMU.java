@@ -0,0 +1,9 @@
+package com.qualcomm.hardware.adafruit;
+
+import com.qualcomm.hardware.bosch.BNO055IMU;
+
+/**
+ * Only looked up by type; SimImu stands in for the real one
+ */
+public abstract class AdafruitBNO055IMU implements BNO055IMU {
+}
@@ -0,0 +1,9 @@
+package com.qualcomm.hardware.lynx;
+
+import com.qualcomm.robotcore.hardware.HardwareDevice;
+
+/**
+ * An Expansion Hub.  The simulated robot has none, so BulkReader reads every device directly.
+ */
+public abstract class LynxModule implements HardwareDevice {
+}
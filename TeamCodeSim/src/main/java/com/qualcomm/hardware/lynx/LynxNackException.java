@@ -0,0 +1,4 @@
+package com.qualcomm.hardware.lynx;
+
+public class LynxNackException extends Exception {
+}
@@ -0,0 +1,17 @@
+package com.qualcomm.hardware.lynx.commands.core;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.hardware.lynx.LynxNackException;
+
+/**
+ * Never sent, since there are no hubs to send it to
+ */
+public class LynxGetBulkInputDataCommand {
+
+    public LynxGetBulkInputDataCommand(LynxModule module) {
+    }
+
+    public LynxGetBulkInputDataResponse sendReceive() throws LynxNackException, InterruptedException {
+        throw new UnsupportedOperationException("No Expansion Hubs in the simulator");
+    }
+}
@@ -0,0 +1,16 @@
+package com.qualcomm.hardware.lynx.commands.core;
+
+public class LynxGetBulkInputDataResponse {
+
+    public int getEncoder(int motorZ) {
+        return 0;
+    }
+
+    public boolean isAtTarget(int motorZ) {
+        return true;
+    }
+
+    public boolean getDigitalInput(int digitalInputZ) {
+        return true;
+    }
+}
@@ -0,0 +1,127 @@
+package com.qualcomm.robotcore.eventloop.opmode;
+
+/**
+ * Runs runOpMode() on its own thread like the SDK's LinearOpMode: init() starts it, start()
+ * releases waitForStart(), and stop() interrupts it and waits for it to end.  An exception from
+ * runOpMode() comes out of the next init_loop() or loop(), and the OpMode asks to be stopped
+ * once runOpMode() returns.
+ */
+public abstract class LinearOpMode extends OpMode {
+
+    private volatile boolean started = false;
+    private volatile boolean stopRequested = false;
+    private volatile boolean finished = false;
+    private volatile RuntimeException error = null;
+    private Thread thread;
+
+    public abstract void runOpMode() throws InterruptedException;
+
+    public synchronized void waitForStart() {
+        while (!started && !isStopRequested()) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public final void idle() {
+        Thread.yield();
+    }
+
+    public final void sleep(long milliseconds) {
+        try {
+            Thread.sleep(milliseconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public final boolean opModeIsActive() {
+        boolean active = started && !isStopRequested();
+        if (active) idle();
+        return active;
+    }
+
+    public final boolean isStarted() {
+        return started || Thread.currentThread().isInterrupted();
+    }
+
+    public final boolean isStopRequested() {
+        return stopRequested || Thread.currentThread().isInterrupted();
+    }
+
+    @Override
+    public final void init() {
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    runOpMode();
+                } catch (InterruptedException e) {
+                    // Stopped
+                } catch (RuntimeException e) {
+                    error = e;
+                } finally {
+                    finished = true;
+                }
+            }
+        }, "LinearOpMode");
+        thread.start();
+    }
+
+    @Override
+    public final void init_loop() {
+        check();
+    }
+
+    @Override
+    public final void start() {
+        synchronized (this) {
+            started = true;
+            notifyAll();
+        }
+    }
+
+    @Override
+    public final void loop() {
+        check();
+    }
+
+    @Override
+    public final void stop() {
+        stopRequested = true;
+        synchronized (this) {
+            notifyAll();
+        }
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void internalPostInitLoop() {
+        if (finished) requestOpModeStop();
+    }
+
+    @Override
+    public void internalPostLoop() {
+        if (finished) requestOpModeStop();
+    }
+
+    // Pass on what runOpMode() threw
+    private void check() {
+        if (error != null) {
+            RuntimeException e = error;
+            error = null;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.qualcomm.robotcore.eventloop.opmode;
+
+import com.qualcomm.robotcore.hardware.Gamepad;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.robotcore.internal.opmode.OpModeServices;
+
+/**
+ * The parts of the SDK's OpMode that SimRunner drives, without the event loop behind them
+ */
+public abstract class OpMode {
+
+    public Gamepad gamepad1 = new Gamepad();
+    public Gamepad gamepad2 = new Gamepad();
+    public Telemetry telemetry = new Telemetry();
+    public HardwareMap hardwareMap;
+    public OpModeServices internalOpModeServices;
+
+    public abstract void init();
+
+    public void init_loop() {
+    }
+
+    public void start() {
+    }
+
+    public abstract void loop();
+
+    public void stop() {
+    }
+
+    public void requestOpModeStop() {
+        internalOpModeServices.requestOpModeStop(this);
+    }
+
+    public void internalPreInit() {
+    }
+
+    public void internalPostInitLoop() {
+    }
+
+    public void internalPostLoop() {
+    }
+}
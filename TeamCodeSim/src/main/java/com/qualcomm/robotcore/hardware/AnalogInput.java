@@ -0,0 +1,6 @@
+package com.qualcomm.robotcore.hardware;
+
+public abstract class AnalogInput implements HardwareDevice {
+
+    public abstract double getVoltage();
+}
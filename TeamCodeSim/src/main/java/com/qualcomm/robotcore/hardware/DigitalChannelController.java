@@ -0,0 +1,15 @@
+package com.qualcomm.robotcore.hardware;
+
+/**
+ * Only the old Mode enum, which DigitalChannel still mentions
+ */
+public interface DigitalChannelController {
+
+    enum Mode {
+        INPUT, OUTPUT;
+
+        public DigitalChannel.Mode migrate() {
+            return (this == INPUT) ? DigitalChannel.Mode.INPUT : DigitalChannel.Mode.OUTPUT;
+        }
+    }
+}
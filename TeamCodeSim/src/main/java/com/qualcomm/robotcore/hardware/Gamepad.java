@@ -0,0 +1,31 @@
+package com.qualcomm.robotcore.hardware;
+
+/**
+ * The gamepad fields OpModes read.  Nobody presses anything in the simulator unless a test sets
+ * them.
+ */
+public class Gamepad {
+
+    public float left_stick_x;
+    public float left_stick_y;
+    public float right_stick_x;
+    public float right_stick_y;
+    public float left_trigger;
+    public float right_trigger;
+
+    public boolean dpad_up;
+    public boolean dpad_down;
+    public boolean dpad_left;
+    public boolean dpad_right;
+    public boolean a;
+    public boolean b;
+    public boolean x;
+    public boolean y;
+    public boolean guide;
+    public boolean start;
+    public boolean back;
+    public boolean left_bumper;
+    public boolean right_bumper;
+    public boolean left_stick_button;
+    public boolean right_stick_button;
+}
@@ -0,0 +1,89 @@
+package com.qualcomm.robotcore.hardware;
+
+import android.content.Context;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The SDK's HardwareMap without the configuration file behind it: SimHardwareMap puts the
+ * simulated devices in by name, and get() finds them by name and type like the real one.
+ */
+public class HardwareMap implements Iterable<HardwareDevice> {
+
+    public Context appContext;
+
+    final Map<String, List<HardwareDevice>> all = new HashMap<>();
+
+    public DeviceMapping<DcMotor> dcMotor = new DeviceMapping<>();
+    public DeviceMapping<Servo> servo = new DeviceMapping<>();
+    public DeviceMapping<ColorSensor> colorSensor = new DeviceMapping<>();
+    public DeviceMapping<DigitalChannel> digitalChannel = new DeviceMapping<>();
+    public DeviceMapping<TouchSensor> touchSensor = new DeviceMapping<>();
+
+    public HardwareMap(Context appContext) {
+        this.appContext = appContext;
+    }
+
+    public void put(String deviceName, HardwareDevice device) {
+        List<HardwareDevice> devices = all.get(deviceName);
+        if (devices == null) {
+            devices = new ArrayList<>();
+            all.put(deviceName, devices);
+        }
+        devices.add(device);
+    }
+
+    public <T> T get(Class<? extends T> classOrInterface, String deviceName) {
+        List<HardwareDevice> devices = all.get(deviceName);
+        if (devices != null) {
+            for (HardwareDevice device : devices) {
+                if (classOrInterface.isInstance(device)) return classOrInterface.cast(device);
+            }
+        }
+        throw new IllegalArgumentException("No " + classOrInterface.getSimpleName() + " named " + deviceName);
+    }
+
+    public <T> List<T> getAll(Class<? extends T> classOrInterface) {
+        List<T> result = new ArrayList<>();
+        for (List<HardwareDevice> devices : all.values()) {
+            for (HardwareDevice device : devices) {
+                if (classOrInterface.isInstance(device)) result.add(classOrInterface.cast(device));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Iterator<HardwareDevice> iterator() {
+        List<HardwareDevice> result = new ArrayList<>();
+        for (List<HardwareDevice> devices : all.values()) {
+            result.addAll(devices);
+        }
+        return result.iterator();
+    }
+
+    public class DeviceMapping<D extends HardwareDevice> implements Iterable<D> {
+
+        final Map<String, D> map = new HashMap<>();
+
+        public D get(String deviceName) {
+            D device = map.get(deviceName);
+            if (device == null) throw new IllegalArgumentException("No device named " + deviceName);
+            return device;
+        }
+
+        public void put(String deviceName, D device) {
+            map.put(deviceName, device);
+            HardwareMap.this.put(deviceName, device);
+        }
+
+        @Override
+        public Iterator<D> iterator() {
+            return map.values().iterator();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.qualcomm.robotcore.hardware.configuration;
+
+import org.firstinspires.ftc.robotcore.external.navigation.Rotation;
+
+/**
+ * Every simulated motor turns the same way as a NeveRest
+ */
+public class MotorConfigurationType {
+
+    public Rotation getOrientation() {
+        return Rotation.CW;
+    }
+}
@@ -0,0 +1,4 @@
+package com.qualcomm.robotcore.robocol;
+
+public class TelemetryMessage {
+}
@@ -0,0 +1,50 @@
+package com.qualcomm.robotcore.util;
+
+/**
+ * The robot log, printed to the console instead of logcat.  Verbose and debug lines are dropped;
+ * set quiet to drop everything but errors.
+ */
+public class RobotLog {
+
+    public static volatile boolean quiet = false;
+
+    public static void v(String message) {
+    }
+
+    public static void d(String message) {
+    }
+
+    public static void i(String message) {
+        if (!quiet) System.out.println(message);
+    }
+
+    public static void w(String message) {
+        if (!quiet) System.out.println("W " + message);
+    }
+
+    public static void e(String message) {
+        System.out.println("E " + message);
+    }
+
+    public static void vv(String tag, String message) {
+    }
+
+    public static void dd(String tag, String message) {
+    }
+
+    public static void ii(String tag, String message) {
+        if (!quiet) System.out.println(tag + " " + message);
+    }
+
+    public static void ww(String tag, String message) {
+        if (!quiet) System.out.println("W " + tag + " " + message);
+    }
+
+    public static void ee(String tag, String message) {
+        System.out.println("E " + tag + " " + message);
+    }
+
+    public static void ee(String tag, Throwable throwable, String message) {
+        System.out.println("E " + tag + " " + message + " " + throwable);
+    }
+}
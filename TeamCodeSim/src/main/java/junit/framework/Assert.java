@@ -0,0 +1,18 @@
+package junit.framework;
+
+/**
+ * Stand-in for the two Assert methods the SDK's navigation classes use
+ */
+public class Assert {
+    public static void assertTrue(boolean condition) {
+        if (!condition) throw new AssertionError();
+    }
+
+    public static void assertTrue(String message, boolean condition) {
+        if (!condition) throw new AssertionError(message);
+    }
+
+    public static void fail() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,13 @@
+package org.firstinspires.ftc.robotcore.external;
+
+import org.firstinspires.ftc.robotcore.external.navigation.VuforiaLocalizer;
+
+/**
+ * No camera off the phone.  AutoHelper carries on without Vuforia when it can't start.
+ */
+public class ClassFactory {
+
+    public static VuforiaLocalizer createVuforiaLocalizer(VuforiaLocalizer.Parameters parameters) {
+        throw new UnsupportedOperationException("No Vuforia in the simulator");
+    }
+}
@@ -0,0 +1,26 @@
+package org.firstinspires.ftc.robotcore.external;
+
+/**
+ * Driver station telemetry, which goes nowhere off the robot
+ */
+public class Telemetry {
+
+    public Object addData(String caption, Object value) {
+        return null;
+    }
+
+    public Object addData(String caption, String format, Object... args) {
+        return null;
+    }
+
+    public Object addLine(String line) {
+        return null;
+    }
+
+    public void clearAll() {
+    }
+
+    public boolean update() {
+        return true;
+    }
+}
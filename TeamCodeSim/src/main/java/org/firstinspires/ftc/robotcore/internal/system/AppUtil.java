@@ -0,0 +1,18 @@
+package org.firstinspires.ftc.robotcore.internal.system;
+
+import java.io.File;
+
+/**
+ * The phone's FIRST folder, under the simulator's build directory
+ */
+public class AppUtil {
+
+    public static final File FIRST_FOLDER = new File("build/FIRST");
+    public static final File ROBOT_DATA_DIR = new File(FIRST_FOLDER, "data");
+
+    private static final AppUtil instance = new AppUtil();
+
+    public static AppUtil getInstance() {
+        return instance;
+    }
+}